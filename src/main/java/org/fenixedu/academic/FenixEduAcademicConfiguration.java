@@ -80,6 +80,14 @@ public class FenixEduAcademicConfiguration {
 
         @ConfigurationProperty(key = "maximum.number.of.credits.for.enrolment", defaultValue = "40.5")
         public double getMaximumNumberOfCreditsForEnrolment();
+
+        @ConfigurationProperty(key = "queueJob.executor.workers", defaultValue = "0",
+                description = "The number of workers running the queue jobs on this server, or 0 to not run them")
+        public Integer getQueueJobExecutorWorkers();
+
+        @ConfigurationProperty(key = "startup.warmUp", defaultValue = "true",
+                description = "Whether to fill the indexes and caches used by most requests in the background on startup")
+        public Boolean getStartupWarmUp();
     }
 
     public static ConfigurationProperties getConfiguration() {
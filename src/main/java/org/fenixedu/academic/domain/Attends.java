@@ -31,6 +31,7 @@ import java.util.Comparator;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.academic.domain.student.Registration;
 import org.fenixedu.academic.domain.student.RegistrationDataByExecutionYear;
+import org.fenixedu.academic.domain.student.RegistrationYearFacts;
 import org.fenixedu.academic.domain.student.Student;
 import org.fenixedu.academic.util.Bundle;
 import org.fenixedu.bennu.core.domain.Bennu;
@@ -42,7 +43,9 @@ import org.fenixedu.bennu.core.i18n.BundleUtil;
  */
 public class Attends extends Attends_Base {
 
-
+    static {
+        RegistrationYearFacts.touchOnChange(getRelationExecutionCourseAttends());
+    }
 
     public static enum StudentAttendsStateType {
         ENROLED, NOT_ENROLED, IMPROVEMENT, SPECIAL_SEASON;
@@ -47,6 +47,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.WordUtils;
 import org.fenixedu.academic.domain.curriculum.grade.GradeScale;
 import org.fenixedu.academic.domain.degreeStructure.CompetenceCourseInformation;
+import org.fenixedu.academic.domain.degreeStructure.CompetenceCourseInformationTimeline;
 import org.fenixedu.academic.domain.degreeStructure.CompetenceCourseLevelType;
 import org.fenixedu.academic.domain.degreeStructure.CompetenceCourseType;
 import org.fenixedu.academic.domain.degreeStructure.Context;
@@ -142,37 +143,7 @@ public class CompetenceCourse extends CompetenceCourse_Base {
     }
 
     public CompetenceCourseInformation findInformationMostRecentUntil(final ExecutionInterval interval) {
-
-        if (interval == null) {
-            return getCompetenceCourseInformationsSet().stream()
-                    .max(CompetenceCourseInformation.COMPARATORY_BY_EXECUTION_INTERVAL).orElse(null);
-        }
-
-        // special case: if interval is year, normally is intended to check the info of its last period 
-        final ExecutionInterval childInterval =
-                interval instanceof ExecutionYear ? ((ExecutionYear) interval).getLastExecutionPeriod() : interval;
-
-        CompetenceCourseInformation result = null;
-
-        final List<CompetenceCourseInformation> orderedInformations = getCompetenceCourseInformationsSet().stream()
-                .sorted(CompetenceCourseInformation.COMPARATORY_BY_EXECUTION_INTERVAL).toList();
-
-        for (CompetenceCourseInformation information : orderedInformations) {
-            if (information.getExecutionInterval().isAfter(childInterval)) {
-                if (result != null) { // only return if there is an previous information already found
-                    return result;
-                }
-            } else {
-                result = information;
-            }
-        }
-
-        // if no result found and no explicit interval specified, return first information to attempt more null safety
-        if (result == null && !orderedInformations.isEmpty()) {
-            return orderedInformations.get(0);
-        }
-
-        return result;
+        return CompetenceCourseInformationTimeline.findMostRecentUntil(this, interval);
     }
 
     public String getName(final ExecutionInterval interval) {
@@ -39,6 +39,21 @@ public class Country extends Country_Base {
 
     private static final String STATELESS_COUNTRY_CODE = "XXA";
 
+    private static final ReferenceDataRegistry<Country> REGISTRY =
+            new ReferenceDataRegistry<>(() -> Bennu.getInstance().getCountrysSet());
+
+    private static final ReferenceDataRegistry.Index<Country> BY_CODE = REGISTRY.index(Country::getCode);
+
+    private static final ReferenceDataRegistry.Index<Country> BY_THREE_LETTER_CODE =
+            REGISTRY.index(Country::getThreeLetterCode);
+
+    private static final ReferenceDataRegistry.Index<Country> BY_DEFAULT =
+            REGISTRY.index(country -> Boolean.TRUE.equals(country.getDefaultCountry()) ? Boolean.TRUE : null);
+
+    static {
+        REGISTRY.invalidateOnChange(getRelationRootDomainObjectCountry());
+    }
+
     private Country() {
         super();
         setRootDomainObject(Bennu.getInstance());
@@ -67,6 +82,19 @@ public class Country extends Country_Base {
             }
         }
         super.setDefaultCountry(defaultCountry);
+        REGISTRY.invalidate();
+    }
+
+    @Override
+    public void setCode(final String code) {
+        super.setCode(code);
+        REGISTRY.invalidate();
+    }
+
+    @Override
+    public void setThreeLetterCode(final String threeLetterCode) {
+        super.setThreeLetterCode(threeLetterCode);
+        REGISTRY.invalidate();
     }
 
     // -------------------------------------------------------------
@@ -77,7 +105,7 @@ public class Country extends Country_Base {
      * @return default country
      */
     public static Country readDefault() {
-        return readAll().stream().filter(Country::isDefaultCountry).findAny().orElse(null);
+        return BY_DEFAULT.find(Boolean.TRUE).orElse(null);
     }
 
     public static Set<Country> readAll() {
@@ -97,13 +125,11 @@ public class Country extends Country_Base {
     }
 
     static public Country readByTwoLetterCode(String code) {
-        return StringUtils.isBlank(code) ? null : readAll().stream().filter(country -> code.equals(country.getCode())).findAny()
-                .orElse(null);
+        return StringUtils.isBlank(code) ? null : BY_CODE.find(code).orElse(null);
     }
 
     static public Country readByThreeLetterCode(String code) {
-        return StringUtils.isBlank(code) ? null : readAll().stream().filter(country -> code.equals(country.getThreeLetterCode()))
-                .findAny().orElse(null);
+        return StringUtils.isBlank(code) ? null : BY_THREE_LETTER_CODE.find(code).orElse(null);
     }
 
     @Deprecated
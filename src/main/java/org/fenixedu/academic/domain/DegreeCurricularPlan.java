@@ -391,17 +391,22 @@ public class DegreeCurricularPlan extends DegreeCurricularPlan_Base {
     public List<CurricularCourse> getCurricularCoursesWithExecutionIn(final ExecutionYear executionYear) {
         List<CurricularCourse> curricularCourses = new ArrayList<>();
         for (CurricularCourse curricularCourse : getCurricularCoursesSet()) {
-            for (ExecutionInterval executionInterval : executionYear.getChildIntervals()) {
-                List<ExecutionCourse> executionCourses = curricularCourse.getExecutionCoursesByExecutionPeriod(executionInterval);
-                if (!executionCourses.isEmpty()) {
-                    curricularCourses.add(curricularCourse);
-                    break;
-                }
+            if (hasExecutionIn(curricularCourse, executionYear)) {
+                curricularCourses.add(curricularCourse);
             }
         }
         return curricularCourses;
     }
 
+    private static boolean hasExecutionIn(final CurricularCourse curricularCourse, final ExecutionYear executionYear) {
+        for (ExecutionInterval executionInterval : executionYear.getChildIntervals()) {
+            if (!curricularCourse.getExecutionCoursesByExecutionPeriod(executionInterval).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public CurricularCourse getCurricularCourseByCode(final String code) {
         for (CurricularCourse curricularCourse : getCurricularCoursesSet()) {
             if (curricularCourse.getCode() != null && curricularCourse.getCode().equals(code)) {
@@ -833,9 +838,10 @@ public class DegreeCurricularPlan extends DegreeCurricularPlan_Base {
             final Integer curricularYear) {
         Set<CurricularCourse> result = new HashSet<>();
 
-        for (final CurricularCourse curricularCourse : getCurricularCoursesWithExecutionIn(executionYear)) {
-            if (curricularCourse.getParentContextsSet().stream()
-                    .anyMatch(ctx -> ctx.getCurricularYear().equals(curricularYear))) {
+        // the curricular year is checked first since it is much cheaper than looking for executions
+        for (final CurricularCourse curricularCourse : getCurricularCoursesSet()) {
+            if (curricularCourse.getParentContextsSet().stream().anyMatch(ctx -> ctx.getCurricularYear().equals(curricularYear))
+                    && hasExecutionIn(curricularCourse, executionYear)) {
                 result.add(curricularCourse);
             }
         }
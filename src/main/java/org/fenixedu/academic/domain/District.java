@@ -27,6 +27,17 @@ import org.fenixedu.bennu.core.domain.Bennu;
 //TODO: Refactor remaining object to use district instead of strings
 public class District extends District_Base {
 
+    private static final ReferenceDataRegistry<District> REGISTRY =
+            new ReferenceDataRegistry<>(() -> Bennu.getInstance().getDistrictsSet());
+
+    private static final ReferenceDataRegistry.Index<District> BY_CODE = REGISTRY.index(District::getCode);
+
+    private static final ReferenceDataRegistry.Index<District> BY_NAME = REGISTRY.index(District::getName);
+
+    static {
+        REGISTRY.invalidateOnChange(getRelationRootDomainObjectDistrict());
+    }
+
     private District() {
         super();
         setRootDomainObject(Bennu.getInstance());
@@ -42,6 +53,19 @@ public class District extends District_Base {
 
         super.setCode(code);
         super.setName(name);
+        REGISTRY.invalidate();
+    }
+
+    @Override
+    public void setCode(final String code) {
+        super.setCode(code);
+        REGISTRY.invalidate();
+    }
+
+    @Override
+    public void setName(final String name) {
+        super.setName(name);
+        REGISTRY.invalidate();
     }
 
     private void checkParameters(final String code, final String name) {
@@ -59,12 +83,10 @@ public class District extends District_Base {
     }
 
     public static Optional<District> findByCode(final String code) {
-        return StringUtils.isBlank(code) ? Optional.empty() : Bennu.getInstance().getDistrictsSet().stream()
-                .filter(district -> code.equals(district.getCode())).findFirst();
+        return StringUtils.isBlank(code) ? Optional.empty() : BY_CODE.find(code);
     }
 
     public static Optional<District> findByName(final String name) {
-        return StringUtils.isBlank(name) ? Optional.empty() : Bennu.getInstance().getDistrictsSet().stream()
-                .filter(district -> name.equals(district.getName())).findFirst();
+        return StringUtils.isBlank(name) ? Optional.empty() : BY_NAME.find(name);
     }
 }
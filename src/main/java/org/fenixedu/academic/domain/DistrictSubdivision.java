@@ -18,6 +18,7 @@
  */
 package org.fenixedu.academic.domain;
 
+import java.util.Locale;
 import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
@@ -27,6 +28,17 @@ import org.fenixedu.bennu.core.domain.Bennu;
 //TODO: Refactor remaining object to use district subdivision instead of strings
 public class DistrictSubdivision extends DistrictSubdivision_Base {
 
+    private static final ReferenceDataRegistry<DistrictSubdivision> REGISTRY =
+            new ReferenceDataRegistry<>(() -> Bennu.getInstance().getDistrictSubdivisionsSet());
+
+    // codes are found ignoring case
+    private static final ReferenceDataRegistry.Index<DistrictSubdivision> BY_CODE =
+            REGISTRY.index(ds -> ds.getCode() == null ? null : ds.getCode().toUpperCase(Locale.ROOT));
+
+    static {
+        REGISTRY.invalidateOnChange(getRelationRootDomainObjectDistrictSubdivision());
+    }
+
     private DistrictSubdivision() {
         super();
         super.setRootDomainObject(Bennu.getInstance());
@@ -43,6 +55,13 @@ public class DistrictSubdivision extends DistrictSubdivision_Base {
         super.setCode(code);
         super.setName(name);
         super.setDistrict(district);
+        REGISTRY.invalidate();
+    }
+
+    @Override
+    public void setCode(final String code) {
+        super.setCode(code);
+        REGISTRY.invalidate();
     }
 
     private void checkParameters(String code, String name, District district) {
@@ -62,7 +81,6 @@ public class DistrictSubdivision extends DistrictSubdivision_Base {
     }
 
     static public Optional<DistrictSubdivision> findByCode(final String code) {
-        return StringUtils.isBlank(code) ? Optional.empty() : Bennu.getInstance().getDistrictSubdivisionsSet().stream()
-                .filter(ds -> ds.getCode().equalsIgnoreCase(code)).findFirst();
+        return StringUtils.isBlank(code) ? Optional.empty() : BY_CODE.find(code.toUpperCase(Locale.ROOT));
     }
 }
@@ -41,7 +41,9 @@ import org.fenixedu.academic.domain.log.EnrolmentActionType;
 import org.fenixedu.academic.domain.log.EnrolmentLog;
 import org.fenixedu.academic.domain.organizationalStructure.Unit;
 import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.student.RegistrationYearFacts;
 import org.fenixedu.academic.domain.student.curriculum.Curriculum;
+import org.fenixedu.academic.domain.student.curriculum.CurriculumSnapshotCache;
 import org.fenixedu.academic.domain.student.curriculum.ICurriculumEntry;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumGroup;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumLine;
@@ -68,6 +70,10 @@ public class Enrolment extends Enrolment_Base implements IEnrolment {
 
     static final public Logger logger = LoggerFactory.getLogger(Enrolment.class);
 
+    static {
+        RegistrationYearFacts.touchOnChange(getRelationEnrolmentEnrolmentEvaluation());
+    }
+
     static final public Comparator<Enrolment> REVERSE_COMPARATOR_BY_EXECUTION_PERIOD_AND_ID = new Comparator<Enrolment>() {
         @Override
         public int compare(final Enrolment o1, final Enrolment o2) {
@@ -137,6 +143,16 @@ public class Enrolment extends Enrolment_Base implements IEnrolment {
         throw new DomainException("error.org.fenixedu.academic.domain.Enrolment.use.markAsExtraCurricular.method.instead");
     }
 
+    @Override
+    public void setEnrollmentState(final EnrollmentState enrollmentState) {
+        final boolean changed = getEnrollmentState() != enrollmentState;
+        super.setEnrollmentState(enrollmentState);
+        CurriculumSnapshotCache.invalidate();
+        if (changed) {
+            RegistrationYearFacts.touch(this);
+        }
+    }
+
     public void markAsExtraCurricular() {
         setCurriculumGroup(getStudentCurricularPlan().getExtraCurriculumGroup());
         super.setIsExtraCurricular(null);
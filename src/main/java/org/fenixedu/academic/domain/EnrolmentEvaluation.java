@@ -22,7 +22,9 @@ import org.fenixedu.academic.domain.curriculum.EnrollmentState;
 import org.fenixedu.academic.domain.curriculum.EnrolmentEvaluationContext;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.student.RegistrationYearFacts;
 import org.fenixedu.academic.domain.student.Student;
+import org.fenixedu.academic.domain.student.curriculum.CurriculumSnapshotCache;
 import org.fenixedu.academic.util.EnrolmentEvaluationState;
 import org.fenixedu.academic.util.FenixDigestUtils;
 import org.fenixedu.bennu.core.domain.Bennu;
@@ -316,6 +318,16 @@ public class EnrolmentEvaluation extends EnrolmentEvaluation_Base {
 
         // TODO remove this once we're sure migration to Grade went OK
         super.setGradeValue(grade.getValue());
+
+        CurriculumSnapshotCache.invalidate();
+        RegistrationYearFacts.touch(getEnrolment());
+    }
+
+    @Override
+    public void setEnrolmentEvaluationState(final EnrolmentEvaluationState enrolmentEvaluationState) {
+        super.setEnrolmentEvaluationState(enrolmentEvaluationState);
+        CurriculumSnapshotCache.invalidate();
+        RegistrationYearFacts.touch(getEnrolment());
     }
 
     @Deprecated
@@ -20,8 +20,9 @@ package org.fenixedu.academic.domain;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
 import org.fenixedu.academic.domain.exceptions.DomainException;
@@ -35,6 +36,9 @@ import org.fenixedu.commons.i18n.LocalizedString;
 import org.joda.time.LocalDate;
 import org.joda.time.YearMonthDay;
 
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
 public class ExecutionInterval extends ExecutionInterval_Base implements Comparable<ExecutionInterval> {
 
     public static final Comparator<ExecutionInterval> COMPARATOR_BY_BEGIN_DATE = new Comparator<ExecutionInterval>() {
@@ -45,6 +49,27 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
         }
     };
 
+    static {
+        invalidateRegistryOnChange(getRelationRootDomainObjectExecutionInterval());
+        invalidateRegistryOnChange(getRelationRootDomainObjectCurrentExecutionInterval());
+        invalidateRegistryOnChange(getRelationExecutionIntervalAcademicCalendarEntry());
+        invalidateRegistryOnChange(AcademicCalendarEntry.getRelationAcademicCalendarEntryAcademicCalendarEntry());
+    }
+
+    private static <A, B> void invalidateRegistryOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                ExecutionIntervalRegistry.invalidate();
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                ExecutionIntervalRegistry.invalidate();
+            }
+        });
+    }
+
     protected ExecutionInterval() {
         super();
         setRootDomainObject(Bennu.getInstance());
@@ -76,6 +101,19 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
             throw new DomainException("error.executionInterval.empty.state");
         }
         super.setState(state);
+        ExecutionIntervalRegistry.invalidate();
+    }
+
+    @Override
+    public void setBeginDateYearMonthDay(YearMonthDay beginDateYearMonthDay) {
+        super.setBeginDateYearMonthDay(beginDateYearMonthDay);
+        ExecutionIntervalRegistry.invalidate();
+    }
+
+    @Override
+    public void setEndDateYearMonthDay(YearMonthDay endDateYearMonthDay) {
+        super.setEndDateYearMonthDay(endDateYearMonthDay);
+        ExecutionIntervalRegistry.invalidate();
     }
 
     public void changeState(final PeriodState newState) {
@@ -145,12 +183,7 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
     }
 
     public static ExecutionInterval getExecutionInterval(String qualifiedName) {
-        for (ExecutionInterval interval : Bennu.getInstance().getExecutionIntervalsSet()) {
-            if (interval.getQualifiedName().equals(qualifiedName)) {
-                return interval;
-            }
-        }
-        return null;
+        return ExecutionIntervalRegistry.getInstance().findByQualifiedName(qualifiedName);
     }
 
     public static ExecutionInterval getExecutionInterval(AcademicInterval academicInterval) {
@@ -295,8 +328,7 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
      * @return collection of ExecutionIntervals
      */
     public static Collection<ExecutionInterval> findActiveAggregators() {
-        return Bennu.getInstance().getExecutionIntervalsSet().stream().filter(ei -> ei instanceof ExecutionYear)
-                .filter(ExecutionInterval::isActive).collect(Collectors.toSet());
+        return new HashSet<>(ExecutionIntervalRegistry.getInstance().getActiveAggregators());
     }
 
     /**
@@ -305,8 +337,7 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
      * @return collection of ExecutionIntervals
      */
     public static Collection<ExecutionInterval> findAllAggregators() {
-        return Bennu.getInstance().getExecutionIntervalsSet().stream().filter(ei -> ei.isAggregator())
-                .collect(Collectors.toSet());
+        return new HashSet<>(ExecutionIntervalRegistry.getInstance().getAggregators());
     }
 
     /**
@@ -318,9 +349,7 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
      */
     public static Collection<ExecutionInterval> findActiveAggregators(final AcademicCalendarRootEntry calendar) {
         final AcademicCalendarEntry calendarToCheck = calendar != null ? calendar : AcademicCalendarEntry.findDefaultCalendar();
-        return Bennu.getInstance().getExecutionIntervalsSet().stream().filter(ei -> ei instanceof ExecutionYear)
-                .filter(ExecutionInterval::isActive).filter(ei -> ei.getAcademicCalendar() == calendarToCheck)
-                .collect(Collectors.toSet());
+        return new HashSet<>(ExecutionIntervalRegistry.getInstance().getActiveAggregators(calendarToCheck));
     }
 
     /**
@@ -332,8 +361,7 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
      */
     public static Collection<ExecutionInterval> findAllAggregators(final AcademicCalendarRootEntry calendar) {
         final AcademicCalendarEntry calendarToCheck = calendar != null ? calendar : AcademicCalendarEntry.findDefaultCalendar();
-        return Bennu.getInstance().getExecutionIntervalsSet().stream().filter(ei -> ei.isAggregator())
-                .filter(ei -> ei.getAcademicCalendar() == calendarToCheck).collect(Collectors.toSet());
+        return new HashSet<>(ExecutionIntervalRegistry.getInstance().getAggregators(calendarToCheck));
     }
 
     /**
@@ -350,7 +378,7 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
     }
 
     public static Collection<ExecutionInterval> findActiveChilds() {
-        return findAllChilds().stream().filter(ExecutionInterval::isActive).collect(Collectors.toSet());
+        return new HashSet<>(ExecutionIntervalRegistry.getInstance().getActiveChilds());
     }
 
     /**
@@ -362,13 +390,11 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
      */
     public static Collection<ExecutionInterval> findActiveChilds(final AcademicCalendarRootEntry calendar) {
         final AcademicCalendarEntry calendarToCheck = calendar != null ? calendar : AcademicCalendarEntry.findDefaultCalendar();
-        return findAllChilds().stream().filter(ExecutionInterval::isActive)
-                .filter(ei -> ei.getAcademicCalendar() == calendarToCheck).collect(Collectors.toSet());
+        return new HashSet<>(ExecutionIntervalRegistry.getInstance().getActiveChilds(calendarToCheck));
     }
 
     public static Collection<ExecutionInterval> findAllChilds() {
-        return Bennu.getInstance().getExecutionIntervalsSet().stream().filter(ei -> !(ei instanceof ExecutionYear))
-                .collect(Collectors.toSet());
+        return new HashSet<>(ExecutionIntervalRegistry.getInstance().getChilds());
     }
 
     /**
@@ -381,54 +407,43 @@ public class ExecutionInterval extends ExecutionInterval_Base implements Compara
      */
     public static ExecutionInterval findCurrentChild(final AcademicPeriod type, final AcademicCalendarRootEntry calendar) {
         final AcademicCalendarEntry calendarToCheck = calendar != null ? calendar : AcademicCalendarEntry.findDefaultCalendar();
-        return findCurrentsChilds().stream().filter(ey -> ey.getAcademicCalendar() == calendarToCheck)
+        return ExecutionIntervalRegistry.getInstance().getCurrentChilds(calendarToCheck).stream()
                 .filter(ei -> type != null && type.equals(ei.getAcademicPeriod())).findFirst().orElse(null);
     }
 
     public static Collection<ExecutionInterval> findCurrentsChilds() {
-        return Bennu.getInstance().getCurrentExecutionIntervalsSet().stream().filter(ei -> !ei.isAggregator())
-                .filter(ExecutionInterval::isCurrent).collect(Collectors.toSet());
+        return new HashSet<>(ExecutionIntervalRegistry.getInstance().getCurrentChilds());
     }
 
     public static ExecutionInterval findFirstCurrentChild(final AcademicCalendarRootEntry calendar) {
-        return findCurrentChilds(calendar).stream().min(Comparator.naturalOrder()).orElse(null);
-    }
-
-    /**
-     * Returns current ExecutionIntervals for provided calendar.
-     * If provided calendar is null, use default academic calendar
-     * 
-     * @param calendar the calendar to search in
-     * @return the current ExecutionInterval
-     */
-    private static Collection<ExecutionInterval> findCurrentChilds(final AcademicCalendarRootEntry calendar) {
         final AcademicCalendarEntry calendarToCheck = calendar != null ? calendar : AcademicCalendarEntry.findDefaultCalendar();
-        return findCurrentsChilds().stream().filter(ey -> ey.getAcademicInterval().getAcademicCalendar() == calendarToCheck)
-                .collect(Collectors.toSet());
+        return ExecutionIntervalRegistry.getInstance().getCurrentChilds(calendarToCheck).stream().findFirst().orElse(null);
     }
 
     @Deprecated
     public static ExecutionInterval findFirstChild() {
-        return findAllChilds().stream().min(Comparator.naturalOrder()).orElse(null);
+        return ExecutionIntervalRegistry.getInstance().getChilds().stream().findFirst().orElse(null);
     }
 
     public static Optional<ExecutionInterval> findFirstChild(final AcademicCalendarEntry calendar) {
         final AcademicCalendarEntry calendarToCheck =
                 calendar != null ? calendar.getRootEntry() : AcademicCalendarEntry.findDefaultCalendar();
 
-        return findAllChilds().stream().filter(ei -> ei.getAcademicCalendar() == calendarToCheck).min(Comparator.naturalOrder());
+        return ExecutionIntervalRegistry.getInstance().getChilds(calendarToCheck).stream().findFirst();
     }
 
     @Deprecated
     public static ExecutionInterval findLastChild() {
-        return findAllChilds().stream().max(Comparator.naturalOrder()).orElse(null);
+        final List<ExecutionInterval> childs = ExecutionIntervalRegistry.getInstance().getChilds();
+        return childs.isEmpty() ? null : childs.get(childs.size() - 1);
     }
 
     public static Optional<ExecutionInterval> findLastChild(final AcademicCalendarEntry calendar) {
         final AcademicCalendarEntry calendarToCheck =
                 calendar != null ? calendar.getRootEntry() : AcademicCalendarEntry.findDefaultCalendar();
 
-        return findAllChilds().stream().filter(ei -> ei.getAcademicCalendar() == calendarToCheck).max(Comparator.naturalOrder());
+        final List<ExecutionInterval> childs = ExecutionIntervalRegistry.getInstance().getChilds(calendarToCheck);
+        return childs.isEmpty() ? Optional.empty() : Optional.of(childs.get(childs.size() - 1));
     }
 
     public AcademicPeriod getAcademicPeriod() {
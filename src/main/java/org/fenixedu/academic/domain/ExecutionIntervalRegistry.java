@@ -0,0 +1,300 @@
+package org.fenixedu.academic.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.fenixedu.academic.domain.time.calendarStructure.AcademicCalendarEntry;
+import org.fenixedu.academic.domain.time.calendarStructure.AcademicPeriod;
+import org.fenixedu.academic.util.PeriodState;
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.joda.time.LocalDate;
+import org.joda.time.YearMonthDay;
+
+/**
+ * Immutable snapshot of the {@link ExecutionInterval}s, sorted by their natural order and grouped by academic calendar and
+ * academic period, used to answer the current, active, first and last interval queries without going through all
+ * intervals on each call. Intervals are also kept sorted by begin date, so that the intervals of a date, or of a date range,
+ * are found with a binary search.
+ *
+ * The registry is a view of the {@link ReferenceDataRegistry} of the intervals, built again when their state, dates or
+ * calendar entries change, or which ones are current. Qualified names depend on the titles of the calendar entries, so they
+ * are checked on each lookup.
+ */
+public class ExecutionIntervalRegistry {
+
+    private static final ReferenceDataRegistry<ExecutionInterval> REGISTRY =
+            new ReferenceDataRegistry<ExecutionInterval>(() -> Bennu.getInstance().getExecutionIntervalsSet())
+                    .track(ExecutionInterval::getState).track(ExecutionInterval::getBeginDateYearMonthDay)
+                    .track(ExecutionInterval::getEndDateYearMonthDay).track(ExecutionInterval::getAcademicCalendarEntry)
+                    .track(ExecutionInterval::getAcademicCalendar).track(ExecutionIntervalRegistry::isCurrent);
+
+    private static final ReferenceDataRegistry.View<ExecutionInterval, ExecutionIntervalRegistry> VIEW =
+            REGISTRY.view(ExecutionIntervalRegistry::new);
+
+    private static boolean isCurrent(final ExecutionInterval interval) {
+        return Bennu.getInstance().getCurrentExecutionIntervalsSet().contains(interval);
+    }
+
+    private static record Entry(ExecutionInterval interval, PeriodState state, YearMonthDay begin, YearMonthDay end,
+            AcademicCalendarEntry calendar, boolean current) {
+
+        private static Entry of(final ExecutionInterval interval) {
+            return new Entry(interval, interval.getState(), interval.getBeginDateYearMonthDay(),
+                    interval.getEndDateYearMonthDay(), interval.getAcademicCalendar(), isCurrent(interval));
+        }
+    }
+
+    /**
+     * Intervals of a calendar, or of all calendars, each list sorted by the natural order of the intervals.
+     */
+    private static class Intervals {
+
+        private final List<ExecutionInterval> aggregators = new ArrayList<>();
+
+        private final List<ExecutionInterval> activeAggregators = new ArrayList<>();
+
+        private final List<ExecutionInterval> childs = new ArrayList<>();
+
+        private final List<ExecutionInterval> activeChilds = new ArrayList<>();
+
+        private final List<ExecutionInterval> currentChilds = new ArrayList<>();
+
+        private final Map<AcademicPeriod, List<ExecutionInterval>> byAcademicPeriod = new HashMap<>();
+
+        private void add(final Entry entry) {
+            final ExecutionInterval interval = entry.interval();
+            final boolean active = entry.state() == PeriodState.CURRENT || entry.state() == PeriodState.OPEN;
+            final boolean current = entry.current() && entry.state() == PeriodState.CURRENT;
+
+            if (interval.isAggregator()) {
+                aggregators.add(interval);
+                addIf(active, activeAggregators, interval);
+            } else {
+                childs.add(interval);
+                addIf(active, activeChilds, interval);
+                addIf(current, currentChilds, interval);
+            }
+
+            final AcademicPeriod academicPeriod = interval.getAcademicPeriod();
+            if (academicPeriod != null) {
+                byAcademicPeriod.computeIfAbsent(academicPeriod, p -> new ArrayList<>()).add(interval);
+            }
+        }
+
+        private static void addIf(final boolean condition, final List<ExecutionInterval> list,
+                final ExecutionInterval interval) {
+            if (condition) {
+                list.add(interval);
+            }
+        }
+    }
+
+    /**
+     * Intervals sorted by begin date, with the instants where they begin and end (exclusive), in the default time zone.
+     */
+    private static class Timeline {
+
+        private final ExecutionInterval[] intervals;
+
+        private final long[] begins;
+
+        private final long[] ends;
+
+        // the latest end of the intervals up to each position, to stop looking back for intervals containing an instant
+        private final long[] maxEnds;
+
+        private Timeline(final List<Entry> entries) {
+            final List<Entry> sorted = entries.stream().filter(e -> e.begin() != null && e.end() != null)
+                    .sorted(Comparator.comparing(Entry::begin).thenComparing(Entry::interval)).toList();
+
+            this.intervals = new ExecutionInterval[sorted.size()];
+            this.begins = new long[sorted.size()];
+            this.ends = new long[sorted.size()];
+            this.maxEnds = new long[sorted.size()];
+            for (int i = 0; i < intervals.length; i++) {
+                final Entry entry = sorted.get(i);
+                intervals[i] = entry.interval();
+                begins[i] = entry.begin().toDateMidnight().getMillis();
+                ends[i] = entry.end().plusDays(1).toDateMidnight().getMillis();
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        /**
+         * @return the intervals that contain any instant in [begin, end], in begin date order
+         */
+        private List<ExecutionInterval> find(final long begin, final long end) {
+            int low = 0;
+            int high = begins.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (begins[middle] <= end) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            final List<ExecutionInterval> result = new ArrayList<>();
+            for (int i = low - 1; i >= 0 && maxEnds[i] > begin; i--) {
+                if (ends[i] > begin) {
+                    result.add(intervals[i]);
+                }
+            }
+            Collections.reverse(result);
+            return result;
+        }
+    }
+
+    private final List<ExecutionInterval> all;
+
+    private final Intervals allCalendars = new Intervals();
+
+    private final Map<AcademicCalendarEntry, Intervals> byCalendar = new HashMap<>();
+
+    private final Timeline intervalsByDate;
+
+    private final Timeline yearsByDate;
+
+    private volatile Map<String, ExecutionInterval> byQualifiedName = null;
+
+    private ExecutionIntervalRegistry(final Set<ExecutionInterval> intervals) {
+        this.all = intervals.stream().sorted().toList();
+        final List<Entry> entries = all.stream().map(Entry::of).toList();
+        for (final Entry entry : entries) {
+            allCalendars.add(entry);
+            byCalendar.computeIfAbsent(entry.calendar(), c -> new Intervals()).add(entry);
+        }
+
+        this.intervalsByDate = new Timeline(entries);
+        this.yearsByDate = new Timeline(entries.stream().filter(e -> e.interval() instanceof ExecutionYear).toList());
+    }
+
+    /**
+     * @return the registry matching the execution intervals seen by the current transaction
+     */
+    public static ExecutionIntervalRegistry getInstance() {
+        return VIEW.get();
+    }
+
+    /**
+     * Makes the current transaction check the registry again, after changing execution intervals.
+     */
+    public static void invalidate() {
+        REGISTRY.invalidate();
+    }
+
+    private Intervals getIntervals(final AcademicCalendarEntry calendar) {
+        final Intervals result = byCalendar.get(calendar);
+        return result != null ? result : new Intervals();
+    }
+
+    /**
+     * @return all execution intervals, sorted by their natural order
+     */
+    public List<ExecutionInterval> getAll() {
+        return all;
+    }
+
+    public List<ExecutionInterval> getAggregators() {
+        return Collections.unmodifiableList(allCalendars.aggregators);
+    }
+
+    public List<ExecutionInterval> getAggregators(final AcademicCalendarEntry calendar) {
+        return Collections.unmodifiableList(getIntervals(calendar).aggregators);
+    }
+
+    public List<ExecutionInterval> getActiveAggregators() {
+        return Collections.unmodifiableList(allCalendars.activeAggregators);
+    }
+
+    public List<ExecutionInterval> getActiveAggregators(final AcademicCalendarEntry calendar) {
+        return Collections.unmodifiableList(getIntervals(calendar).activeAggregators);
+    }
+
+    public List<ExecutionInterval> getChilds() {
+        return Collections.unmodifiableList(allCalendars.childs);
+    }
+
+    public List<ExecutionInterval> getChilds(final AcademicCalendarEntry calendar) {
+        return Collections.unmodifiableList(getIntervals(calendar).childs);
+    }
+
+    public List<ExecutionInterval> getActiveChilds() {
+        return Collections.unmodifiableList(allCalendars.activeChilds);
+    }
+
+    public List<ExecutionInterval> getActiveChilds(final AcademicCalendarEntry calendar) {
+        return Collections.unmodifiableList(getIntervals(calendar).activeChilds);
+    }
+
+    public List<ExecutionInterval> getCurrentChilds() {
+        return Collections.unmodifiableList(allCalendars.currentChilds);
+    }
+
+    public List<ExecutionInterval> getCurrentChilds(final AcademicCalendarEntry calendar) {
+        return Collections.unmodifiableList(getIntervals(calendar).currentChilds);
+    }
+
+    public List<ExecutionInterval> getIntervals(final AcademicCalendarEntry calendar, final AcademicPeriod academicPeriod) {
+        return Collections.unmodifiableList(getIntervals(calendar).byAcademicPeriod.getOrDefault(academicPeriod, List.of()));
+    }
+
+    /**
+     * @return the intervals that include any day between the provided dates, in begin date order
+     */
+    public List<ExecutionInterval> findOverlapping(final LocalDate begin, final LocalDate end) {
+        return intervalsByDate.find(begin.toDateMidnight().getMillis(), end.plusDays(1).toDateMidnight().getMillis() - 1);
+    }
+
+    /**
+     * @see ExecutionYear#containsDate(org.joda.time.DateTime)
+     * @return the execution year that contains the instant, or null if none does
+     */
+    public ExecutionYear findExecutionYear(final long instant) {
+        final List<ExecutionInterval> result = yearsByDate.find(instant, instant);
+        return result.isEmpty() ? null : (ExecutionYear) result.get(0);
+    }
+
+    /**
+     * @return the first execution year that begins in the provided civil year, or null if none does
+     */
+    public ExecutionYear findExecutionYearBeginningIn(final int year) {
+        for (final ExecutionInterval interval : yearsByDate.intervals) {
+            final int beginYear = interval.getBeginDateYearMonthDay().getYear();
+            if (beginYear == year) {
+                return (ExecutionYear) interval;
+            } else if (beginYear > year) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @see ExecutionInterval#getQualifiedName()
+     */
+    public ExecutionInterval findByQualifiedName(final String qualifiedName) {
+        Map<String, ExecutionInterval> index = byQualifiedName;
+        if (index == null) {
+            index = new HashMap<>();
+            for (final ExecutionInterval interval : all) {
+                index.putIfAbsent(interval.getQualifiedName(), interval);
+            }
+            byQualifiedName = index;
+        }
+
+        // titles of calendar entries may have changed since the index was built
+        final ExecutionInterval result = index.get(qualifiedName);
+        if (result != null && result.getQualifiedName().equals(qualifiedName)) {
+            return result;
+        }
+        return all.stream().filter(ei -> ei.getQualifiedName().equals(qualifiedName)).findFirst().orElse(null);
+    }
+
+}
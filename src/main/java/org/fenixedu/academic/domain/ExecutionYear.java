@@ -21,10 +21,7 @@ package org.fenixedu.academic.domain;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -298,78 +295,32 @@ public class ExecutionYear extends ExecutionYear_Base {
         return null;
     }
 
+    /**
+     * @deprecated use {@link #readByDateTime(DateTime)} and {@link #readByPartial(Partial)}, which are answered by
+     *             {@link ExecutionIntervalRegistry}
+     */
+    @Deprecated
     public static class ExecutionYearSearchCache {
-        private final Map<Integer, Set<ExecutionYear>> map = new HashMap<Integer, Set<ExecutionYear>>();
-
-        private Set<ExecutionYear> updateIfNeeded(final Integer year) {
-            Set<ExecutionYear> result = map.get(year);
-
-            // for a given civil year, a maximum of two ExecutionYear can be indexed => must update cache if only one ExecutionYear is cached
-            if (result == null || result.size() < 2) {
-                for (final ExecutionYear executionYear : Bennu.getInstance().getExecutionYearsSet()) {
-                    add(executionYear);
-                }
-                result = map.get(year);
-            }
-
-            return result;
-        }
 
         public ExecutionYear findByDateTime(final DateTime dateTime) {
-            final Integer year = Integer.valueOf(dateTime.getYear());
-            final Set<ExecutionYear> executionYears = updateIfNeeded(year);
-            if (executionYears != null) {
-                for (final ExecutionYear executionYear : executionYears) {
-                    if (executionYear.containsDate(dateTime)) {
-                        return executionYear;
-                    }
-                }
-            }
-            return null;
+            return ExecutionIntervalRegistry.getInstance().findExecutionYear(dateTime.getMillis());
         }
 
         public ExecutionYear findByPartial(final Partial partial) {
-            final Integer year = Integer.valueOf(partial.get(DateTimeFieldType.year()));
-            final Set<ExecutionYear> executionYears = updateIfNeeded(year);
-            if (executionYears != null) {
-                for (final ExecutionYear executionYear : executionYears) {
-                    if (executionYear.getBeginDateYearMonthDay().getYear() == year) {
-                        return executionYear;
-                    }
-                }
-            }
-            return null;
-        }
-
-        private void add(final ExecutionYear executionYear) {
-            final Integer year1 = executionYear.getBeginDateYearMonthDay().getYear();
-            final Integer year2 = executionYear.getEndDateYearMonthDay().getYear();
-            add(executionYear, year1);
-            add(executionYear, year2);
-        }
-
-        private void add(final ExecutionYear executionYear, final Integer year) {
-            Set<ExecutionYear> executionYears = map.get(year);
-            if (executionYears == null) {
-                executionYears = new HashSet<ExecutionYear>();
-                map.put(year, executionYears);
-            }
-            executionYears.add(executionYear);
+            return ExecutionIntervalRegistry.getInstance().findExecutionYearBeginningIn(partial.get(DateTimeFieldType.year()));
         }
     }
 
-    private static final ExecutionYearSearchCache executionYearSearchCache = new ExecutionYearSearchCache();
-
     static public ExecutionYear readByDateTime(final DateTime dateTime) {
-        return executionYearSearchCache.findByDateTime(dateTime);
+        return ExecutionIntervalRegistry.getInstance().findExecutionYear(dateTime.getMillis());
     }
 
     static public ExecutionYear readByDateTime(final LocalDate localDate) {
-        return executionYearSearchCache.findByDateTime(localDate.toDateTimeAtCurrentTime());
+        return readByDateTime(localDate.toDateTimeAtCurrentTime());
     }
 
     static public ExecutionYear readByPartial(final Partial partial) {
-        return executionYearSearchCache.findByPartial(partial);
+        return ExecutionIntervalRegistry.getInstance().findExecutionYearBeginningIn(partial.get(DateTimeFieldType.year()));
     }
 
     public static ExecutionYear readBy(final YearMonthDay begin, YearMonthDay end) {
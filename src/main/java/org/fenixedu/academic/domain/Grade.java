@@ -20,8 +20,8 @@ package org.fenixedu.academic.domain;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fenixedu.academic.domain.curriculum.EnrollmentState;
 import org.fenixedu.academic.domain.curriculum.grade.GradeScale;
@@ -32,12 +32,30 @@ public class Grade implements Serializable, Comparable<Grade> {
 
     private static Grade emptyGrade = new EmptyGrade();
 
-    private static Map<String, Grade> gradeMap = new HashMap<String, Grade>();
+    /*
+     * Grades are interned by scale and value, both as given and normalized, and by their exported form, so that reading
+     * persisted grades neither parses them nor looks up their scale again. The grades of a scale are kept with the version of
+     * the scale they were validated against, and only used by the transactions that see that version, see
+     * GradeScale#validateCaches()
+     */
+    private static record Grades(int version, Map<String, Grade> byValue) {
+    }
+
+    private static final Map<GradeScale, Grades> GRADES = new ConcurrentHashMap<>();
+
+    private static final Map<String, Grade> IMPORTED_GRADES = new ConcurrentHashMap<>();
+
+    private static record Facts(int version, boolean approved, boolean notApproved, Integer gradeOrder, boolean continuous) {
+    }
 
     private final String value;
 
     private final GradeScale gradeScale;
-    
+
+    private transient volatile BigDecimal numericValue;
+
+    private transient volatile Facts facts;
+
     protected Grade() {
         value = null;
         gradeScale = null;
@@ -58,11 +76,63 @@ public class Grade implements Serializable, Comparable<Grade> {
 
     @Override
     public int compareTo(final Grade otherGrade) {
-        return gradeScale.compareGrades(this, otherGrade);
+        if (otherGrade == null || otherGrade.isEmpty()) {
+            return 1;
+        }
+
+        if (!gradeScale.equals(otherGrade.getGradeScale())) {
+            throw new DomainException("Grade.unsupported.comparison.of.grades.of.different.scales", toString(),
+                    otherGrade.toString());
+        }
+
+        final Facts left = getFacts();
+        final Facts right = otherGrade.getFacts();
+
+        if (left.approved() != right.approved()) {
+            return left.approved() ? 1 : -1;
+        }
+
+        if (left.gradeOrder() != null && right.gradeOrder() != null) {
+            return Integer.compare(left.gradeOrder(), right.gradeOrder());
+        }
+
+        if (left.continuous() != right.continuous()) {
+            return left.continuous() ? 1 : -1;
+        } else if (left.continuous()) {
+            return getNumericValue().compareTo(otherGrade.getNumericValue());
+        } else {
+            throw new DomainException("Grade.unsupported.comparison.of.grades.of.different.scales");
+        }
+    }
+
+    /*
+     * What the scale says about this grade, computed again only when the scale changes
+     */
+    private Facts getFacts() {
+        final int version = gradeScale.getCacheVersion();
+        Facts result = facts;
+        if (result == null || result.version() != version || gradeScale.isCacheChangedByCurrentTransaction()) {
+            result = new Facts(version, gradeScale.isApproved(value), gradeScale.isNotApproved(value),
+                    gradeScale.findGradeScaleEntry(value).map(e -> e.getGradeOrder()).orElse(null),
+                    gradeScale.isGradeValueContinuous(value));
+            if (!gradeScale.isCacheChangedByCurrentTransaction()) {
+                facts = result;
+            }
+        }
+        return result;
     }
 
     public BigDecimal getNumericValue() {
-        return value == null ? null : new BigDecimal(getValue());
+        if (value == null) {
+            return null;
+        }
+
+        BigDecimal result = numericValue;
+        if (result == null) {
+            result = new BigDecimal(value);
+            numericValue = result;
+        }
+        return result;
     }
 
     public String getValue() {
@@ -82,14 +152,47 @@ public class Grade implements Serializable, Comparable<Grade> {
             return createEmptyGrade();
         }
 
-        Grade grade = gradeMap.get(exportAsString(gradeScale, value));
+        final Map<String, Grade> grades = findCachedGrades(gradeScale);
+        if (grades == null) {
+            return new Grade(value, gradeScale);
+        }
+
+        Grade grade = grades.get(value);
         if (grade == null) {
-            grade = new Grade(value, gradeScale);
-            gradeMap.put(grade.exportAsString(), grade);
+            final String normalized = value.trim().toUpperCase();
+            grade = grades.get(normalized);
+            if (grade == null) {
+                final Grade created = new Grade(value, gradeScale);
+                grade = grades.computeIfAbsent(normalized, v -> created);
+            }
+            grades.put(value, grade);
         }
         return grade;
     }
 
+    /*
+     * The grades cached for the version of the scale seen by the current transaction, null when the transaction changed the
+     * scale or sees an older version than the one cached
+     */
+    private static Map<String, Grade> findCachedGrades(final GradeScale gradeScale) {
+        if (!gradeScale.validateCaches()) {
+            return null;
+        }
+
+        final int version = gradeScale.getCacheVersion();
+        Grades grades = GRADES.get(gradeScale);
+        if (grades == null || grades.version() < version) {
+            grades = GRADES.merge(gradeScale, new Grades(version, new ConcurrentHashMap<>()),
+                    (current, created) -> created.version() > current.version() ? created : current);
+        }
+        return grades.version() == version ? grades.byValue() : null;
+    }
+
+    private boolean isCached() {
+        final Map<String, Grade> grades = findCachedGrades(gradeScale);
+        return grades != null && grades.get(value) == this;
+    }
+
     public static Grade createEmptyGrade() {
         return emptyGrade;
     }
@@ -99,8 +202,24 @@ public class Grade implements Serializable, Comparable<Grade> {
             return emptyGrade;
         }
 
-        String[] tokens = string.split(":");
-        return createGrade(tokens[1], GradeScale.findUniqueByCode(tokens[0]).get());
+        Grade grade = IMPORTED_GRADES.get(string);
+        if (grade == null || !grade.isCached()) {
+            String[] tokens = string.split(":");
+            grade = createGrade(tokens[1], GradeScale.findUniqueByCode(tokens[0]).get());
+            if (grade.isCached()) {
+                IMPORTED_GRADES.put(string, grade);
+            }
+        }
+        return grade;
+    }
+
+    /**
+     * Drops the grades of the provided scale, including those found by their exported form, so that they are validated and
+     * classified again by the scale
+     */
+    public static void invalidate(final GradeScale gradeScale) {
+        GRADES.remove(gradeScale);
+        IMPORTED_GRADES.values().removeIf(g -> g.getGradeScale() == gradeScale);
     }
 
     @Override
@@ -162,11 +281,11 @@ public class Grade implements Serializable, Comparable<Grade> {
     }
 
     public boolean isApproved() {
-        return getGradeScale().isApproved(this);
+        return getFacts().approved();
     }
 
     public boolean isNotApproved() {
-        return getGradeScale().isNotApproved(this);
+        return getFacts().notApproved();
     }
 
     public LocalizedString getExtendedValue() {
@@ -22,7 +22,24 @@ import org.fenixedu.bennu.core.domain.Bennu;
 import org.joda.time.LocalDate;
 import org.joda.time.Partial;
 
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
 public class Holiday extends Holiday_Base {
+
+    static {
+        getRelationRootDomainObjectHoliday().addListener(new RelationAdapter<Bennu, Holiday>() {
+            @Override
+            public void afterAdd(Bennu bennu, Holiday holiday) {
+                HolidayCalendar.invalidate();
+            }
+
+            @Override
+            public void afterRemove(Bennu bennu, Holiday holiday) {
+                HolidayCalendar.invalidate();
+            }
+        });
+    }
+
     public Holiday() {
         super();
         setRootDomainObject(Bennu.getInstance());
@@ -33,13 +50,19 @@ public class Holiday extends Holiday_Base {
         setDate(date);
     }
 
+    @Override
+    public void setDate(final Partial date) {
+        super.setDate(date);
+        HolidayCalendar.invalidate();
+    }
+
     public void delete() {
         setRootDomainObject(null);
         super.deleteDomainObject();
     }
 
     public static boolean isHoliday(final LocalDate date) {
-        return Bennu.getInstance().getHolidaysSet().stream().anyMatch(holiday -> holiday.getDate().isMatch(date));
+        return HolidayCalendar.getInstance().isHoliday(date);
     }
 
 }
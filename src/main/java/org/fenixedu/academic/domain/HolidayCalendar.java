@@ -0,0 +1,65 @@
+package org.fenixedu.academic.domain;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.joda.time.LocalDate;
+import org.joda.time.Partial;
+
+/**
+ * Immutable snapshot of the {@link Holiday}s, answering {@link Holiday#isHoliday(LocalDate)} with a bitset of the days of
+ * each year that match any holiday, instead of matching the date against every holiday on each call. Since holidays are
+ * partials (e.g. only a month and a day), the bitset of a year is computed the first time one of its dates is checked.
+ *
+ * The calendar is a view of the {@link ReferenceDataRegistry} of the holidays, built again when their dates change.
+ */
+public class HolidayCalendar {
+
+    private static final ReferenceDataRegistry<Holiday> REGISTRY =
+            new ReferenceDataRegistry<Holiday>(() -> Bennu.getInstance().getHolidaysSet()).track(Holiday::getDate);
+
+    private static final ReferenceDataRegistry.View<Holiday, HolidayCalendar> CALENDAR = REGISTRY.view(HolidayCalendar::new);
+
+    private final Partial[] dates;
+
+    private final Map<Integer, BitSet> holidaysByYear = new ConcurrentHashMap<>();
+
+    private HolidayCalendar(final Set<Holiday> holidays) {
+        this.dates = holidays.stream().map(Holiday::getDate).toArray(Partial[]::new);
+    }
+
+    /**
+     * @return the calendar matching the holidays seen by the current transaction
+     */
+    public static HolidayCalendar getInstance() {
+        return CALENDAR.get();
+    }
+
+    /**
+     * Makes the current transaction check the calendar again, after changing holidays.
+     */
+    static void invalidate() {
+        REGISTRY.invalidate();
+    }
+
+    public boolean isHoliday(final LocalDate date) {
+        return holidaysByYear.computeIfAbsent(date.getYear(), this::computeYear).get(date.getDayOfYear());
+    }
+
+    private BitSet computeYear(final int year) {
+        final BitSet result = new BitSet(367);
+        for (LocalDate day = new LocalDate(year, 1, 1); day.getYear() == year; day = day.plusDays(1)) {
+            for (final Partial date : dates) {
+                if (date != null && date.isMatch(day)) {
+                    result.set(day.getDayOfYear());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+}
@@ -332,33 +332,38 @@ public class Lesson extends Lesson_Base {
 
     // TODO set visibility to private after references in ScheduleServices are merged
     public Set<LocalDate> getLessonDatesForPeriod(final OccupationPeriod period) {
+        if (period == null) {
+            return new TreeSet<LocalDate>();
+        }
+        return LessonDatesCache.getLessonDates(this, period, holidays -> computeLessonDatesForPeriod(period, holidays));
+    }
+
+    private SortedSet<LocalDate> computeLessonDatesForPeriod(final OccupationPeriod period, final HolidayCalendar holidays) {
         final SortedSet<LocalDate> result = new TreeSet<LocalDate>();
 
-        if (period != null) {
-            final int weekDays = 7;
-            final int dayIncrement = getFrequency().getNumberOfDays();
+        final int weekDays = 7;
+        final int dayIncrement = getFrequency().getNumberOfDays();
 
-            final HourMinuteSecond beginTime = getBeginHourMinuteSecond();
-            final HourMinuteSecond endTime = getEndHourMinuteSecond();
+        final HourMinuteSecond beginTime = getBeginHourMinuteSecond();
+        final HourMinuteSecond endTime = getEndHourMinuteSecond();
 
-            DateTime dateToCheck =
-                    period.getPeriodInterval().getStart().withTime(beginTime.getHour(), beginTime.getMinuteOfHour(), 0, 0);
-            final int lessonDayOfWeek = getWeekDay().getDayOfWeek();
-            if (lessonDayOfWeek < dateToCheck.getDayOfWeek()) {
-                dateToCheck = dateToCheck.plusDays(weekDays);
-            }
-            dateToCheck = dateToCheck.withDayOfWeek(lessonDayOfWeek);
+        DateTime dateToCheck =
+                period.getPeriodInterval().getStart().withTime(beginTime.getHour(), beginTime.getMinuteOfHour(), 0, 0);
+        final int lessonDayOfWeek = getWeekDay().getDayOfWeek();
+        if (lessonDayOfWeek < dateToCheck.getDayOfWeek()) {
+            dateToCheck = dateToCheck.plusDays(weekDays);
+        }
+        dateToCheck = dateToCheck.withDayOfWeek(lessonDayOfWeek);
 
-            final DateTime lastDate =
-                    period.getIntervalWithNextPeriods().getEnd().withTime(endTime.getHour(), endTime.getMinuteOfHour(), 0, 0);
+        final DateTime lastDate =
+                period.getIntervalWithNextPeriods().getEnd().withTime(endTime.getHour(), endTime.getMinuteOfHour(), 0, 0);
 
-            while (dateToCheck.isBefore(lastDate)) {
-                boolean dateValid = period.isDateInNestedPeriods(period, dateToCheck);
-                if (dateValid && !Holiday.isHoliday(dateToCheck.toLocalDate())) {
-                    result.add(dateToCheck.toLocalDate());
-                }
-                dateToCheck = dateToCheck.plusDays(!dateValid && dayIncrement > weekDays ? weekDays : dayIncrement); // if the frequency is greater than weekly, we want to check the next week again
+        while (dateToCheck.isBefore(lastDate)) {
+            boolean dateValid = period.isDateInNestedPeriods(period, dateToCheck);
+            if (dateValid && !holidays.isHoliday(dateToCheck.toLocalDate())) {
+                result.add(dateToCheck.toLocalDate());
             }
+            dateToCheck = dateToCheck.plusDays(!dateValid && dayIncrement > weekDays ? weekDays : dayIncrement); // if the frequency is greater than weekly, we want to check the next week again
         }
 
         return result;
@@ -0,0 +1,76 @@
+package org.fenixedu.academic.domain;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.fenixedu.academic.util.HourMinuteSecond;
+import org.fenixedu.academic.util.WeekDay;
+import org.joda.time.Interval;
+import org.joda.time.LocalDate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the dates of each {@link Lesson} in each {@link OccupationPeriod}, so that the lesson instance, deleted dates and
+ * interval queries issued while building timetables and room occupations do not walk the period day by day every time.
+ *
+ * Each entry remembers everything the dates were computed from: the week day, times and frequency of the lesson, the
+ * intervals of the period and the {@link HolidayCalendar}. An entry is only used while all of those are the same in the
+ * current transaction, and is computed again otherwise.
+ */
+public class LessonDatesCache {
+
+    private static final int MAXIMUM_SIZE = 100_000;
+
+    private static record Key(Lesson lesson, OccupationPeriod period) {
+    }
+
+    private static record Entry(WeekDay weekDay, HourMinuteSecond begin, HourMinuteSecond end, FrequencyType frequency,
+            List<Interval> intervals, HolidayCalendar holidays, SortedSet<LocalDate> dates) {
+
+        private static Entry of(final Lesson lesson, final OccupationPeriod period, final HolidayCalendar holidays,
+                final SortedSet<LocalDate> dates) {
+            return new Entry(lesson.getWeekDay(), lesson.getBeginHourMinuteSecond(), lesson.getEndHourMinuteSecond(),
+                    lesson.getFrequency(), period.getIntervals(), holidays, dates);
+        }
+
+        private boolean isValid(final Lesson lesson, final OccupationPeriod period, final HolidayCalendar holidays) {
+            return this.holidays == holidays && weekDay == lesson.getWeekDay() && frequency == lesson.getFrequency()
+                    && Objects.equals(begin, lesson.getBeginHourMinuteSecond())
+                    && Objects.equals(end, lesson.getEndHourMinuteSecond())
+                    && intervals.equals(period.getIntervals());
+        }
+    }
+
+    private static final Cache<Key, Entry> ENTRIES = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    private LessonDatesCache() {
+    }
+
+    /**
+     * @param calculator computes the dates of the lesson in the period, skipping the holidays of the given calendar
+     * @return a new set with the dates of the lesson in the period
+     */
+    static SortedSet<LocalDate> getLessonDates(final Lesson lesson, final OccupationPeriod period,
+            final Function<HolidayCalendar, SortedSet<LocalDate>> calculator) {
+        final HolidayCalendar holidays = HolidayCalendar.getInstance();
+        final Key key = new Key(lesson, period);
+
+        Entry entry = ENTRIES.getIfPresent(key);
+        if (entry == null || !entry.isValid(lesson, period, holidays)) {
+            entry = Entry.of(lesson, period, holidays, Collections.unmodifiableSortedSet(calculator.apply(holidays)));
+            ENTRIES.put(key, entry);
+        }
+        return new TreeSet<>(entry.dates());
+    }
+
+    public static void invalidate() {
+        ENTRIES.invalidateAll();
+    }
+
+}
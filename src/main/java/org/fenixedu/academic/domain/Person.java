@@ -32,6 +32,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang.StringUtils;
+import org.fenixedu.academic.domain.accessControl.MembershipBitmaps;
 import org.fenixedu.academic.domain.contacts.EmailAddress;
 import org.fenixedu.academic.domain.contacts.MobilePhone;
 import org.fenixedu.academic.domain.contacts.PartyContact;
@@ -46,6 +47,7 @@ import org.fenixedu.academic.domain.organizationalStructure.PartyType;
 import org.fenixedu.academic.domain.organizationalStructure.PartyTypeEnum;
 import org.fenixedu.academic.domain.person.Gender;
 import org.fenixedu.academic.domain.person.MaritalStatus;
+import org.fenixedu.academic.domain.person.PersonSearchIndex;
 import org.fenixedu.academic.domain.person.identificationDocument.IdentificationDocument;
 import org.fenixedu.academic.domain.person.identificationDocument.IdentificationDocumentType;
 import org.fenixedu.academic.domain.person.personIdentifier.PersonIdentifier;
@@ -78,6 +80,10 @@ public class Person extends Person_Base {
 
     public static final String PERSON_CREATE_SIGNAL = "academic.person.create";
 
+    static {
+        MembershipBitmaps.indexOnChange(getRelationUserPerson());
+    }
+
     public IdentificationDocument getDefaultIdentificationDocument() {
         final Iterator<IdentificationDocument> documentIterator = getIdentificationDocumentsSet().iterator();
         return documentIterator.hasNext() ? documentIterator.next() : null;
@@ -152,9 +158,18 @@ public class Person extends Person_Base {
         }
     }
 
+    /**
+     * Changes the names of the profile of this person. Names must always be changed through this method, which keeps the
+     * {@link PersonSearchIndex} up to date.
+     */
+    public void changeName(final String givenNames, final String familyNames, final String displayName) {
+        getProfile().changeName(givenNames, familyNames, displayName);
+        PersonSearchIndex.getInstance().index(this);
+    }
+
     public void setGivenNames(final String newGivenNames) {
         UserProfile profile = getProfile();
-        profile.changeName(newGivenNames, profile.getFamilyNames(), profile.getDisplayName());
+        changeName(newGivenNames, profile.getFamilyNames(), profile.getDisplayName());
     }
 
     public String getDisplayName() {
@@ -164,7 +179,7 @@ public class Person extends Person_Base {
     public void setDisplayName(final String newDisplayName) {
         UserProfile profile = getProfile();
         try {
-            profile.changeName(profile.getGivenNames(), profile.getFamilyNames(), newDisplayName);
+            changeName(profile.getGivenNames(), profile.getFamilyNames(), newDisplayName);
         } catch (BennuCoreDomainException ex) {
             throw new DomainException("error.invalid.displayName", ex.getLocalizedMessage());
         }
@@ -172,7 +187,7 @@ public class Person extends Person_Base {
 
     public void setFamilyNames(final String newFamilyNames) {
         UserProfile profile = getProfile();
-        profile.changeName(profile.getGivenNames(), newFamilyNames, profile.getDisplayName());
+        changeName(profile.getGivenNames(), newFamilyNames, profile.getDisplayName());
     }
 
     /**
@@ -195,6 +210,7 @@ public class Person extends Person_Base {
             setUser(profile.getUser());
         }
         setMaritalStatus(MaritalStatus.UNKNOWN);
+        PersonSearchIndex.getInstance().index(this);
         if (emitSignal) {
             Signal.emit(Person.PERSON_CREATE_SIGNAL, new DomainObjectEvent<Person>(this));
         }
@@ -278,7 +294,7 @@ public class Person extends Person_Base {
 
     private void setProperties(final PersonBean personBean) {
 
-        getProfile().changeName(personBean.getGivenNames(), personBean.getFamilyNames(), null);
+        changeName(personBean.getGivenNames(), personBean.getFamilyNames(), null);
 
         setGender(personBean.getGender());
         setProfession(personBean.getProfession());
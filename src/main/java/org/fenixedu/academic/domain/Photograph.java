@@ -24,6 +24,8 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.fenixedu.academic.domain.photograph.PhotographRenditionCache;
+import org.fenixedu.academic.domain.photograph.PhotographRenditionCache.Rendition;
 import org.fenixedu.academic.domain.photograph.Picture;
 import org.fenixedu.academic.domain.photograph.PictureMode;
 import org.fenixedu.academic.predicate.AccessControl;
@@ -58,6 +60,9 @@ public class Photograph extends Photograph_Base implements Comparable<Photograph
         setPhotoType(photoType);
         ServiceProvider.getService(UserPhotoStorageService.class).createPictureForPhotograph(this, contentType, original,
                 imageAsBytes(1, 1, 100, 100, PictureMode.ZOOM, contentType, original, true));
+        if (getState() == PhotoState.APPROVED && getOriginal() != null) {
+            pregenerateAvatars(original);
+        }
     }
 
     @Override
@@ -105,6 +110,11 @@ public class Photograph extends Photograph_Base implements Comparable<Photograph
                 if (getPhotoType() != PhotoType.INSTITUTIONAL) {
                     logState("log.personInformation.photo.approved");
                 }
+                // photographs approved on creation have no pictures yet, their avatars are pregenerated by the constructor
+                if (getOriginal() != null && !PhotographRenditionCache.getPregeneratedSizes().isEmpty()) {
+                    final UserPhotoStorageService storageService = ServiceProvider.getService(UserPhotoStorageService.class);
+                    pregenerateAvatars(storageService.getOriginalPicture(getOriginal()));
+                }
             }
         }
     }
@@ -146,6 +156,8 @@ public class Photograph extends Photograph_Base implements Comparable<Photograph
             getOriginal().delete();
         }
 
+        PhotographRenditionCache.evict(getExternalId());
+
         super.setApprover(null);
         super.setRejector(null);
         super.setPerson(null);
@@ -157,7 +169,7 @@ public class Photograph extends Photograph_Base implements Comparable<Photograph
         return getCustomAvatar(1, 1, 100, 100, PictureMode.ZOOM);
     }
 
-    private BufferedImage read(byte[] pictureBytes) {
+    private static BufferedImage read(byte[] pictureBytes) {
         BufferedImage image = Picture.readImage(pictureBytes);
         BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
         result.createGraphics().drawImage(image, 0, 0, Color.WHITE, null);
@@ -165,8 +177,13 @@ public class Photograph extends Photograph_Base implements Comparable<Photograph
     }
 
     public byte[] getCustomAvatar(int xRatio, int yRatio, int width, int height, PictureMode pictureMode) {
+        return PhotographRenditionCache.get(new Rendition(getExternalId(), xRatio, yRatio, width, height, pictureMode),
+                () -> renderCustomAvatar(xRatio, yRatio, width, height, pictureMode));
+    }
+
+    private byte[] renderCustomAvatar(int xRatio, int yRatio, int width, int height, PictureMode pictureMode) {
         final UserPhotoStorageService userPhotoStorageService = ServiceProvider.getService(UserPhotoStorageService.class);
-        boolean usePictureStoredInPictureData = width == 100 && height == 100 && PictureMode.ZOOM == pictureMode;
+        boolean usePictureStoredInPictureData = isStoredInPictureData(width, height, pictureMode);
         final byte[] originalPictureBytes =
                 usePictureStoredInPictureData ? getOriginal().getPictureData() : userPhotoStorageService.getOriginalPicture(
                         getOriginal());
@@ -174,7 +191,27 @@ public class Photograph extends Photograph_Base implements Comparable<Photograph
                 originalPictureBytes, !usePictureStoredInPictureData);
     }
 
-    private byte[] imageAsBytes(final int xRatio, final int yRatio, final int width, final int height,
+    private static boolean isStoredInPictureData(int width, int height, PictureMode pictureMode) {
+        return width == 100 && height == 100 && PictureMode.ZOOM == pictureMode;
+    }
+
+    /**
+     * Renders in the background the square avatars of the sizes configured in {@link PhotographRenditionCache}, reading
+     * the pictures now so that the rendering does not need a transaction.
+     */
+    private void pregenerateAvatars(final byte[] originalPictureBytes) {
+        final ContentType contentType = getOriginal().getPictureFileFormat();
+        final byte[] storedPictureBytes = getOriginal().getPictureData();
+        for (final int size : PhotographRenditionCache.getPregeneratedSizes()) {
+            final boolean usePictureStoredInPictureData = isStoredInPictureData(size, size, PictureMode.ZOOM);
+            PhotographRenditionCache.pregenerate(new Rendition(getExternalId(), size, size, size, size, PictureMode.ZOOM),
+                    () -> imageAsBytes(size, size, size, size, PictureMode.ZOOM, contentType,
+                            usePictureStoredInPictureData ? storedPictureBytes : originalPictureBytes,
+                            !usePictureStoredInPictureData));
+        }
+    }
+
+    private static byte[] imageAsBytes(final int xRatio, final int yRatio, final int width, final int height,
             final PictureMode pictureMode, ContentType contentType, final byte[] originalPictureBytes,
             final boolean needToDimentionImage) {
         BufferedImage image = contentType == ContentType.JPG ? readJpegImage(originalPictureBytes) : read(originalPictureBytes);
@@ -182,7 +219,7 @@ public class Photograph extends Photograph_Base implements Comparable<Photograph
                 ContentType.PNG);
     }
 
-    private BufferedImage readJpegImage(byte[] pictureData) {
+    private static BufferedImage readJpegImage(byte[] pictureData) {
         BufferedImage image = Picture.readImage(pictureData);
         //
         // In the case of jpeg format is pretty common that exif data contains rotation
@@ -25,6 +25,7 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.fenixedu.academic.domain.accessControl.MembershipBitmaps;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.academic.util.Bundle;
 import org.fenixedu.bennu.core.domain.Bennu;
@@ -45,6 +46,11 @@ public class Professorship extends Professorship_Base {
 
     public static final String PROFESSORSHIP_CREATED = "academic.professorship.created";
 
+    static {
+        MembershipBitmaps.indexOnChange(getRelationExecutionCourseProfessorship());
+        MembershipBitmaps.indexOnChange(getRelationPersonProfessorship());
+    }
+
     public Professorship() {
         super();
         setRootDomainObject(Bennu.getInstance());
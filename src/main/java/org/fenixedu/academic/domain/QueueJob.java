@@ -20,6 +20,7 @@ package org.fenixedu.academic.domain;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.fenixedu.academic.predicate.AccessControl;
@@ -27,6 +28,8 @@ import org.fenixedu.bennu.core.domain.Bennu;
 import org.joda.time.DateTime;
 
 import pt.ist.fenixframework.Atomic;
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
 
 public abstract class QueueJob extends QueueJob_Base {
     public static enum Priority {
@@ -40,6 +43,24 @@ public abstract class QueueJob extends QueueJob_Base {
         }
     };
 
+    static {
+        indexOnAdd(getRelationQueueJobRootDomainObject(), QueueJobIndex::add);
+        indexOnAdd(getRelationQueueJobUndoneRootDomainObject(), QueueJobIndex::addUndone);
+    }
+
+    private static <A, B> void indexOnAdd(final Relation<A, B> relation, final Consumer<QueueJob> index) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                if (a instanceof QueueJob job) {
+                    index.accept(job);
+                } else if (b instanceof QueueJob job) {
+                    index.accept(job);
+                }
+            }
+        });
+    }
+
     public QueueJob() {
         super();
         this.setRequestDate(new DateTime());
@@ -74,12 +95,11 @@ public abstract class QueueJob extends QueueJob_Base {
 
     public static List<QueueJob> getAllJobsForClassOrSubClass(final Class<? extends QueueJob> type, int maxSize,
             Comparator<QueueJob> comparator) {
-        return Bennu.getInstance().getQueueJobSet().stream().filter((type)::isInstance).sorted(comparator).limit(maxSize)
-                .collect(Collectors.toList());
+        return QueueJobIndex.findJobs(type).sorted(comparator).limit(maxSize).collect(Collectors.toList());
     }
 
     public static List<QueueJob> getUndoneJobsForClass(final Class<? extends QueueJob> type) {
-        return Bennu.getInstance().getQueueJobUndoneSet().stream().filter((type)::isInstance).collect(Collectors.toList());
+        return QueueJobIndex.findUndoneJobs(type).collect(Collectors.toList());
     }
 
     public Priority getPriority() {
@@ -0,0 +1,404 @@
+package org.fenixedu.academic.domain;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.fenixedu.bennu.core.domain.User;
+import org.fenixedu.bennu.core.security.Authenticate;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import pt.ist.fenixframework.Atomic;
+import pt.ist.fenixframework.Atomic.TxMode;
+import pt.ist.fenixframework.FenixFramework;
+
+/**
+ * Runs the undone {@link QueueJob}s of this server on a bounded pool of workers.
+ *
+ * The undone jobs are polled periodically, and the oldest ones are started as workers become free, {@link QueueJob.Priority#HIGH}
+ * jobs first. A job is claimed by setting its start time and the end of its lease, in a transaction of its own, so the same
+ * job is not run by two workers or two servers at once. The lease is renewed while the job runs, so a job whose lease ended
+ * was abandoned by a server that stopped, and is claimed again. The job runs as its requester. When it completes, its result
+ * is stored (as a {@link QueueJobResultFile} for a {@link QueueJobWithFile}) and the job is marked as done. When it fails,
+ * its failed counter is incremented and its retry time is set after a delay that doubles on each failure, until the maximum
+ * number of attempts, after which it is removed from the undone jobs. Both are persistent, so all servers wait for the same
+ * delay before retrying a job.
+ */
+public class QueueJobExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueueJobExecutor.class);
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final long POLL_INTERVAL_SECONDS = 10;
+
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long LEASE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    static final long LEASE_RENEWAL_MILLIS = LEASE_MILLIS / 3;
+
+    private static final Comparator<QueueJob> EXECUTION_ORDER = Comparator
+            .comparing((QueueJob job) -> job.getPriority() == QueueJob.Priority.HIGH ? 0 : 1)
+            .thenComparing(QueueJob::getRequestDate).thenComparing(QueueJob::getExternalId);
+
+    private static QueueJobExecutor INSTANCE = null;
+
+    public static synchronized QueueJobExecutor getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new QueueJobExecutor(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_ATTEMPTS);
+        }
+        return INSTANCE;
+    }
+
+    public static synchronized void setInstance(final QueueJobExecutor instance) {
+        if (INSTANCE != null && INSTANCE != instance) {
+            INSTANCE.shutdown();
+        }
+        INSTANCE = instance;
+    }
+
+    public static class Metrics {
+
+        private final AtomicLong completed = new AtomicLong();
+
+        private final AtomicLong retried = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final AtomicLong totalLatencyMillis = new AtomicLong();
+
+        private final AtomicLong totalRunningMillis = new AtomicLong();
+
+        private final long start = System.nanoTime();
+
+        private Metrics() {
+        }
+
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        public long getRetried() {
+            return retried.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+
+        public double getCompletedPerSecond() {
+            final long elapsed = getElapsedMillis();
+            return elapsed == 0 ? 0d : getCompleted() * 1000d / elapsed;
+        }
+
+        /**
+         * @return the average time from the request of a job until it completes
+         */
+        public double getAverageLatencyMillis() {
+            final long count = getCompleted();
+            return count == 0 ? 0d : totalLatencyMillis.get() / (double) count;
+        }
+
+        /**
+         * @return the average time running a job, including the attempts that failed
+         */
+        public double getAverageRunningMillis() {
+            final long count = getCompleted() + getRetried() + getFailed();
+            return count == 0 ? 0d : totalRunningMillis.get() / (double) count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d completed (%.2f/s, %.0fms latency, %.0fms running), %d retried, %d failed", getCompleted(),
+                    getCompletedPerSecond(), getAverageLatencyMillis(), getAverageRunningMillis(), getRetried(), getFailed());
+        }
+    }
+
+    private final int workers;
+
+    private final int maxAttempts;
+
+    private final ExecutorService executor;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    private final Metrics metrics = new Metrics();
+
+    private volatile boolean started = false;
+
+    public QueueJobExecutor(final int workers, final int maxAttempts) {
+        if (workers < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Workers and maximum attempts must be positive");
+        }
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            final Thread thread = new Thread(runnable, "queue-job-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "queue-job-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public synchronized void start() {
+        if (!started) {
+            started = true;
+            scheduler.scheduleWithFixedDelay(this::poll, 0, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+        executor.shutdown();
+    }
+
+    private void poll() {
+        try {
+            final int free = workers - running.size();
+            if (free <= 0) {
+                return;
+            }
+
+            for (final String jobId : findRunnableJobs(free)) {
+                if (running.add(jobId)) {
+                    executor.execute(() -> run(jobId));
+                }
+            }
+        } catch (final Throwable t) {
+            // the poller must keep running, otherwise no more jobs are executed
+            logger.error("Unable to poll queue jobs", t);
+        }
+    }
+
+    @Atomic(mode = TxMode.READ)
+    private List<String> findRunnableJobs(final int limit) {
+        final long now = System.currentTimeMillis();
+        return Bennu.getInstance().getQueueJobUndoneSet().stream().filter(job -> !Boolean.TRUE.equals(job.getDone()))
+                .filter(job -> !running.contains(job.getExternalId()))
+                .filter(job -> isRunnable(job.getRetryTime(), job.getLeaseEndTime(), now))
+                .sorted(EXECUTION_ORDER).limit(limit).map(QueueJob::getExternalId).toList();
+    }
+
+    private void run(final String jobId) {
+        final long start = System.currentTimeMillis();
+        try {
+            final DateTime leaseEndTime = claim(jobId);
+            if (leaseEndTime == null) {
+                return;
+            }
+
+            final AtomicReference<DateTime> lease = new AtomicReference<>(leaseEndTime);
+            final ScheduledFuture<?> renewal = scheduler.scheduleAtFixedRate(() -> renewLease(jobId, lease),
+                    LEASE_RENEWAL_MILLIS, LEASE_RENEWAL_MILLIS, TimeUnit.MILLISECONDS);
+            final QueueJobResult result;
+            try {
+                result = execute(jobId);
+            } finally {
+                renewal.cancel(false);
+            }
+            final DateTime requestDate = complete(jobId, result);
+
+            final long end = System.currentTimeMillis();
+            metrics.completed.incrementAndGet();
+            metrics.totalRunningMillis.addAndGet(end - start);
+            metrics.totalLatencyMillis.addAndGet(end - requestDate.getMillis());
+        } catch (final Throwable t) {
+            logger.error("Queue job " + jobId + " failed", t);
+            metrics.totalRunningMillis.addAndGet(System.currentTimeMillis() - start);
+            fail(jobId);
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    private void fail(final String jobId) {
+        try {
+            final int failures = registerFailure(jobId);
+            if (failures < maxAttempts) {
+                metrics.retried.incrementAndGet();
+            } else {
+                metrics.failed.incrementAndGet();
+            }
+        } catch (final Throwable t) {
+            // the job keeps its lease, so it is only claimed again when the lease ends
+            logger.error("Unable to register the failure of queue job " + jobId, t);
+        }
+    }
+
+    private static void renewLease(final String jobId, final AtomicReference<DateTime> lease) {
+        try {
+            final DateTime renewed = extendLease(jobId, lease.get());
+            if (renewed != null) {
+                lease.set(renewed);
+            } else {
+                logger.warn("Queue job {} lost its lease, it may be run again by another worker", jobId);
+            }
+        } catch (final Throwable t) {
+            // the lease is renewed again on the next run, well before it ends
+            logger.error("Unable to renew the lease of queue job " + jobId, t);
+        }
+    }
+
+    /**
+     * @return whether the job never failed, or the delay after its last failed attempt has passed
+     */
+    static boolean isRetryDue(final DateTime retryTime, final long now) {
+        return retryTime == null || retryTime.getMillis() <= now;
+    }
+
+    /**
+     * @return whether the job is not running, or the server running it stopped renewing its lease
+     */
+    static boolean isLeaseEnded(final DateTime leaseEndTime, final long now) {
+        return leaseEndTime == null || leaseEndTime.getMillis() <= now;
+    }
+
+    /**
+     * @return whether the job may be claimed: the lease only tells whether it is running, the retry time whether it waits
+     *         after a failed attempt
+     */
+    static boolean isRunnable(final DateTime retryTime, final DateTime leaseEndTime, final long now) {
+        return isRetryDue(retryTime, now) && isLeaseEnded(leaseEndTime, now);
+    }
+
+    /**
+     * @return the end of a lease claimed or renewed at the provided time
+     */
+    static DateTime getLeaseEndTime(final DateTime now) {
+        return now.plus(LEASE_MILLIS);
+    }
+
+    /**
+     * @return the new end of the lease of the job, or null if its lease is no longer the one held by the worker renewing it
+     */
+    static DateTime getRenewedLeaseEndTime(final DateTime leaseEndTime, final DateTime heldLeaseEndTime, final DateTime now) {
+        if (leaseEndTime == null || leaseEndTime.getMillis() != heldLeaseEndTime.getMillis()) {
+            return null;
+        }
+        return getLeaseEndTime(now);
+    }
+
+    /**
+     * @return the time after which a job that failed the provided number of times is run again
+     */
+    static DateTime getRetryTime(final int failures, final DateTime failure) {
+        return failure.plus(RETRY_DELAY_MILLIS << Math.min(Math.max(failures - 1, 0), 16));
+    }
+
+    /**
+     * @return the end of the lease of the job, or null if it is done or was claimed by another worker
+     */
+    @Atomic(mode = TxMode.WRITE)
+    private static DateTime claim(final String jobId) {
+        final QueueJob job = FenixFramework.getDomainObject(jobId);
+        if (job.getRootDomainObjectQueueUndone() == null || Boolean.TRUE.equals(job.getDone())) {
+            return null;
+        }
+
+        final DateTime now = new DateTime();
+        if (!isLeaseEnded(job.getLeaseEndTime(), now.getMillis())) {
+            return null;
+        }
+        final DateTime result = getLeaseEndTime(now);
+        job.setJobStartTime(now);
+        job.setLeaseEndTime(result);
+        return result;
+    }
+
+    /**
+     * @return the new end of the lease of the job, or null if it is no longer undone or its lease was taken by another worker
+     */
+    @Atomic(mode = TxMode.WRITE)
+    private static DateTime extendLease(final String jobId, final DateTime leaseEndTime) {
+        final QueueJob job = FenixFramework.getDomainObject(jobId);
+        if (job.getRootDomainObjectQueueUndone() == null) {
+            return null;
+        }
+
+        final DateTime result = getRenewedLeaseEndTime(job.getLeaseEndTime(), leaseEndTime, new DateTime());
+        if (result != null) {
+            job.setLeaseEndTime(result);
+        }
+        return result;
+    }
+
+    @Atomic
+    private static QueueJobResult execute(final String jobId) throws Exception {
+        final QueueJob job = FenixFramework.getDomainObject(jobId);
+        final User user = job.getPerson() == null ? null : job.getPerson().getUser();
+        if (user != null) {
+            Authenticate.mock(user, "queue job");
+        }
+        try {
+            return job.execute();
+        } finally {
+            if (user != null) {
+                Authenticate.unmock();
+            }
+        }
+    }
+
+    /**
+     * @return the date when the job was requested
+     */
+    @Atomic(mode = TxMode.WRITE)
+    private static DateTime complete(final String jobId, final QueueJobResult result) {
+        final QueueJob job = FenixFramework.getDomainObject(jobId);
+        if (result != null && job instanceof QueueJobWithFile jobWithFile) {
+            jobWithFile.setContentType(result.getContentType());
+            QueueJobResultFile.store(jobWithFile, job.getPerson(), job.getFilename(), result.getContent());
+        }
+
+        job.setDone(Boolean.TRUE);
+        job.setJobEndTime(new DateTime());
+        job.setLeaseEndTime(null);
+        job.setRetryTime(null);
+        job.setRootDomainObjectQueueUndone(null);
+        return job.getRequestDate();
+    }
+
+    /**
+     * @return the number of times the job failed, after which it is removed from the undone jobs if it reached the maximum
+     *         number of attempts
+     */
+    @Atomic(mode = TxMode.WRITE)
+    private int registerFailure(final String jobId) {
+        final QueueJob job = FenixFramework.getDomainObject(jobId);
+        final int failures = (job.getFailedCounter() == null ? 0 : job.getFailedCounter().intValue()) + 1;
+
+        job.setFailedCounter(Integer.valueOf(failures));
+        job.setLeaseEndTime(null);
+        job.setRetryTime(getRetryTime(failures, new DateTime()));
+        if (failures >= maxAttempts) {
+            job.setRootDomainObjectQueueUndone(null);
+        }
+        return failures;
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.fenixedu.academic.domain;
+
+import java.util.stream.Stream;
+
+import org.fenixedu.academic.util.LazyIndex;
+import org.fenixedu.academic.util.PersistentVersion;
+import org.fenixedu.bennu.core.domain.Bennu;
+
+/**
+ * Index of the {@link QueueJob}s by class, so that the jobs of a type are found without going through the jobs of all types.
+ *
+ * A job is indexed under its class and each of its superclasses up to {@link QueueJob}. Creating or resending a job increments
+ * {@link Installation#getQueueJobsVersion()}, and each lookup builds the indexes again when it sees a newer version, so the jobs
+ * created on other servers are found. Jobs leave the undone jobs (and are deleted) without a new version, so every lookup
+ * re-checks its candidates against the current transaction.
+ */
+class QueueJobIndex {
+
+    private static final LazyIndex<Class<?>, QueueJob> JOBS =
+            new LazyIndex<>(() -> Bennu.getInstance().getQueueJobSet().stream(), job -> getTypes(job.getClass()));
+
+    private static final LazyIndex<Class<?>, QueueJob> UNDONE_JOBS =
+            new LazyIndex<>(() -> Bennu.getInstance().getQueueJobUndoneSet().stream(), job -> getTypes(job.getClass()));
+
+    private static final PersistentVersion VERSION = new PersistentVersion(() -> {
+        final Installation installation = Installation.getInstance();
+        return installation == null ? null : installation.getQueueJobsVersion();
+    }, value -> {
+        final Installation installation = Installation.getInstance();
+        if (installation != null) {
+            installation.setQueueJobsVersion(value);
+        }
+    }, (previous, current) -> {
+        JOBS.advance(previous, current);
+        UNDONE_JOBS.advance(previous, current);
+    });
+
+    private QueueJobIndex() {
+    }
+
+    /**
+     * @return the provided type and its superclasses, up to {@link QueueJob}
+     */
+    static Stream<Class<?>> getTypes(final Class<?> type) {
+        return Stream.<Class<?>> iterate(type, QueueJob.class::isAssignableFrom, Class::getSuperclass);
+    }
+
+    static void add(final QueueJob job) {
+        JOBS.add(job);
+        VERSION.increment();
+    }
+
+    static void addUndone(final QueueJob job) {
+        UNDONE_JOBS.add(job);
+        VERSION.increment();
+    }
+
+    private static LazyIndex<Class<?>, QueueJob> validated(final LazyIndex<Class<?>, QueueJob> index) {
+        // a transaction that added jobs already added them, and must not tag the index with a version it did not commit
+        if (!VERSION.isChangedByCurrentTransaction()) {
+            index.validate(VERSION.get());
+        }
+        return index;
+    }
+
+    /**
+     * @return the jobs of the type or of its subtypes seen by the current transaction, in no particular order
+     */
+    static Stream<QueueJob> findJobs(final Class<? extends QueueJob> type) {
+        return validated(JOBS).get(type).filter(job -> job.getRootDomainObject() != null);
+    }
+
+    /**
+     * @return the undone jobs of the type or of its subtypes seen by the current transaction, in no particular order
+     */
+    static Stream<QueueJob> findUndoneJobs(final Class<? extends QueueJob> type) {
+        return validated(UNDONE_JOBS).get(type).filter(job -> job.getRootDomainObjectQueueUndone() != null);
+    }
+
+}
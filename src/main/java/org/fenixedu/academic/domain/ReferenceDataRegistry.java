@@ -0,0 +1,233 @@
+package org.fenixedu.academic.domain;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.fenixedu.academic.util.TransactionLocal;
+
+import pt.ist.fenixframework.DomainObject;
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * Immutable snapshot of the objects of a reference data type, like countries or districts, with a map from each of their
+ * keys to the object, so that finding an object by its code does not go through all the objects of the type on each call.
+ *
+ * The snapshot is shared by all transactions. Each transaction checks once that it matches the objects it sees and their
+ * keys, and checks again after creating, deleting or changing the keys of objects of the type. When several objects have
+ * the same key, any of them is found.
+ *
+ * Each type declares its registry and indexes once, when its class is loaded:
+ *
+ * <pre>
+ * private static final ReferenceDataRegistry&lt;District&gt; REGISTRY =
+ *         new ReferenceDataRegistry&lt;&gt;(() -&gt; Bennu.getInstance().getDistrictsSet());
+ *
+ * private static final ReferenceDataRegistry.Index&lt;District&gt; BY_CODE = REGISTRY.index(District::getCode);
+ * </pre>
+ *
+ * Types that need more than a map by key declare a view, a value built from all their objects along with each snapshot, and
+ * track the values it is built from that are not keys, so that the snapshot is checked against them too.
+ */
+public class ReferenceDataRegistry<T extends DomainObject> {
+
+    public static final class Index<T extends DomainObject> {
+
+        private final ReferenceDataRegistry<T> registry;
+
+        private final int position;
+
+        private Index(final ReferenceDataRegistry<T> registry, final int position) {
+            this.registry = registry;
+            this.position = position;
+        }
+
+        /**
+         * @return an object seen by the current transaction with the key, if any
+         */
+        public Optional<T> find(final Object key) {
+            return key == null ? Optional.empty() : Optional.ofNullable(registry.current().byKey.get(position).get(key));
+        }
+    }
+
+    /**
+     * A value built from all the objects of the type, shared by the transactions that see the same objects and keys.
+     */
+    public static final class View<T extends DomainObject, V> {
+
+        private final ReferenceDataRegistry<T> registry;
+
+        private final int position;
+
+        private View(final ReferenceDataRegistry<T> registry, final int position) {
+            this.registry = registry;
+            this.position = position;
+        }
+
+        /**
+         * @return the value built from the objects seen by the current transaction
+         */
+        @SuppressWarnings("unchecked")
+        public V get() {
+            return (V) registry.current().views.get(position);
+        }
+    }
+
+    private static record Entry<T>(T object, Object[] keys) {
+    }
+
+    private static class Snapshot<T extends DomainObject> {
+
+        private final List<Entry<T>> entries = new ArrayList<>();
+
+        private final List<Map<Object, T>> byKey = new ArrayList<>();
+
+        private final List<Object> views = new ArrayList<>();
+    }
+
+    private final Supplier<Set<T>> objects;
+
+    private final List<Function<T, ?>> keys = new ArrayList<>();
+
+    // the positions of the keys that have an index, the others are only checked
+    private final BitSet indexed = new BitSet();
+
+    private final List<Function<Set<T>, ?>> views = new ArrayList<>();
+
+    private volatile Snapshot<T> shared = null;
+
+    private final TransactionLocal<Snapshot<T>> validated = new TransactionLocal<>();
+
+    /**
+     * @param objects all the objects of the type, as seen by the current transaction
+     */
+    public ReferenceDataRegistry(final Supplier<Set<T>> objects) {
+        this.objects = objects;
+    }
+
+    /**
+     * Adds an index of the objects by a key, which must be done before the registry is used. Objects whose key is null are
+     * not indexed.
+     */
+    public synchronized Index<T> index(final Function<T, ?> key) {
+        track(key);
+        indexed.set(keys.size() - 1);
+        return new Index<>(this, keys.size() - 1);
+    }
+
+    /**
+     * Adds a value of the objects that views are built from, which must be done before the registry is used, so that the
+     * snapshot is built again when it changes.
+     */
+    public synchronized ReferenceDataRegistry<T> track(final Function<T, ?> key) {
+        checkNotUsed();
+        keys.add(key);
+        return this;
+    }
+
+    /**
+     * Adds a view built from all the objects of the type, seen by the transaction that builds the snapshot, which must be
+     * done before the registry is used. Views must not change once built.
+     */
+    public synchronized <V> View<T, V> view(final Function<Set<T>, V> builder) {
+        checkNotUsed();
+        views.add(builder);
+        return new View<>(this, views.size() - 1);
+    }
+
+    private void checkNotUsed() {
+        if (shared != null) {
+            throw new IllegalStateException("Indexes and views must be added before the registry is used");
+        }
+    }
+
+    /**
+     * Registers a listener that makes the current transaction check the registry again whenever the relation changes, which
+     * should be the relation holding all the objects of the type.
+     */
+    public <A, B> void invalidateOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                invalidate();
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                invalidate();
+            }
+        });
+    }
+
+    /**
+     * Makes the current transaction check the registry again, after changing a key of an object of the type.
+     */
+    public void invalidate() {
+        validated.remove();
+    }
+
+    private Snapshot<T> current() {
+        final Snapshot<T> result = validated.get();
+        if (result != null) {
+            return result;
+        }
+
+        final Set<T> all = objects.get();
+        Snapshot<T> snapshot = shared;
+        if (snapshot == null || !matches(snapshot, all)) {
+            snapshot = build(all);
+            shared = snapshot;
+        }
+
+        validated.set(snapshot);
+        return snapshot;
+    }
+
+    private Snapshot<T> build(final Set<T> all) {
+        final Snapshot<T> result = new Snapshot<>();
+        for (int i = 0; i < keys.size(); i++) {
+            result.byKey.add(indexed.get(i) ? new HashMap<>() : null);
+        }
+        for (final T object : all) {
+            final Object[] values = keys.stream().map(key -> key.apply(object)).toArray();
+            result.entries.add(new Entry<>(object, values));
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null && result.byKey.get(i) != null) {
+                    result.byKey.get(i).putIfAbsent(values[i], object);
+                }
+            }
+        }
+        result.byKey.replaceAll(map -> map == null ? null : Collections.unmodifiableMap(map));
+        for (final Function<Set<T>, ?> view : views) {
+            result.views.add(view.apply(all));
+        }
+        return result;
+    }
+
+    private boolean matches(final Snapshot<T> snapshot, final Set<T> all) {
+        if (snapshot.entries.size() != all.size()) {
+            return false;
+        }
+        for (final Entry<T> entry : snapshot.entries) {
+            if (!all.contains(entry.object())) {
+                return false;
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                if (!Objects.equals(entry.keys()[i], keys.get(i).apply(entry.object()))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+}
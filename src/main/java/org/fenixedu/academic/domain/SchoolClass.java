@@ -19,6 +19,7 @@
 package org.fenixedu.academic.domain;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,7 @@ import java.util.stream.Stream;
 import org.apache.commons.lang.StringUtils;
 import org.fenixedu.academic.domain.degreeStructure.CourseLoadType;
 import org.fenixedu.academic.domain.exceptions.DomainException;
+import org.fenixedu.academic.domain.schedule.shiftCapacity.ShiftCapacity;
 import org.fenixedu.academic.domain.student.Registration;
 import org.fenixedu.academic.domain.time.calendarStructure.AcademicInterval;
 import org.fenixedu.academic.util.Bundle;
@@ -179,17 +181,29 @@ public class SchoolClass extends SchoolClass_Base {
      */
     public static void replaceSchoolClass(final Registration registration, final SchoolClass schoolClass,
             final ExecutionInterval executionInterval) {
+        replaceSchoolClass(registration, schoolClass, executionInterval, Collections.emptyList());
+    }
+
+    /*
+     * Same as above, enrolling first in the capacities planned by SchoolClassPlacement
+     */
+    static void replaceSchoolClass(final Registration registration, final SchoolClass schoolClass,
+            final ExecutionInterval executionInterval, final Collection<ShiftCapacity> plannedCapacities) {
 
         registration.findSchoolClass(executionInterval).ifPresent(sc -> sc.unenrolInSchoolClassAndShifts(registration));
 
         if (schoolClass != null) {
-            schoolClass.enrolInSchoolClassAndShifts(registration);
+            schoolClass.enrolInSchoolClassAndShifts(registration, plannedCapacities);
         }
     }
 
-    private void enrolInSchoolClassAndShifts(final Registration registration) {
+    private void enrolInSchoolClassAndShifts(final Registration registration,
+            final Collection<ShiftCapacity> plannedCapacities) {
         registration.getSchoolClassesSet().add(this); // must add first in order to correct evaluation of shift capacities based on school classes
 
+        // if a planned capacity is already full, the shift is chosen below as if there was no plan
+        plannedCapacities.forEach(sc -> Shift.enrol(registration, sc));
+
         final Comparator<Shift> vacanciesComparator = Comparator.comparing(Shift::getVacancies).reversed();
 
         final Map<ExecutionCourse, List<Shift>> shiftsByExecutionCourse =
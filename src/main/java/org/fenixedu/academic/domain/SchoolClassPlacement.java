@@ -0,0 +1,284 @@
+package org.fenixedu.academic.domain;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.fenixedu.academic.domain.degreeStructure.CourseLoadType;
+import org.fenixedu.academic.domain.schedule.shiftCapacity.ShiftCapacity;
+import org.fenixedu.academic.domain.student.Registration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import pt.ist.fenixframework.Atomic;
+import pt.ist.fenixframework.Atomic.TxMode;
+import pt.ist.fenixframework.DomainObject;
+
+/**
+ * Places many registrations in school classes at once, as {@link SchoolClass#replaceSchoolClass(Registration, SchoolClass,
+ * ExecutionInterval)} does for each one, but choosing their shifts all together instead of one registration at a time.
+ *
+ * The shifts are planned in memory first: {@link ShiftCapacity#accepts(Registration, SchoolClass)} is evaluated at most once
+ * for each capacity and registration, the registrations with fewer shifts to choose from are placed first, and each one
+ * goes to the shift that is less occupied, so that the load is balanced across shifts and the result does not depend on the
+ * order of the registrations. Capacities are used like {@link Shift#enrol(Registration)} does, including their extra
+ * capacities.
+ *
+ * The plan is then committed in chunks, each in its own transaction. If a planned capacity is full by then, the shift is
+ * chosen as {@link SchoolClass#replaceSchoolClass(Registration, SchoolClass, ExecutionInterval)} would. If a chunk fails, its
+ * registrations are committed again one at a time, and those that still fail are reported in the {@link Result}.
+ *
+ * Must not be executed inside a transaction, otherwise all chunks are committed together.
+ */
+public class SchoolClassPlacement {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchoolClassPlacement.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private static final Comparator<DomainObject> BY_EXTERNAL_ID = Comparator.comparing(DomainObject::getExternalId);
+
+    public static class Result {
+
+        private final List<Registration> placed = new ArrayList<>();
+
+        private final Map<Registration, RuntimeException> failures = new LinkedHashMap<>();
+
+        private Result() {
+        }
+
+        public List<Registration> getPlaced() {
+            return Collections.unmodifiableList(placed);
+        }
+
+        public Map<Registration, RuntimeException> getFailures() {
+            return Collections.unmodifiableMap(failures);
+        }
+    }
+
+    private static record Slot(int registration, List<Shift> shifts) {
+    }
+
+    private final ExecutionInterval executionInterval;
+
+    private final Map<Registration, SchoolClass> placements = new HashMap<>();
+
+    public SchoolClassPlacement(final ExecutionInterval executionInterval) {
+        this.executionInterval = executionInterval;
+    }
+
+    /**
+     * @return a placement of all registrations in school classes of the provided execution degree and curricular year in
+     *         their current school class, choosing again their shifts
+     */
+    public static SchoolClassPlacement of(final ExecutionDegree executionDegree, final ExecutionInterval executionInterval,
+            final Integer curricularYear) {
+        final SchoolClassPlacement result = new SchoolClassPlacement(executionInterval);
+        SchoolClass.findBy(executionDegree, executionInterval, curricularYear)
+                .forEach(sc -> sc.getRegistrationsSet().forEach(r -> result.add(r, sc)));
+        return result;
+    }
+
+    /**
+     * @param schoolClass the school class where the registration will be placed, or null to remove it from its current one
+     */
+    public SchoolClassPlacement add(final Registration registration, final SchoolClass schoolClass) {
+        placements.put(registration, schoolClass);
+        return this;
+    }
+
+    public Result execute() {
+        return execute(DEFAULT_CHUNK_SIZE);
+    }
+
+    public Result execute(final int chunkSize) {
+        final Map<Registration, List<ShiftCapacity>> plan = plan();
+        final List<Registration> registrations = new ArrayList<>(plan.keySet());
+
+        final Result result = new Result();
+        for (int i = 0; i < registrations.size(); i += chunkSize) {
+            final List<Registration> chunk = registrations.subList(i, Math.min(i + chunkSize, registrations.size()));
+            try {
+                commit(chunk, plan);
+                result.placed.addAll(chunk);
+            } catch (final RuntimeException e) {
+                // one of the registrations could not be placed, so each one is committed on its own
+                for (final Registration registration : chunk) {
+                    try {
+                        commit(List.of(registration), plan);
+                        result.placed.add(registration);
+                    } catch (final RuntimeException registrationException) {
+                        logger.warn("Unable to place registration " + registration.getExternalId(), registrationException);
+                        result.failures.put(registration, registrationException);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Atomic(mode = TxMode.WRITE)
+    private void commit(final List<Registration> registrations, final Map<Registration, List<ShiftCapacity>> plan) {
+        for (final Registration registration : registrations) {
+            SchoolClass.replaceSchoolClass(registration, placements.get(registration), executionInterval,
+                    plan.get(registration));
+        }
+    }
+
+    /**
+     * @return the capacity to enrol each registration in, for each shift type of the courses it attends
+     */
+    @Atomic(mode = TxMode.READ)
+    public Map<Registration, List<ShiftCapacity>> plan() {
+        return new Planner().plan();
+    }
+
+    private class Planner {
+
+        private final List<Registration> registrations = placements.keySet().stream().sorted(BY_EXTERNAL_ID).toList();
+
+        private final Map<ShiftCapacity, Integer> capacityIndexes = new HashMap<>();
+
+        private final List<ShiftCapacity> capacities = new ArrayList<>();
+
+        private final Map<ShiftCapacity, Integer> released = new HashMap<>();
+
+        private final Map<Shift, Integer> occupied = new HashMap<>();
+
+        // which (capacity, registration) pairs were evaluated and accepted, at capacity * registrations + registration
+        private final BitSet evaluated = new BitSet();
+
+        private final BitSet accepted = new BitSet();
+
+        private int[] remaining;
+
+        private Map<Registration, List<ShiftCapacity>> plan() {
+            final List<Slot> slots = new ArrayList<>();
+            for (int i = 0; i < registrations.size(); i++) {
+                collectSlots(i, slots);
+            }
+
+            remaining = new int[capacities.size()];
+            for (int c = 0; c < capacities.size(); c++) {
+                remaining[c] = capacities.get(c).getFreeVacancies() + released.getOrDefault(capacities.get(c), 0);
+            }
+
+            final Map<Slot, Long> options = slots.stream()
+                    .collect(Collectors.toMap(slot -> slot, slot -> slot.shifts().stream()
+                            .filter(s -> findCapacity(s, slot.registration()) != null).count()));
+            slots.sort(Comparator.comparing(options::get));
+
+            final Map<Registration, List<ShiftCapacity>> result = new LinkedHashMap<>();
+            registrations.forEach(r -> result.put(r, new ArrayList<>()));
+
+            for (final Slot slot : slots) {
+                Shift chosen = null;
+                for (final Shift shift : slot.shifts()) {
+                    if (findCapacity(shift, slot.registration()) != null && (chosen == null || load(shift) < load(chosen))) {
+                        chosen = shift;
+                    }
+                }
+
+                // without any free shift, the registration fails when committed, as it would when placed alone
+                if (chosen != null) {
+                    final ShiftCapacity capacity = findCapacity(chosen, slot.registration());
+                    remaining[capacityIndexes.get(findUsedCapacity(capacity))]--;
+                    occupied.merge(chosen, 1, Integer::sum);
+                    result.get(registrations.get(slot.registration())).add(capacity);
+                }
+            }
+            return result;
+        }
+
+        private void collectSlots(final int index, final List<Slot> slots) {
+            final Registration registration = registrations.get(index);
+            final SchoolClass current = registration.findSchoolClass(executionInterval).orElse(null);
+            final Set<Shift> releasedShifts = current == null ? Set.of() : current.getAssociatedShiftsSet();
+
+            for (final Shift shift : releasedShifts) {
+                ShiftEnrolment.find(shift, registration).ifPresent(se -> {
+                    released.merge(se.getShiftCapacity(), 1, Integer::sum);
+                    occupied.computeIfAbsent(shift, ShiftEnrolment::getTotalEnrolments);
+                    occupied.merge(shift, -1, Integer::sum);
+                    indexCapacity(se.getShiftCapacity());
+                });
+            }
+
+            final SchoolClass schoolClass = placements.get(registration);
+            if (schoolClass == null) {
+                return;
+            }
+
+            final Map<ExecutionCourse, Map<CourseLoadType, List<Shift>>> shiftsByType =
+                    schoolClass.findShiftsFor(registration).sorted(BY_EXTERNAL_ID).collect(Collectors.groupingBy(
+                            Shift::getExecutionCourse, Collectors.groupingBy(Shift::getCourseLoadType)));
+
+            shiftsByType.forEach((executionCourse, byLoadType) -> byLoadType.forEach((courseLoadType, shifts) -> {
+                final Shift enrolled = registration.findEnrolledShiftFor(executionCourse, courseLoadType).orElse(null);
+                if (enrolled == null || releasedShifts.contains(enrolled)) {
+                    shifts.forEach(this::indexShift);
+                    slots.add(new Slot(index, shifts));
+                }
+            }));
+        }
+
+        private void indexShift(final Shift shift) {
+            occupied.computeIfAbsent(shift, ShiftEnrolment::getTotalEnrolments);
+            shift.getShiftCapacitiesSet().forEach(sc -> {
+                indexCapacity(sc);
+                sc.getExtraCapacitiesSet().forEach(this::indexCapacity);
+            });
+        }
+
+        private void indexCapacity(final ShiftCapacity capacity) {
+            capacityIndexes.computeIfAbsent(capacity, sc -> {
+                capacities.add(sc);
+                return capacities.size() - 1;
+            });
+        }
+
+        private double load(final Shift shift) {
+            final int total = ShiftCapacity.getTotalCapacity(shift);
+            return total == 0 ? Double.MAX_VALUE : occupied.getOrDefault(shift, 0) / (double) total;
+        }
+
+        /**
+         * @return the capacity that {@link Shift#enrol(Registration)} would choose, if it has vacancies left
+         */
+        private ShiftCapacity findCapacity(final Shift shift, final int registration) {
+            final ShiftCapacity capacity = shift.getShiftCapacitiesSet().stream()
+                    .sorted(ShiftCapacity.TYPE_EVALUATION_PRIORITY_COMPARATOR).filter(sc -> accepts(sc, registration))
+                    .findFirst().orElse(null);
+            return capacity != null && findUsedCapacity(capacity) != null ? capacity : null;
+        }
+
+        /**
+         * @return the capacity or the extra capacity that takes the vacancy, as {@link Shift#enrol(Registration, ShiftCapacity)}
+         */
+        private ShiftCapacity findUsedCapacity(final ShiftCapacity capacity) {
+            if (remaining[capacityIndexes.get(capacity)] > 0) {
+                return capacity;
+            }
+            return capacity.getExtraCapacitiesSet().stream().filter(sc -> remaining[capacityIndexes.get(sc)] > 0)
+                    .sorted(ShiftCapacity.TYPE_EVALUATION_PRIORITY_COMPARATOR).findFirst().orElse(null);
+        }
+
+        private boolean accepts(final ShiftCapacity capacity, final int registration) {
+            final int bit = capacityIndexes.get(capacity) * registrations.size() + registration;
+            if (!evaluated.get(bit)) {
+                final Registration target = registrations.get(registration);
+                accepted.set(bit, capacity.accepts(target, placements.get(target)));
+                evaluated.set(bit);
+            }
+            return accepted.get(bit);
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -38,6 +39,7 @@ import org.fenixedu.academic.domain.degreeStructure.CourseLoadType;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.academic.domain.schedule.shiftCapacity.ShiftCapacity;
 import org.fenixedu.academic.domain.schedule.shiftCapacity.ShiftCapacityType;
+import org.fenixedu.academic.domain.schedule.shiftCapacity.ShiftEnrolmentAdmission;
 import org.fenixedu.academic.domain.student.Registration;
 import org.fenixedu.academic.domain.util.i18n.Languages;
 import org.fenixedu.academic.util.Bundle;
@@ -190,7 +192,8 @@ public class Shift extends Shift_Base {
 
     /**
      * Enrolls provided registration in this shift and its first suitable capacity, and unenroll it from other shifts of same
-     * type and course
+     * type and course, in the current transaction. Enrolments requested by students should go through
+     * {@link #submitEnrolment(Registration)} instead.
      *
      * @param registration registration to enroll in this shift
      * @return <code>true</code> if registration enrolled successfully in this shift
@@ -219,6 +222,27 @@ public class Shift extends Shift_Base {
         return false;
     }
 
+    /**
+     * Same as {@link #enrol(Registration)}, through the {@link ShiftEnrolmentAdmission}, for the enrolments requested by
+     * students during enrolment periods: the enrolment is rejected right away if there are no vacancies left, and otherwise
+     * committed in a transaction of its own, in order with the other enrolments in the execution course.
+     *
+     * @return completes with <code>true</code> once the registration is enrolled, or with <code>false</code> if it was rejected
+     */
+    public CompletableFuture<Boolean> submitEnrolment(final Registration registration) {
+        return ShiftEnrolmentAdmission.getInstance().submit(registration, this);
+    }
+
+    /**
+     * Same as {@link #enrol(Registration, ShiftCapacity)}, through the {@link ShiftEnrolmentAdmission}.
+     *
+     * @see #submitEnrolment(Registration)
+     */
+    public static CompletableFuture<Boolean> submitEnrolment(final Registration registration,
+            final ShiftCapacity shiftCapacity) {
+        return ShiftEnrolmentAdmission.getInstance().submit(registration, shiftCapacity);
+    }
+
     private static boolean doEnrol(final Registration registration, final ShiftCapacity shiftCapacityParam) {
 
         // if shiftCapacity isn't free, check if is there an extra capacity configured
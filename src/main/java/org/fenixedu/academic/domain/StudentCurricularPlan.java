@@ -32,6 +32,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.fenixedu.academic.domain.accessControl.MembershipBitmaps;
 import org.fenixedu.academic.domain.curricularRules.executors.RuleResult;
 import org.fenixedu.academic.domain.curricularRules.executors.ruleExecutors.CurricularRuleLevel;
 import org.fenixedu.academic.domain.curriculum.EnrollmentCondition;
@@ -53,6 +54,7 @@ import org.fenixedu.academic.domain.studentCurriculum.CreditsManager;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumGroup;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumGroupFactory;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumLine;
+import org.fenixedu.academic.domain.studentCurriculum.CurriculumLineIndex;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumModule;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumModule.CurriculumModulePredicateByExecutionInterval;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumModule.CurriculumModulePredicateByExecutionYear;
@@ -89,6 +91,10 @@ import pt.ist.fenixframework.Atomic;
 
 public class StudentCurricularPlan extends StudentCurricularPlan_Base {
 
+    static {
+        MembershipBitmaps.indexOnChange(getRelationStudentCurricularPlanDegreeCurricularPlan());
+    }
+
     static final public Comparator<StudentCurricularPlan> STUDENT_CURRICULAR_PLAN_COMPARATOR_BY_DEGREE_TYPE_AND_DEGREE_NAME =
             Comparator.comparing((StudentCurricularPlan p) -> p.getDegree().getDegreeType())
                     .thenComparing(p -> p.getDegree().getName());
@@ -367,7 +373,7 @@ public class StudentCurricularPlan extends StudentCurricularPlan_Base {
     }
 
     final public List<Enrolment> getEnrolments(final CurricularCourse curricularCourse) {
-        return getEnrolmentsSet().stream().filter(e -> e.getCurricularCourse() == curricularCourse).collect(Collectors.toList());
+        return CurriculumLineIndex.getEnrolments(this, curricularCourse);
     }
 
     final public int countEnrolmentsByCurricularCourse(final CurricularCourse curricularCourse) {
@@ -20,11 +20,8 @@ package org.fenixedu.academic.domain.accessControl;
 
 import java.util.stream.Stream;
 
-import org.fenixedu.academic.domain.Person;
-import org.fenixedu.academic.domain.student.Student;
 import org.fenixedu.academic.util.Bundle;
 import org.fenixedu.bennu.core.annotation.GroupOperator;
-import org.fenixedu.bennu.core.domain.Bennu;
 import org.fenixedu.bennu.core.domain.User;
 import org.fenixedu.bennu.core.groups.GroupStrategy;
 import org.fenixedu.bennu.core.i18n.BundleUtil;
@@ -42,8 +39,8 @@ public class ActiveStudentsGroup extends GroupStrategy {
 
     @Override
     public Stream<User> getMembers() {
-        return Bennu.getInstance().getStudentsSet().stream().filter(Student::hasActiveRegistrations).map(Student::getPerson)
-                .map(Person::getUser);
+        final MembershipBitmaps bitmaps = MembershipBitmaps.current();
+        return bitmaps.users(bitmaps.getActiveStudents()).filter(this::isMember);
     }
 
     @Override
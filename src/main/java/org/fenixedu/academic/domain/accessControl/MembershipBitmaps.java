@@ -0,0 +1,243 @@
+package org.fenixedu.academic.domain.accessControl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import org.fenixedu.academic.domain.Degree;
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.Person;
+import org.fenixedu.academic.domain.Professorship;
+import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.student.RegistrationDataByExecutionYear;
+import org.fenixedu.academic.domain.student.registrationStates.RegistrationState;
+import org.fenixedu.academic.util.CompactIntSet;
+import org.fenixedu.academic.util.LazyBitmapIndex;
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.fenixedu.bennu.core.domain.User;
+
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * Bitmaps of the users that may belong to the student and teacher groups, so that the groups only check the users whose
+ * bits are set in the combination of the bitmaps of their arguments, instead of every registration or teacher.
+ *
+ * Each user gets a dense ordinal the first time one of its registrations or professorships is indexed. Registrations are
+ * indexed by degree, by the execution years in which they are active, and whether they are (or may become) active;
+ * professorships are indexed by the execution interval of their execution course. The bitmaps only grow while the domain
+ * changes, so the groups must always check the candidates against the current domain state.
+ *
+ * The bitmaps only narrow the members listed by the groups, never their membership checks: they are kept by each server
+ * from the changes it makes, so they miss registrations changed by other servers until they are built again, at most
+ * {@value #MAXIMUM_AGE_MILLIS} milliseconds later. They are then built by a new instance, along with the ordinals, so users
+ * that are no longer indexed do not keep their ordinals. The ordinals in the bitmaps of an instance must only be turned into
+ * users by that same instance.
+ */
+public class MembershipBitmaps {
+
+    private static enum Marker {
+        ACTIVE
+    }
+
+    private static record ActiveIn(ExecutionYear executionYear) {
+    }
+
+    private static final long MAXIMUM_AGE_MILLIS = 10 * 60 * 1000;
+
+    private static volatile MembershipBitmaps current = new MembershipBitmaps(null);
+
+    private final Map<User, Integer> ordinals = new ConcurrentHashMap<>();
+
+    private final List<User> users = new ArrayList<>();
+
+    private final LazyBitmapIndex<Object, Registration> registrations;
+
+    private final LazyBitmapIndex<ExecutionInterval, Professorship> professorships;
+
+    // the values recently added to the previous instance are added to the new one, which gives them new ordinals
+    private MembershipBitmaps(final MembershipBitmaps previous) {
+        final ToIntFunction<Registration> registrationOrdinal =
+                registration -> ordinal(registration.getStudent() == null ? null : registration.getPerson());
+        final ToIntFunction<Professorship> professorshipOrdinal = professorship -> ordinal(professorship.getPerson());
+
+        if (previous == null) {
+            this.registrations = new LazyBitmapIndex<>(() -> Bennu.getInstance().getRegistrationsSet().stream(),
+                    MembershipBitmaps::getKeys, registrationOrdinal);
+            this.professorships = new LazyBitmapIndex<>(() -> Bennu.getInstance().getProfessorshipsSet().stream(),
+                    professorship -> professorship.getExecutionCourse() == null ? Stream.empty() : Stream
+                            .of(professorship.getExecutionCourse().getExecutionInterval()),
+                    professorshipOrdinal);
+        } else {
+            this.registrations = previous.registrations.renew(registrationOrdinal);
+            this.professorships = previous.professorships.renew(professorshipOrdinal);
+        }
+    }
+
+    /**
+     * Registers a listener that indexes again the registrations and professorships affected by changes to the relation.
+     */
+    public static <A, B> void indexOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                index(a);
+                index(b);
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                index(a);
+                index(b);
+            }
+        });
+    }
+
+    private static void index(final Object object) {
+        if (object instanceof Registration registration) {
+            index(registration);
+        } else if (object instanceof RegistrationState state) {
+            index(state.getRegistration());
+        } else if (object instanceof RegistrationDataByExecutionYear data) {
+            index(data.getRegistration());
+        } else if (object instanceof StudentCurricularPlan studentCurricularPlan) {
+            index(studentCurricularPlan.getRegistration());
+        } else if (object instanceof Professorship professorship) {
+            index(professorship);
+        } else if (object instanceof Person person) {
+            if (person.getStudent() != null) {
+                person.getStudent().getRegistrationsSet().forEach(MembershipBitmaps::index);
+            }
+            person.getProfessorshipsSet().forEach(MembershipBitmaps::index);
+        }
+    }
+
+    // values are added while holding the same lock as the renewal, so none is added to an instance that was already renewed
+    public static synchronized void index(final Registration registration) {
+        if (registration != null) {
+            current.registrations.add(registration);
+        }
+    }
+
+    public static synchronized void index(final Professorship professorship) {
+        if (professorship != null) {
+            current.professorships.add(professorship);
+        }
+    }
+
+    public static synchronized void invalidate() {
+        current = new MembershipBitmaps(current);
+    }
+
+    /**
+     * @return the bitmaps to read the candidates of a group from, built again if they are older than the maximum age
+     */
+    public static MembershipBitmaps current() {
+        final MembershipBitmaps result = current;
+        return result.isOld() ? renew(result) : result;
+    }
+
+    private static synchronized MembershipBitmaps renew(final MembershipBitmaps old) {
+        if (current == old) {
+            current = new MembershipBitmaps(old);
+        }
+        return current;
+    }
+
+    private boolean isOld() {
+        return registrations.getAge() > MAXIMUM_AGE_MILLIS || professorships.getAge() > MAXIMUM_AGE_MILLIS;
+    }
+
+    private int ordinal(final Person person) {
+        final User user = person == null ? null : person.getUser();
+        if (user == null) {
+            return -1;
+        }
+
+        Integer result = ordinals.get(user);
+        if (result == null) {
+            synchronized (users) {
+                result = ordinals.get(user);
+                if (result == null) {
+                    result = users.size();
+                    users.add(user);
+                    ordinals.put(user, result);
+                }
+            }
+        }
+        return result.intValue();
+    }
+
+    private static Stream<Object> getKeys(final Registration registration) {
+        final Stream.Builder<Object> result = Stream.builder();
+        if (mayBeActive(registration)) {
+            result.add(Marker.ACTIVE);
+        }
+
+        result.add(registration.getDegree());
+        registration.getStudentCurricularPlansSet().stream().map(StudentCurricularPlan::getDegreeCurricularPlan)
+                .filter(dcp -> dcp != null).forEach(dcp -> result.add(dcp.getDegree()));
+
+        registration.getRegistrationDataByExecutionYearSet().stream().filter(RegistrationDataByExecutionYear::getActive)
+                .forEach(data -> result.add(new ActiveIn(data.getExecutionYear())));
+        return result.build();
+    }
+
+    /**
+     * Whether the registration is active now or has an active state that may become its active state as time goes by, so
+     * that registrations do not need to be indexed again when a state starts.
+     */
+    private static boolean mayBeActive(final Registration registration) {
+        final RegistrationState activeState = registration.getActiveState();
+        return registration.getRegistrationStatesSet().stream()
+                .filter(state -> state.getType() != null && state.getType().getActive())
+                .anyMatch(state -> state == activeState || state.getExecutionInterval() == null
+                        || !state.getExecutionInterval().getExecutionYear().getAcademicInterval().getStart().isBeforeNow()
+                                && !state.getExecutionInterval().isCurrent());
+    }
+
+    /**
+     * @return the users that may have an active registration
+     */
+    public CompactIntSet getActiveStudents() {
+        return registrations.get(Marker.ACTIVE);
+    }
+
+    /**
+     * @return the users that may have a registration with active data in the execution year
+     */
+    public CompactIntSet getStudentsActiveIn(final ExecutionYear executionYear) {
+        return registrations.get(new ActiveIn(executionYear));
+    }
+
+    /**
+     * @return the users that may have a registration, or a student curricular plan, in any of the degrees
+     */
+    public CompactIntSet getStudentsOf(final Stream<Degree> degrees) {
+        return registrations.any(degrees.map(Object.class::cast));
+    }
+
+    /**
+     * @return the users that may have a professorship in any of the execution intervals
+     */
+    public CompactIntSet getTeachersIn(final Stream<? extends ExecutionInterval> executionIntervals) {
+        return professorships.any(executionIntervals.map(ExecutionInterval.class::cast));
+    }
+
+    /**
+     * @return the users of the ordinals, which must have been read from the bitmaps of this instance
+     */
+    public Stream<User> users(final CompactIntSet ordinals) {
+        final List<User> result = new ArrayList<>(ordinals.size());
+        synchronized (users) {
+            ordinals.forEach(ordinal -> result.add(users.get(ordinal)));
+        }
+        return result.stream();
+    }
+
+}
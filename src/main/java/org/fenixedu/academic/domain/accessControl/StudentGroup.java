@@ -31,7 +31,6 @@ import org.fenixedu.academic.domain.Attends;
 import org.fenixedu.academic.domain.CurricularYear;
 import org.fenixedu.academic.domain.Degree;
 import org.fenixedu.academic.domain.DegreeCurricularPlan;
-import org.fenixedu.academic.domain.Enrolment;
 import org.fenixedu.academic.domain.ExecutionCourse;
 import org.fenixedu.academic.domain.ExecutionDegree;
 import org.fenixedu.academic.domain.ExecutionYear;
@@ -42,12 +41,14 @@ import org.fenixedu.academic.domain.organizationalStructure.Unit;
 import org.fenixedu.academic.domain.person.RoleType;
 import org.fenixedu.academic.domain.student.Registration;
 import org.fenixedu.academic.domain.student.RegistrationDataByExecutionYear;
+import org.fenixedu.academic.domain.student.RegistrationYearFacts;
+import org.fenixedu.academic.domain.student.registrationStates.RegistrationStateTimeline;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumModule.ConclusionValue;
 import org.fenixedu.academic.domain.studentCurriculum.CycleCurriculumGroup;
 import org.fenixedu.academic.util.Bundle;
+import org.fenixedu.academic.util.CompactIntSet;
 import org.fenixedu.bennu.core.annotation.GroupArgument;
 import org.fenixedu.bennu.core.annotation.GroupOperator;
-import org.fenixedu.bennu.core.domain.Bennu;
 import org.fenixedu.bennu.core.domain.User;
 import org.fenixedu.bennu.core.domain.groups.PersistentGroup;
 import org.fenixedu.bennu.core.i18n.BundleUtil;
@@ -296,14 +297,15 @@ public class StudentGroup extends FenixGroup {
         if (curricularYear == null) {
             return registrations;
         }
-        return registrations.filter(registration -> registration.getCurricularYear(executionYear) == curricularYear.getYear());
+        return registrations.filter(registration -> RegistrationYearFacts.find(registration, executionYear)
+                .getCurricularYear() == curricularYear.getYear());
     }
 
     private static Stream<Registration> filterWithEnrolments(Stream<Registration> registrations, Boolean withEnrolments) {
         if (!Boolean.TRUE.equals(withEnrolments)) {
             return registrations;
         }
-        return registrations.filter(r -> r.findEnrolments().anyMatch(Predicate.not(Enrolment::isAnnulled)));
+        return registrations.filter(r -> RegistrationYearFacts.find(r).hasEnrolments());
     }
 
     private static Stream<Registration> filterFirstTimeInDegree(Stream<Registration> registrations, Boolean firstTimeInDegree,
@@ -315,27 +317,19 @@ public class StudentGroup extends FenixGroup {
     }
 
     private static Stream<Registration> getRegistrations(DegreeType type) {
-        Set<Registration> registrations = new HashSet<>();
-        RoleType.STUDENT.actualGroup().getMembers().forEach(user -> {
-            user.getPerson().getStudentsSet().forEach(reg -> {
-                if (reg.getDegreeType() == type && reg.isActive()) {
-                    registrations.add(reg);
-                }
-            });
-        });
-        return registrations.stream();
+        final MembershipBitmaps bitmaps = MembershipBitmaps.current();
+        final CompactIntSet candidates = bitmaps.getActiveStudents().and(bitmaps.getStudentsOf(type.getDegreeSet().stream()));
+        return candidateRegistrations(bitmaps, candidates, RoleType.STUDENT.actualGroup()::isMember)
+                .filter(reg -> reg.getDegreeType() == type && reg.isActive());
     }
 
     private static Stream<Registration> getRegistrations(Degree degree) {
-        Set<Registration> registrations = new HashSet<>();
-        for (DegreeCurricularPlan degreeCurricularPlan : degree.getActiveDegreeCurricularPlans()) {
-            for (StudentCurricularPlan studentCurricularPlan : degreeCurricularPlan.getStudentCurricularPlansSet()) {
-                if (studentCurricularPlan.isActive()) {
-                    registrations.add(studentCurricularPlan.getRegistration());
-                }
-            }
-        }
-        return registrations.stream();
+        final Set<DegreeCurricularPlan> degreeCurricularPlans = new HashSet<>(degree.getActiveDegreeCurricularPlans());
+        final MembershipBitmaps bitmaps = MembershipBitmaps.current();
+        final CompactIntSet candidates = bitmaps.getActiveStudents().and(bitmaps.getStudentsOf(Stream.of(degree)));
+        return candidateRegistrations(bitmaps, candidates, user -> true)
+                .filter(reg -> reg.getStudentCurricularPlansSet().stream().anyMatch(
+                        scp -> degreeCurricularPlans.contains(scp.getDegreeCurricularPlan()) && scp.isActive()));
     }
 
     private Stream<Registration> getRegistrations(ExecutionYear executionYear, Boolean withEnrolments) {
@@ -343,13 +337,25 @@ public class StudentGroup extends FenixGroup {
             return executionYear.getChildIntervals().stream().flatMap(ei -> ei.getEnrolmentsSet().stream())
                     .filter(e -> !e.isAnnulled()).map(e -> e.getRegistration());
         } else {
-            return executionYear.getRegistrationDataByExecutionYearSet().stream()
-                    .filter(RegistrationDataByExecutionYear::getActive).map(RegistrationDataByExecutionYear::getRegistration);
+            final MembershipBitmaps bitmaps = MembershipBitmaps.current();
+            return candidateRegistrations(bitmaps, bitmaps.getStudentsActiveIn(executionYear), user -> true)
+                    .filter(reg -> reg.getDataByExecutionYear(executionYear).filter(RegistrationDataByExecutionYear::getActive)
+                            .isPresent());
         }
     }
 
     private static Stream<Registration> getRegistrations() {
-        return Bennu.getInstance().getRegistrationsSet().stream().filter(Registration::isActive);
+        return RegistrationStateTimeline.findActiveRegistrations();
+    }
+
+    /**
+     * The registrations of the users in the candidates bitmap, read from the bitmaps, which must still be checked against the
+     * group arguments.
+     */
+    private static Stream<Registration> candidateRegistrations(final MembershipBitmaps bitmaps, final CompactIntSet candidates,
+            final Predicate<User> filter) {
+        return bitmaps.users(candidates).filter(user -> user.getPerson() != null && filter.test(user))
+                .flatMap(user -> user.getPerson().getStudentsSet().stream()).distinct();
     }
 
     private static Stream<User> registrationsToUsers(Stream<Registration> registrations) {
@@ -365,25 +371,24 @@ public class StudentGroup extends FenixGroup {
     }
 
     private Stream<Registration> getCampusBasedRegistrations() {
-        Set<Registration> registrations = new HashSet<>();
+        final Set<DegreeCurricularPlan> degreeCurricularPlans = new HashSet<>();
         for (final ExecutionYear executionYear : ExecutionYear.findCurrents()) {
             for (final ExecutionDegree executionDegree : executionYear.getExecutionDegreesSet()) {
                 final DegreeCurricularPlan degreeCurricularPlan = executionDegree.getDegreeCurricularPlan();
                 final Space dcpCampus =
                         Optional.ofNullable(degreeCurricularPlan.getDegree().getUnit()).map(Unit::getCampus).orElse(null);
                 if (dcpCampus == campus) {
-                    for (final StudentCurricularPlan studentCurricularPlan : degreeCurricularPlan
-                            .getStudentCurricularPlansSet()) {
-                        final Registration registration = studentCurricularPlan.getRegistration();
-                        if (registration != null && registration.isActive()) {
-                            registrations.add(registration);
-                        }
-                    }
+                    degreeCurricularPlans.add(degreeCurricularPlan);
                 }
             }
         }
 
-        Stream<Registration> result = registrations.stream();
+        final MembershipBitmaps bitmaps = MembershipBitmaps.current();
+        final CompactIntSet candidates = bitmaps.getActiveStudents()
+                .and(bitmaps.getStudentsOf(degreeCurricularPlans.stream().map(DegreeCurricularPlan::getDegree)));
+        Stream<Registration> result = candidateRegistrations(bitmaps, candidates, user -> true).filter(Registration::isActive)
+                .filter(registration -> registration.getStudentCurricularPlansSet().stream()
+                        .anyMatch(scp -> degreeCurricularPlans.contains(scp.getDegreeCurricularPlan())));
         result = filterWithEnrolments(result, withEnrolments);
         result = filterFirstTimeInDegree(result, firstTimeInDegree, getExecutionYear());
         return result;
@@ -403,7 +408,8 @@ public class StudentGroup extends FenixGroup {
             return false;
         }
         for (final Registration registration : user.getPerson().getStudent().getRegistrationsSet()) {
-            if (executionCourse != null && registration.getAttendingExecutionCoursesFor().contains(executionCourse)) {
+            if (executionCourse != null
+                    && RegistrationYearFacts.find(registration).getAttendingExecutionCourses().contains(executionCourse)) {
                 return true;
             }
             if (executionYear != null && cycle == null && firstTimeInDegree == null) {
@@ -428,14 +434,15 @@ public class StudentGroup extends FenixGroup {
                         && Optional.ofNullable(registration.getDegree().getUnit()).map(Unit::getCampus).orElse(null) != campus) {
                     continue;
                 }
-                if (executionCourse != null && !registration.getAttendingExecutionCoursesFor().contains(executionCourse)) {
+                // registrations attending the execution course were already accepted
+                if (executionCourse != null) {
                     continue;
                 }
-                if (curricularYear != null && registration.getCurricularYear() != curricularYear.getYear()) {
+                if (curricularYear != null
+                        && RegistrationYearFacts.find(registration).getCurricularYear() != curricularYear.getYear()) {
                     continue;
                 }
-                if (Boolean.TRUE.equals(withEnrolments)
-                        && registration.findEnrolments().filter(Predicate.not(Enrolment::isAnnulled)).findAny().isEmpty()) {
+                if (Boolean.TRUE.equals(withEnrolments) && !RegistrationYearFacts.find(registration).hasEnrolments()) {
                     continue;
                 }
                 if (firstTimeInDegree != null
@@ -30,14 +30,17 @@ import org.fenixedu.academic.domain.Degree;
 import org.fenixedu.academic.domain.DegreeCurricularPlan;
 import org.fenixedu.academic.domain.ExecutionCourse;
 import org.fenixedu.academic.domain.ExecutionDegree;
+import org.fenixedu.academic.domain.ExecutionInterval;
 import org.fenixedu.academic.domain.ExecutionYear;
 import org.fenixedu.academic.domain.Professorship;
 import org.fenixedu.academic.domain.Teacher;
 import org.fenixedu.academic.domain.organizationalStructure.Unit;
 import org.fenixedu.academic.domain.person.RoleType;
 import org.fenixedu.academic.util.Bundle;
+import org.fenixedu.academic.util.CompactIntSet;
 import org.fenixedu.bennu.core.annotation.GroupArgument;
 import org.fenixedu.bennu.core.annotation.GroupOperator;
+import org.fenixedu.bennu.core.domain.Bennu;
 import org.fenixedu.bennu.core.domain.User;
 import org.fenixedu.bennu.core.domain.groups.PersistentGroup;
 import org.fenixedu.bennu.core.i18n.BundleUtil;
@@ -145,8 +148,12 @@ public class TeacherGroup extends FenixGroup {
         }
         //by campus
         if (campus != null) {
-            RoleType.TEACHER.actualGroup().getMembers().forEach(user -> {
-                if (user.getPerson() != null && teachesAt(user.getPerson().getTeacher(), campus)) {
+            final MembershipBitmaps bitmaps = MembershipBitmaps.current();
+            final CompactIntSet candidates = bitmaps.getTeachersIn(
+                    Bennu.getInstance().getExecutionIntervalsSet().stream().filter(ExecutionInterval::isCurrent));
+            bitmaps.users(candidates).forEach(user -> {
+                if (user.getPerson() != null && user.getPerson().getTeacher() != null
+                        && RoleType.TEACHER.actualGroup().isMember(user) && teachesAt(user.getPerson().getTeacher(), campus)) {
                     users.add(user);
                 }
             });
@@ -38,6 +38,13 @@ import org.joda.time.DateTime;
 
 public class AcademicAccessRule extends AcademicAccessRule_Base implements Comparable<AcademicAccessRule> {
 
+    static {
+        AcademicAccessRuleIndex.touchOnChange(getRelationAccessRules());
+        AcademicAccessRuleIndex.touchOnChange(getRelationAccessRuleGroup());
+        AcademicAccessRuleIndex.touchOnChange(getRelationAcademicAccessRuleAcademicPrograms());
+        AcademicAccessRuleIndex.touchOnChange(getRelationAcademicAccessRuleOffices());
+    }
+
     public static abstract class AcademicAccessTarget implements AccessTarget {
         public abstract void write(AcademicAccessRule academicAccessRule, AcademicOperationType operation);
     }
@@ -141,7 +148,7 @@ public class AcademicAccessRule extends AcademicAccessRule_Base implements Compa
     }
 
     protected static Stream<AcademicAccessRule> filter(final AcademicOperationType function) {
-        return accessRules().filter(r -> r.getOperation().equals(function));
+        return AcademicAccessRuleIndex.findEntries(function).stream().map(AcademicAccessRuleIndex.Entry::rule);
     }
 
     protected static Stream<AcademicAccessRule> filter(final AcademicOperationType function, final DateTime when) {
@@ -150,14 +157,8 @@ public class AcademicAccessRule extends AcademicAccessRule_Base implements Compa
 
     protected static Stream<AcademicAccessRule> filter(final AcademicOperationType function, final Set<AcademicProgram> programs,
             final Set<AdministrativeOffice> offices) {
-        Stream<AcademicAccessRule> stream = filter(function);
-        if (programs != null && !programs.isEmpty()) {
-            stream = stream.filter(r -> r.getFullProgramSet().collect(Collectors.toSet()).containsAll(programs));
-        }
-        if (offices != null && !offices.isEmpty()) {
-            stream = stream.filter(r -> r.getOfficeSet().containsAll(offices));
-        }
-        return stream;
+        return AcademicAccessRuleIndex.findEntries(function).stream().filter(e -> e.hasAll(programs, offices))
+                .map(AcademicAccessRuleIndex.Entry::rule);
     }
 
     protected static Stream<AcademicAccessRule> filter(final AcademicOperationType function, final Set<AcademicProgram> programs,
@@ -199,7 +200,7 @@ public class AcademicAccessRule extends AcademicAccessRule_Base implements Compa
 
     public static boolean isMember(final User user, final AcademicOperationType function, final Set<AcademicProgram> programs,
             final Set<AdministrativeOffice> offices) {
-        return filter(function, programs, offices).anyMatch(group -> group.isMember(user));
+        return AcademicAccessRuleIndex.findMemberEntries(user, function).stream().anyMatch(e -> e.hasAll(programs, offices));
     }
 
     public static boolean isMember(final User user, final Predicate<? super AcademicAccessRule> filter, final DateTime when) {
@@ -212,13 +213,13 @@ public class AcademicAccessRule extends AcademicAccessRule_Base implements Compa
     }
 
     public static Stream<AcademicProgram> getProgramsAccessibleToFunction(final AcademicOperationType function, final User user) {
-        return filter(function).filter(r -> r.getWhoCanAccess().isMember(user)).flatMap(r -> r.getFullProgramSet());
+        return AcademicAccessRuleIndex.findMemberEntries(user, function).stream().flatMap(e -> e.fullPrograms().stream());
     }
 
     public static boolean isProgramAccessibleToFunction(final AcademicOperationType function, final AcademicProgram program,
             final User user) {
-        return filter(function).filter(r -> r.getWhoCanAccess().isMember(user)).flatMap(r -> r.getFullProgramSet())
-                .anyMatch(p -> p.equals(program));
+        return AcademicAccessRuleIndex.findMemberEntries(user, function).stream()
+                .anyMatch(e -> e.fullProgramSet().contains(program));
     }
 
     public static Stream<Degree> getDegreesAccessibleToFunction(final AcademicOperationType function, final User user) {
@@ -231,7 +232,7 @@ public class AcademicAccessRule extends AcademicAccessRule_Base implements Compa
 
     public static Stream<AdministrativeOffice> getOfficesAccessibleToFunction(final AcademicOperationType function,
             final User user) {
-        return filter(function).filter(r -> r.getWhoCanAccess().isMember(user)).flatMap(r -> r.getOfficeSet().stream());
+        return AcademicAccessRuleIndex.findMemberEntries(user, function).stream().flatMap(e -> e.offices().stream());
     }
 
     @Override
@@ -0,0 +1,145 @@
+package org.fenixedu.academic.domain.accessControl.academicAdministration;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.fenixedu.academic.domain.AcademicProgram;
+import org.fenixedu.academic.domain.accessControl.rules.AccessRule;
+import org.fenixedu.academic.domain.accessControl.rules.AccessRuleSystem;
+import org.fenixedu.academic.domain.administrativeOffice.AdministrativeOffice;
+import org.fenixedu.academic.util.PersistentVersion;
+import org.fenixedu.academic.util.TransactionLocal;
+import org.fenixedu.bennu.core.domain.User;
+import org.fenixedu.bennu.core.groups.Group;
+
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * Immutable snapshot of the active {@link AcademicAccessRule}s, grouped by operation, with the group, the full set of
+ * programs and the offices of each rule computed once, so that authorization checks do not go through all the rules of
+ * the system and compute the programs of each one on each check.
+ *
+ * Every change to the rules, their groups, their targets or the programs managed by an office increments the persistent
+ * rules version of the {@link AccessRuleSystem}, so a snapshot is only used by the transactions that see the version it was
+ * built from, on any server. Transactions that change the rules build snapshots of their own, which are not shared.
+ *
+ * The rules whose group a user is a member of are also kept for each user and operation, until the end of the
+ * transaction, since membership of a group may depend on anything and is only checked again in the next transaction.
+ */
+public class AcademicAccessRuleIndex {
+
+    static record Entry(AcademicAccessRule rule, Group whoCanAccess, List<AcademicProgram> fullPrograms,
+            Set<AcademicProgram> fullProgramSet, Set<AdministrativeOffice> offices) {
+
+        private static Entry of(final AcademicAccessRule rule) {
+            final List<AcademicProgram> fullPrograms = rule.getFullProgramSet().toList();
+            return new Entry(rule, rule.getWhoCanAccess(), fullPrograms, Set.copyOf(fullPrograms),
+                    Set.copyOf(rule.getOfficeSet()));
+        }
+
+        boolean hasAll(final Set<AcademicProgram> programs, final Set<AdministrativeOffice> offices) {
+            return (programs == null || fullProgramSet.containsAll(programs))
+                    && (offices == null || this.offices.containsAll(offices));
+        }
+    }
+
+    private static record Key(User user, AcademicOperationType operation) {
+    }
+
+    private static record Validated(AcademicAccessRuleIndex index, Map<Key, List<Entry>> memberEntries) {
+    }
+
+    private static final AtomicReference<AcademicAccessRuleIndex> SHARED = new AtomicReference<>();
+
+    private static final PersistentVersion VERSION =
+            new PersistentVersion(() -> AccessRuleSystem.getInstance().getRulesVersion(),
+                    value -> AccessRuleSystem.getInstance().setRulesVersion(value), (previous, current) -> {
+                    });
+
+    private static final TransactionLocal<Validated> VALIDATED = new TransactionLocal<>();
+
+    /**
+     * Registers a listener that increments the rules version whenever the relation changes.
+     */
+    public static <A, B> void touchOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                touch();
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                touch();
+            }
+        });
+    }
+
+    private static void touch() {
+        VALIDATED.remove();
+        VERSION.increment();
+    }
+
+    private static Validated current() {
+        final Validated validated = VALIDATED.get();
+        if (validated != null) {
+            return validated;
+        }
+
+        final Set<AccessRule> rules = AccessRuleSystem.getInstance().getAccessRuleSet();
+        AcademicAccessRuleIndex index = SHARED.get();
+        if (VERSION.isChangedByCurrentTransaction()) {
+            index = new AcademicAccessRuleIndex(rules, -1);
+        } else {
+            final int version = VERSION.get();
+            if (index == null || index.version != version) {
+                index = new AcademicAccessRuleIndex(rules, version);
+
+                // a transaction that started before a rule change was committed must not replace a newer snapshot
+                SHARED.accumulateAndGet(index,
+                        (shared, built) -> shared == null || built.version > shared.version ? built : shared);
+            }
+        }
+
+        final Validated result = new Validated(index, new HashMap<>());
+        VALIDATED.set(result);
+        return result;
+    }
+
+    private final int version;
+
+    private final Map<AcademicOperationType, List<Entry>> byOperation = new EnumMap<>(AcademicOperationType.class);
+
+    private AcademicAccessRuleIndex(final Set<AccessRule> rules, final int version) {
+        this.version = version;
+        for (final AccessRule rule : rules) {
+            if (rule instanceof AcademicAccessRule academicRule) {
+                byOperation.computeIfAbsent(academicRule.getOperation(), o -> new ArrayList<>()).add(Entry.of(academicRule));
+            }
+        }
+    }
+
+    /**
+     * @return the active rules of the operation seen by the current transaction
+     */
+    static List<Entry> findEntries(final AcademicOperationType operation) {
+        return current().index().byOperation.getOrDefault(operation, List.of());
+    }
+
+    /**
+     * @return the active rules of the operation seen by the current transaction whose group the user is a member of
+     */
+    static List<Entry> findMemberEntries(final User user, final AcademicOperationType operation) {
+        final Validated validated = current();
+        return validated.memberEntries().computeIfAbsent(new Key(user, operation),
+                key -> validated.index().byOperation.getOrDefault(operation, List.of()).stream()
+                        .filter(e -> e.whoCanAccess().isMember(user)).toList());
+    }
+
+}
@@ -25,6 +25,7 @@ import java.util.TreeSet;
 
 import org.fenixedu.academic.domain.AcademicProgram;
 import org.fenixedu.academic.domain.Degree;
+import org.fenixedu.academic.domain.accessControl.academicAdministration.AcademicAccessRuleIndex;
 import org.fenixedu.academic.domain.degree.DegreeType;
 import org.fenixedu.academic.domain.degreeStructure.CycleType;
 import org.fenixedu.academic.domain.exceptions.DomainException;
@@ -34,6 +35,10 @@ import org.fenixedu.bennu.core.i18n.BundleUtil;
 
 public class AdministrativeOffice extends AdministrativeOffice_Base {
 
+    static {
+        AcademicAccessRuleIndex.touchOnChange(getRelationAdministrativeOfficeManagedAcademicPrograms());
+    }
+
     public AdministrativeOffice() {
         super();
         setRootDomainObject(Bennu.getInstance());
@@ -24,9 +24,11 @@ import java.util.stream.Stream;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.validator.routines.EmailValidator;
+import org.fenixedu.academic.domain.DomainObjectUtil;
 import org.fenixedu.academic.domain.Person;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.academic.domain.organizationalStructure.Party;
+import org.fenixedu.academic.domain.person.PersonSearchIndex;
 import org.joda.time.DateTime;
 
 public class EmailAddress extends EmailAddress_Base {
@@ -95,6 +97,7 @@ public class EmailAddress extends EmailAddress_Base {
     public void setValue(final String value) {
         super.setValue(value);
         updateProfileEmail();
+        PersonSearchIndex.getInstance().index(this);
     }
 
     @Override
@@ -157,14 +160,13 @@ public class EmailAddress extends EmailAddress_Base {
     }
 
     static public EmailAddress find(final String emailAddressString) {
-        return ContactRoot.getInstance().getPartyContactsSet().stream().filter(PartyContact::isEmailAddress)
-                .map(EmailAddress.class::cast).filter(email -> email.hasValue(emailAddressString)).findFirst().orElse(null);
+        // several contacts may have the same value, always return the same one of them
+        return PersonSearchIndex.getInstance().findEmailAddresses(emailAddressString).min(DomainObjectUtil.COMPARATOR_BY_ID)
+                .orElse(null);
     }
 
     public static Stream<EmailAddress> findAllActiveAndValid(final String emailAddressString) {
-        return ContactRoot.getInstance().getPartyContactsSet().stream().filter(PartyContact::isEmailAddress)
-                .map(EmailAddress.class::cast).filter(emailAddress -> emailAddress.hasValue(emailAddressString))
-                .filter(PartyContact::isActiveAndValid);
+        return PersonSearchIndex.getInstance().findEmailAddresses(emailAddressString).filter(PartyContact::isActiveAndValid);
     }
 
     private void updateProfileEmail() {
@@ -86,6 +86,10 @@ public class RuleResult {
         return messages;
     }
 
+    public RuleResult copy() {
+        return new RuleResult(result, new HashMap<>(enrolmentResultTypeByDegreeModule), new HashSet<>(messages));
+    }
+
     public RuleResult and(final RuleResult ruleResult) {
         final RuleResultType andResult = this.getResult().and(ruleResult.getResult());
         final Set<RuleResultMessage> messages = new HashSet<>();
@@ -511,8 +511,8 @@ public class PreviousYearsEnrolmentByYearExecutor extends CurricularRuleExecutor
                 continue;
             }
 
-            result = result.and(curricularRule.verify(getVerifyRuleLevel(enrolmentContext), enrolmentContext, curricularCourse,
-                    (CourseGroup) sourceDegreeModuleToEvaluate.getDegreeModule()));
+            result = result.and(enrolmentContext.verifyRule(curricularRule, getVerifyRuleLevel(enrolmentContext),
+                    curricularCourse, (CourseGroup) sourceDegreeModuleToEvaluate.getDegreeModule()));
         }
 
         return result.isTrue();
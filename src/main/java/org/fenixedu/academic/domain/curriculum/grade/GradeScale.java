@@ -3,7 +3,6 @@ package org.fenixedu.academic.domain.curriculum.grade;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -17,7 +16,9 @@ import java.util.stream.Stream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.NumberUtils;
 import org.fenixedu.academic.domain.Grade;
+import org.fenixedu.academic.domain.ReferenceDataRegistry;
 import org.fenixedu.academic.domain.exceptions.DomainException;
+import org.fenixedu.academic.util.PersistentVersion;
 import org.fenixedu.bennu.core.util.CoreConfiguration;
 import org.fenixedu.commons.i18n.LocalizedString;
 
@@ -30,6 +31,21 @@ public class GradeScale extends GradeScale_Base {
 
     private static final Map<GradeScale, Map<String, GradeScaleEntry>> INTERNAL_CACHE = new ConcurrentHashMap<>();
 
+    private final PersistentVersion gradesVersion =
+            new PersistentVersion(this::getGradesVersion, this::setGradesVersion, (previous, current) -> clearCaches());
+
+    // the version of the scale the value caches above were filled from
+    private volatile int cachedVersion = -1;
+
+    private static final ReferenceDataRegistry<GradeScale> REGISTRY =
+            new ReferenceDataRegistry<>(() -> FenixFramework.getDomainRoot().getGradeScalesSet());
+
+    private static final ReferenceDataRegistry.Index<GradeScale> BY_CODE = REGISTRY.index(GradeScale::getCode);
+
+    static {
+        REGISTRY.invalidateOnChange(getRelationGradeScaleDomainRoot());
+    }
+
     public static final Comparator<GradeScale> COMPARE_BY_NAME = (o1, o2) -> {
         int c = o1.getName().compareTo(o2.getName());
 
@@ -117,6 +133,18 @@ public class GradeScale extends GradeScale_Base {
         return entry;
     }
 
+    @Override
+    public void setCode(final String code) {
+        final boolean renamed = getCode() != null && !getCode().equals(code);
+        super.setCode(code);
+        REGISTRY.invalidate();
+
+        // grades are also found by their exported form, which has the code of the scale
+        if (renamed) {
+            invalidateCache();
+        }
+    }
+
     public void markAsDefaultGradeScale() {
         if (findUniqueDefault().isPresent()) {
             GradeScale oldGradeScale = findUniqueDefault().get();
@@ -160,61 +188,33 @@ public class GradeScale extends GradeScale_Base {
             }
         }
 
-        if (!leftGrade.getGradeScale().equals(rightGrade.getGradeScale())) {
-            throw new DomainException("Grade.unsupported.comparison.of.grades.of.different.scales", leftGrade.toString(),
-                    rightGrade.toString());
-        }
-
-        {
-            final boolean isLeftApproved = isApproved(leftGrade);
-            final boolean isRightApproved = isApproved(rightGrade);
-
-            if (isLeftApproved && !isRightApproved) {
-                return 1;
-            } else if (!isLeftApproved && isRightApproved) {
-                return -1;
-            }
-        }
-
-        final Optional<GradeScaleEntry> gradeEntryLeft = findGradeScaleEntry(leftGrade.getValue());
-        final Optional<GradeScaleEntry> gradeEntryRight = findGradeScaleEntry(rightGrade.getValue());
-
-        if (gradeEntryLeft.isPresent() && gradeEntryRight.isPresent()) {
-            return Integer.compare(gradeEntryLeft.get().getGradeOrder(), gradeEntryRight.get().getGradeOrder());
-        } else {
-            final boolean isLeftGradeValueContinuous = isGradeValueContinuous(leftGrade.getValue());
-            final boolean isRightGradeValueContinuous = isGradeValueContinuous(rightGrade.getValue());
-
-            if (isLeftGradeValueContinuous && !isRightGradeValueContinuous) {
-                return 1;
-            } else if (!isLeftGradeValueContinuous && isRightGradeValueContinuous) {
-                return -1;
-            } else if (isLeftGradeValueContinuous && isRightGradeValueContinuous) {
-                return leftGrade.getNumericValue().compareTo(rightGrade.getNumericValue());
-            } else {
-                throw new DomainException("Grade.unsupported.comparison.of.grades.of.different.scales");
-            }
-        }
+        // approval, grade entries order and numeric values are kept by each grade
+        return leftGrade.compareTo(rightGrade);
     }
 
     public boolean isApproved(final String value) {
+        final boolean cacheable = validateCaches();
         if (CACHE_APPROVED_GRADE_VALUES == null) {
-            CACHE_APPROVED_GRADE_VALUES = new HashMap<>();
+            CACHE_APPROVED_GRADE_VALUES = new ConcurrentHashMap<>();
         }
 
-        if (CACHE_APPROVED_GRADE_VALUES.containsKey(value)) {
+        if (cacheable && CACHE_APPROVED_GRADE_VALUES.containsKey(value)) {
             return true;
         }
 
         Optional<GradeScaleEntry> matchEntry = findGradeScaleEntry(value);
 
         if (matchEntry.isPresent() && matchEntry.get().isAllowsApproval()) {
-            CACHE_APPROVED_GRADE_VALUES.put(value, matchEntry.get());
+            if (cacheable) {
+                CACHE_APPROVED_GRADE_VALUES.put(value, matchEntry.get());
+            }
             return true;
         }
 
         if (isGradeValueContinuousAndApproved(value)) {
-            CACHE_APPROVED_GRADE_VALUES.put(value, value);
+            if (cacheable) {
+                CACHE_APPROVED_GRADE_VALUES.put(value, value);
+            }
             return true;
         }
 
@@ -222,23 +222,28 @@ public class GradeScale extends GradeScale_Base {
     }
 
     public boolean isNotApproved(final String value) {
+        final boolean cacheable = validateCaches();
         if (CACHE_NOT_APPROVED_GRADE_VALUES == null) {
-            CACHE_NOT_APPROVED_GRADE_VALUES = new HashMap<>();
+            CACHE_NOT_APPROVED_GRADE_VALUES = new ConcurrentHashMap<>();
         }
 
-        if (CACHE_NOT_APPROVED_GRADE_VALUES.containsKey(value)) {
+        if (cacheable && CACHE_NOT_APPROVED_GRADE_VALUES.containsKey(value)) {
             return true;
         }
 
         Optional<GradeScaleEntry> matchEntry = findGradeScaleEntry(value);
 
         if (matchEntry.isPresent() && !matchEntry.get().isAllowsApproval()) {
-            CACHE_NOT_APPROVED_GRADE_VALUES.put(value, matchEntry.get());
+            if (cacheable) {
+                CACHE_NOT_APPROVED_GRADE_VALUES.put(value, matchEntry.get());
+            }
             return true;
         }
 
         if (isGradeValueContinuousAndNotApproved(value)) {
-            CACHE_NOT_APPROVED_GRADE_VALUES.put(value, value);
+            if (cacheable) {
+                CACHE_NOT_APPROVED_GRADE_VALUES.put(value, value);
+            }
             return true;
         }
 
@@ -281,6 +286,8 @@ public class GradeScale extends GradeScale_Base {
             entry.delete();
         }
 
+        invalidateCache();
+
         super.deleteDomainObject();
     }
 
@@ -296,6 +303,8 @@ public class GradeScale extends GradeScale_Base {
         int tempOrder = nextEntry.getGradeOrder();
         nextEntry.setGradeOrder(entry.getGradeOrder());
         entry.setGradeOrder(tempOrder);
+
+        invalidateCache();
     }
 
     public void orderPreviousGradeScaleEntry(final GradeScaleEntry entry) {
@@ -310,6 +319,8 @@ public class GradeScale extends GradeScale_Base {
         int tempOrder = previousEntry.getGradeOrder();
         previousEntry.setGradeOrder(entry.getGradeOrder());
         entry.setGradeOrder(tempOrder);
+
+        invalidateCache();
     }
 
     public boolean isActive() {
@@ -328,7 +339,16 @@ public class GradeScale extends GradeScale_Base {
         return !(getMinimumApprovedGrade() != null || getMinimumReprovedGrade() != null);
     }
 
+    /**
+     * Increments the version of this scale, so that every server drops the values cached from it once the current
+     * transaction commits. Until then, the values computed by the current transaction are not cached.
+     */
     public void invalidateCache() {
+        gradesVersion.increment();
+        clearCaches();
+    }
+
+    private void clearCaches() {
         if (this.CACHE_APPROVED_GRADE_VALUES != null) {
             this.CACHE_APPROVED_GRADE_VALUES.clear();
         }
@@ -337,7 +357,46 @@ public class GradeScale extends GradeScale_Base {
             this.CACHE_NOT_APPROVED_GRADE_VALUES.clear();
         }
 
-        INTERNAL_CACHE.clear();
+        INTERNAL_CACHE.remove(this);
+
+        Grade.invalidate(this);
+    }
+
+    /**
+     * Drops the values cached from this scale if the current transaction sees a newer version of it.
+     *
+     * @return whether the values the current transaction computes from this scale may be cached, which is not the case when
+     *         it changed the scale or sees an older version than the one cached
+     */
+    public boolean validateCaches() {
+        if (isCacheChangedByCurrentTransaction()) {
+            return false;
+        }
+
+        final int version = getCacheVersion();
+        if (version > cachedVersion) {
+            synchronized (this) {
+                if (version > cachedVersion) {
+                    clearCaches();
+                    cachedVersion = version;
+                }
+            }
+        }
+        return version == cachedVersion;
+    }
+
+    /**
+     * @return the version of this scale seen by the current transaction, incremented whenever its limits or entries change
+     */
+    public int getCacheVersion() {
+        return gradesVersion.get();
+    }
+
+    /**
+     * @return whether the current transaction changed this scale, so the values computed from it must not be cached
+     */
+    public boolean isCacheChangedByCurrentTransaction() {
+        return gradesVersion.isChangedByCurrentTransaction();
     }
 
     public LocalizedString getExtendedValue(Grade grade) {
@@ -351,11 +410,15 @@ public class GradeScale extends GradeScale_Base {
                 .reduce((a, c) -> c.append(a)).orElse(new LocalizedString());
     }
 
-    private Optional<GradeScaleEntry> findGradeScaleEntry(final String value) {
+    public Optional<GradeScaleEntry> findGradeScaleEntry(final String value) {
         return Optional.ofNullable(of(value));
     }
 
     private GradeScaleEntry of(final String value) {
+        if (!validateCaches()) {
+            return getGradeScaleEntriesSet().stream().filter(e -> Objects.equals(e.getValue(), value)).findAny().orElse(null);
+        }
+
         final Map<String, GradeScaleEntry> entriesCache = INTERNAL_CACHE.computeIfAbsent(this, c -> new ConcurrentHashMap<>());
         return entriesCache.computeIfAbsent(value,
                 c -> getGradeScaleEntriesSet().stream().filter(e -> Objects.equals(e.getValue(), value)).findAny().orElse(null));
@@ -407,7 +470,7 @@ public class GradeScale extends GradeScale_Base {
         return containedInIntervalFunc(getMinimumReprovedGrade(), getMaximumReprovedGrade()).apply(numericValue);
     }
 
-    private boolean isGradeValueContinuous(final String gradeValue) {
+    public boolean isGradeValueContinuous(final String gradeValue) {
         return isGradeValueContinuousAndApproved(gradeValue) || isGradeValueContinuousAndNotApproved(gradeValue);
     }
 
@@ -440,7 +503,7 @@ public class GradeScale extends GradeScale_Base {
     }
 
     public static Optional<GradeScale> findUniqueByCode(final String code) {
-        return findByCode(code).findFirst();
+        return BY_CODE.find(code);
     }
 
     public static Stream<GradeScale> findActive() {
@@ -451,14 +514,8 @@ public class GradeScale extends GradeScale_Base {
         return findActive().filter(e -> e.isInternalGradeScale());
     }
 
-    private static Map<String, GradeScale> GRADE_SCALE_CACHE = new HashMap<>();
-
     public static GradeScale getGradeScaleByCode(final String code) {
-        if (!GRADE_SCALE_CACHE.containsKey(code)) {
-            GRADE_SCALE_CACHE.put(code, findUniqueByCode(code).get());
-        }
-
-        return GRADE_SCALE_CACHE.get(code);
+        return findUniqueByCode(code).get();
     }
 
     public static boolean isNumeric(final String value) {
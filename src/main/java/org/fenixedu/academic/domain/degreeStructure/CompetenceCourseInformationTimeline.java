@@ -0,0 +1,178 @@
+package org.fenixedu.academic.domain.degreeStructure;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fenixedu.academic.domain.CompetenceCourse;
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.time.calendarStructure.AcademicInterval;
+
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * The {@link CompetenceCourseInformation}s of a {@link CompetenceCourse} sorted by execution interval, with the begin, end
+ * and oid of each interval kept in arrays, so that the information valid in an interval is found by binary search instead
+ * of sorting the informations on every call.
+ *
+ * Timelines are shared by all transactions: each one is dropped as soon as its informations change, and is checked
+ * against the informations seen by the current transaction before being used.
+ */
+public class CompetenceCourseInformationTimeline {
+
+    private static final Map<CompetenceCourse, CompetenceCourseInformationTimeline> TIMELINES = new ConcurrentHashMap<>();
+
+    static {
+        invalidateOnChange(CompetenceCourseInformation.getRelationCompetenceCourseInformationCompetenceCourse());
+        invalidateOnChange(CompetenceCourseInformation.getRelationCompetenceCourseInformationExecutionPeriod());
+    }
+
+    private static <A, B> void invalidateOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                invalidate(a, b);
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                invalidate(a, b);
+            }
+        });
+    }
+
+    private static void invalidate(final Object a, final Object b) {
+        if (a instanceof CompetenceCourse || b instanceof CompetenceCourse) {
+            TIMELINES.remove(a instanceof CompetenceCourse ? a : b);
+        } else {
+            final CompetenceCourseInformation information =
+                    (CompetenceCourseInformation) (a instanceof CompetenceCourseInformation ? a : b);
+            if (information != null && information.getCompetenceCourse() != null) {
+                TIMELINES.remove(information.getCompetenceCourse());
+            }
+        }
+    }
+
+    public static void invalidate() {
+        TIMELINES.clear();
+    }
+
+    /**
+     * Same as {@link CompetenceCourse#findInformationMostRecentUntil(ExecutionInterval)}: the most recent information that
+     * does not start after the interval (or after its last period, if it is a year), the first one if all start after
+     * it, or the most recent one if no interval is given.
+     */
+    public static CompetenceCourseInformation findMostRecentUntil(final CompetenceCourse competenceCourse,
+            final ExecutionInterval interval) {
+        final CompetenceCourseInformationTimeline timeline = get(competenceCourse);
+        if (timeline == null) {
+            return null;
+        }
+
+        if (interval == null) {
+            return timeline.informations[timeline.informations.length - 1];
+        }
+
+        final ExecutionInterval childInterval =
+                interval instanceof ExecutionYear ? ((ExecutionYear) interval).getLastExecutionPeriod() : interval;
+        final int index = timeline.floor(childInterval);
+        return timeline.informations[index < 0 ? 0 : index];
+    }
+
+    private static CompetenceCourseInformationTimeline get(final CompetenceCourse competenceCourse) {
+        CompetenceCourseInformationTimeline result = TIMELINES.get(competenceCourse);
+        if (result != null && result.isCurrent(competenceCourse)) {
+            return result;
+        }
+
+        if (competenceCourse.getCompetenceCourseInformationsSet().isEmpty()) {
+            return null;
+        }
+
+        result = new CompetenceCourseInformationTimeline(competenceCourse);
+        TIMELINES.put(competenceCourse, result);
+        return result;
+    }
+
+    private final CompetenceCourseInformation[] informations;
+
+    private final ExecutionInterval[] intervals;
+
+    private final long[] begins;
+
+    private final long[] ends;
+
+    private final long[] oids;
+
+    private CompetenceCourseInformationTimeline(final CompetenceCourse competenceCourse) {
+        this.informations = competenceCourse.getCompetenceCourseInformationsSet().stream()
+                .sorted(CompetenceCourseInformation.COMPARATORY_BY_EXECUTION_INTERVAL)
+                .toArray(CompetenceCourseInformation[]::new);
+
+        final int size = informations.length;
+        this.intervals = new ExecutionInterval[size];
+        this.begins = new long[size];
+        this.ends = new long[size];
+        this.oids = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            final ExecutionInterval interval = informations[i].getExecutionInterval();
+            final AcademicInterval academicInterval = interval.getAcademicInterval();
+            intervals[i] = interval;
+            begins[i] = academicInterval.getStartDateTimeWithoutChronology().getMillis();
+            ends[i] = academicInterval.getEndDateTimeWithoutChronology().getMillis();
+            oids[i] = interval.getOid();
+        }
+    }
+
+    private boolean isCurrent(final CompetenceCourse competenceCourse) {
+        if (competenceCourse.getCompetenceCourseInformationsSet().size() != informations.length) {
+            return false;
+        }
+
+        for (int i = 0; i < informations.length; i++) {
+            if (informations[i].getCompetenceCourse() != competenceCourse
+                    || informations[i].getExecutionInterval() != intervals[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the index of the last information whose interval is before or equal to the given one, following
+     *         {@link ExecutionInterval#compareTo(ExecutionInterval)}, or -1 if there is none
+     */
+    private int floor(final ExecutionInterval interval) {
+        final AcademicInterval academicInterval = interval.getAcademicInterval();
+        final long begin = academicInterval.getStartDateTimeWithoutChronology().getMillis();
+        final long end = academicInterval.getEndDateTimeWithoutChronology().getMillis();
+        final long oid = interval.getOid();
+
+        int low = 0;
+        int high = informations.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (compare(middle, begin, end, oid) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private int compare(final int i, final long begin, final long end, final long oid) {
+        int result = Long.compare(begins[i], begin);
+        if (result == 0) {
+            // the end is reversed so that a year comes before its first period
+            result = Long.compare(end, ends[i]);
+        }
+        if (result == 0) {
+            result = Long.compare(oids[i], oid);
+        }
+        return result;
+    }
+
+}
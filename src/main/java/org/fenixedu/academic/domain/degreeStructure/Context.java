@@ -98,6 +98,11 @@ public class Context extends Context_Base implements Comparable<Context> {
             }
         });
 
+        DegreeStructureIndex.touchOnChange(getRelationCourseGroupContext());
+        DegreeStructureIndex.touchOnChange(getRelationDegreeModuleContext());
+        DegreeStructureIndex.touchOnChange(getRelationCurricularPeriodContext());
+        DegreeStructureIndex.touchOnChange(getRelationExecutionPeriodContextBegin());
+        DegreeStructureIndex.touchOnChange(getRelationExecutionPeriodContextEnd());
     }
 
     protected Context() {
@@ -251,8 +256,7 @@ public class Context extends Context_Base implements Comparable<Context> {
             if (getChildDegreeModule().isCurricularCourse()) {
                 CurricularCourse curricularCourse = (CurricularCourse) getChildDegreeModule();
                 if (!curricularCourse.isAnual(executionInterval.getExecutionYear())) {
-                    return executionInterval.getAcademicPeriod().equals(getCurricularPeriod().getAcademicPeriod())
-                            && executionInterval.getChildOrder().intValue() == getCurricularPeriod().getChildOrder().intValue();
+                    return matchesCurricularPeriod(executionInterval);
                 }
             }
             return true;
@@ -260,6 +264,11 @@ public class Context extends Context_Base implements Comparable<Context> {
         return false;
     }
 
+    boolean matchesCurricularPeriod(final ExecutionInterval executionInterval) {
+        return executionInterval.getAcademicPeriod().equals(getCurricularPeriod().getAcademicPeriod())
+                && executionInterval.getChildOrder().intValue() == getCurricularPeriod().getChildOrder().intValue();
+    }
+
     public boolean isValidForExecutionAggregation(final ExecutionYear executionYear) {
         return executionYear.getExecutionPeriodsSet().stream().anyMatch(this::isValid);
     }
@@ -190,6 +190,11 @@ public class CourseGroup extends CourseGroup_Base {
     // ExecutionYear
     public List<Context> getValidChildContextsForExecutionAggregation(final Class<? extends DegreeModule> clazz,
             final ExecutionYear executionYear) {
+        final DegreeStructureIndex index = DegreeStructureIndex.find(this);
+        if (index != null) {
+            return index.getValidChildContextsForExecutionAggregation(this, clazz, executionYear);
+        }
+
         return getChildContextsSet().stream()
                 .filter(context -> hasClass(clazz, context.getChildDegreeModule()) && (executionYear == null
                         || context.isValidForExecutionAggregation(executionYear))).collect(Collectors.toList());
@@ -200,6 +205,11 @@ public class CourseGroup extends CourseGroup_Base {
     // the context must have same semester than executionPeriod
     public List<Context> getValidChildContexts(final Class<? extends DegreeModule> clazz,
             final ExecutionInterval executionInterval) {
+        final DegreeStructureIndex index = DegreeStructureIndex.find(this);
+        if (index != null) {
+            return index.getValidChildContexts(this, clazz, executionInterval);
+        }
+
         return getChildContextsSet().stream()
                 .filter(context -> hasClass(clazz, context.getChildDegreeModule()) && (executionInterval == null
                         || context.isValid(executionInterval))).collect(Collectors.toList());
@@ -330,6 +340,11 @@ public class CourseGroup extends CourseGroup_Base {
 
     public Set<DegreeModule> collectAllChildDegreeModules(final Class<? extends DegreeModule> clazz,
             final ExecutionYear executionYear) {
+        final DegreeStructureIndex index = DegreeStructureIndex.find(this);
+        if (index != null) {
+            return index.collectAllChildDegreeModules(this, clazz, executionYear);
+        }
+
         final Set<DegreeModule> result = new HashSet<DegreeModule>();
         for (final Context context : this.getValidChildContextsForExecutionAggregation(executionYear)) {
             final DegreeModule degreeModule = context.getChildDegreeModule();
@@ -573,6 +588,11 @@ public class CourseGroup extends CourseGroup_Base {
 
     @Override
     public Set<CurricularCourse> getAllCurricularCourses(final ExecutionInterval executionInterval) {
+        final DegreeStructureIndex index = DegreeStructureIndex.find(this);
+        if (index != null) {
+            return index.getAllCurricularCourses(this, executionInterval);
+        }
+
         return getChildContextsSet().stream().filter(context -> executionInterval == null || context.isOpen(executionInterval))
                 .flatMap(context -> context.getChildDegreeModule().getAllCurricularCourses(executionInterval).stream())
                 .collect(Collectors.toSet());
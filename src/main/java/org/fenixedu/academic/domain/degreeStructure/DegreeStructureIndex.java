@@ -0,0 +1,279 @@
+package org.fenixedu.academic.domain.degreeStructure;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.fenixedu.academic.domain.CurricularCourse;
+import org.fenixedu.academic.domain.DegreeCurricularPlan;
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.util.PersistentVersion;
+import org.fenixedu.academic.util.TransactionLocal;
+
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * Immutable snapshot of the {@link Context} tree of a {@link DegreeCurricularPlan}, used to answer the child context and
+ * curricular course queries of {@link CourseGroup} without walking the tree and checking every context again.
+ *
+ * The contexts are flattened in an array and each course group keeps the offsets of its child contexts. Whether each
+ * context is open in an execution year, or matches the curricular period of an execution interval, is computed once per
+ * snapshot and kept in bitsets.
+ *
+ * Every structure change increments the persistent structure version of the plan, so a snapshot is only used by the
+ * transactions that see the version it was built from. Transactions that change the structure never use nor publish
+ * snapshots, and fall back to walking the tree.
+ */
+public class DegreeStructureIndex {
+
+    private static final Map<DegreeCurricularPlan, DegreeStructureIndex> INDEXES = new ConcurrentHashMap<>();
+
+    // set for the transactions that changed a structure
+    private static final TransactionLocal<Boolean> CHANGING = new TransactionLocal<>();
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    /**
+     * Registers a listener that increments the structure version of the affected plan whenever the relation changes.
+     */
+    static <A, B> void touchOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                touch(a, b);
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                touch(a, b);
+            }
+        });
+    }
+
+    private static void touch(final Object a, final Object b) {
+        if (a instanceof DegreeCurricularPlan || b instanceof DegreeCurricularPlan) {
+            touch((DegreeCurricularPlan) (a instanceof DegreeCurricularPlan ? a : b));
+            return;
+        }
+
+        final Context context = (Context) (a instanceof Context ? a : b);
+        final Object other = a instanceof Context ? b : a;
+        if (context == null) {
+            return;
+        }
+
+        // when a context is detached from its parent only the removed parent is left to tell the plan
+        CourseGroup parent = context.getParentCourseGroup();
+        if (parent == null && other instanceof CourseGroup courseGroup) {
+            parent = courseGroup;
+        }
+        if (parent != null) {
+            touch(parent.getParentDegreeCurricularPlan());
+        }
+    }
+
+    private static void touch(final DegreeCurricularPlan degreeCurricularPlan) {
+        if (degreeCurricularPlan == null) {
+            return;
+        }
+
+        degreeCurricularPlan.setStructureVersion(getVersion(degreeCurricularPlan) + 1);
+        CHANGING.set(Boolean.TRUE);
+    }
+
+    private static int getVersion(final DegreeCurricularPlan degreeCurricularPlan) {
+        final Integer version = degreeCurricularPlan.getStructureVersion();
+        return version == null ? 0 : version.intValue();
+    }
+
+    /**
+     * @return the index of the plan of the given course group, or null if the course group is not attached to a plan or the
+     *         current transaction changed the structure
+     */
+    static DegreeStructureIndex find(final CourseGroup courseGroup) {
+        final DegreeCurricularPlan degreeCurricularPlan = courseGroup.getParentDegreeCurricularPlan();
+        if (degreeCurricularPlan == null || degreeCurricularPlan.getRoot() == null || CHANGING.get() != null) {
+            return null;
+        }
+
+        final int version = getVersion(degreeCurricularPlan);
+        DegreeStructureIndex result = INDEXES.get(degreeCurricularPlan);
+        if (result == null || result.version != version) {
+            result = new DegreeStructureIndex(degreeCurricularPlan.getRoot(), version);
+            INDEXES.merge(degreeCurricularPlan, result, PersistentVersion.newest(index -> index.version));
+        }
+
+        return result.childContexts.containsKey(courseGroup) ? result : null;
+    }
+
+    public static void invalidate() {
+        INDEXES.clear();
+    }
+
+    private final int version;
+
+    private final Context[] contexts;
+
+    private final Map<CourseGroup, int[]> childContexts = new HashMap<>();
+
+    private final BitSet curricularCourseContexts = new BitSet();
+
+    private final Map<ExecutionYear, BitSet> openByExecutionYear = new ConcurrentHashMap<>();
+
+    private final Map<ExecutionInterval, BitSet> matchingByExecutionInterval = new ConcurrentHashMap<>();
+
+    private DegreeStructureIndex(final RootCourseGroup root, final int version) {
+        this.version = version;
+
+        final List<Context> flattened = new ArrayList<>();
+        final Deque<CourseGroup> toVisit = new ArrayDeque<>();
+        toVisit.add(root);
+        childContexts.put(root, NO_CHILDREN);
+
+        while (!toVisit.isEmpty()) {
+            final CourseGroup courseGroup = toVisit.poll();
+            final int[] children = new int[courseGroup.getChildContextsSet().size()];
+            int i = 0;
+            for (final Context context : courseGroup.getChildContextsSet()) {
+                final DegreeModule child = context.getChildDegreeModule();
+                if (child.isCurricularCourse()) {
+                    curricularCourseContexts.set(flattened.size());
+                } else if (!childContexts.containsKey(child)) {
+                    childContexts.put((CourseGroup) child, NO_CHILDREN);
+                    toVisit.add((CourseGroup) child);
+                }
+                children[i++] = flattened.size();
+                flattened.add(context);
+            }
+            childContexts.put(courseGroup, children);
+        }
+
+        this.contexts = flattened.toArray(new Context[flattened.size()]);
+    }
+
+    private BitSet getOpen(final ExecutionYear executionYear) {
+        return openByExecutionYear.computeIfAbsent(executionYear, year -> compute(c -> c.isOpen((ExecutionInterval) year)));
+    }
+
+    private BitSet getMatching(final ExecutionInterval executionInterval) {
+        return matchingByExecutionInterval.computeIfAbsent(executionInterval, interval -> {
+            final BitSet result = new BitSet(contexts.length);
+            curricularCourseContexts.stream().filter(i -> contexts[i].matchesCurricularPeriod(interval)).forEach(result::set);
+            return result;
+        });
+    }
+
+    private BitSet compute(final Predicate<Context> predicate) {
+        final BitSet result = new BitSet(contexts.length);
+        for (int i = 0; i < contexts.length; i++) {
+            if (predicate.test(contexts[i])) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    private boolean isOpen(final int i, final ExecutionInterval executionInterval) {
+        return executionInterval == null || getOpen(executionInterval.getExecutionYear()).get(i);
+    }
+
+    /**
+     * Same as {@link Context#isValid(ExecutionInterval)}, only the regime of the curricular course is checked on each call
+     * because it belongs to the competence course and not to the structure.
+     */
+    private boolean isValid(final int i, final ExecutionInterval executionInterval) {
+        if (!isOpen(i, executionInterval)) {
+            return false;
+        }
+
+        if (!curricularCourseContexts.get(i) || getMatching(executionInterval).get(i)) {
+            return true;
+        }
+
+        return ((CurricularCourse) contexts[i].getChildDegreeModule()).isAnual(executionInterval.getExecutionYear());
+    }
+
+    private boolean isValid(final int i, final ExecutionYear executionYear) {
+        return executionYear.getExecutionPeriodsSet().stream().anyMatch(interval -> isValid(i, interval));
+    }
+
+    private static boolean hasClass(final Class<? extends DegreeModule> clazz, final DegreeModule degreeModule) {
+        return clazz == null || clazz.isAssignableFrom(degreeModule.getClass());
+    }
+
+    List<Context> getValidChildContexts(final CourseGroup courseGroup, final Class<? extends DegreeModule> clazz,
+            final ExecutionInterval executionInterval) {
+        final List<Context> result = new ArrayList<>();
+        for (final int i : childContexts.get(courseGroup)) {
+            if (hasClass(clazz, contexts[i].getChildDegreeModule())
+                    && (executionInterval == null || isValid(i, executionInterval))) {
+                result.add(contexts[i]);
+            }
+        }
+        return result;
+    }
+
+    List<Context> getValidChildContextsForExecutionAggregation(final CourseGroup courseGroup,
+            final Class<? extends DegreeModule> clazz, final ExecutionYear executionYear) {
+        final List<Context> result = new ArrayList<>();
+        for (final int i : childContexts.get(courseGroup)) {
+            if (hasClass(clazz, contexts[i].getChildDegreeModule()) && (executionYear == null || isValid(i, executionYear))) {
+                result.add(contexts[i]);
+            }
+        }
+        return result;
+    }
+
+    Set<DegreeModule> collectAllChildDegreeModules(final CourseGroup courseGroup, final Class<? extends DegreeModule> clazz,
+            final ExecutionYear executionYear) {
+        final Set<DegreeModule> result = new HashSet<>();
+        collectAllChildDegreeModules(courseGroup, clazz, executionYear, result);
+        return result;
+    }
+
+    private void collectAllChildDegreeModules(final CourseGroup courseGroup, final Class<? extends DegreeModule> clazz,
+            final ExecutionYear executionYear, final Set<DegreeModule> result) {
+        for (final int i : childContexts.get(courseGroup)) {
+            if (executionYear == null || isValid(i, executionYear)) {
+                final DegreeModule degreeModule = contexts[i].getChildDegreeModule();
+                if (clazz.isAssignableFrom(degreeModule.getClass())) {
+                    result.add(degreeModule);
+                }
+                if (!curricularCourseContexts.get(i)) {
+                    collectAllChildDegreeModules((CourseGroup) degreeModule, clazz, executionYear, result);
+                }
+            }
+        }
+    }
+
+    Set<CurricularCourse> getAllCurricularCourses(final CourseGroup courseGroup, final ExecutionInterval executionInterval) {
+        final Set<CurricularCourse> result = new HashSet<>();
+        collectAllCurricularCourses(courseGroup, executionInterval, result);
+        return result;
+    }
+
+    private void collectAllCurricularCourses(final CourseGroup courseGroup, final ExecutionInterval executionInterval,
+            final Set<CurricularCourse> result) {
+        for (final int i : childContexts.get(courseGroup)) {
+            if (isOpen(i, executionInterval)) {
+                final DegreeModule degreeModule = contexts[i].getChildDegreeModule();
+                if (curricularCourseContexts.get(i)) {
+                    result.addAll(degreeModule.getAllCurricularCourses(executionInterval));
+                } else {
+                    collectAllCurricularCourses((CourseGroup) degreeModule, executionInterval, result);
+                }
+            }
+        }
+    }
+
+}
@@ -33,6 +33,10 @@ import org.fenixedu.academic.domain.exceptions.DomainException;
 
 public class RootCourseGroup extends RootCourseGroup_Base {
 
+    static {
+        DegreeStructureIndex.touchOnChange(getRelationDegreeCurricularPlanDegreeModule());
+    }
+
     public RootCourseGroup() {
         super();
     }
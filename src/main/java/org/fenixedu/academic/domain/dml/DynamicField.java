@@ -1,10 +1,13 @@
 package org.fenixedu.academic.domain.dml;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
-import org.apache.commons.lang.StringUtils;
 import org.fenixedu.bennu.core.domain.Bennu;
 
 import com.google.common.base.Strings;
@@ -19,10 +22,6 @@ public class DynamicField extends DynamicField_Base {
         setRoot(Bennu.getInstance());
     }
 
-    private String getCode() {
-        return getDescriptor().getCode();
-    }
-
     private boolean isRequired() {
         return getDescriptor().getRequired();
     }
@@ -53,20 +52,44 @@ public class DynamicField extends DynamicField_Base {
         super.deleteDomainObject();
     }
 
+    /**
+     * Reads the value of the field without creating it: a field that was never written has no value.
+     */
+    @SuppressWarnings("unchecked")
     public static <T> T getFieldValue(final DomainObject domainObject, final String code) {
         if (domainObject == null) {
             return null;
         }
 
-        final DynamicField field = findField(domainObject, code);
-        if (field == null) {
-            throw new IllegalArgumentException(
-                    "Cannot find dynamic field with code " + code + " in " + domainObject.getClass().getName());
-        }
-
-        final Class<T> type = field.getDescriptor().getFieldValueClass();
+        final DynamicFieldDescriptor descriptor = findDescriptor(domainObject, code);
+        final DynamicField field = descriptor.findField(domainObject);
+        return (T) DynamicFieldValueConverter.deserialize(descriptor.getFieldValueClass(),
+                field == null ? null : field.getValue());
+    }
 
-        return field != null ? field.getValue(type) : null;
+    /**
+     * Same as {@link #getFieldValue(DomainObject, String)} for many domain objects at once, which may be of different classes.
+     *
+     * @return the value of the field of each domain object, in the order of the provided collection
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Map<DomainObject, T> getFieldValues(final Collection<? extends DomainObject> domainObjects,
+            final String code) {
+        final Map<DomainObject, T> result = new LinkedHashMap<>();
+        final Map<Class<?>, DynamicFieldDescriptor> descriptors = new HashMap<>();
+
+        for (final DomainObject domainObject : domainObjects) {
+            if (domainObject == null) {
+                continue;
+            }
+
+            final DynamicFieldDescriptor descriptor =
+                    descriptors.computeIfAbsent(domainObject.getClass(), c -> findDescriptor(domainObject, code));
+            final DynamicField field = descriptor.findField(domainObject);
+            result.put(domainObject, (T) DynamicFieldValueConverter.deserialize(descriptor.getFieldValueClass(),
+                    field == null ? null : field.getValue()));
+        }
+        return result;
     }
 
     public static void setFieldValue(final DomainObject domainObject, final String code, final Object value) {
@@ -74,39 +97,62 @@ public class DynamicField extends DynamicField_Base {
             throw new NullPointerException("Domain object cannot be null");
         }
 
-        final DynamicField field = findField(domainObject, code);
-        if (field == null) {
+        findOrCreateField(findDescriptor(domainObject, code), domainObject).edit(value);
+    }
+
+    private static DynamicFieldDescriptor findDescriptor(final DomainObject domainObject, final String code) {
+        final DynamicFieldDescriptor result = DynamicFieldRegistry.getInstance().findDescriptor(domainObject, code);
+        if (result == null) {
             throw new IllegalArgumentException(
                     "Cannot find dynamic field with code " + code + " in " + domainObject.getClass().getName());
         }
+        return result;
+    }
 
-        field.edit(value);
+    @Atomic
+    private static DynamicField findOrCreateField(final DynamicFieldDescriptor descriptor, final DomainObject domainObject) {
+        final DynamicField result = descriptor.findField(domainObject);
+        return result != null ? result : descriptor.createField(domainObject);
     }
 
+    /**
+     * @deprecated use {@link #find(DomainObject, String)} to read the field or {@link #findOrCreate(DomainObject, String)}
+     *             to create it, which is what this method does
+     */
     @Deprecated
     public static DynamicField findField(final DomainObject domainObject, final String code) {
-        return findOrCreateFields(domainObject).stream().filter(i -> StringUtils.equals(i.getCode(), code)).findFirst()
-                .orElse(null);
+        return findOrCreate(domainObject, code).orElse(null);
     }
 
+    /**
+     * @return the field of the domain object, if it was already created
+     */
     public static Optional<DynamicField> find(final DomainObject domainObject, final String code) {
-        return findOrCreateFields(domainObject).stream().filter(i -> StringUtils.equals(i.getCode(), code)).findFirst();
+        final DynamicFieldDescriptor descriptor = DynamicFieldRegistry.getInstance().findDescriptor(domainObject, code);
+        return descriptor == null ? Optional.empty() : Optional.ofNullable(descriptor.findField(domainObject));
+    }
+
+    /**
+     * @return the field of the domain object, created if it does not exist yet
+     */
+    public static Optional<DynamicField> findOrCreate(final DomainObject domainObject, final String code) {
+        final DynamicFieldDescriptor descriptor = DynamicFieldRegistry.getInstance().findDescriptor(domainObject, code);
+        return descriptor == null ? Optional.empty() : Optional.of(findOrCreateField(descriptor, domainObject));
     }
 
     @Atomic
     public static Set<DynamicField> findOrCreateFields(final DomainObject domainObject) {
         final Set<DynamicField> result = new LinkedHashSet<>();
 
-        DynamicFieldDescriptor.find(domainObject).stream().sorted((x, y) -> Integer.compare(x.getOrder(), y.getOrder()))
-                .forEach(descriptor -> {
+        DynamicFieldRegistry.getInstance().getDescriptors(domainObject).forEach(descriptor -> {
 
-                    DynamicField field = descriptor.findField(domainObject);
-                    if (field == null) {
-                        field = descriptor.createField(domainObject);
-                    }
+            DynamicField field = descriptor.findField(domainObject);
+            if (field == null) {
+                field = descriptor.createField(domainObject);
+            }
 
-                    result.add(field);
-                });
+            result.add(field);
+        });
 
         return result;
     }
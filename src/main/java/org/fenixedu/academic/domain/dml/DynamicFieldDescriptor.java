@@ -1,14 +1,14 @@
 
 package org.fenixedu.academic.domain.dml;
 
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.fenixedu.bennu.core.domain.Bennu;
@@ -17,13 +17,31 @@ import org.fenixedu.commons.i18n.LocalizedString;
 import com.google.common.base.Strings;
 
 import pt.ist.fenixframework.DomainObject;
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
 
 @SuppressWarnings("rawtypes")
 public class DynamicFieldDescriptor extends DynamicFieldDescriptor_Base {
 
-    static final private String DOMAIN_OBJECT_FIELD_NAME = "DynamicField";
-    static final private String DOMAIN_OBJECT_METHOD_NAME_ADD = "add" + DOMAIN_OBJECT_FIELD_NAME;
-    static final private String DOMAIN_OBJECT_METHOD_NAME_GET = "get" + DOMAIN_OBJECT_FIELD_NAME + "Set";
+    static {
+        invalidateRegistryOnChange(getRelationDynamicFieldDescriptorRoot());
+    }
+
+    private static <A, B> void invalidateRegistryOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                DynamicFieldRegistry.invalidate();
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                DynamicFieldRegistry.invalidate();
+            }
+        });
+    }
+
+    private static final Map<String, Class> FIELD_VALUE_CLASSES = new ConcurrentHashMap<>();
 
     protected DynamicFieldDescriptor() {
         super();
@@ -39,6 +57,7 @@ public class DynamicFieldDescriptor extends DynamicFieldDescriptor_Base {
         setFieldValueClassName(fieldValueClass);
         setRequired(required);
         setTag(DynamicFieldTag.getOrCreateDefaultTag(domainObjectClass));
+        DynamicFieldRegistry.invalidate();
 
         checkRules();
 
@@ -111,6 +130,7 @@ public class DynamicFieldDescriptor extends DynamicFieldDescriptor_Base {
         super.setMaxNumber(maxNumber);
         super.setRichText(richText);
         super.setLargeSize(largeSize);
+        DynamicFieldRegistry.invalidate();
 
         checkRules();
     }
@@ -120,7 +140,7 @@ public class DynamicFieldDescriptor extends DynamicFieldDescriptor_Base {
     }
 
     private boolean isFor(final DomainObject domainObject) {
-        return domainObject != null && convertToDomainObjectClass(getDomainObjectClassName()) == domainObject.getClass();
+        return domainObject != null && domainObject.getClass().getName().equals(getDomainObjectClassName());
     }
 
     protected DynamicField createField(final DomainObject domainObject) {
@@ -135,15 +155,13 @@ public class DynamicFieldDescriptor extends DynamicFieldDescriptor_Base {
         return result;
     }
 
-    @SuppressWarnings("unchecked")
     protected DynamicField findField(final DomainObject domainObject) {
         DynamicField result = null;
 
         if (isFor(domainObject)) {
 
             try {
-                final Method method = domainObject.getClass().getMethod(DOMAIN_OBJECT_METHOD_NAME_GET);
-                final Set<DynamicField> fields = (Set<DynamicField>) method.invoke(domainObject);
+                final Set<DynamicField> fields = DynamicFieldRegistry.getFields(domainObject);
 
                 for (final DynamicField iter : fields) {
                     if (iter.getDescriptor() == this) {
@@ -167,19 +185,20 @@ public class DynamicFieldDescriptor extends DynamicFieldDescriptor_Base {
         if (isFor(domainObject) && getFieldsSet().contains(field)) {
 
             try {
-                final Method method = domainObject.getClass().getMethod(DOMAIN_OBJECT_METHOD_NAME_ADD, DynamicField.class);
-                method.invoke(domainObject, field);
+                DynamicFieldRegistry.addField(domainObject, field);
             } catch (final Throwable t) {
             }
         }
     }
 
     public Class getFieldValueClass() {
-        try {
-            return Class.forName(getFieldValueClassName());
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
+        return FIELD_VALUE_CLASSES.computeIfAbsent(getFieldValueClassName(), className -> {
+            try {
+                return Class.forName(className);
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        });
     }
 
     public void moveUp() {
@@ -218,6 +237,7 @@ public class DynamicFieldDescriptor extends DynamicFieldDescriptor_Base {
 
     protected void changeOrder(int order) {
         super.setOrder(order);
+        DynamicFieldRegistry.invalidate();
     }
 
     @Override
@@ -282,22 +302,10 @@ public class DynamicFieldDescriptor extends DynamicFieldDescriptor_Base {
         }
 
         final Class<? extends DomainObject> domainObjectClass = convertToDomainObjectClass(className);
-        return Bennu.getInstance().getDynamicFieldDescriptorSet().stream().filter(df -> df.getDomainClass() == domainObjectClass)
-                .collect(Collectors.toSet());
+        return new HashSet<>(DynamicFieldRegistry.getInstance().getDescriptors(domainObjectClass.getName()));
     }
 
     public static Set<DynamicFieldDescriptor> find(final DomainObject domainObject) {
-        final Set<DynamicFieldDescriptor> result = new HashSet<>();
-
-        if (domainObject != null) {
-
-            for (final DynamicFieldDescriptor iter : Bennu.getInstance().getDynamicFieldDescriptorSet()) {
-                if (iter.isFor(domainObject)) {
-                    result.add(iter);
-                }
-            }
-        }
-
-        return result;
+        return new HashSet<>(DynamicFieldRegistry.getInstance().getDescriptors(domainObject));
     }
 }
@@ -0,0 +1,147 @@
+package org.fenixedu.academic.domain.dml;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.fenixedu.academic.domain.ReferenceDataRegistry;
+import org.fenixedu.bennu.core.domain.Bennu;
+
+import pt.ist.fenixframework.DomainObject;
+
+/**
+ * Immutable snapshot of the {@link DynamicFieldDescriptor}s, grouped by the name of their domain class and sorted by their
+ * order, so that finding the descriptors of a domain object does not go through all descriptors, loading the class of each
+ * one, on each call.
+ *
+ * The registry is a view of the {@link ReferenceDataRegistry} of the descriptors, built again when their class name, code or
+ * order change.
+ *
+ * Also keeps, for each domain class, the method handles that read and add its dynamic fields, found once per class.
+ */
+public class DynamicFieldRegistry {
+
+    private static final String FIELDS_GETTER = "getDynamicFieldSet";
+
+    private static final String FIELDS_ADDER = "addDynamicField";
+
+    private static final ReferenceDataRegistry<DynamicFieldDescriptor> REGISTRY =
+            new ReferenceDataRegistry<DynamicFieldDescriptor>(() -> Bennu.getInstance().getDynamicFieldDescriptorSet())
+                    .track(DynamicFieldDescriptor::getDomainObjectClassName).track(DynamicFieldDescriptor::getCode)
+                    .track(DynamicFieldDescriptor::getOrder);
+
+    private static final ReferenceDataRegistry.View<DynamicFieldDescriptor, DynamicFieldRegistry> VIEW =
+            REGISTRY.view(DynamicFieldRegistry::new);
+
+    private static record Accessors(MethodHandle getter, MethodHandle adder) {
+    }
+
+    private static final ClassValue<Accessors> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Accessors computeValue(final Class<?> type) {
+            return new Accessors(find(type, FIELDS_GETTER, MethodType.methodType(Set.class)),
+                    find(type, FIELDS_ADDER, MethodType.methodType(void.class, DynamicField.class)));
+        }
+
+        private MethodHandle find(final Class<?> type, final String name, final MethodType methodType) {
+            try {
+                return MethodHandles.publicLookup().findVirtual(type, name, methodType);
+            } catch (final NoSuchMethodException | IllegalAccessException e) {
+                return null;
+            }
+        }
+    };
+
+    private final Map<String, List<DynamicFieldDescriptor>> byDomainObjectClassName = new HashMap<>();
+
+    private DynamicFieldRegistry(final Set<DynamicFieldDescriptor> descriptors) {
+        for (final DynamicFieldDescriptor descriptor : descriptors) {
+            byDomainObjectClassName.computeIfAbsent(descriptor.getDomainObjectClassName(), n -> new ArrayList<>())
+                    .add(descriptor);
+        }
+        byDomainObjectClassName.values()
+                .forEach(list -> list.sort(Comparator.comparingInt(DynamicFieldDescriptor::getOrder)));
+    }
+
+    /**
+     * @return the registry matching the descriptors seen by the current transaction
+     */
+    public static DynamicFieldRegistry getInstance() {
+        return VIEW.get();
+    }
+
+    /**
+     * Makes the current transaction check the registry again, after changing descriptors.
+     */
+    static void invalidate() {
+        REGISTRY.invalidate();
+    }
+
+    /**
+     * @return the descriptors of the provided domain class, sorted by their order
+     */
+    public List<DynamicFieldDescriptor> getDescriptors(final String domainObjectClassName) {
+        return Collections.unmodifiableList(byDomainObjectClassName.getOrDefault(domainObjectClassName, List.of()));
+    }
+
+    /**
+     * @return the descriptors of the class of the provided domain object, sorted by their order
+     */
+    public List<DynamicFieldDescriptor> getDescriptors(final DomainObject domainObject) {
+        return domainObject == null ? List.of() : getDescriptors(domainObject.getClass().getName());
+    }
+
+    public DynamicFieldDescriptor findDescriptor(final DomainObject domainObject, final String code) {
+        for (final DynamicFieldDescriptor descriptor : getDescriptors(domainObject)) {
+            if (Objects.equals(descriptor.getCode(), code)) {
+                return descriptor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the dynamic fields of the domain object, or an empty set if its class has none
+     */
+    @SuppressWarnings("unchecked")
+    static Set<DynamicField> getFields(final DomainObject domainObject) {
+        final MethodHandle getter = ACCESSORS.get(domainObject.getClass()).getter();
+        if (getter == null) {
+            return Set.of();
+        }
+        try {
+            return (Set<DynamicField>) getter.invoke(domainObject);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    /**
+     * @return whether the field was added, which requires the class of the domain object to have dynamic fields
+     */
+    static boolean addField(final DomainObject domainObject, final DynamicField field) {
+        final MethodHandle adder = ACCESSORS.get(domainObject.getClass()).adder();
+        if (adder == null) {
+            return false;
+        }
+        try {
+            adder.invoke(domainObject, field);
+            return true;
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+}
@@ -26,14 +26,20 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Supplier;
 
 import org.fenixedu.academic.domain.EvaluationSeason;
 import org.fenixedu.academic.domain.ExecutionInterval;
 import org.fenixedu.academic.domain.ExecutionYear;
 import org.fenixedu.academic.domain.Person;
 import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.curricularRules.CurricularRule;
 import org.fenixedu.academic.domain.curricularRules.EnrolmentModel;
+import org.fenixedu.academic.domain.curricularRules.ICurricularRule;
+import org.fenixedu.academic.domain.curricularRules.executors.RuleResult;
 import org.fenixedu.academic.domain.curricularRules.executors.ruleExecutors.CurricularRuleLevel;
+import org.fenixedu.academic.domain.curricularRules.executors.verifyExecutors.VerifyRuleLevel;
+import org.fenixedu.academic.domain.degreeStructure.CourseGroup;
 import org.fenixedu.academic.domain.degreeStructure.DegreeModule;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.academic.domain.person.RoleType;
@@ -63,6 +69,11 @@ public class EnrolmentContext {
 
     private Map<String, Object> extraParameters = new HashMap<>();
 
+    private static record RuleResultKey(ICurricularRule rule, Object source, Object level, CourseGroup parentCourseGroup) {
+    }
+
+    private Map<RuleResultKey, RuleResult> ruleResults;
+
     public EnrolmentContext(final StudentCurricularPlan studentCurricularPlan, final ExecutionInterval executionInterval,
             final Set<IDegreeModuleToEvaluate> degreeModulesToEnrol, final List<CurriculumModule> curriculumModulesToRemove,
             final CurricularRuleLevel curricularRuleLevel) {
@@ -109,7 +120,9 @@ public class EnrolmentContext {
     }
 
     public void addDegreeModuleToEvaluate(final IDegreeModuleToEvaluate degreeModuleToEvaluate) {
-        getDegreeModulesToEvaluate().add(degreeModuleToEvaluate);
+        if (getDegreeModulesToEvaluate().add(degreeModuleToEvaluate)) {
+            clearRuleResults();
+        }
     }
 
     public boolean hasDegreeModulesToEvaluate() {
@@ -122,6 +135,7 @@ public class EnrolmentContext {
 
     public void setExecutionPeriod(ExecutionInterval executionInterval) {
         this.executionInterval = executionInterval;
+        clearRuleResults();
     }
 
     public StudentCurricularPlan getStudentCurricularPlan() {
@@ -134,6 +148,7 @@ public class EnrolmentContext {
 
     public void setStudentCurricularPlan(StudentCurricularPlan studentCurricularPlan) {
         this.studentCurricularPlan = studentCurricularPlan;
+        clearRuleResults();
     }
 
     public List<CurriculumModule> getToRemove() {
@@ -146,6 +161,7 @@ public class EnrolmentContext {
 
     public void setCurricularRuleLevel(CurricularRuleLevel curricularRuleLevel) {
         this.curricularRuleLevel = curricularRuleLevel;
+        clearRuleResults();
     }
 
     public EvaluationSeason getEvaluationSeason() {
@@ -210,6 +226,55 @@ public class EnrolmentContext {
         return result;
     }
 
+    /**
+     * Memoizes the results of the persistent curricular rules evaluated or verified with this context until
+     * {@link #finishRuleEvaluation()}, so that each (rule, degree module, curricular rule level) is executed once by each
+     * evaluation. The memoized results are dropped whenever the degree modules to evaluate or the context change.
+     *
+     * The domain must not change until the evaluation finishes: results are not kept between evaluations since approvals,
+     * rule edits and enrolments made in the meantime change them.
+     */
+    public void startRuleEvaluation() {
+        this.ruleResults = new HashMap<>();
+    }
+
+    public void finishRuleEvaluation() {
+        this.ruleResults = null;
+    }
+
+    private void clearRuleResults() {
+        if (ruleResults != null) {
+            ruleResults.clear();
+        }
+    }
+
+    public RuleResult evaluateRule(final ICurricularRule rule, final IDegreeModuleToEvaluate degreeModuleToEvaluate) {
+        return memoize(new RuleResultKey(rule, degreeModuleToEvaluate, getCurricularRuleLevel(), null),
+                () -> rule.evaluate(degreeModuleToEvaluate, this));
+    }
+
+    public RuleResult verifyRule(final ICurricularRule rule, final VerifyRuleLevel verifyRuleLevel,
+            final DegreeModule degreeModuleToVerify, final CourseGroup parentCourseGroup) {
+        return memoize(new RuleResultKey(rule, degreeModuleToVerify, verifyRuleLevel, parentCourseGroup),
+                () -> rule.verify(verifyRuleLevel, this, degreeModuleToVerify, parentCourseGroup));
+    }
+
+    // rules created at runtime are equal by type and degree module only, so only persistent rules are memoized
+    private RuleResult memoize(final RuleResultKey key, final Supplier<RuleResult> executor) {
+        if (ruleResults == null || !(key.rule() instanceof CurricularRule)) {
+            return executor.get();
+        }
+
+        RuleResult result = ruleResults.get(key);
+        if (result == null) {
+            result = executor.get();
+            ruleResults.put(key, result);
+        }
+
+        // results are merged in place by RuleResult#and and RuleResult#or
+        return result.copy();
+    }
+
     public void addExtraParameter(String key, Object value) {
         extraParameters.put(key, value);
     }
@@ -18,8 +18,10 @@
  */
 package org.fenixedu.academic.domain.organizationalStructure;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -51,6 +53,13 @@ public class UnitName extends UnitName_Base implements Comparable<UnitName> {
             return false;
         }
 
+        /**
+         * @return whether the unit name, and any unit name after it, would not be added because the set is full
+         */
+        public boolean isFullBefore(final UnitName unitName) {
+            return size() >= maxElements && (isEmpty() || last().compareTo(unitName) < 0);
+        }
+
         public boolean containsExactSameName(final UnitName unitName) {
             for (UnitName forUnitName : this) {
                 if (forUnitName.getUnit().getName().equals(unitName.getUnit().getName())) {
@@ -148,33 +157,18 @@ public class UnitName extends UnitName_Base implements Comparable<UnitName> {
     public void setName(String name) {
         super.setName(UnitNamePart.normalize(name));
         UnitNamePart.reindex(this);
-    }
-
-    private static boolean containsAll(final String normalizedUnitName, final String[] nameParts) {
-        for (final String namePart : nameParts) {
-            if (normalizedUnitName.indexOf(namePart) == -1) {
-                return false;
-            }
-        }
-        return true;
+        UnitNameIndex.getInstance().add(this);
     }
 
     public static void find(final UnitNameLimitedOrderedSet unitNameLimitedOrderedSet, final String name, final int size) {
         final String[] nameParts = UnitNamePart.getNameParts(name);
         if (nameParts.length > 0) {
-            final UnitNamePart unitNamePart = UnitNamePart.find(nameParts[0]);
-            if (unitNamePart != null && nameParts.length == 1) {
-                unitNameLimitedOrderedSet.addAll(unitNamePart.getUnitNameSet());
-            } else {
-                final Set<UnitName> unitNames =
-                        unitNamePart == null ? Bennu.getInstance().getUnitNameSet() : unitNamePart.getUnitNameSet();
-                for (final UnitName unitName : unitNames) {
-                    final String normalizedUnitName = unitName.getName();
-                    if (containsAll(normalizedUnitName, nameParts)) {
-                        unitNameLimitedOrderedSet.add(unitName);
-                    }
-                }
-            }
+            // a first part that is a whole word must be found as such
+            final UnitNameIndex index = UnitNameIndex.getInstance();
+            final List<String> words = index.isWord(nameParts[0]) ? List.of(nameParts[0]) : List.of();
+            index.find(words, Arrays.asList(nameParts))
+                    .takeWhile(unitName -> !unitNameLimitedOrderedSet.isFullBefore(unitName))
+                    .forEach(unitNameLimitedOrderedSet::add);
         }
     }
 
@@ -245,21 +239,19 @@ public class UnitName extends UnitName_Base implements Comparable<UnitName> {
     public static void findExactWords(final UnitNameLimitedOrderedSet unitNameLimitedOrderedSet, final String name) {
         final String[] nameParts = UnitNamePart.getNameParts(name);
         if (nameParts.length > 0) {
-            final UnitNamePart unitNamePart = UnitNamePart.find(nameParts[0]);
-            if (unitNamePart != null && nameParts.length == 1) {
-                unitNameLimitedOrderedSet.addAll(unitNamePart.getUnitNameSet());
-            } else {
-                final Set<UnitName> unitNames =
-                        unitNamePart == null ? Bennu.getInstance().getUnitNameSet() : unitNamePart.getUnitNameSet();
-                for (final UnitName unitName : unitNames) {
-                    final String normalizedUnitName = unitName.getName();
-                    if (containsAllExactWords(normalizedUnitName, nameParts)) {
-                        if (!existsTheSameCode(unitName, unitNameLimitedOrderedSet)) {
-                            unitNameLimitedOrderedSet.add(unitName);
-                        }
-                    }
-                }
+            // a first part that is a whole word must be found as such, as must all parts longer than 3 characters
+            final UnitNameIndex index = UnitNameIndex.getInstance();
+            final Set<String> words = new HashSet<String>();
+            if (index.isWord(nameParts[0])) {
+                words.add(nameParts[0]);
             }
+            Arrays.stream(nameParts).filter(namePart -> namePart.length() > 3).forEach(words::add);
+
+            // all the names of a single whole word are added, even if they have the same code
+            final boolean singleWord = nameParts.length == 1 && !words.isEmpty();
+            index.find(words, List.of()).takeWhile(unitName -> !unitNameLimitedOrderedSet.isFullBefore(unitName))
+                    .filter(unitName -> singleWord || !existsTheSameCode(unitName, unitNameLimitedOrderedSet))
+                    .forEach(unitNameLimitedOrderedSet::add);
         }
     }
 
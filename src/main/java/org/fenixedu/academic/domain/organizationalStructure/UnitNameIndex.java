@@ -0,0 +1,214 @@
+package org.fenixedu.academic.domain.organizationalStructure;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.fenixedu.bennu.core.domain.Bennu;
+
+/**
+ * Inverted index of the normalized {@link UnitName}s by word, so that searching unit names goes through the names having
+ * the searched words instead of all names.
+ *
+ * Each word keeps its names sorted as {@link UnitName#compareTo(UnitName)} does, so results come out in order and searches
+ * can stop as soon as they have enough results. Parts of words are found through the suffixes of all words, sorted, so a
+ * part is looked up as a prefix of those suffixes.
+ *
+ * Names are only added, when they are set, so each one found is checked against the current transaction: names that were
+ * deleted, renamed or not committed are skipped. Setting a name writes nothing else, so that names of different units never
+ * conflict. Names set on other servers are found, and old names dropped, once the index is built again from all names, which
+ * each search does once the index is {@value #MAXIMUM_AGE_MINUTES} minutes old. As in
+ * {@link org.fenixedu.academic.util.LazyIndex}, the last names added are kept aside and merged whenever the index is built,
+ * so that names of transactions not yet committed when the build reads them are not lost.
+ */
+class UnitNameIndex {
+
+    private static record Entry(String name, String externalId, UnitName unitName) {
+
+        private boolean isValid() {
+            return unitName.getRootDomainObject() != null && name.equals(unitName.getName());
+        }
+
+        private boolean hasWord(final String word) {
+            final int length = word.length();
+            for (int i = name.indexOf(word); i >= 0; i = name.indexOf(word, i + 1)) {
+                if ((i == 0 || name.charAt(i - 1) == ' ') && (i + length == name.length() || name.charAt(i + length) == ' ')) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::name).thenComparing(Entry::externalId);
+
+    private static class Posting {
+
+        private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private void add(final Entry entry) {
+            if (entries.add(entry)) {
+                size.incrementAndGet();
+            }
+        }
+    }
+
+    private static class Postings {
+
+        private final Posting all = new Posting();
+
+        private final Map<String, Posting> byWord = new ConcurrentHashMap<>();
+
+        private final NavigableMap<String, Set<String>> wordsBySuffix = new ConcurrentSkipListMap<>();
+
+        private void add(final UnitName unitName) {
+            final String name = unitName.getName();
+            if (name == null) {
+                return;
+            }
+
+            final Entry entry = new Entry(name, unitName.getExternalId(), unitName);
+            all.add(entry);
+            for (final String word : name.split(" ")) {
+                if (!word.isEmpty()) {
+                    byWord.computeIfAbsent(word, w -> {
+                        for (int i = 0; i < w.length(); i++) {
+                            wordsBySuffix.computeIfAbsent(w.substring(i), s -> ConcurrentHashMap.newKeySet()).add(w);
+                        }
+                        return new Posting();
+                    }).add(entry);
+                }
+            }
+        }
+    }
+
+    private static final int MAXIMUM_RECENT = 10_000;
+
+    private static final long MAXIMUM_AGE_MINUTES = 10;
+
+    private static final UnitNameIndex INSTANCE = new UnitNameIndex();
+
+    private final Deque<UnitName> recent = new ArrayDeque<>();
+
+    private final long maximumAgeMillis;
+
+    private volatile Postings postings;
+
+    // when the postings were built from all names
+    private volatile long builtAt;
+
+    UnitNameIndex() {
+        this(TimeUnit.MINUTES.toMillis(MAXIMUM_AGE_MINUTES));
+    }
+
+    UnitNameIndex(final long maximumAgeMillis) {
+        this.maximumAgeMillis = maximumAgeMillis;
+    }
+
+    static UnitNameIndex getInstance() {
+        return INSTANCE;
+    }
+
+    synchronized void add(final UnitName unitName) {
+        if (recent.size() == MAXIMUM_RECENT) {
+            recent.removeFirst();
+        }
+        recent.addLast(unitName);
+        if (postings != null) {
+            postings.add(unitName);
+        }
+    }
+
+    private boolean isOld() {
+        return System.currentTimeMillis() - builtAt >= maximumAgeMillis;
+    }
+
+    // the postings built from the names seen by the current transaction, or by one that started after it was built
+    private Postings getPostings() {
+        final Postings result = postings;
+        if (result != null && !isOld()) {
+            return result;
+        }
+
+        synchronized (this) {
+            if (postings == null || isOld()) {
+                final Postings built = new Postings();
+                builtAt = System.currentTimeMillis();
+                Bennu.getInstance().getUnitNameSet().forEach(built::add);
+                recent.forEach(built::add);
+                postings = built;
+            }
+            return postings;
+        }
+    }
+
+    /**
+     * @return whether the word is a whole word of a unit name seen by the current transaction
+     */
+    boolean isWord(final String word) {
+        final Posting posting = getPostings().byWord.get(word);
+        return posting != null && posting.entries.stream().anyMatch(e -> e.isValid() && e.hasWord(word));
+    }
+
+    /**
+     * @return the unit names seen by the current transaction having each of the words as a whole word and each of the parts
+     *         anywhere in their name, sorted as {@link UnitName#compareTo(UnitName)} does
+     */
+    Stream<UnitName> find(final Collection<String> words, final Collection<String> parts) {
+        final Postings postings = getPostings();
+
+        // the names to go through are those of the word, or of the words having the part, with the fewest names
+        List<Posting> candidates = List.of(postings.all);
+        int candidatesSize = postings.all.size.get();
+        for (final String word : words) {
+            final Posting posting = postings.byWord.get(word);
+            if (posting == null) {
+                return Stream.empty();
+            }
+            if (posting.size.get() < candidatesSize) {
+                candidates = List.of(posting);
+                candidatesSize = posting.size.get();
+            }
+        }
+        for (final String part : parts) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            final List<Posting> found = findWordsHaving(postings, part).stream().map(postings.byWord::get).toList();
+            if (found.isEmpty()) {
+                return Stream.empty();
+            }
+            final int size = found.stream().mapToInt(p -> p.size.get()).sum();
+            if (size < candidatesSize) {
+                candidates = found;
+                candidatesSize = size;
+            }
+        }
+
+        final Stream<Entry> entries = candidates.size() == 1 ? candidates.get(0).entries.stream() : candidates.stream()
+                .flatMap(p -> p.entries.stream()).distinct().sorted(ORDER);
+        return entries.filter(e -> words.stream().allMatch(e::hasWord)).filter(e -> parts.stream().allMatch(e.name()::contains))
+                .filter(Entry::isValid).map(Entry::unitName);
+    }
+
+    private static Set<String> findWordsHaving(final Postings postings, final String part) {
+        return postings.wordsBySuffix.subMap(part, true, part + Character.MAX_VALUE, false).values().stream()
+                .flatMap(Set::stream).collect(Collectors.toSet());
+    }
+
+}
@@ -18,8 +18,8 @@
  */
 package org.fenixedu.academic.domain.organizationalStructure;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.bennu.core.domain.Bennu;
@@ -53,7 +53,7 @@ public class UnitNamePart extends UnitNamePart_Base {
         return normalize(name).split(" ");
     }
 
-    private static final Map<String, UnitNamePart> unitNamePartIndexMap = new HashMap<String, UnitNamePart>();
+    private static final Map<String, UnitNamePart> unitNamePartIndexMap = new ConcurrentHashMap<String, UnitNamePart>();
 
     public static UnitNamePart find(final String namePart) {
         final String normalizedNamePart = StringNormalizer.normalize(namePart);
@@ -65,8 +65,8 @@ public class UnitNamePart extends UnitNamePart_Base {
 
         for (final UnitNamePart unitNamePart : Bennu.getInstance().getUnitNamePartSet()) {
             final String otherUnitNamePart = unitNamePart.getNamePart();
-            if (!unitNamePartIndexMap.containsKey(otherUnitNamePart)) {
-                unitNamePartIndexMap.put(otherUnitNamePart, unitNamePart);
+            if (otherUnitNamePart != null) {
+                unitNamePartIndexMap.putIfAbsent(otherUnitNamePart, unitNamePart);
             }
             if (normalizedNamePart.equals(otherUnitNamePart)) {
                 return unitNamePart;
@@ -0,0 +1,132 @@
+package org.fenixedu.academic.domain.person;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang.StringUtils;
+import org.fenixedu.academic.domain.Person;
+import org.fenixedu.academic.domain.contacts.ContactRoot;
+import org.fenixedu.academic.domain.contacts.EmailAddress;
+import org.fenixedu.academic.domain.contacts.PartyContact;
+import org.fenixedu.academic.domain.organizationalStructure.Party;
+import org.fenixedu.academic.domain.person.identificationDocument.IdentificationDocument;
+import org.fenixedu.academic.domain.student.StudentNumber;
+import org.fenixedu.academic.domain.student.StudentNumberIndex;
+import org.fenixedu.academic.util.LazyIndex;
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.fenixedu.commons.StringNormalizer;
+
+/**
+ * Default {@link PersonSearchIndex}, kept in memory and built lazily on first use.
+ *
+ * Index entries are never removed on writes, so every lookup re-checks its candidates against the current values. Writes add
+ * their values to the index of their own server, without writing anything else, so that writes to different persons never
+ * conflict. Values written on other servers, and names changed directly on the user profile, are found once the index is
+ * built again, which each lookup does once the index is {@value #MAXIMUM_AGE_MINUTES} minutes old.
+ */
+public class InMemoryPersonSearchIndex extends PersonSearchIndex {
+
+    private static final long MAXIMUM_AGE_MINUTES = 10;
+
+    private final long maximumAgeMillis;
+
+    private final LazyIndex<String, IdentificationDocument> documents =
+            new LazyIndex<>(() -> Bennu.getInstance().getIdentificationDocumentsSet().stream(),
+                    doc -> Stream.of(normalize(doc.getValue())));
+
+    private final LazyIndex<String, EmailAddress> emails = new LazyIndex<>(
+            () -> ContactRoot.getInstance().getPartyContactsSet().stream().filter(PartyContact::isEmailAddress)
+                    .map(EmailAddress.class::cast),
+            email -> Stream.of(normalize(email.getValue())));
+
+    private final LazyIndex<String, Person> names = new LazyIndex<>(
+            () -> Bennu.getInstance().getPartysSet().stream().filter(Party::isPerson).map(Person.class::cast),
+            person -> Arrays.stream(getNameWords(person.getName())));
+
+    public InMemoryPersonSearchIndex() {
+        this(TimeUnit.MINUTES.toMillis(MAXIMUM_AGE_MINUTES));
+    }
+
+    InMemoryPersonSearchIndex(final long maximumAgeMillis) {
+        this.maximumAgeMillis = maximumAgeMillis;
+    }
+
+    private <K, V> LazyIndex<K, V> rebuildIfOld(final LazyIndex<K, V> index) {
+        if (index.getAge() >= maximumAgeMillis) {
+            index.invalidate();
+        }
+        return index;
+    }
+
+    private static String normalize(final String value) {
+        return StringUtils.isBlank(value) ? null : StringNormalizer.normalize(value.trim());
+    }
+
+    private static String[] getNameWords(final String name) {
+        return StringUtils.isBlank(name) ? new String[0] : StringNormalizer.normalize(name).trim().split(" ");
+    }
+
+    @Override
+    public Stream<IdentificationDocument> findIdentificationDocuments(final String documentIdNumber) {
+        if (StringUtils.isBlank(documentIdNumber)) {
+            return Stream.empty();
+        }
+
+        return rebuildIfOld(documents).get(normalize(documentIdNumber))
+                .filter(doc -> doc.getRootDomainObject() != null && documentIdNumber.equalsIgnoreCase(doc.getValue()));
+    }
+
+    @Override
+    public Stream<EmailAddress> findEmailAddresses(final String email) {
+        if (StringUtils.isBlank(email)) {
+            return Stream.empty();
+        }
+
+        return rebuildIfOld(emails).get(normalize(email)).filter(ea -> ea.getContactRoot() != null && ea.hasValue(email));
+    }
+
+    @Override
+    public Stream<StudentNumber> findStudentNumbers(final Integer number) {
+        return StudentNumberIndex.findStudentNumbers(number);
+    }
+
+    @Override
+    public Stream<Person> findByNameWords(final String[] nameWords) {
+        if (nameWords == null) {
+            return Stream.empty();
+        }
+
+        rebuildIfOld(names);
+
+        // only the smallest posting set needs to be walked, the remaining words are checked on each candidate
+        return Arrays.stream(nameWords).filter(StringUtils::isNotEmpty).min(Comparator.comparingInt(names::count))
+                .map(word -> names.get(word)
+                        .filter(person -> person.getRootDomainObject() != null && person.verifyNameEquality(nameWords)))
+                .orElseGet(Stream::empty);
+    }
+
+    @Override
+    public void index(final IdentificationDocument identificationDocument) {
+        documents.add(identificationDocument);
+    }
+
+    @Override
+    public void index(final EmailAddress emailAddress) {
+        emails.add(emailAddress);
+    }
+
+    @Override
+    public void index(final Person person) {
+        names.add(person);
+    }
+
+    @Override
+    public void invalidate() {
+        documents.invalidate();
+        emails.invalidate();
+        names.invalidate();
+    }
+
+}
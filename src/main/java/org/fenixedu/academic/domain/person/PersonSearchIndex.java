@@ -0,0 +1,107 @@
+package org.fenixedu.academic.domain.person;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.fenixedu.academic.domain.Person;
+import org.fenixedu.academic.domain.contacts.EmailAddress;
+import org.fenixedu.academic.domain.organizationalStructure.Party;
+import org.fenixedu.academic.domain.person.identificationDocument.IdentificationDocument;
+import org.fenixedu.academic.domain.student.Student;
+import org.fenixedu.academic.domain.student.StudentNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the person search criteria (document number, email, student number and name words) without scanning the
+ * root sets. The domain classes holding those values notify the current index whenever they are written; person names are
+ * indexed by {@link Person#changeName}. Implementations must also find, within a bounded delay, the values written on other
+ * servers and the names changed directly on the user profile, without making the writes of different persons conflict.
+ */
+public abstract class PersonSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonSearchIndex.class);
+
+    public abstract Stream<IdentificationDocument> findIdentificationDocuments(final String documentIdNumber);
+
+    public abstract Stream<EmailAddress> findEmailAddresses(final String email);
+
+    public abstract Stream<StudentNumber> findStudentNumbers(final Integer number);
+
+    /**
+     * Finds the persons whose name has all the given normalized words, as checked by {@link Person#verifyNameEquality}.
+     *
+     * Person searches used to take the profiles found by {@link org.fenixedu.bennu.core.domain.UserProfile#searchByName} and
+     * then keep those whose name has all the words. The result is no longer restricted to the profiles that search finds:
+     * every person whose name has all the words is found.
+     */
+    public abstract Stream<Person> findByNameWords(final String[] nameWords);
+
+    public abstract void index(final IdentificationDocument identificationDocument);
+
+    public abstract void index(final EmailAddress emailAddress);
+
+    public abstract void index(final Person person);
+
+    public abstract void invalidate();
+
+    public Stream<Person> findByDocumentIdNumber(final String documentIdNumber) {
+        return findIdentificationDocuments(documentIdNumber).map(IdentificationDocument::getPerson).filter(Objects::nonNull)
+                .distinct();
+    }
+
+    public Stream<Person> findByEmailAddress(final String email) {
+        return findEmailAddresses(email).map(EmailAddress::getParty).filter(Party::isPerson).map(Person.class::cast).distinct();
+    }
+
+    public Stream<Person> findByStudentNumber(final Integer number) {
+        return findStudentNumbers(number).map(StudentNumber::getStudent).filter(Objects::nonNull).map(Student::getPerson)
+                .filter(Objects::nonNull).distinct();
+    }
+
+    /**
+     * Returns the first <code>limit</code> elements of the stream according to the given comparator, using a bounded heap
+     * instead of sorting the whole stream.
+     */
+    public static <T> List<T> top(final Stream<T> stream, final Comparator<? super T> comparator, final int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        final PriorityQueue<T> heap = new PriorityQueue<>(limit + 1, comparator.reversed());
+        stream.forEach(element -> {
+            if (heap.size() < limit) {
+                heap.add(element);
+            } else if (comparator.compare(element, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(element);
+            }
+        });
+
+        final List<T> result = new ArrayList<>(heap);
+        result.sort(comparator);
+        return result;
+    }
+
+    private static final PersonSearchIndex DEFAULT_INDEX = new InMemoryPersonSearchIndex();
+
+    static private Supplier<PersonSearchIndex> PERSON_SEARCH_INDEX = () -> DEFAULT_INDEX;
+
+    static public PersonSearchIndex getInstance() {
+        return PERSON_SEARCH_INDEX.get();
+    }
+
+    static public void setPersonSearchIndex(final Supplier<PersonSearchIndex> input) {
+        if (input != null && input.get() != null) {
+            PERSON_SEARCH_INDEX = input;
+        } else {
+            logger.error("Could not set PERSON_SEARCH_INDEX to null");
+        }
+    }
+
+}
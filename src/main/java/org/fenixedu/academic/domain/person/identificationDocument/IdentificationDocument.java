@@ -6,6 +6,7 @@ import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
 import org.fenixedu.academic.domain.Person;
 import org.fenixedu.academic.domain.exceptions.DomainException;
+import org.fenixedu.academic.domain.person.PersonSearchIndex;
 import org.fenixedu.academic.domain.person.identificationDocument.validators.IdentificationDocumentExtraInfoValidator;
 import org.fenixedu.academic.domain.person.identificationDocument.validators.IdentificationDocumentValidatorRegistry;
 import org.fenixedu.bennu.core.domain.Bennu;
@@ -35,6 +36,12 @@ public class IdentificationDocument extends IdentificationDocument_Base {
         this.deleteDomainObject();
     }
 
+    @Override
+    public void setValue(final String value) {
+        super.setValue(value);
+        PersonSearchIndex.getInstance().index(this);
+    }
+
     public boolean hasExtraInfo() {
         return StringUtils.isNotBlank(getExtraInfo());
     }
@@ -85,8 +92,7 @@ public class IdentificationDocument extends IdentificationDocument_Base {
             return Stream.empty();
         }
 
-        return Bennu.getInstance().getIdentificationDocumentsSet().stream()
-                .filter(idDoc -> identificationDocumentValue.equalsIgnoreCase(idDoc.getValue()));
+        return PersonSearchIndex.getInstance().findIdentificationDocuments(identificationDocumentValue);
     }
 
 }
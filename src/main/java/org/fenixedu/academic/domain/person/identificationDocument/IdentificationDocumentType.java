@@ -1,10 +1,10 @@
 package org.fenixedu.academic.domain.person.identificationDocument;
 
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
+import org.fenixedu.academic.domain.ReferenceDataRegistry;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.bennu.core.domain.Bennu;
 import org.fenixedu.commons.i18n.LocalizedString;
@@ -25,6 +25,16 @@ public class IdentificationDocumentType extends IdentificationDocumentType_Base
     public static final String EU_PERMANENT_RESIDENCE_CARD_CODE = "EU_PERMANENT_RESIDENCE_CARD";
     public static final String EU_REGISTRATION_CERTIFICATE_CODE = "EU_REGISTRATION_CERTIFICATE";
 
+    private static final ReferenceDataRegistry<IdentificationDocumentType> REGISTRY =
+            new ReferenceDataRegistry<>(() -> Bennu.getInstance().getIdentificationDocumentTypesSet());
+
+    private static final ReferenceDataRegistry.Index<IdentificationDocumentType> BY_CODE =
+            REGISTRY.index(IdentificationDocumentType::getCode);
+
+    static {
+        REGISTRY.invalidateOnChange(getRelationRootDomainObjectIdentificationDocumentType());
+    }
+
     protected IdentificationDocumentType() {
         super();
         setRootDomainObject(Bennu.getInstance());
@@ -59,6 +69,7 @@ public class IdentificationDocumentType extends IdentificationDocumentType_Base
         }
 
         super.setCode(code);
+        REGISTRY.invalidate();
     }
 
     @Override
@@ -72,8 +83,7 @@ public class IdentificationDocumentType extends IdentificationDocumentType_Base
     }
 
     public static Optional<IdentificationDocumentType> findByCode(final String code) {
-        return findAll().filter(identificationDocumentType -> Objects.equals(identificationDocumentType.getCode(), code))
-                .findAny();
+        return BY_CODE.find(code);
     }
 
     public static Stream<IdentificationDocumentType> findAllActive() {
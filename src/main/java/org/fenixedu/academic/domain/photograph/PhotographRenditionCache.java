@@ -0,0 +1,115 @@
+package org.fenixedu.academic.domain.photograph;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Keeps the scaled renditions of photographs, so that the pages that show many photos at once do not decode, rotate and
+ * rescale the original picture of each one on every request.
+ *
+ * Renditions are kept in memory up to a maximum number of bytes. While a rendition is being rendered, other requests for it
+ * wait for the result instead of rendering it again. Since the pictures of a photograph never change, renditions are only
+ * dropped to free space or when the photograph is deleted.
+ */
+public class PhotographRenditionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotographRenditionCache.class);
+
+    public static final long DEFAULT_MAXIMUM_BYTES = 64 * 1024 * 1024;
+
+    public static record Rendition(String photographId, int xRatio, int yRatio, int width, int height,
+            PictureMode pictureMode) {
+    }
+
+    private static volatile Cache<Rendition, byte[]> MEMORY = build(DEFAULT_MAXIMUM_BYTES);
+
+    private static volatile List<Integer> PREGENERATED_SIZES =
+            Stream.of(PictureSize.values()).map(PictureSize::getWidth).toList();
+
+    private static final ExecutorService PREGENERATOR = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "photograph-rendition-pregenerator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PhotographRenditionCache() {
+    }
+
+    private static Cache<Rendition, byte[]> build(final long maximumBytes) {
+        return CacheBuilder.newBuilder().maximumWeight(maximumBytes)
+                .weigher((final Rendition rendition, final byte[] bytes) -> bytes.length).recordStats().build();
+    }
+
+    /**
+     * Replaces the kept renditions by an empty cache bounded by the given number of bytes.
+     */
+    public static void setMaximumBytes(final long maximumBytes) {
+        MEMORY = build(maximumBytes);
+    }
+
+    public static List<Integer> getPregeneratedSizes() {
+        return PREGENERATED_SIZES;
+    }
+
+    /**
+     * Sets the sizes of the square avatars rendered as soon as a photograph is approved.
+     */
+    public static void setPregeneratedSizes(final List<Integer> sizes) {
+        PREGENERATED_SIZES = List.copyOf(sizes);
+    }
+
+    public static byte[] get(final Rendition rendition, final Supplier<byte[]> renderer) {
+        try {
+            return MEMORY.get(rendition, renderer::get);
+        } catch (final UncheckedExecutionException | ExecutionError e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Renders the rendition in the background, unless it is already kept. The renderer runs in another thread, so it must
+     * not access domain objects.
+     */
+    public static void pregenerate(final Rendition rendition, final Supplier<byte[]> renderer) {
+        PREGENERATOR.execute(() -> {
+            try {
+                if (MEMORY.getIfPresent(rendition) == null) {
+                    get(rendition, renderer);
+                }
+            } catch (final RuntimeException e) {
+                logger.warn("Unable to pregenerate rendition " + rendition, e);
+            }
+        });
+    }
+
+    public static void evict(final String photographId) {
+        MEMORY.asMap().keySet().removeIf(rendition -> rendition.photographId().equals(photographId));
+    }
+
+    public static void invalidate() {
+        MEMORY.invalidateAll();
+    }
+
+    public static CacheStats getStats() {
+        return MEMORY.stats();
+    }
+
+}
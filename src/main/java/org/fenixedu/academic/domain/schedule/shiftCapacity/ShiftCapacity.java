@@ -3,7 +3,6 @@ package org.fenixedu.academic.domain.schedule.shiftCapacity;
 import java.util.Comparator;
 
 import org.fenixedu.academic.domain.DegreeCurricularPlan;
-import org.fenixedu.academic.domain.ExecutionInterval;
 import org.fenixedu.academic.domain.SchoolClass;
 import org.fenixedu.academic.domain.Shift;
 import org.fenixedu.academic.domain.exceptions.DomainException;
@@ -56,11 +55,19 @@ public class ShiftCapacity extends ShiftCapacity_Base {
     }
 
     public boolean accepts(final Registration registration) {
+        return accepts(registration, registration.findSchoolClass(getShift().getExecutionPeriod()).orElse(null));
+    }
+
+    /**
+     * Same as {@link #accepts(Registration)}, as if the registration was enrolled in the provided school class of the shift
+     * execution interval
+     */
+    public boolean accepts(final Registration registration, final SchoolClass schoolClass) {
         final boolean dcpsDefined = !getDegreeCurricularPlansSet().isEmpty();
         final boolean schoolClassesDefined = !getSchoolClassesSet().isEmpty();
 
         if (getNegation()) {
-            if (schoolClassesDefined && acceptsSchoolClass(registration)) {
+            if (schoolClassesDefined && acceptsSchoolClass(schoolClass)) {
                 return false;
             }
             if (dcpsDefined && acceptsDegreeCurricularPlan(registration)) { // must accept dcps
@@ -69,11 +76,11 @@ public class ShiftCapacity extends ShiftCapacity_Base {
 
         } else {
             if (schoolClassesDefined && dcpsDefined) { // if both relations defined, must accept one or other
-                if (!acceptsSchoolClass(registration) && !acceptsDegreeCurricularPlan(registration)) {
+                if (!acceptsSchoolClass(schoolClass) && !acceptsDegreeCurricularPlan(registration)) {
                     return false;
                 }
             } else {
-                if (schoolClassesDefined && !acceptsSchoolClass(registration)) { // must accept school class
+                if (schoolClassesDefined && !acceptsSchoolClass(schoolClass)) { // must accept school class
                     return false;
                 } else if (dcpsDefined && !acceptsDegreeCurricularPlan(registration)) { // must accept dcps
                     return false;
@@ -84,9 +91,8 @@ public class ShiftCapacity extends ShiftCapacity_Base {
         return getType().getStrategy().accepts(registration, getShift());
     }
 
-    private boolean acceptsSchoolClass(final Registration registration) {
-        final ExecutionInterval executionInterval = getShift().getExecutionPeriod();
-        return registration.findSchoolClass(executionInterval).map(sc -> getSchoolClassesSet().contains(sc)).orElse(false);
+    private boolean acceptsSchoolClass(final SchoolClass schoolClass) {
+        return schoolClass != null && getSchoolClassesSet().contains(schoolClass);
     }
 
     private boolean acceptsDegreeCurricularPlan(final Registration registration) {
@@ -0,0 +1,366 @@
+package org.fenixedu.academic.domain.schedule.shiftCapacity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+import org.fenixedu.academic.domain.ExecutionCourse;
+import org.fenixedu.academic.domain.Shift;
+import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.bennu.core.domain.User;
+import org.fenixedu.bennu.core.security.Authenticate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.Striped;
+
+import pt.ist.fenixframework.Atomic;
+import pt.ist.fenixframework.Atomic.TxMode;
+import pt.ist.fenixframework.FenixFramework;
+
+/**
+ * Admission layer in front of {@link Shift#enrol(Registration)} and {@link Shift#enrol(Registration, ShiftCapacity)}, meant
+ * for the opening of shift enrolment periods, when many students compete for the same shifts at once.
+ *
+ * Requests are first checked against the free vacancies of the requested capacity (or of its extra capacities) minus the
+ * vacancies already reserved by requests that were not committed yet, and rejected right away if none is left. Accepted
+ * requests are queued per execution course and committed in order, in batches, by a single worker per execution course,
+ * so that the enrolments of the same shifts never conflict with each other. The enrolments are still validated by the
+ * domain when committed: reservations only avoid transactions that would be rejected anyway.
+ *
+ * If a batch fails, its requests are committed again one at a time, so that a failing request does not fail the others.
+ */
+public class ShiftEnrolmentAdmission {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShiftEnrolmentAdmission.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static ShiftEnrolmentAdmission INSTANCE = null;
+
+    public static synchronized ShiftEnrolmentAdmission getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new ShiftEnrolmentAdmission(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+        }
+        return INSTANCE;
+    }
+
+    public static synchronized void setInstance(final ShiftEnrolmentAdmission instance) {
+        if (INSTANCE != null && INSTANCE != instance) {
+            INSTANCE.shutdown();
+        }
+        INSTANCE = instance;
+    }
+
+    public static class Metrics {
+
+        private final AtomicLong accepted = new AtomicLong();
+
+        private final AtomicLong rejectedOnAdmission = new AtomicLong();
+
+        private final AtomicLong rejectedOnCommit = new AtomicLong();
+
+        private final AtomicLong retried = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final long start = System.nanoTime();
+
+        private Metrics() {
+        }
+
+        public long getAccepted() {
+            return accepted.get();
+        }
+
+        /**
+         * @return the requests rejected before opening a transaction, because there were no vacancies left
+         */
+        public long getRejectedOnAdmission() {
+            return rejectedOnAdmission.get();
+        }
+
+        /**
+         * @return the requests that were admitted but then rejected by {@link Shift#enrol(Registration, ShiftCapacity)}
+         */
+        public long getRejectedOnCommit() {
+            return rejectedOnCommit.get();
+        }
+
+        public long getRejected() {
+            return getRejectedOnAdmission() + getRejectedOnCommit();
+        }
+
+        public long getRetried() {
+            return retried.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+
+        private double perSecond(final long count) {
+            final long elapsed = getElapsedMillis();
+            return elapsed == 0 ? 0d : count * 1000d / elapsed;
+        }
+
+        public double getAcceptedPerSecond() {
+            return perSecond(getAccepted());
+        }
+
+        public double getRejectedPerSecond() {
+            return perSecond(getRejected());
+        }
+
+        public double getRetriedPerSecond() {
+            return perSecond(getRetried());
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d accepted (%.1f/s), %d rejected (%.1f/s; %d on admission, %d on commit), %d retried (%.1f/s), %d failed",
+                    getAccepted(), getAcceptedPerSecond(), getRejected(), getRejectedPerSecond(), getRejectedOnAdmission(),
+                    getRejectedOnCommit(), getRetried(), getRetriedPerSecond(), getFailed());
+        }
+    }
+
+    private static class Request {
+
+        private final String registrationId;
+
+        private final String shiftCapacityId;
+
+        private final String userId;
+
+        private final ShiftCapacity reserved;
+
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private Request(final Registration registration, final ShiftCapacity shiftCapacity, final ShiftCapacity reserved) {
+            final User user = Authenticate.getUser();
+            this.registrationId = registration.getExternalId();
+            this.shiftCapacityId = shiftCapacity.getExternalId();
+            this.userId = user == null ? null : user.getExternalId();
+            this.reserved = reserved;
+        }
+    }
+
+    private static class CourseQueue {
+
+        private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    private final Map<ShiftCapacity, AtomicInteger> reservations = new ConcurrentHashMap<>();
+
+    private final Striped<Lock> reservationLocks = Striped.lock(64);
+
+    private final Map<ExecutionCourse, CourseQueue> queues = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    private final int batchSize;
+
+    private final Metrics metrics = new Metrics();
+
+    public ShiftEnrolmentAdmission(final int parallelism, final int batchSize) {
+        if (parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Parallelism and batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "shift-enrolment-admission");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Same as {@link Shift#enrol(Registration)}: enrols the registration in the first capacity of the shift that accepts it.
+     *
+     * @return completes with <code>true</code> once the enrolment is committed, or with <code>false</code> if it was rejected
+     */
+    public CompletableFuture<Boolean> submit(final Registration registration, final Shift shift) {
+        final ShiftCapacity shiftCapacity = shift.getShiftCapacitiesSet().stream()
+                .sorted(ShiftCapacity.TYPE_EVALUATION_PRIORITY_COMPARATOR).filter(sc -> sc.accepts(registration)).findFirst()
+                .orElse(null);
+        return submit(registration, shiftCapacity);
+    }
+
+    /**
+     * Same as {@link Shift#enrol(Registration, ShiftCapacity)}. Must be called inside a transaction; the enrolment is only
+     * visible to the transactions that start after the returned future completes.
+     *
+     * @return completes with <code>true</code> once the enrolment is committed, or with <code>false</code> if it was rejected
+     */
+    public CompletableFuture<Boolean> submit(final Registration registration, final ShiftCapacity shiftCapacity) {
+        if (shiftCapacity == null || !shiftCapacity.accepts(registration)) {
+            return reject();
+        }
+
+        final ShiftCapacity reserved = reserve(shiftCapacity);
+        if (reserved == null) {
+            return reject();
+        }
+
+        final Request request = new Request(registration, shiftCapacity, reserved);
+        final CourseQueue queue = queues.computeIfAbsent(shiftCapacity.getShift().getExecutionCourse(), ec -> new CourseQueue());
+        queue.requests.add(request);
+        schedule(queue);
+        return request.result;
+    }
+
+    private CompletableFuture<Boolean> reject() {
+        metrics.rejectedOnAdmission.incrementAndGet();
+        return CompletableFuture.completedFuture(false);
+    }
+
+    /**
+     * @return the capacity where a vacancy was reserved, following the same fallback to extra capacities of
+     *         {@link Shift#enrol(Registration, ShiftCapacity)}, or null if there are no vacancies left
+     */
+    private ShiftCapacity reserve(final ShiftCapacity shiftCapacity) {
+        final List<ShiftCapacity> candidates = Stream.concat(Stream.of(shiftCapacity),
+                shiftCapacity.getExtraCapacitiesSet().stream().sorted(ShiftCapacity.TYPE_EVALUATION_PRIORITY_COMPARATOR))
+                .toList();
+
+        // extra capacities may be shared by several capacities, so all the capacities involved are locked, in the order
+        // of their stripes, to avoid deadlocks
+        final List<Lock> locks = new ArrayList<>();
+        reservationLocks.bulkGet(candidates).forEach(locks::add);
+        locks.forEach(Lock::lock);
+        try {
+            for (final ShiftCapacity candidate : candidates) {
+                final AtomicInteger reserved = reservations.computeIfAbsent(candidate, sc -> new AtomicInteger());
+                if (candidate.getFreeVacancies() - reserved.get() > 0) {
+                    reserved.incrementAndGet();
+                    return candidate;
+                }
+            }
+            return null;
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    private void release(final Request request) {
+        final Lock lock = reservationLocks.get(request.reserved);
+        lock.lock();
+        try {
+            reservations.computeIfPresent(request.reserved,
+                    (sc, reserved) -> reserved.decrementAndGet() <= 0 ? null : reserved);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule(final CourseQueue queue) {
+        if (queue.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(queue));
+        }
+    }
+
+    private void drain(final CourseQueue queue) {
+        try {
+            final List<Request> batch = new ArrayList<>(batchSize);
+            Request request;
+            while (batch.size() < batchSize && (request = queue.requests.poll()) != null) {
+                batch.add(request);
+            }
+            if (!batch.isEmpty()) {
+                process(batch);
+            }
+        } finally {
+            queue.draining.set(false);
+            if (!queue.requests.isEmpty()) {
+                schedule(queue);
+            }
+        }
+    }
+
+    private void process(final List<Request> batch) {
+        try {
+            final List<Boolean> results = commit(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), results.get(i));
+            }
+        } catch (final RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+
+            // one of the enrolments failed, so each one is committed on its own
+            for (final Request request : batch) {
+                metrics.retried.incrementAndGet();
+                try {
+                    complete(request, commit(List.of(request)).get(0));
+                } catch (final RuntimeException requestException) {
+                    fail(request, requestException);
+                }
+            }
+        }
+    }
+
+    private void complete(final Request request, final boolean enrolled) {
+        release(request);
+        (enrolled ? metrics.accepted : metrics.rejectedOnCommit).incrementAndGet();
+        request.result.complete(enrolled);
+    }
+
+    private void fail(final Request request, final RuntimeException e) {
+        logger.warn("Unable to enrol registration " + request.registrationId + " in shift capacity " + request.shiftCapacityId,
+                e);
+        release(request);
+        metrics.failed.incrementAndGet();
+        request.result.completeExceptionally(e);
+    }
+
+    @Atomic(mode = TxMode.WRITE)
+    private static List<Boolean> commit(final List<Request> batch) {
+        final List<Boolean> result = new ArrayList<>(batch.size());
+        for (final Request request : batch) {
+            if (request.userId != null) {
+                Authenticate.mock(FenixFramework.getDomainObject(request.userId), "shift enrolment admission");
+            }
+            try {
+                result.add(Shift.enrol(FenixFramework.getDomainObject(request.registrationId),
+                        FenixFramework.<ShiftCapacity> getDomainObject(request.shiftCapacityId)));
+            } finally {
+                if (request.userId != null) {
+                    Authenticate.unmock();
+                }
+            }
+        }
+        return result;
+    }
+
+}
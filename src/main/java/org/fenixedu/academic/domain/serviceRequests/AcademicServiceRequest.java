@@ -104,8 +104,10 @@ abstract public class AcademicServiceRequest extends AcademicServiceRequest_Base
         checkParameters(bean);
 
         super.setAdministrativeOffice(office);
-        super.setAcademicServiceRequestYear(AcademicServiceRequestYear.readByYear(bean.getRequestDate().year().get(), true));
-        super.setServiceRequestNumber(getAcademicServiceRequestYear().generateServiceRequestNumber());
+        final AcademicServiceRequestYear requestYear =
+                AcademicServiceRequestYear.readByYear(bean.getRequestDate().year().get(), true);
+        super.setServiceRequestNumber(AcademicServiceRequestNumberSequence.getInstance().next(requestYear));
+        super.setAcademicServiceRequestYear(requestYear);
         super.setRequestDate(bean.getRequestDate());
 
         super.setRequestedCycle(bean.getRequestedCycle());
@@ -143,8 +145,8 @@ abstract public class AcademicServiceRequest extends AcademicServiceRequest_Base
 
     protected void checkRules() {
         // Ensure that are no service requests with same number and year
-        if (getRootDomainObject().getAcademicServiceRequestsSet().stream()
-                .filter(e -> e.getServiceRequestNumberYear().equals(getServiceRequestNumberYear())).count() > 1) {
+        if (getAcademicServiceRequestYear().findAcademicServiceRequests(getServiceRequestNumber()).stream()
+                .anyMatch(e -> e != this)) {
             throw new DomainException("error.serviceRequests.AcademicServiceRequest.duplicate.serviceRequestNumberYear");
         }
     }
@@ -832,10 +834,17 @@ abstract public class AcademicServiceRequest extends AcademicServiceRequest_Base
             if (!programs.contains(request.getAcademicProgram())) {
                 continue;
             }
-            if (situation != null && !request.getAcademicServiceRequestSituationType().equals(situation)) {
+            if (situation == null && interval == null) {
+                serviceRequests.add(request);
                 continue;
             }
-            if (interval != null && !interval.contains(request.getActiveSituationDate())) {
+
+            // the active situation is the most recent of all situations, so it is found only once for each request
+            final AcademicServiceRequestSituation activeSituation = request.getActiveSituation();
+            if (situation != null && !activeSituation.getAcademicServiceRequestSituationType().equals(situation)) {
+                continue;
+            }
+            if (interval != null && !interval.contains(activeSituation.getSituationDate())) {
                 continue;
             }
             serviceRequests.add(request);
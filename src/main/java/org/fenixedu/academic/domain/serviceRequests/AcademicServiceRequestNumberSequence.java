@@ -0,0 +1,111 @@
+package org.fenixedu.academic.domain.serviceRequests;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.fenixedu.academic.domain.exceptions.DomainException;
+
+import pt.ist.fenixframework.Atomic;
+import pt.ist.fenixframework.Atomic.TxMode;
+
+/**
+ * Hands out the numbers of new {@link AcademicServiceRequest}s from blocks of numbers reserved in advance, so that creating
+ * a request does not write the latest number of its {@link AcademicServiceRequestYear}, which otherwise makes all the
+ * transactions creating requests of the same year conflict with each other.
+ *
+ * Each block is reserved in a transaction of its own, committed before any of its numbers is used, so numbers are never
+ * handed out twice, even by different servers. Numbers of requests whose transaction does not commit, and the numbers left
+ * in the blocks when the server stops, are not used: numbers are unique and increasing, but may have gaps.
+ *
+ * A year created by the transaction of the caller is not seen by the transaction reserving the block until the caller
+ * commits, so the numbers of its first requests are generated by the caller, as before.
+ */
+public class AcademicServiceRequestNumberSequence {
+
+    public static final int DEFAULT_BLOCK_SIZE = 20;
+
+    private static AcademicServiceRequestNumberSequence INSTANCE = null;
+
+    public static synchronized AcademicServiceRequestNumberSequence getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new AcademicServiceRequestNumberSequence(DEFAULT_BLOCK_SIZE);
+        }
+        return INSTANCE;
+    }
+
+    public static synchronized void setInstance(final AcademicServiceRequestNumberSequence instance) {
+        INSTANCE = instance;
+    }
+
+    private static class Block {
+
+        private int next;
+
+        private final int last;
+
+        private Block(final int first, final int size) {
+            this.next = first;
+            this.last = first + size - 1;
+        }
+    }
+
+    // blocks are reserved outside of the transaction of the caller, so that they are committed right away
+    private static final ExecutorService RESERVATIONS = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "service-request-numbers");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int blockSize;
+
+    private final Map<AcademicServiceRequestYear, Block> blocks = new HashMap<>();
+
+    public AcademicServiceRequestNumberSequence(final int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return a number for a new request of the provided year, never handed out before
+     */
+    public synchronized int next(final AcademicServiceRequestYear requestYear) {
+        Block block = blocks.get(requestYear);
+        if (block == null || block.next > block.last) {
+            final Integer first = reserve(requestYear);
+            if (first == null) {
+                blocks.remove(requestYear);
+                return requestYear.generateServiceRequestNumber().intValue();
+            }
+            block = new Block(first.intValue(), blockSize);
+            blocks.put(requestYear, block);
+        }
+        return block.next++;
+    }
+
+    private Integer reserve(final AcademicServiceRequestYear requestYear) {
+        final int year = requestYear.getYear().intValue();
+        try {
+            return RESERVATIONS.submit(() -> reserve(requestYear, year, blockSize)).get();
+        } catch (final ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DomainException("error.serviceRequests.AcademicServiceRequest.unable.to.generate.serviceRequestNumber");
+        }
+    }
+
+    /**
+     * @return the first number of the reserved block, or null if the year is not committed yet
+     */
+    @Atomic(mode = TxMode.WRITE)
+    private static Integer reserve(final AcademicServiceRequestYear requestYear, final int year, final int size) {
+        final AcademicServiceRequestYear committed = AcademicServiceRequestYear.readByYear(year, false);
+        return committed == requestYear ? Integer.valueOf(committed.reserveServiceRequestNumbers(size)) : null;
+    }
+
+}
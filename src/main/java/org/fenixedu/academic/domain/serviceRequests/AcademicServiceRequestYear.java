@@ -20,10 +20,12 @@ package org.fenixedu.academic.domain.serviceRequests;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.stream.Collectors;
 
 import org.fenixedu.bennu.core.domain.Bennu;
 
 public class AcademicServiceRequestYear extends AcademicServiceRequestYear_Base {
+
     private AcademicServiceRequestYear(final int year) {
         super();
         super.setRootDomainObject(Bennu.getInstance());
@@ -53,8 +55,24 @@ public class AcademicServiceRequestYear extends AcademicServiceRequestYear_Base
     }
 
     protected Integer generateServiceRequestNumber() {
-        setLatestServiceRequestNumber(Integer.valueOf(getLatestServiceRequestNumber().intValue() + 1));
-        return getLatestServiceRequestNumber();
+        return Integer.valueOf(reserveServiceRequestNumbers(1));
+    }
+
+    /**
+     * @return the first of the reserved numbers
+     */
+    int reserveServiceRequestNumbers(final int count) {
+        final int first = getLatestServiceRequestNumber().intValue() + 1;
+        setLatestServiceRequestNumber(Integer.valueOf(first + count - 1));
+        return first;
+    }
+
+    /**
+     * @return the requests of this year with the provided number
+     */
+    public Collection<AcademicServiceRequest> findAcademicServiceRequests(final Integer serviceRequestNumber) {
+        return getAcademicServiceRequestsSet().stream().filter(r -> serviceRequestNumber.equals(r.getServiceRequestNumber()))
+                .collect(Collectors.toSet());
     }
 
 }
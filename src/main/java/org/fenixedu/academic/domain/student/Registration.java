@@ -29,9 +29,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -59,6 +57,7 @@ import org.fenixedu.academic.domain.Person;
 import org.fenixedu.academic.domain.SchoolClass;
 import org.fenixedu.academic.domain.Shift;
 import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.accessControl.MembershipBitmaps;
 import org.fenixedu.academic.domain.candidacy.IngressionType;
 import org.fenixedu.academic.domain.degree.DegreeType;
 import org.fenixedu.academic.domain.degreeStructure.CourseLoadType;
@@ -70,9 +69,11 @@ import org.fenixedu.academic.domain.log.CurriculumLineLog;
 import org.fenixedu.academic.domain.organizationalStructure.Unit;
 import org.fenixedu.academic.domain.student.curriculum.ConclusionProcess;
 import org.fenixedu.academic.domain.student.curriculum.Curriculum;
+import org.fenixedu.academic.domain.student.curriculum.CurriculumSnapshotCache;
 import org.fenixedu.academic.domain.student.curriculum.ICurriculum;
 import org.fenixedu.academic.domain.student.curriculum.ProgramConclusionProcess;
 import org.fenixedu.academic.domain.student.registrationStates.RegistrationState;
+import org.fenixedu.academic.domain.student.registrationStates.RegistrationStateTimeline;
 import org.fenixedu.academic.domain.student.registrationStates.RegistrationStateType;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumGroup;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumLine;
@@ -100,6 +101,17 @@ public class Registration extends Registration_Base {
 
     public static final String REGISTRATION_CREATE_SIGNAL = "academic.registration.create";
 
+    static {
+        MembershipBitmaps.indexOnChange(getRelationRegistrationStateRegistration());
+        MembershipBitmaps.indexOnChange(getRelationRegistrationDegree());
+        MembershipBitmaps.indexOnChange(getRelationRegistrationStudent());
+        MembershipBitmaps.indexOnChange(getRelationStudentCurricularPlanStudent());
+        MembershipBitmaps.indexOnChange(getRelationRegistrationDataByExecutionYearRegistration());
+        RegistrationYearFacts.touchOnChange(getRelationStudentCurricularPlanStudent());
+        RegistrationYearFacts.touchOnChange(getRelationRegistrationDegree());
+        RegistrationYearFacts.touchOnChange(getRelationAttendsStudent());
+    }
+
     static final public Comparator<Registration> NUMBER_COMPARATOR = new Comparator<Registration>() {
         @Override
         public int compare(final Registration o1, final Registration o2) {
@@ -370,7 +382,7 @@ public class Registration extends Registration_Base {
         }
 
         if (cycleType == null) {
-            return studentCurricularPlan.getCurriculum(when, executionYear);
+            return CurriculumSnapshotCache.getCurriculum(studentCurricularPlan.getRoot(), when, executionYear);
         }
 
         final CycleCurriculumGroup cycleCurriculumGroup = studentCurricularPlan.getCycle(cycleType);
@@ -378,7 +390,7 @@ public class Registration extends Registration_Base {
             return Curriculum.createEmpty(executionYear);
         }
 
-        return cycleCurriculumGroup.getCurriculum(when, executionYear);
+        return CurriculumSnapshotCache.getCurriculum(cycleCurriculumGroup, when, executionYear);
 
     }
 
@@ -775,8 +787,8 @@ public class Registration extends Registration_Base {
     @Deprecated
     final public static Registration readStudentByNumberAndDegreeType(final Integer number, final DegreeType degreeType) {
         Registration nonActiveRegistration = null;
-        for (Registration registration : Bennu.getInstance().getRegistrationsSet()) {
-            if (registration.getNumber().intValue() == number.intValue() && registration.getDegreeType().equals(degreeType)) {
+        for (Registration registration : StudentNumberIndex.findRegistrations(number).toList()) {
+            if (registration.getDegreeType().equals(degreeType)) {
                 if (registration.isActive()) {
                     return registration;
                 }
@@ -789,9 +801,8 @@ public class Registration extends Registration_Base {
     final public static Registration readByNumberAndDegreeCurricularPlan(final Integer number,
             final DegreeCurricularPlan degreeCurricularPlan) {
         Registration nonActiveRegistration = null;
-        for (Registration registration : Bennu.getInstance().getRegistrationsSet()) {
-            if (registration.getNumber().intValue() == number.intValue()
-                    && registration.getDegreeCurricularPlans().contains(degreeCurricularPlan)) {
+        for (Registration registration : StudentNumberIndex.findRegistrations(number).toList()) {
+            if (registration.getDegreeCurricularPlans().contains(degreeCurricularPlan)) {
                 if (registration.isActive()) {
                     return registration;
                 }
@@ -805,63 +816,33 @@ public class Registration extends Registration_Base {
             final DegreeType... degreeTypes) {
         List<Registration> result = new ArrayList<>();
         final List<DegreeType> degreeTypesList = Arrays.asList(degreeTypes);
-        for (RegistrationNumber registrationNumber : Bennu.getInstance().getRegistrationNumbersSet()) {
-            if (registrationNumber.getNumber().intValue() == number.intValue()) {
-                final Registration registration = registrationNumber.getRegistration();
-                if (degreeTypesList.contains(registration.getDegreeType())) {
-                    result.add(registration);
-                }
-            }
-        }
+        StudentNumberIndex.findRegistrationNumbers(number).map(RegistrationNumber::getRegistration)
+                .filter(registration -> degreeTypesList.contains(registration.getDegreeType())).forEach(result::add);
         return result;
     }
 
     final public static List<Registration> readByNumber(final Integer number) {
-        final List<Registration> registrations = new ArrayList<>();
-        for (RegistrationNumber registrationNumber : Bennu.getInstance().getRegistrationNumbersSet()) {
-            if (registrationNumber.getNumber().intValue() == number.intValue()) {
-                registrations.add(registrationNumber.getRegistration());
-            }
-        }
-        return registrations;
+        return StudentNumberIndex.findRegistrationNumbers(number).map(RegistrationNumber::getRegistration)
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     final public static List<Registration> readByNumberAndDegreeType(final Integer number, final DegreeType degreeType) {
-        final List<Registration> registrations = new ArrayList<>();
-        for (RegistrationNumber registrationNumber : Bennu.getInstance().getRegistrationNumbersSet()) {
-            if (registrationNumber.getNumber().intValue() == number.intValue()
-                    && registrationNumber.getRegistration().getDegreeType() == degreeType) {
-                registrations.add(registrationNumber.getRegistration());
-            }
-        }
-        return registrations;
+        return StudentNumberIndex.findRegistrationNumbers(number).map(RegistrationNumber::getRegistration)
+                .filter(registration -> registration.getDegreeType() == degreeType)
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     final public static List<Registration> readByNumberAndDegreeTypeAndAgreement(final Integer number,
             final DegreeType degreeType, final boolean normalAgreement) {
-        final List<Registration> registrations = new ArrayList<>();
-        for (RegistrationNumber registrationNumber : Bennu.getInstance().getRegistrationNumbersSet()) {
-            if (registrationNumber.getNumber().intValue() == number.intValue()
-                    && registrationNumber.getRegistration().getDegreeType() == degreeType && registrationNumber.getRegistration()
-                            .getRegistrationProtocol() == RegistrationProtocol.getDefault() == normalAgreement) {
-                registrations.add(registrationNumber.getRegistration());
-            }
-        }
-        return registrations;
+        return StudentNumberIndex.findRegistrationNumbers(number).map(RegistrationNumber::getRegistration)
+                .filter(registration -> registration.getDegreeType() == degreeType
+                        && registration.getRegistrationProtocol() == RegistrationProtocol.getDefault() == normalAgreement)
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     final public static List<Registration> readAllStudentsBetweenNumbers(final Integer fromNumber, final Integer toNumber) {
-        int fromNumberInt = fromNumber.intValue();
-        int toNumberInt = toNumber.intValue();
-
-        final List<Registration> students = new ArrayList<>();
-        for (final Registration registration : Bennu.getInstance().getRegistrationsSet()) {
-            int studentNumberInt = registration.getNumber().intValue();
-            if (studentNumberInt >= fromNumberInt && studentNumberInt <= toNumberInt) {
-                students.add(registration);
-            }
-        }
-        return students;
+        return StudentNumberIndex.findRegistrationsBetween(fromNumber.intValue(), toNumber.intValue())
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     final public static List<Registration> readRegistrationsByDegreeType(final DegreeType degreeType) {
@@ -1114,15 +1095,7 @@ public class Registration extends Registration_Base {
     }
 
     public RegistrationState getActiveState() {
-        return getRegistrationStatesSet().stream()
-                .filter(s -> s.getExecutionInterval() != null
-                        && (s.getExecutionInterval().getExecutionYear().getAcademicInterval().getStart().isBeforeNow()
-                                || s.getExecutionInterval().isCurrent()))
-                .max(RegistrationState.EXECUTION_INTERVAL_AND_DATE_COMPARATOR).orElseGet(() -> getLastState());
-    }
-
-    private RegistrationState getLastState() {
-        return getRegistrationStatesSet().stream().max(RegistrationState.EXECUTION_INTERVAL_AND_DATE_COMPARATOR).orElse(null);
+        return RegistrationStateTimeline.find(this).getActiveState();
     }
 
     public RegistrationStateType getActiveStateType() {
@@ -1159,20 +1132,7 @@ public class Registration extends Registration_Base {
     }
 
     public RegistrationState getStateInDate(final DateTime dateTime) {
-
-        List<RegistrationState> sortedRegistrationStates = new ArrayList<>(getRegistrationStatesSet());
-        Collections.sort(sortedRegistrationStates, RegistrationState.DATE_COMPARATOR);
-
-        for (ListIterator<RegistrationState> iterator =
-                sortedRegistrationStates.listIterator(sortedRegistrationStates.size()); iterator.hasPrevious();) {
-
-            RegistrationState registrationState = iterator.previous();
-            if (!dateTime.isBefore(registrationState.getStateDate())) {
-                return registrationState;
-            }
-        }
-
-        return null;
+        return RegistrationStateTimeline.find(this).getStateInDate(dateTime);
     }
 
     /**
@@ -1180,19 +1140,7 @@ public class Registration extends Registration_Base {
      */
     @Deprecated
     public RegistrationState getStateInDate(final LocalDate localDate) {
-        final List<RegistrationState> sortedRegistrationStates = new ArrayList<>(getRegistrationStatesSet());
-        Collections.sort(sortedRegistrationStates, RegistrationState.DATE_COMPARATOR);
-
-        for (ListIterator<RegistrationState> iterator =
-                sortedRegistrationStates.listIterator(sortedRegistrationStates.size()); iterator.hasPrevious();) {
-
-            RegistrationState registrationState = iterator.previous();
-            if (!localDate.isBefore(registrationState.getStateDate().toLocalDate())) {
-                return registrationState;
-            }
-        }
-
-        return null;
+        return RegistrationStateTimeline.find(this).getStateInDate(localDate);
     }
 
     public Set<RegistrationState> getRegistrationStates(final ExecutionYear executionYear) {
@@ -1202,36 +1150,18 @@ public class Registration extends Registration_Base {
     }
 
     Set<RegistrationState> getRegistrationStates(final ExecutionInterval executionInterval) {
-        // group states by intervals
-        final Map<ExecutionInterval, List<RegistrationState>> map =
-                getRegistrationStatesSet().stream().collect(Collectors.groupingBy(RegistrationState::getExecutionInterval));
-
-        if (map.containsKey(executionInterval)) { // if found in provided interval, return all states
-            return new HashSet<>(map.get(executionInterval));
-        }
-
-        final Optional<ExecutionInterval> lastIntervalWithStates =
-                map.keySet().stream().filter(ei -> ei.isBeforeOrEquals(executionInterval)).max(Comparator.naturalOrder());
-
-        if (lastIntervalWithStates.isEmpty()) {
-            return Set.of(); // no states yet for provided executionInterval
-        }
-
-        // otherwise return only the last one
-        return map.get(lastIntervalWithStates.get()).stream().max(RegistrationState.EXECUTION_INTERVAL_AND_DATE_COMPARATOR)
-                .map(s -> Set.of(s)).orElse(Set.of());
+        return new HashSet<>(RegistrationStateTimeline.find(this).getStates(executionInterval));
     }
 
     public RegistrationState getFirstRegistrationState() {
-        return getRegistrationStatesSet().stream().min(RegistrationState.EXECUTION_INTERVAL_AND_DATE_COMPARATOR).orElse(null);
+        return RegistrationStateTimeline.find(this).getFirstState();
     }
 
     //TODO: change to execution interval
     //IMPORTANT: when executinInterval is executionYear (higher space) we must first ensure executionInterval is on same space (executionInterval.getExecutionYear) because we cannot compare intervals in different spaces
 
     public RegistrationState getLastRegistrationState(final ExecutionYear executionYear) {
-        return getRegistrationStatesSet().stream().filter(s -> s.getExecutionYear().isBeforeOrEquals(executionYear))
-                .max(RegistrationState.EXECUTION_INTERVAL_AND_DATE_COMPARATOR).orElse(null);
+        return RegistrationStateTimeline.find(this).getLastState(executionYear);
     }
 
     final public double getEctsCredits() {
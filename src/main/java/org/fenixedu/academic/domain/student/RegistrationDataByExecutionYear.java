@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Optional;
 
 import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.accessControl.MembershipBitmaps;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.academic.util.Bundle;
 import org.fenixedu.bennu.core.domain.Bennu;
@@ -74,6 +75,12 @@ public class RegistrationDataByExecutionYear extends RegistrationDataByExecution
         }
     }
 
+    @Override
+    public void setActive(final boolean active) {
+        super.setActive(active);
+        MembershipBitmaps.index(getRegistration());
+    }
+
     public boolean isReingression() {
         return getReingression();
     }
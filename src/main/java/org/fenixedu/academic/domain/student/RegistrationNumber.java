@@ -29,6 +29,12 @@ public class RegistrationNumber extends RegistrationNumber_Base {
         setNumber(registration.getNumber());
     }
 
+    @Override
+    public void setNumber(final Integer number) {
+        super.setNumber(number);
+        StudentNumberIndex.index(this);
+    }
+
     public void delete() {
         setRegistration(null);
         setRootDomainObject(null);
@@ -0,0 +1,212 @@
+package org.fenixedu.academic.domain.student;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.fenixedu.academic.domain.Attends;
+import org.fenixedu.academic.domain.Enrolment;
+import org.fenixedu.academic.domain.EnrolmentEvaluation;
+import org.fenixedu.academic.domain.ExecutionCourse;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.studentCurriculum.Credits;
+import org.fenixedu.academic.domain.studentCurriculum.CurriculumModule;
+import org.fenixedu.academic.domain.studentCurriculum.RootCurriculumGroup;
+import org.fenixedu.academic.util.TransactionLocal;
+import org.joda.time.LocalDate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * The facts of a {@link Registration} in an {@link ExecutionYear} used to check the membership of student groups that are
+ * expensive to compute: the curricular year, which builds the whole curriculum, whether the registration has enrolments that
+ * are not annulled, and the execution courses it attends. Each fact is only computed when first asked for. The other facts the
+ * groups check, such as the campus, are read from the registration.
+ *
+ * Creating, deleting or moving curriculum lines, changing enrolment states, evaluations or credits, changing the plans or
+ * degree of the registration, and changing its attends increments the persistent facts version of the registration, at most
+ * once by each transaction, so facts are only used by the transactions that see the version they were computed from.
+ * Transactions that make those changes compute facts of their own, again after each change.
+ *
+ * The curricular year also depends on the current date and on the degree structure, so facts are computed again on each day.
+ */
+public class RegistrationYearFacts {
+
+    private static final int MAXIMUM_SIZE = 50_000;
+
+    private static record Key(Registration registration, ExecutionYear executionYear) {
+    }
+
+    private static final Cache<Key, RegistrationYearFacts> FACTS = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    // the facts computed by a transaction that changed them, and the registrations whose version it already incremented
+    private static record Changing(Map<Key, RegistrationYearFacts> facts, Set<Registration> touched) {
+    }
+
+    private static final TransactionLocal<Changing> CHANGING = new TransactionLocal<>();
+
+    /**
+     * Registers a listener that increments the facts version of the affected registrations whenever the relation changes.
+     */
+    public static <A, B> void touchOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                touch(a);
+                touch(b);
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                touch(a);
+                touch(b);
+            }
+        });
+    }
+
+    private static void touch(final Object object) {
+        if (object instanceof Registration registration) {
+            touch(registration);
+        } else if (object instanceof StudentCurricularPlan studentCurricularPlan) {
+            touch(studentCurricularPlan.getRegistration());
+        } else if (object instanceof CurriculumModule curriculumModule) {
+            touch(findRegistration(curriculumModule));
+        } else if (object instanceof EnrolmentEvaluation enrolmentEvaluation) {
+            touch(enrolmentEvaluation.getEnrolment());
+        } else if (object instanceof Credits credits && credits.getStudentCurricularPlan() != null) {
+            touch(credits.getStudentCurricularPlan().getRegistration());
+        } else if (object instanceof Attends attends) {
+            touch(attends.getRegistration());
+        }
+    }
+
+    // modules that were removed from the curriculum have no plan, the group they were removed from is touched instead
+    private static Registration findRegistration(final CurriculumModule curriculumModule) {
+        CurriculumModule current = curriculumModule;
+        while (current.getCurriculumGroup() != null) {
+            current = current.getCurriculumGroup();
+        }
+        return current instanceof RootCurriculumGroup root && root.getParentStudentCurricularPlan() != null ? root
+                .getParentStudentCurricularPlan().getRegistration() : null;
+    }
+
+    /**
+     * Increments the facts version of the registration of the curriculum module, for changes that are not relation changes.
+     */
+    public static void touch(final CurriculumModule curriculumModule) {
+        if (curriculumModule != null) {
+            touch(findRegistration(curriculumModule));
+        }
+    }
+
+    static void touch(final Registration registration) {
+        if (registration == null) {
+            return;
+        }
+
+        final Changing changing = CHANGING.computeIfAbsent(() -> new Changing(new HashMap<>(), new HashSet<>()));
+        changing.facts().keySet().removeIf(key -> key.registration() == registration);
+
+        // the other transactions only need to see a newer version, so the slot is written once by each transaction
+        if (changing.touched().add(registration)) {
+            registration.setFactsVersion(getVersion(registration) + 1);
+        }
+    }
+
+    private static int getVersion(final Registration registration) {
+        final Integer version = registration.getFactsVersion();
+        return version == null ? 0 : version.intValue();
+    }
+
+    /**
+     * @return the facts of the registration in the execution year, as seen by the current transaction
+     */
+    public static RegistrationYearFacts find(final Registration registration, final ExecutionYear executionYear) {
+        final Key key = new Key(registration, executionYear);
+        final Changing changing = CHANGING.get();
+        if (changing != null) {
+            return changing.facts().computeIfAbsent(key, k -> new RegistrationYearFacts(k, -1));
+        }
+
+        final int version = getVersion(registration);
+        RegistrationYearFacts result = FACTS.getIfPresent(key);
+        if (result == null || result.version != version || !result.day.equals(new LocalDate())) {
+            result = new RegistrationYearFacts(key, version);
+
+            // a transaction that started before a change was committed must not replace newer facts
+            FACTS.asMap().merge(key, result, (current, computed) -> computed.version > current.version
+                    || computed.version == current.version && computed.day.isAfter(current.day) ? computed : current);
+        }
+        return result;
+    }
+
+    /**
+     * @return the facts of the registration in the current execution year of its degree, as seen by the current transaction
+     */
+    public static RegistrationYearFacts find(final Registration registration) {
+        return find(registration, ExecutionYear.findCurrent(registration.getDegree().getCalendar()));
+    }
+
+    public static void invalidate() {
+        FACTS.invalidateAll();
+    }
+
+    private final int version;
+
+    private final LocalDate day = new LocalDate();
+
+    private final Key key;
+
+    private volatile Integer curricularYear;
+
+    private volatile Boolean hasEnrolments;
+
+    private volatile Set<ExecutionCourse> attendingExecutionCourses;
+
+    private RegistrationYearFacts(final Key key, final int version) {
+        this.version = version;
+        this.key = key;
+    }
+
+    public int getCurricularYear() {
+        Integer result = curricularYear;
+        if (result == null) {
+            result = key.registration().getCurricularYear(key.executionYear());
+            curricularYear = result;
+        }
+        return result.intValue();
+    }
+
+    /**
+     * @return whether the registration has enrolments that are not annulled, in any execution year
+     */
+    public boolean hasEnrolments() {
+        Boolean result = hasEnrolments;
+        if (result == null) {
+            result = key.registration().findEnrolments().anyMatch(Predicate.not(Enrolment::isAnnulled));
+            hasEnrolments = result;
+        }
+        return result.booleanValue();
+    }
+
+    /**
+     * @return the execution courses the registration attends, in any execution year
+     */
+    public Set<ExecutionCourse> getAttendingExecutionCourses() {
+        Set<ExecutionCourse> result = attendingExecutionCourses;
+        if (result == null) {
+            result = Collections.unmodifiableSet(key.registration().getAttendingExecutionCoursesFor());
+            attendingExecutionCourses = result;
+        }
+        return result;
+    }
+
+}
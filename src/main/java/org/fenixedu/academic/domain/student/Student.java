@@ -84,8 +84,7 @@ public class Student extends Student_Base {
      * @return
      */
     public static Student readStudentByNumber(final Integer number) {
-        return Bennu.getInstance().getStudentNumbersSet().stream().filter(sn -> sn.getNumber().equals(number))
-                .map(StudentNumber::getStudent).findAny().orElse(null);
+        return StudentNumberIndex.findStudentNumbers(number).map(StudentNumber::getStudent).findAny().orElse(null);
     }
 
     public String getName() {
@@ -131,8 +130,7 @@ public class Student extends Student_Base {
     }
 
     public static Integer generateStudentNumber() {
-        return Bennu.getInstance().getStudentNumbersSet().stream().map(StudentNumber::getNumber).max(Integer::compareTo)
-                .orElse(0) + 1;
+        return StudentNumberIndex.nextStudentNumber();
     }
 
     public void delete() {
@@ -230,6 +228,9 @@ public class Student extends Student_Base {
 
     @Override
     public void setNumber(final Integer number) {
+        if (number != null) {
+            StudentNumberIndex.claimStudentNumber(number);
+        }
         super.setNumber(number);
 
         if (getStudentNumber() != null) {
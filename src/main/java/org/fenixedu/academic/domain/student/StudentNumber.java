@@ -34,6 +34,12 @@ public class StudentNumber extends StudentNumber_Base {
         setNumber(student.getNumber());
     }
 
+    @Override
+    public void setNumber(final Integer number) {
+        super.setNumber(number);
+        StudentNumberIndex.index(this);
+    }
+
     public void delete() {
         setRootDomainObject(null);
         setStudent(null);
@@ -0,0 +1,149 @@
+package org.fenixedu.academic.domain.student;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.fenixedu.academic.domain.Installation;
+import org.fenixedu.academic.util.LazyNumberIndex;
+import org.fenixedu.bennu.core.domain.Bennu;
+
+/**
+ * Number-keyed lookups of {@link StudentNumber} and {@link RegistrationNumber}, and through them of {@link Student} and
+ * {@link Registration}.
+ *
+ * The indexes are fed by the number setters and never forget a value, so every lookup re-checks the candidates against the
+ * numbers seen by the current transaction. They do not see the numbers given on other servers until they are built again,
+ * at most {@value #MAXIMUM_AGE_MILLIS} milliseconds later; until then a number that is not in the indexes is not found. The
+ * registrations sharing a number belong to the same student, so those created on other servers are found through the
+ * registrations of that student.
+ */
+public class StudentNumberIndex {
+
+    private static final long MAXIMUM_AGE_MILLIS = 10 * 60 * 1000;
+
+    private static final LazyNumberIndex<StudentNumber> STUDENT_NUMBERS =
+            new LazyNumberIndex<>(() -> Bennu.getInstance().getStudentNumbersSet().stream(), StudentNumber::getNumber);
+
+    private static final LazyNumberIndex<RegistrationNumber> REGISTRATION_NUMBERS =
+            new LazyNumberIndex<>(() -> Bennu.getInstance().getRegistrationNumbersSet().stream(), RegistrationNumber::getNumber);
+
+    private StudentNumberIndex() {
+    }
+
+    private static <V> LazyNumberIndex<V> rebuildIfOld(final LazyNumberIndex<V> index) {
+        if (index.getAge() > MAXIMUM_AGE_MILLIS) {
+            index.invalidate();
+        }
+        return index;
+    }
+
+    public static Stream<StudentNumber> findStudentNumbers(final Integer number) {
+        if (number == null) {
+            return Stream.empty();
+        }
+        return rebuildIfOld(STUDENT_NUMBERS).get(number)
+                .filter(sn -> sn.getRootDomainObject() != null && number.equals(sn.getNumber()));
+    }
+
+    public static Stream<RegistrationNumber> findRegistrationNumbers(final Integer number) {
+        if (number == null) {
+            return Stream.empty();
+        }
+        final Predicate<RegistrationNumber> matches =
+                rn -> rn.getRootDomainObject() != null && rn.getRegistration() != null && number.equals(rn.getNumber());
+        final Set<RegistrationNumber> found =
+                rebuildIfOld(REGISTRATION_NUMBERS).get(number).filter(matches).collect(Collectors.toSet());
+
+        return Stream.concat(found.stream(),
+                found.stream().map(rn -> rn.getRegistration().getStudent()).filter(Objects::nonNull).distinct()
+                        .flatMap(student -> student.getRegistrationsSet().stream()).map(Registration::getRegistrationNumber)
+                        .filter(Objects::nonNull).filter(matches))
+                .distinct();
+    }
+
+    /**
+     * @return the registrations with the number, either their own or, for those without one, the number of their student
+     */
+    public static Stream<Registration> findRegistrations(final Integer number) {
+        return Stream.concat(findRegistrationNumbers(number).map(RegistrationNumber::getRegistration),
+                findStudentNumbers(number).map(StudentNumber::getStudent).filter(Objects::nonNull)
+                        .flatMap(student -> student.getRegistrationsSet().stream()).filter(r -> number.equals(r.getNumber())))
+                .distinct();
+    }
+
+    /**
+     * @return the registrations with a number between <code>from</code> and <code>to</code> (both inclusive), either their own
+     *         or, for those without one, the number of their student
+     */
+    public static Stream<Registration> findRegistrationsBetween(final int from, final int to) {
+        final Predicate<Integer> inRange = number -> number != null && number.intValue() >= from && number.intValue() <= to;
+        return Stream.concat(
+                rebuildIfOld(REGISTRATION_NUMBERS).range(from, to)
+                        .filter(rn -> rn.getRootDomainObject() != null && inRange.test(rn.getNumber()))
+                        .map(RegistrationNumber::getRegistration).filter(Objects::nonNull),
+                rebuildIfOld(STUDENT_NUMBERS).range(from, to)
+                        .filter(sn -> sn.getRootDomainObject() != null && inRange.test(sn.getNumber()))
+                        .map(StudentNumber::getStudent).filter(Objects::nonNull)
+                        .flatMap(student -> student.getRegistrationsSet().stream()).filter(r -> inRange.test(r.getNumber())))
+                .distinct();
+    }
+
+    /**
+     * @return the number following the highest student number seen by the current transaction and the last number claimed
+     *         through {@link #claimStudentNumber(int)}
+     */
+    public static int nextStudentNumber() {
+        final Installation installation = Installation.getInstance();
+        if (installation == null) {
+            return Bennu.getInstance().getStudentNumbersSet().stream().map(StudentNumber::getNumber).max(Integer::compareTo)
+                    .orElse(0) + 1;
+        }
+
+        // keys of numbers written by running or aborted transactions are skipped, they are not seen by this transaction
+        int number = rebuildIfOld(STUDENT_NUMBERS).last();
+        while (number > 0 && !isStudentNumber(number)) {
+            number = STUDENT_NUMBERS.floor(number - 1);
+        }
+        return Math.max(Math.max(number, 0), getLastStudentNumber(installation)) + 1;
+    }
+
+    private static boolean isStudentNumber(final int number) {
+        return STUDENT_NUMBERS.get(number)
+                .anyMatch(sn -> sn.getRootDomainObject() != null && sn.getNumber() != null && sn.getNumber().intValue() == number);
+    }
+
+    /**
+     * Records that the current transaction gives the number to a student. The last student number of the installation is
+     * only written when the number is higher, so only the transactions giving new numbers conflict with each other, and the
+     * numbers given on other servers are never handed out again. Numbers below it are checked for uniqueness against the
+     * persistent student numbers.
+     */
+    public static void claimStudentNumber(final int number) {
+        final Installation installation = Installation.getInstance();
+        if (installation != null && number > getLastStudentNumber(installation)) {
+            installation.setLastStudentNumber(number);
+        }
+    }
+
+    private static int getLastStudentNumber(final Installation installation) {
+        final Integer result = installation.getLastStudentNumber();
+        return result == null ? 0 : result.intValue();
+    }
+
+    static void index(final StudentNumber studentNumber) {
+        STUDENT_NUMBERS.add(studentNumber);
+    }
+
+    static void index(final RegistrationNumber registrationNumber) {
+        REGISTRATION_NUMBERS.add(registrationNumber);
+    }
+
+    public static void invalidate() {
+        STUDENT_NUMBERS.invalidate();
+        REGISTRATION_NUMBERS.invalidate();
+    }
+
+}
@@ -37,6 +37,7 @@ import org.fenixedu.academic.domain.IEnrolment;
 import org.fenixedu.academic.domain.StudentCurricularPlan;
 import org.fenixedu.academic.domain.curriculum.grade.GradeScale;
 import org.fenixedu.academic.domain.degreeStructure.CycleType;
+import org.fenixedu.academic.domain.student.RegistrationYearFacts;
 import org.fenixedu.academic.domain.student.curriculum.calculator.ConclusionGradeCalculator;
 import org.fenixedu.academic.domain.student.curriculum.calculator.ConclusionGradeCalculatorResultsDTO;
 import org.fenixedu.academic.domain.studentCurriculum.CurriculumModule;
@@ -77,6 +78,8 @@ public class Curriculum implements Serializable, ICurriculum {
     static public void setCurricularYearCalculator(final Supplier<CurricularYearCalculator> input) {
         if (input != null && input.get() != null) {
             CURRICULAR_YEAR_CALCULATOR = input;
+            CurriculumSnapshotCache.invalidate();
+            RegistrationYearFacts.invalidate();
         } else {
             logger.error("Could not set CURRICULAR_YEAR_CALCULATOR to null");
         }
@@ -209,6 +212,7 @@ public class Curriculum implements Serializable, ICurriculum {
     static public void setCurriculumGradeCalculator(final Supplier<CurriculumGradeCalculator> input) {
         if (input != null && input.get() != null) {
             CURRICULUM_GRADE_CALCULATOR = input;
+            CurriculumSnapshotCache.invalidate();
         } else {
             logger.error("Could not set CURRICULUM_GRADE_CALCULATOR to null");
         }
@@ -305,6 +309,8 @@ public class Curriculum implements Serializable, ICurriculum {
     static public void setCurriculumEntryPredicate(final Supplier<CurriculumEntryPredicate> input) {
         if (input != null && input.get() != null) {
             CURRICULUM_ENTRY_PREDICATE = input;
+            CurriculumSnapshotCache.invalidate();
+            RegistrationYearFacts.invalidate();
         } else {
             logger.error("Could not set CURRICULUM_ENTRY_PREDICATE to null");
         }
@@ -324,7 +330,12 @@ public class Curriculum implements Serializable, ICurriculum {
 
     private CurriculumGradeCalculator gradeCalculator = CURRICULUM_GRADE_CALCULATOR.get();
 
-    private ConclusionGradeCalculatorResultsDTO conclusionGradeCalculatorResult;
+    // holds the result of the conclusion grade calculator, shared with the copies of this curriculum
+    private static class ConclusionGrade implements Serializable {
+        private ConclusionGradeCalculatorResultsDTO result;
+    }
+
+    private ConclusionGrade conclusionGrade = new ConclusionGrade();
 
     static public Curriculum createEmpty(final ExecutionYear executionYear) {
         return Curriculum.createEmpty(null, executionYear);
@@ -350,6 +361,29 @@ public class Curriculum implements Serializable, ICurriculum {
         addCurricularYearEntries(this.curricularYearEntries, curricularYearEntries);
     }
 
+    /**
+     * @return a curriculum with the same module, execution year and entries, that can be changed without changing this one
+     *
+     *         The copy shares the calculators of this curriculum, so the grades, credits and curricular year computed by
+     *         either of them are computed only once. Changing the entries of a curriculum gives it calculators of its own.
+     */
+    public Curriculum copy() {
+        final Curriculum result = new Curriculum(curriculumModule, executionYear);
+        result.averageEnrolmentRelatedEntries.addAll(averageEnrolmentRelatedEntries);
+        result.averageDismissalRelatedEntries.addAll(averageDismissalRelatedEntries);
+        result.curricularYearEntries.addAll(curricularYearEntries);
+        result.curricularYearCalculator = curricularYearCalculator;
+        result.gradeCalculator = gradeCalculator;
+        result.conclusionGrade = conclusionGrade;
+        return result;
+    }
+
+    private void entriesChanged() {
+        curricularYearCalculator = getCurricularYearCalculator();
+        gradeCalculator = getCurriculumGradeCalculator();
+        conclusionGrade = new ConclusionGrade();
+    }
+
     public void add(final Curriculum curriculum) {
         if (!hasCurriculumModule()) {
             this.curriculumModule = curriculum.getCurriculumModule();
@@ -359,8 +393,7 @@ public class Curriculum implements Serializable, ICurriculum {
         addAverageEntries(averageDismissalRelatedEntries, curriculum.getDismissalRelatedEntries());
         addCurricularYearEntries(curricularYearEntries, curriculum.getCurricularYearEntries());
 
-        curricularYearCalculator = getCurricularYearCalculator();
-        gradeCalculator = getCurriculumGradeCalculator();
+        entriesChanged();
     }
 
     private void addAverageEntries(final Set<ICurriculumEntry> entries, final Collection<ICurriculumEntry> newEntries) {
@@ -517,7 +550,7 @@ public class Curriculum implements Serializable, ICurriculum {
     public Grade getRawGrade() {
         updateConclusionGradeCalculatorResult();
 
-        return ofNullable(conclusionGradeCalculatorResult).map(r -> r.getIntermediateRoundedGrade())
+        return ofNullable(conclusionGrade.result).map(r -> r.getIntermediateRoundedGrade())
                 .orElseGet(() -> getGradeCalculator().rawGrade(this));
     }
 
@@ -525,7 +558,7 @@ public class Curriculum implements Serializable, ICurriculum {
     public Grade getFinalGrade() {
         updateConclusionGradeCalculatorResult();
 
-        return ofNullable(conclusionGradeCalculatorResult).map(r -> r.getFinalGrade())
+        return ofNullable(conclusionGrade.result).map(r -> r.getFinalGrade())
                 .orElseGet(() -> getGradeCalculator().finalGrade(this));
     }
 
@@ -533,14 +566,14 @@ public class Curriculum implements Serializable, ICurriculum {
     public Grade getUnroundedGrade() {
         updateConclusionGradeCalculatorResult();
 
-        return ofNullable(conclusionGradeCalculatorResult).map(r -> r.getUnroundedGrade())
+        return ofNullable(conclusionGrade.result).map(r -> r.getUnroundedGrade())
                 .orElseGet(() -> getGradeCalculator().unroundedGrade(this));
     }
 
     public String getDescription() {
         updateConclusionGradeCalculatorResult();
 
-        return ofNullable(conclusionGradeCalculatorResult).map(r -> r.getDescription()).orElse(null);
+        return ofNullable(conclusionGrade.result).map(r -> r.getDescription()).orElse(null);
     }
 
     public boolean showDescriptionToStudents() {
@@ -549,10 +582,10 @@ public class Curriculum implements Serializable, ICurriculum {
     }
 
     private void updateConclusionGradeCalculatorResult() {
-        if (this.conclusionGradeCalculatorResult == null) {
+        if (this.conclusionGrade.result == null) {
             final ConclusionGradeCalculator conclusionGradeCalculator =
                     getStudentCurricularPlan().getDegreeCurricularPlan().getConclusionGradeCalculator();
-            this.conclusionGradeCalculatorResult =
+            this.conclusionGrade.result =
                     conclusionGradeCalculator == null ? null : conclusionGradeCalculator.calculate(this);
         }
     }
@@ -632,5 +665,6 @@ public class Curriculum implements Serializable, ICurriculum {
         averageEnrolmentRelatedEntries.remove(entryToRemove);
         averageDismissalRelatedEntries.remove(entryToRemove);
         curricularYearEntries.remove(entryToRemove);
+        entriesChanged();
     }
 }
@@ -0,0 +1,257 @@
+package org.fenixedu.academic.domain.student.curriculum;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.Grade;
+import org.fenixedu.academic.domain.student.Registration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import pt.ist.fenixframework.Atomic;
+import pt.ist.fenixframework.Atomic.TxMode;
+import pt.ist.fenixframework.FenixFramework;
+
+/**
+ * Computes the raw grade, final grade, sum of ECTS credits and curricular year of many registrations at once, using the
+ * calculators registered in {@link Curriculum}.
+ *
+ * The registrations are split in chunks that are processed by a fork-join pool, each chunk in its own read-only
+ * transaction, instead of walking every curriculum inside the transaction of the caller.
+ */
+public class CurriculumBatchCalculator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurriculumBatchCalculator.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    public static class CurriculumResult {
+
+        private final String registrationId;
+
+        private final Integer number;
+
+        private final Grade rawGrade;
+
+        private final Grade finalGrade;
+
+        private final BigDecimal sumEctsCredits;
+
+        private final Integer curricularYear;
+
+        private final String error;
+
+        private CurriculumResult(final String registrationId, final Integer number, final Grade rawGrade,
+                final Grade finalGrade, final BigDecimal sumEctsCredits, final Integer curricularYear, final String error) {
+            this.registrationId = registrationId;
+            this.number = number;
+            this.rawGrade = rawGrade;
+            this.finalGrade = finalGrade;
+            this.sumEctsCredits = sumEctsCredits;
+            this.curricularYear = curricularYear;
+            this.error = error;
+        }
+
+        public String getRegistrationId() {
+            return registrationId;
+        }
+
+        public Integer getNumber() {
+            return number;
+        }
+
+        public Grade getRawGrade() {
+            return rawGrade;
+        }
+
+        public Grade getFinalGrade() {
+            return finalGrade;
+        }
+
+        public BigDecimal getSumEctsCredits() {
+            return sumEctsCredits;
+        }
+
+        public Integer getCurricularYear() {
+            return curricularYear;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean hasError() {
+            return error != null;
+        }
+    }
+
+    public static class Metrics {
+
+        private final long total;
+
+        private final AtomicLong processed = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final long start = System.nanoTime();
+
+        private volatile long end = 0;
+
+        private Metrics(final long total) {
+            this.total = total;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getProcessed() {
+            return processed.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public boolean isFinished() {
+            return end != 0;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis((isFinished() ? end : System.nanoTime()) - start);
+        }
+
+        /**
+         * @return the processed registrations per second
+         */
+        public double getThroughput() {
+            final long elapsed = getElapsedMillis();
+            return elapsed == 0 ? 0d : getProcessed() * 1000d / elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d registrations (%d failed) in %d ms, %.1f registrations/s", getProcessed(), getTotal(),
+                    getFailed(), getElapsedMillis(), getThroughput());
+        }
+    }
+
+    private final int parallelism;
+
+    private final int chunkSize;
+
+    public CurriculumBatchCalculator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public CurriculumBatchCalculator(final int parallelism, final int chunkSize) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Calculates the curriculum of every registration for the given execution year and blocks until all are done.
+     *
+     * @param sink receives the results, one call at a time but from the worker threads and in no particular order
+     * @param progress notified with the current metrics after each processed chunk; may be null
+     */
+    public Metrics calculate(final Stream<Registration> registrations, final ExecutionYear executionYear,
+            final Consumer<CurriculumResult> sink, final Consumer<Metrics> progress) {
+        final List<String> registrationIds = registrations.map(Registration::getExternalId).collect(Collectors.toList());
+        final String executionYearId = executionYear == null ? null : executionYear.getExternalId();
+        final Metrics metrics = new Metrics(registrationIds.size());
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ChunkAction(registrationIds, executionYearId, sink, progress, metrics));
+        } finally {
+            pool.shutdown();
+            metrics.end = System.nanoTime();
+        }
+
+        logger.info("Curriculum batch calculation finished: {}", metrics);
+        return metrics;
+    }
+
+    private class ChunkAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> registrationIds;
+
+        private final String executionYearId;
+
+        private final Consumer<CurriculumResult> sink;
+
+        private final Consumer<Metrics> progress;
+
+        private final Metrics metrics;
+
+        private ChunkAction(final List<String> registrationIds, final String executionYearId,
+                final Consumer<CurriculumResult> sink, final Consumer<Metrics> progress, final Metrics metrics) {
+            this.registrationIds = registrationIds;
+            this.executionYearId = executionYearId;
+            this.sink = sink;
+            this.progress = progress;
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void compute() {
+            if (registrationIds.size() > chunkSize) {
+                final int middle = registrationIds.size() / 2;
+                invokeAll(new ChunkAction(registrationIds.subList(0, middle), executionYearId, sink, progress, metrics),
+                        new ChunkAction(registrationIds.subList(middle, registrationIds.size()), executionYearId, sink,
+                                progress, metrics));
+                return;
+            }
+
+            final List<CurriculumResult> results = calculateChunk(registrationIds, executionYearId);
+            synchronized (sink) {
+                results.forEach(sink);
+            }
+
+            results.forEach(r -> {
+                metrics.processed.incrementAndGet();
+                if (r.hasError()) {
+                    metrics.failed.incrementAndGet();
+                }
+            });
+
+            if (progress != null) {
+                progress.accept(metrics);
+            }
+        }
+    }
+
+    @Atomic(mode = TxMode.READ)
+    private static List<CurriculumResult> calculateChunk(final List<String> registrationIds, final String executionYearId) {
+        final ExecutionYear executionYear = executionYearId == null ? null : FenixFramework.getDomainObject(executionYearId);
+        return registrationIds.stream().map(id -> calculate(FenixFramework.getDomainObject(id), executionYear))
+                .collect(Collectors.toList());
+    }
+
+    private static CurriculumResult calculate(final Registration registration, final ExecutionYear executionYear) {
+        try {
+            final ICurriculum curriculum = registration.getCurriculum(executionYear);
+            return new CurriculumResult(registration.getExternalId(), registration.getNumber(), curriculum.getRawGrade(),
+                    curriculum.getFinalGrade(), curriculum.getSumEctsCredits(), curriculum.getCurricularYear(), null);
+        } catch (final RuntimeException t) {
+            logger.warn("Unable to calculate curriculum of registration " + registration.getExternalId(), t);
+            return new CurriculumResult(registration.getExternalId(), null, null, null, null, null,
+                    t.getClass().getSimpleName() + ": " + t.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.fenixedu.academic.domain.student.curriculum;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fenixedu.academic.domain.Enrolment;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.studentCurriculum.Credits;
+import org.fenixedu.academic.domain.studentCurriculum.CurriculumModule;
+import org.fenixedu.academic.util.TransactionCompletion;
+import org.joda.time.DateTime;
+
+import pt.ist.fenixframework.FenixFramework;
+import pt.ist.fenixframework.Transaction;
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * Memoizes the {@link Curriculum} built for a curriculum module during the current transaction, so that the grade, credits
+ * and curricular year queries issued while serving a request share a single computation.
+ *
+ * Requests for instants before the first use of the cache in the transaction are keyed by that exact instant. All the
+ * others share the same snapshot, because every curriculum module visible to the transaction was created before that.
+ * The snapshots of a transaction are dropped as soon as it changes curriculum modules, enrolments, evaluations or credits,
+ * and when it ends. Callers get a copy of the snapshot, so changing the returned curriculum does not change the snapshot.
+ */
+public class CurriculumSnapshotCache {
+
+    private static final long CURRENT_BUCKET = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Snapshots> SNAPSHOTS = new ThreadLocal<>();
+
+    static {
+        invalidateOnChange(CurriculumModule.getRelationCurriculumModuleCurriculumGroup());
+        invalidateOnChange(Enrolment.getRelationEnrolmentEnrolmentEvaluation());
+        invalidateOnChange(Credits.getRelationCreditsDismissalEquivalence());
+        invalidateOnChange(Credits.getRelationEnrolmentWrapperCredits());
+    }
+
+    private static <A, B> void invalidateOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                invalidate();
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                invalidate();
+            }
+        });
+    }
+
+    private static class Snapshots {
+
+        private final WeakReference<Transaction> transaction;
+
+        private final long begin = System.currentTimeMillis();
+
+        private final Map<Key, Curriculum> curricula = new HashMap<>();
+
+        private Snapshots(final Transaction transaction) {
+            this.transaction = new WeakReference<>(transaction);
+        }
+    }
+
+    private static record Key(CurriculumModule curriculumModule, ExecutionYear executionYear, long bucket) {
+    }
+
+    private CurriculumSnapshotCache() {
+    }
+
+    public static Curriculum getCurriculum(final CurriculumModule curriculumModule, final DateTime when,
+            final ExecutionYear executionYear) {
+        final Snapshots snapshots = current();
+        if (snapshots == null) {
+            return curriculumModule.getCurriculum(when, executionYear);
+        }
+
+        final long bucket = when.getMillis() < snapshots.begin ? when.getMillis() : CURRENT_BUCKET;
+        final Key key = new Key(curriculumModule, executionYear, bucket);
+
+        // not using computeIfAbsent: building a curriculum may ask for the snapshot of another module
+        Curriculum result = snapshots.curricula.get(key);
+        if (result == null) {
+            result = curriculumModule.getCurriculum(when, executionYear);
+            snapshots.curricula.put(key, result);
+        }
+        return result.copy();
+    }
+
+    public static void invalidate() {
+        SNAPSHOTS.remove();
+    }
+
+    private static Snapshots current() {
+        final Transaction transaction = FenixFramework.getTransaction();
+        if (transaction == null) {
+            return null;
+        }
+
+        Snapshots snapshots = SNAPSHOTS.get();
+        if (snapshots == null || snapshots.transaction.get() != transaction) {
+            final Snapshots created = new Snapshots(transaction);
+            if (!TransactionCompletion.afterCompletion(committed -> {
+                if (SNAPSHOTS.get() == created) {
+                    SNAPSHOTS.remove();
+                }
+            })) {
+                return null;
+            }
+            SNAPSHOTS.set(created);
+            snapshots = created;
+        }
+        return snapshots;
+    }
+
+}
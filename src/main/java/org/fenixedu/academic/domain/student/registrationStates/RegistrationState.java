@@ -19,12 +19,11 @@
 package org.fenixedu.academic.domain.student.registrationStates;
 
 import java.util.Comparator;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import org.fenixedu.academic.domain.ExecutionInterval;
 import org.fenixedu.academic.domain.ExecutionYear;
 import org.fenixedu.academic.domain.Person;
+import org.fenixedu.academic.domain.accessControl.MembershipBitmaps;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.academic.domain.student.Registration;
 import org.fenixedu.academic.predicate.AccessControl;
@@ -34,6 +33,13 @@ import org.joda.time.YearMonthDay;
 
 public class RegistrationState extends RegistrationState_Base {
 
+    static {
+        MembershipBitmaps.indexOnChange(getRelationRegistrationStateTypeRegistrationState());
+        RegistrationStateTimeline.touchOnChange(getRelationRegistrationStateRegistration());
+        RegistrationStateTimeline.touchOnChange(getRelationRegistrationStateExecutionInterval());
+        RegistrationStateTimeline.touchOnChange(getRelationRegistrationStateTypeRegistrationState());
+    }
+
     public static Comparator<RegistrationState> DATE_COMPARATOR = new Comparator<RegistrationState>() {
         @Override
         public int compare(RegistrationState leftState, RegistrationState rightState) {
@@ -84,17 +90,11 @@ public class RegistrationState extends RegistrationState_Base {
     }
 
     public RegistrationState getNext() {
-        final List<RegistrationState> sortedStates = getRegistration().getRegistrationStatesSet().stream()
-                .sorted(EXECUTION_INTERVAL_AND_DATE_COMPARATOR).collect(Collectors.toList());
-        int indexOfThis = sortedStates.indexOf(this);
-        return sortedStates.size() > indexOfThis + 1 ? sortedStates.get(indexOfThis + 1) : null;
+        return RegistrationStateTimeline.find(getRegistration()).getNext(this);
     }
 
     public RegistrationState getPrevious() {
-        final List<RegistrationState> sortedStates = getRegistration().getRegistrationStatesSet().stream()
-                .sorted(EXECUTION_INTERVAL_AND_DATE_COMPARATOR).collect(Collectors.toList());
-        int indexOfThis = sortedStates.indexOf(this);
-        return indexOfThis > 0 ? sortedStates.get(indexOfThis - 1) : null;
+        return RegistrationStateTimeline.find(getRegistration()).getPrevious(this);
     }
 
     public DateTime getEndDate() {
@@ -102,8 +102,14 @@ public class RegistrationState extends RegistrationState_Base {
         return (state != null) ? state.getStateDate() : null;
     }
 
+    @Override
+    public void setStateDate(DateTime stateDate) {
+        super.setStateDate(stateDate);
+        RegistrationStateTimeline.touch(getRegistration());
+    }
+
     public void setStateDate(YearMonthDay yearMonthDay) {
-        super.setStateDate(yearMonthDay.toDateTimeAtMidnight());
+        setStateDate(yearMonthDay.toDateTimeAtMidnight());
     }
 
     public boolean isActive() {
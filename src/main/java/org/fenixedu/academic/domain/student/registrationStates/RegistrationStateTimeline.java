@@ -0,0 +1,321 @@
+package org.fenixedu.academic.domain.student.registrationStates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionIntervalRegistry;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.util.PersistentVersion;
+import org.fenixedu.academic.util.TransactionLocal;
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * Immutable snapshot of the {@link RegistrationState}s of a {@link Registration}, sorted by execution interval and date and
+ * by date, so that finding the active state, the state in a date or the states of an execution interval does not sort or
+ * group all the states of the registration on each call.
+ *
+ * Creating or deleting a state, or changing its execution interval, type or date, increments the persistent states version
+ * of the registration, so a snapshot is only used by the transactions that see the version it was built from. Transactions
+ * that change states use snapshots of their own, built again after each change. The relative order of execution intervals
+ * is assumed not to change.
+ *
+ * Also keeps whether each registration is active, with the states version of the registration it was found from. Listing the
+ * active registrations goes through all registrations, but only resolves the active state of those whose states version
+ * changed, on any server, so state changes of different registrations never conflict. Whether registrations are active is
+ * found again on each day, when an execution year begins and when the current execution intervals or the active state types
+ * change.
+ */
+public class RegistrationStateTimeline {
+
+    private static final int MAXIMUM_SIZE = 50_000;
+
+    private static final Cache<Registration, RegistrationStateTimeline> TIMELINES =
+            CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    // the timelines built by a transaction that changes states, and the registrations whose version it already incremented
+    private static record Changing(Map<Registration, RegistrationStateTimeline> timelines, Set<Registration> touched) {
+    }
+
+    private static final TransactionLocal<Changing> CHANGING = new TransactionLocal<>();
+
+    private static final Comparator<RegistrationState> ORDER = Comparator.comparing(RegistrationState::getExecutionInterval,
+            Comparator.nullsFirst(ExecutionInterval.COMPARATOR_BY_BEGIN_DATE)).thenComparing(RegistrationState.DATE_COMPARATOR);
+
+    private static record Activity(int version, boolean active) {
+    }
+
+    private static record ActiveRegistrations(long validUntil, Set<ExecutionInterval> currentIntervals,
+            Set<RegistrationStateType> activeTypes, Map<Registration, Activity> activities) {
+
+        private boolean matches(final Set<ExecutionInterval> currentIntervals, final Set<RegistrationStateType> activeTypes) {
+            return System.currentTimeMillis() < validUntil && this.currentIntervals.equals(currentIntervals)
+                    && this.activeTypes.equals(activeTypes);
+        }
+
+        private boolean isActive(final Registration registration) {
+            final Changing changing = CHANGING.get();
+            if (changing != null && changing.touched().contains(registration)) {
+                return hasActiveState(find(registration));
+            }
+
+            final int version = getVersion(registration);
+            final Activity activity = activities.get(registration);
+            if (activity != null && activity.version() == version) {
+                return activity.active();
+            }
+
+            // timelines that are not cached are not added, so that going through all registrations does not evict those in use
+            RegistrationStateTimeline timeline = changing == null ? TIMELINES.getIfPresent(registration) : null;
+            if (timeline == null || timeline.version != version) {
+                timeline = new RegistrationStateTimeline(registration, -1);
+            }
+            final boolean active = hasActiveState(timeline);
+
+            // a transaction that started before a state change was committed must not replace what was found from it
+            if (changing == null) {
+                activities.merge(registration, new Activity(version, active), PersistentVersion.newest(Activity::version));
+            }
+            return active;
+        }
+    }
+
+    private static volatile ActiveRegistrations ACTIVE_REGISTRATIONS = null;
+
+    /**
+     * Registers a listener that increments the states version of the affected registration whenever the relation changes.
+     */
+    static <A, B> void touchOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                touch(a);
+                touch(b);
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                touch(a);
+                touch(b);
+            }
+        });
+    }
+
+    private static void touch(final Object object) {
+        if (object instanceof Registration registration) {
+            touch(registration);
+        } else if (object instanceof RegistrationState state) {
+            touch(state.getRegistration());
+        }
+    }
+
+    static void touch(final Registration registration) {
+        if (registration == null) {
+            return;
+        }
+
+        final Changing changing = CHANGING.computeIfAbsent(() -> new Changing(new HashMap<>(), new HashSet<>()));
+        changing.timelines().remove(registration);
+
+        // the other transactions only need to see a newer version, so the slot is written once by each transaction
+        if (changing.touched().add(registration)) {
+            registration.setStatesVersion(getVersion(registration) + 1);
+        }
+    }
+
+    private static int getVersion(final Registration registration) {
+        final Integer version = registration.getStatesVersion();
+        return version == null ? 0 : version.intValue();
+    }
+
+    public static RegistrationStateTimeline find(final Registration registration) {
+        final Changing changing = CHANGING.get();
+        if (changing != null) {
+            return changing.timelines().computeIfAbsent(registration, r -> new RegistrationStateTimeline(r, -1));
+        }
+
+        final int version = getVersion(registration);
+        RegistrationStateTimeline result = TIMELINES.getIfPresent(registration);
+        if (result == null || result.version != version) {
+            result = new RegistrationStateTimeline(registration, version);
+            TIMELINES.asMap().merge(registration, result, PersistentVersion.newest(timeline -> timeline.version));
+        }
+        return result;
+    }
+
+    public static void invalidate() {
+        TIMELINES.invalidateAll();
+        ACTIVE_REGISTRATIONS = null;
+    }
+
+    /**
+     * @return the registrations that are active for the current transaction
+     */
+    public static Stream<Registration> findActiveRegistrations() {
+        final ActiveRegistrations activeRegistrations = getActiveRegistrations();
+        return Bennu.getInstance().getRegistrationsSet().stream().filter(activeRegistrations::isActive);
+    }
+
+    private static boolean hasActiveState(final RegistrationStateTimeline timeline) {
+        final RegistrationState activeState = timeline.getActiveState();
+        return activeState != null && activeState.getType() != null && activeState.getType().getActive();
+    }
+
+    private static ActiveRegistrations getActiveRegistrations() {
+        final Set<ExecutionInterval> currentIntervals = ExecutionIntervalRegistry.getInstance().getAll().stream()
+                .filter(ExecutionInterval::isCurrent).collect(Collectors.toSet());
+        final Set<RegistrationStateType> activeTypes = Bennu.getInstance().getRegistrationStateTypesSet().stream()
+                .filter(RegistrationStateType::getActive).collect(Collectors.toSet());
+
+        ActiveRegistrations result = ACTIVE_REGISTRATIONS;
+        if (result == null || !result.matches(currentIntervals, activeTypes)) {
+            synchronized (RegistrationStateTimeline.class) {
+                result = ACTIVE_REGISTRATIONS;
+                if (result == null || !result.matches(currentIntervals, activeTypes)) {
+                    result = new ActiveRegistrations(computeValidUntil(), currentIntervals, activeTypes,
+                            new ConcurrentHashMap<>());
+                    ACTIVE_REGISTRATIONS = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // the active state changes when a day or an execution year begins
+    private static long computeValidUntil() {
+        final DateTime now = new DateTime();
+        long result = now.plusDays(1).withTimeAtStartOfDay().getMillis();
+        for (final ExecutionInterval executionInterval : ExecutionIntervalRegistry.getInstance().getAll()) {
+            if (executionInterval instanceof ExecutionYear executionYear) {
+                final long start = executionYear.getAcademicInterval().getStart().getMillis();
+                if (start > now.getMillis() && start < result) {
+                    result = start;
+                }
+            }
+        }
+        return result;
+    }
+
+    private final int version;
+
+    private final RegistrationState[] states;
+
+    private final RegistrationState[] statesByDate;
+
+    private final Map<ExecutionInterval, List<RegistrationState>> statesByInterval = new LinkedHashMap<>();
+
+    private RegistrationStateTimeline(final Registration registration, final int version) {
+        this.version = version;
+        this.states = registration.getRegistrationStatesSet().toArray(new RegistrationState[0]);
+        Arrays.sort(states, ORDER);
+        this.statesByDate = states.clone();
+        Arrays.sort(statesByDate, RegistrationState.DATE_COMPARATOR);
+
+        for (final RegistrationState state : states) {
+            if (state.getExecutionInterval() != null) {
+                statesByInterval.computeIfAbsent(state.getExecutionInterval(), i -> new ArrayList<>()).add(state);
+            }
+        }
+        statesByInterval.replaceAll((executionInterval, intervalStates) -> List.copyOf(intervalStates));
+    }
+
+    /**
+     * @return the last state of an execution year that already began or of a current execution interval, or the last state
+     *         if there is none
+     */
+    public RegistrationState getActiveState() {
+        for (int i = states.length - 1; i >= 0; i--) {
+            final ExecutionInterval executionInterval = states[i].getExecutionInterval();
+            if (executionInterval != null && (executionInterval.getExecutionYear().getAcademicInterval().getStart()
+                    .isBeforeNow() || executionInterval.isCurrent())) {
+                return states[i];
+            }
+        }
+        return getLastState();
+    }
+
+    public RegistrationState getFirstState() {
+        return states.length == 0 ? null : states[0];
+    }
+
+    public RegistrationState getLastState() {
+        return states.length == 0 ? null : states[states.length - 1];
+    }
+
+    public RegistrationState getLastState(final ExecutionYear executionYear) {
+        for (int i = states.length - 1; i >= 0; i--) {
+            if (states[i].getExecutionYear().isBeforeOrEquals(executionYear)) {
+                return states[i];
+            }
+        }
+        return null;
+    }
+
+    public RegistrationState getNext(final RegistrationState state) {
+        final int index = Arrays.asList(states).indexOf(state);
+        return index >= 0 && index + 1 < states.length ? states[index + 1] : null;
+    }
+
+    public RegistrationState getPrevious(final RegistrationState state) {
+        final int index = Arrays.asList(states).indexOf(state);
+        return index > 0 ? states[index - 1] : null;
+    }
+
+    public RegistrationState getStateInDate(final DateTime dateTime) {
+        for (int i = statesByDate.length - 1; i >= 0; i--) {
+            if (!dateTime.isBefore(statesByDate[i].getStateDate())) {
+                return statesByDate[i];
+            }
+        }
+        return null;
+    }
+
+    public RegistrationState getStateInDate(final LocalDate localDate) {
+        for (int i = statesByDate.length - 1; i >= 0; i--) {
+            if (!localDate.isBefore(statesByDate[i].getStateDate().toLocalDate())) {
+                return statesByDate[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return all the states of the execution interval or, if it has none, the last state of the last execution interval
+     *         before it with states
+     */
+    public List<RegistrationState> getStates(final ExecutionInterval executionInterval) {
+        final List<RegistrationState> result = statesByInterval.get(executionInterval);
+        if (result != null) {
+            return result;
+        }
+
+        final ExecutionInterval lastIntervalWithStates = statesByInterval.keySet().stream()
+                .filter(ei -> ei.isBeforeOrEquals(executionInterval)).max(Comparator.naturalOrder()).orElse(null);
+        if (lastIntervalWithStates == null) {
+            return List.of();
+        }
+
+        final List<RegistrationState> lastStates = statesByInterval.get(lastIntervalWithStates);
+        return List.of(lastStates.get(lastStates.size() - 1));
+    }
+
+}
@@ -1,9 +1,9 @@
 package org.fenixedu.academic.domain.student.registrationStates;
 
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import org.fenixedu.academic.domain.ReferenceDataRegistry;
 import org.fenixedu.bennu.core.domain.Bennu;
 import org.fenixedu.commons.i18n.LocalizedString;
 
@@ -12,6 +12,16 @@ public class RegistrationStateType extends RegistrationStateType_Base {
     public static final String REGISTERED_CODE = "REGISTERED";
     public static final String CONCLUDED_CODE = "CONCLUDED";
 
+    private static final ReferenceDataRegistry<RegistrationStateType> REGISTRY =
+            new ReferenceDataRegistry<>(() -> Bennu.getInstance().getRegistrationStateTypesSet());
+
+    private static final ReferenceDataRegistry.Index<RegistrationStateType> BY_CODE =
+            REGISTRY.index(RegistrationStateType::getCode);
+
+    static {
+        REGISTRY.invalidateOnChange(getRelationRegistrationStateTypeRoot());
+    }
+
     protected RegistrationStateType() {
         super();
         setRoot(Bennu.getInstance());
@@ -32,6 +42,7 @@ public class RegistrationStateType extends RegistrationStateType_Base {
         }
 
         super.setCode(code);
+        REGISTRY.invalidate();
     }
 
     public boolean isRegistered() {
@@ -47,7 +58,7 @@ public class RegistrationStateType extends RegistrationStateType_Base {
     }
 
     public static Optional<RegistrationStateType> findByCode(final String code) {
-        return findAll().filter(type -> Objects.equals(type.getCode(), code)).findAny();
+        return BY_CODE.find(code);
     }
 
     public void delete() {
@@ -34,6 +34,7 @@ import org.fenixedu.academic.domain.degreeStructure.Context;
 import org.fenixedu.academic.domain.degreeStructure.CourseGroup;
 import org.fenixedu.academic.domain.degreeStructure.CycleType;
 import org.fenixedu.academic.domain.exceptions.DomainException;
+import org.fenixedu.academic.domain.student.RegistrationYearFacts;
 import org.fenixedu.academic.domain.student.curriculum.Curriculum;
 import org.fenixedu.academic.domain.student.curriculum.ICurriculumEntry;
 import org.fenixedu.academic.dto.administrativeOffice.dismissal.DismissalBean.SelectedCurricularCourse;
@@ -46,6 +47,11 @@ import com.google.common.collect.Sets;
 
 public class Credits extends Credits_Base {
 
+    static {
+        RegistrationYearFacts.touchOnChange(getRelationCreditsDismissalEquivalence());
+        RegistrationYearFacts.touchOnChange(getRelationEnrolmentWrapperCredits());
+    }
+
     public Credits() {
         super();
         setRootDomainObject(Bennu.getInstance());
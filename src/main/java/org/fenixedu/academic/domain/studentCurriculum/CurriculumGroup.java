@@ -52,8 +52,10 @@ import org.fenixedu.academic.domain.degreeStructure.DegreeModule;
 import org.fenixedu.academic.domain.enrolment.EnroledCurriculumModuleWrapper;
 import org.fenixedu.academic.domain.enrolment.IDegreeModuleToEvaluate;
 import org.fenixedu.academic.domain.exceptions.DomainException;
+import org.fenixedu.academic.domain.student.RegistrationYearFacts;
 import org.fenixedu.academic.domain.student.curriculum.ConclusionProcess;
 import org.fenixedu.academic.domain.student.curriculum.Curriculum;
+import org.fenixedu.academic.domain.student.curriculum.CurriculumSnapshotCache;
 
 import org.fenixedu.academic.util.Bundle;
 import org.fenixedu.academic.util.predicates.AndPredicate;
@@ -343,11 +345,19 @@ public class CurriculumGroup extends CurriculumGroup_Base {
 
     @Override
     final public boolean isApproved(CurricularCourse curricularCourse, ExecutionInterval executionInterval) {
+        final CurriculumLineIndex index = findCurriculumLineIndex();
+        if (index != null) {
+            return index.isApproved(curricularCourse, executionInterval);
+        }
         return getCurriculumModulesSet().stream().anyMatch(cm -> cm.isApproved(curricularCourse, executionInterval));
     }
 
     @Override
     final public boolean isEnroledInExecutionPeriod(CurricularCourse curricularCourse, ExecutionInterval executionInterval) {
+        final CurriculumLineIndex index = findCurriculumLineIndex();
+        if (index != null) {
+            return index.isEnroledInExecutionPeriod(curricularCourse, executionInterval);
+        }
         return getCurriculumModulesSet().stream()
                 .anyMatch(cm -> cm.isEnroledInExecutionPeriod(curricularCourse, executionInterval));
     }
@@ -387,6 +397,10 @@ public class CurriculumGroup extends CurriculumGroup_Base {
 
     @Override
     final public Enrolment findEnrolmentFor(final CurricularCourse curricularCourse, final ExecutionInterval executionInterval) {
+        final CurriculumLineIndex index = findCurriculumLineIndex();
+        if (index != null) {
+            return index.findEnrolmentFor(curricularCourse, executionInterval);
+        }
         return getCurriculumModulesSet().stream().map(cm -> cm.findEnrolmentFor(curricularCourse, executionInterval))
                 .filter(Objects::nonNull).findFirst().orElse(null);
     }
@@ -405,10 +419,21 @@ public class CurriculumGroup extends CurriculumGroup_Base {
 
     @Override
     final public CurriculumLine getApprovedCurriculumLine(final CurricularCourse curricularCourse) {
+        final CurriculumLineIndex index = findCurriculumLineIndex();
+        if (index != null) {
+            return index.getApprovedCurriculumLine(curricularCourse);
+        }
         return getCurriculumModulesSet().stream().map(cm -> cm.getApprovedCurriculumLine(curricularCourse))
                 .filter(Objects::nonNull).findFirst().orElse(null);
     }
 
+    /*
+     * Queries on the whole curriculum go through the index of the plan instead of walking the tree
+     */
+    private CurriculumLineIndex findCurriculumLineIndex() {
+        return isRoot() ? CurriculumLineIndex.find(getStudentCurricularPlan()) : null;
+    }
+
     public CurriculumGroup findCurriculumGroupFor(final CourseGroup courseGroup) {
         if (getDegreeModule() == courseGroup) {
             return this;
@@ -768,6 +793,8 @@ public class CurriculumGroup extends CurriculumGroup_Base {
     static public void setCurriculumSupplier(final Supplier<CurriculumSupplier> input) {
         if (input != null && input.get() != null) {
             CURRICULUM_SUPPLIER = input;
+            CurriculumSnapshotCache.invalidate();
+            RegistrationYearFacts.invalidate();
         } else {
             logger.error("Could not set CURRICULUM_SUPPLIER to null");
         }
@@ -0,0 +1,224 @@
+package org.fenixedu.academic.domain.studentCurriculum;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.fenixedu.academic.domain.CurricularCourse;
+import org.fenixedu.academic.domain.Enrolment;
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.degreeStructure.DegreeModule;
+import org.fenixedu.academic.util.PersistentVersion;
+import org.fenixedu.academic.util.TransactionLocal;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * Immutable snapshot of the {@link CurriculumLine}s of a {@link StudentCurricularPlan}, grouped by curricular course, used
+ * to answer the approval and enrolment queries of the root curriculum group without walking the whole curriculum tree for
+ * each curricular course.
+ *
+ * Only the candidate lines of the curricular course and of its equivalent courses (those of the same competence course)
+ * are checked, in the order of the tree, with the same methods used when walking the tree. So approvals, evaluations and
+ * execution intervals are always those of the current transaction. Lines that may match other curricular courses than their
+ * own, like optional enrolments and credits dismissals, are checked for every curricular course.
+ *
+ * Creating, deleting or moving a line, or changing its curricular course, increments the persistent curriculum version of
+ * the plan, so a snapshot is only used by the transactions that see the version it was built from. Transactions that change
+ * the curriculum use snapshots of their own, built again after each change.
+ */
+public class CurriculumLineIndex {
+
+    private static final int MAXIMUM_SIZE = 20_000;
+
+    private static final Cache<StudentCurricularPlan, CurriculumLineIndex> INDEXES =
+            CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    // the indexes built by a transaction that changed the curriculum
+    private static final TransactionLocal<Map<StudentCurricularPlan, CurriculumLineIndex>> CHANGING = new TransactionLocal<>();
+
+    /**
+     * Registers a listener that increments the curriculum version of the affected plans whenever the relation changes.
+     */
+    static <A, B> void touchOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                touch(a);
+                touch(b);
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                touch(a);
+                touch(b);
+            }
+        });
+    }
+
+    private static void touch(final Object object) {
+        if (object instanceof CurriculumModule curriculumModule) {
+            touch(findStudentCurricularPlan(curriculumModule));
+        }
+    }
+
+    private static StudentCurricularPlan findStudentCurricularPlan(final CurriculumModule curriculumModule) {
+        CurriculumModule current = curriculumModule;
+        while (current.getCurriculumGroup() != null) {
+            current = current.getCurriculumGroup();
+        }
+        return current instanceof RootCurriculumGroup root ? root.getParentStudentCurricularPlan() : null;
+    }
+
+    private static void touch(final StudentCurricularPlan studentCurricularPlan) {
+        if (studentCurricularPlan == null) {
+            return;
+        }
+
+        studentCurricularPlan.setCurriculumVersion(getVersion(studentCurricularPlan) + 1);
+        CHANGING.computeIfAbsent(HashMap::new).remove(studentCurricularPlan);
+    }
+
+    private static int getVersion(final StudentCurricularPlan studentCurricularPlan) {
+        final Integer version = studentCurricularPlan.getCurriculumVersion();
+        return version == null ? 0 : version.intValue();
+    }
+
+    /**
+     * @return the index of the plan, or null if it has no curriculum
+     */
+    static CurriculumLineIndex find(final StudentCurricularPlan studentCurricularPlan) {
+        if (studentCurricularPlan == null || studentCurricularPlan.getRoot() == null) {
+            return null;
+        }
+
+        final Map<StudentCurricularPlan, CurriculumLineIndex> changing = CHANGING.get();
+        if (changing != null) {
+            return changing.computeIfAbsent(studentCurricularPlan, scp -> new CurriculumLineIndex(scp.getRoot(), -1));
+        }
+
+        final int version = getVersion(studentCurricularPlan);
+        CurriculumLineIndex result = INDEXES.getIfPresent(studentCurricularPlan);
+        if (result == null || result.version != version) {
+            result = new CurriculumLineIndex(studentCurricularPlan.getRoot(), version);
+            INDEXES.asMap().merge(studentCurricularPlan, result, PersistentVersion.newest(index -> index.version));
+        }
+        return result;
+    }
+
+    public static void invalidate() {
+        INDEXES.invalidateAll();
+    }
+
+    private final int version;
+
+    private final CurriculumLine[] lines;
+
+    private final Map<CurricularCourse, BitSet> linesByCurricularCourse = new HashMap<>();
+
+    private final BitSet unkeyedLines = new BitSet();
+
+    private CurriculumLineIndex(final RootCurriculumGroup root, final int version) {
+        this.version = version;
+
+        final List<CurriculumLine> collected = new ArrayList<>();
+        collect(root, collected);
+        this.lines = collected.toArray(new CurriculumLine[collected.size()]);
+
+        for (int i = 0; i < lines.length; i++) {
+            final DegreeModule degreeModule = lines[i].getDegreeModule();
+            final Class<?> type = lines[i].getClass();
+            if ((type == Enrolment.class || type == Dismissal.class) && degreeModule instanceof CurricularCourse course) {
+                linesByCurricularCourse.computeIfAbsent(course, c -> new BitSet()).set(i);
+            } else {
+                unkeyedLines.set(i);
+            }
+        }
+    }
+
+    // same order as walking the tree through CurriculumGroup#getCurriculumModulesSet()
+    private static void collect(final CurriculumGroup group, final List<CurriculumLine> result) {
+        for (final CurriculumModule curriculumModule : group.getCurriculumModulesSet()) {
+            if (curriculumModule.isLeaf()) {
+                result.add((CurriculumLine) curriculumModule);
+            } else {
+                collect((CurriculumGroup) curriculumModule, result);
+            }
+        }
+    }
+
+    private BitSet getCandidates(final CurricularCourse curricularCourse) {
+        final BitSet result = (BitSet) unkeyedLines.clone();
+        add(result, curricularCourse);
+        if (curricularCourse.getCompetenceCourse() != null) {
+            curricularCourse.getCompetenceCourse().getAssociatedCurricularCoursesSet().forEach(cc -> add(result, cc));
+        }
+        return result;
+    }
+
+    private void add(final BitSet result, final CurricularCourse curricularCourse) {
+        final BitSet lines = linesByCurricularCourse.get(curricularCourse);
+        if (lines != null) {
+            result.or(lines);
+        }
+    }
+
+    private CurriculumLine findFirst(final CurricularCourse curricularCourse, final Predicate<CurriculumLine> predicate) {
+        final BitSet candidates = getCandidates(curricularCourse);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (predicate.test(lines[i])) {
+                return lines[i];
+            }
+        }
+        return null;
+    }
+
+    boolean isApproved(final CurricularCourse curricularCourse, final ExecutionInterval executionInterval) {
+        return findFirst(curricularCourse, line -> line.isApproved(curricularCourse, executionInterval)) != null;
+    }
+
+    boolean isEnroledInExecutionPeriod(final CurricularCourse curricularCourse, final ExecutionInterval executionInterval) {
+        return findFirst(curricularCourse, line -> line.isEnroledInExecutionPeriod(curricularCourse, executionInterval)) != null;
+    }
+
+    Enrolment findEnrolmentFor(final CurricularCourse curricularCourse, final ExecutionInterval executionInterval) {
+        return (Enrolment) findFirst(curricularCourse,
+                line -> line.findEnrolmentFor(curricularCourse, executionInterval) != null);
+    }
+
+    CurriculumLine getApprovedCurriculumLine(final CurricularCourse curricularCourse) {
+        return findFirst(curricularCourse, line -> line.getApprovedCurriculumLine(curricularCourse) != null);
+    }
+
+    /**
+     * @return the enrolments whose curricular course is the provided one, not including equivalent courses
+     */
+    public static List<Enrolment> getEnrolments(final StudentCurricularPlan studentCurricularPlan,
+            final CurricularCourse curricularCourse) {
+        final CurriculumLineIndex index = find(studentCurricularPlan);
+        final List<Enrolment> result = new ArrayList<>();
+        if (index == null) {
+            return result;
+        }
+
+        final BitSet candidates = (BitSet) index.unkeyedLines.clone();
+        index.add(candidates, curricularCourse);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (index.lines[i] instanceof Enrolment enrolment
+                    && Objects.equals(enrolment.getCurricularCourse(), curricularCourse)) {
+                result.add(enrolment);
+            }
+        }
+        return result;
+    }
+
+}
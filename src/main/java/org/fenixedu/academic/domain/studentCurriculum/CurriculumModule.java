@@ -44,6 +44,7 @@ import org.fenixedu.academic.domain.degreeStructure.DegreeModule;
 import org.fenixedu.academic.domain.enrolment.IDegreeModuleToEvaluate;
 import org.fenixedu.academic.domain.exceptions.DomainException;
 import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.student.RegistrationYearFacts;
 import org.fenixedu.academic.domain.student.Student;
 import org.fenixedu.academic.domain.student.curriculum.Curriculum;
 import org.fenixedu.academic.util.Bundle;
@@ -55,6 +56,13 @@ import org.joda.time.YearMonthDay;
 
 abstract public class CurriculumModule extends CurriculumModule_Base {
 
+    static {
+        CurriculumLineIndex.touchOnChange(getRelationCurriculumModuleCurriculumGroup());
+        CurriculumLineIndex.touchOnChange(getRelationDegreeModuleCurriculumModule());
+        RegistrationYearFacts.touchOnChange(getRelationCurriculumModuleCurriculumGroup());
+        RegistrationYearFacts.touchOnChange(getRelationDegreeModuleCurriculumModule());
+    }
+
     static final public Comparator<CurriculumModule> COMPARATOR_BY_NAME_AND_ID = new Comparator<CurriculumModule>() {
         @Override
         public int compare(CurriculumModule o1, CurriculumModule o2) {
@@ -102,12 +102,17 @@ abstract public class StudentCurricularPlanEnrolment {
 
         RuleResult finalResult = RuleResult.createInitialTrue();
         final Map<IDegreeModuleToEvaluate, Set<ICurricularRule>> rulesToEvaluate = getRulesToEvaluate();
-        for (final Entry<IDegreeModuleToEvaluate, Set<ICurricularRule>> entry : rulesToEvaluate.entrySet()) {
-            RuleResult result = evaluateRules(entry.getKey(), entry.getValue());
-            finalResult = finalResult.and(result);
-        }
+        enrolmentContext.startRuleEvaluation();
+        try {
+            for (final Entry<IDegreeModuleToEvaluate, Set<ICurricularRule>> entry : rulesToEvaluate.entrySet()) {
+                RuleResult result = evaluateRules(entry.getKey(), entry.getValue());
+                finalResult = finalResult.and(result);
+            }
 
-        finalResult = evaluateExtraRules(finalResult);
+            finalResult = evaluateExtraRules(finalResult);
+        } finally {
+            enrolmentContext.finishRuleEvaluation();
+        }
 
         if (!finalResult.isFalse()) {
             for (final IDegreeModuleToEvaluate degreeModuleToEvaluate : rulesToEvaluate.keySet()) {
@@ -135,7 +140,7 @@ abstract public class StudentCurricularPlanEnrolment {
         RuleResult ruleResult = RuleResult.createTrue(degreeModuleToEvaluate.getDegreeModule());
 
         for (final ICurricularRule rule : curricularRules) {
-            ruleResult = ruleResult.and(rule.evaluate(degreeModuleToEvaluate, enrolmentContext));
+            ruleResult = ruleResult.and(enrolmentContext.evaluateRule(rule, degreeModuleToEvaluate));
         }
 
         return ruleResult;
@@ -49,6 +49,10 @@ public abstract class AcademicCalendarEntry extends AcademicCalendarEntry_Base {
 
     };
 
+    static {
+        AcademicCalendarTimeline.touchOnChange(getRelationAcademicCalendarEntryAcademicCalendarEntry());
+    }
+
     protected AcademicCalendarEntry() {
         super();
         setRootDomainObject(Bennu.getInstance());
@@ -143,6 +147,12 @@ public abstract class AcademicCalendarEntry extends AcademicCalendarEntry_Base {
         super.setTitle(title);
     }
 
+    @Override
+    public void setAcademicPeriod(AcademicPeriod academicPeriod) {
+        super.setAcademicPeriod(academicPeriod);
+        AcademicCalendarTimeline.touch(this);
+    }
+
     private void setTimeInterval(DateTime begin, DateTime end) {
 
         if (begin == null) {
@@ -157,6 +167,7 @@ public abstract class AcademicCalendarEntry extends AcademicCalendarEntry_Base {
 
         super.setBegin(begin);
         super.setEnd(end);
+        AcademicCalendarTimeline.touch(this);
 
         GenericPair<DateTime, DateTime> maxAndMinDateTimes = getChildMaxAndMinDateTimes();
         if (maxAndMinDateTimes != null
@@ -317,6 +328,11 @@ public abstract class AcademicCalendarEntry extends AcademicCalendarEntry_Base {
     }
 
     public AcademicCalendarEntry getNextAcademicCalendarEntry() {
+        final AcademicCalendarTimeline timeline = findTimeline();
+        if (timeline != null) {
+            return timeline.getNextEntry(this);
+        }
+
         AcademicCalendarEntry closest = null;
         for (AcademicCalendarEntry entry : this.getRootEntry().getAllChildEntries(this.getAcademicPeriod())) {
             if (entry.getBegin().isAfter(this.getBegin())) {
@@ -329,6 +345,11 @@ public abstract class AcademicCalendarEntry extends AcademicCalendarEntry_Base {
     }
 
     public AcademicCalendarEntry getPreviousAcademicCalendarEntry() {
+        final AcademicCalendarTimeline timeline = findTimeline();
+        if (timeline != null) {
+            return timeline.getPreviousEntry(this);
+        }
+
         AcademicCalendarEntry closest = null;
         for (AcademicCalendarEntry entry : this.getRootEntry().getAllChildEntries(this.getAcademicPeriod())) {
             if (entry.getBegin().isBefore(this.getBegin())) {
@@ -346,6 +367,12 @@ public abstract class AcademicCalendarEntry extends AcademicCalendarEntry_Base {
      *         The first entry has cardinality of 1
      */
     public int getCardinality() {
+        final AcademicCalendarTimeline timeline = getParentEntry() != null ? findTimeline() : null;
+        final Integer cardinality = timeline != null ? timeline.getCardinality(this) : null;
+        if (cardinality != null) {
+            return cardinality.intValue();
+        }
+
         final AcademicPeriod academicPeriod = getAcademicPeriod();
 
         // not using directly getChildEntries(academicPeriod) in order optimize performance avoiding unecessary list collect, because this method will be invoked intensively
@@ -354,6 +381,14 @@ public abstract class AcademicCalendarEntry extends AcademicCalendarEntry_Base {
                 .collect(Collectors.toList()).indexOf(this) + 1 : 0;
     }
 
+    private AcademicCalendarTimeline findTimeline() {
+        if (isRoot() || getAcademicPeriod() == null) {
+            return null;
+        }
+        final AcademicCalendarRootEntry rootEntry = getRootEntry();
+        return rootEntry != null ? AcademicCalendarTimeline.find(rootEntry) : null;
+    }
+
     public static AcademicCalendarEntry findDefaultCalendar() {
         return Bennu.getInstance().getDefaultAcademicCalendar();
     }
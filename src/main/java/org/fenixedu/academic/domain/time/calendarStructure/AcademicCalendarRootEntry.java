@@ -90,6 +90,11 @@ public class AcademicCalendarRootEntry extends AcademicCalendarRootEntry_Base {
     }
 
     public AcademicCalendarEntry getEntryByInstant(long instant, AcademicPeriod academicPeriod) {
+        final AcademicCalendarTimeline timeline = findTimeline(academicPeriod);
+        if (timeline != null) {
+            return timeline.getEntryByInstant(instant, academicPeriod);
+        }
+
         AcademicCalendarEntry entryResult = null;
         for (AcademicCalendarEntry entry : getAllChildEntries(academicPeriod)) {
             if (entry.containsInstant(instant)) {
@@ -100,6 +105,11 @@ public class AcademicCalendarRootEntry extends AcademicCalendarRootEntry_Base {
     }
 
     public Integer getEntryIndexByInstant(long instant, AcademicPeriod academicPeriod) {
+        final AcademicCalendarTimeline timeline = findTimeline(academicPeriod);
+        if (timeline != null) {
+            return timeline.getEntryIndexByInstant(instant, academicPeriod);
+        }
+
         Integer counter = null;
         for (AcademicCalendarEntry entry : getAllChildEntries(academicPeriod)) {
             if (entry.containsInstant(instant) || entry.getEnd().isBefore(instant)) {
@@ -110,11 +120,20 @@ public class AcademicCalendarRootEntry extends AcademicCalendarRootEntry_Base {
     }
 
     public AcademicCalendarEntry getEntryByIndex(int index, AcademicPeriod academicPeriod) {
+        final AcademicCalendarTimeline timeline = findTimeline(academicPeriod);
+        if (timeline != null) {
+            return timeline.getEntryByIndex(index, academicPeriod);
+        }
+
         List<AcademicCalendarEntry> allChildEntries = getAllChildEntries(academicPeriod);
         Collections.sort(allChildEntries, COMPARATOR_BY_BEGIN_DATE);
         return index > 0 && index <= allChildEntries.size() ? allChildEntries.get(index - 1) : null;
     }
 
+    private AcademicCalendarTimeline findTimeline(AcademicPeriod academicPeriod) {
+        return academicPeriod != null ? AcademicCalendarTimeline.find(this) : null;
+    }
+
     public static AcademicCalendarRootEntry getAcademicCalendarByTitle(String title) {
         for (AcademicCalendarRootEntry rootEntry : Bennu.getInstance().getAcademicCalendarsSet()) {
             if (rootEntry.getTitle().getContent().equals(title)) {
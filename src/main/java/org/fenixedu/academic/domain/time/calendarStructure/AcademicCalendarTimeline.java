@@ -0,0 +1,253 @@
+package org.fenixedu.academic.domain.time.calendarStructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fenixedu.academic.util.PersistentVersion;
+import org.fenixedu.academic.util.TransactionLocal;
+
+import pt.ist.fenixframework.dml.runtime.Relation;
+import pt.ist.fenixframework.dml.runtime.RelationAdapter;
+
+/**
+ * Immutable snapshot of the entries of an {@link AcademicCalendarRootEntry}, used by the academic chronology to find the
+ * entry of an instant, or of an index, without walking the whole calendar tree on each call.
+ *
+ * For each academic period, the entries are sorted by begin date, with their begin and end instants kept in arrays, so that
+ * an instant is located with a binary search. The cardinality of each entry among the entries of its parent with the same
+ * academic period is computed once for the whole tree.
+ *
+ * Adding, removing or moving an entry, or changing its dates or its academic period, increments the persistent timeline
+ * version of the calendar, so a snapshot is only used by the transactions that see the version it was built from.
+ * Transactions that change a calendar walk the tree as before.
+ */
+public class AcademicCalendarTimeline {
+
+    private static final Map<AcademicCalendarRootEntry, AcademicCalendarTimeline> TIMELINES = new ConcurrentHashMap<>();
+
+    // set for the transactions that changed a calendar
+    private static final TransactionLocal<Boolean> CHANGING = new TransactionLocal<>();
+
+    /**
+     * Registers a listener that increments the timeline version of the affected calendars whenever the relation changes.
+     */
+    static <A, B> void touchOnChange(final Relation<A, B> relation) {
+        relation.addListener(new RelationAdapter<A, B>() {
+            @Override
+            public void afterAdd(final A a, final B b) {
+                touch(a);
+                touch(b);
+            }
+
+            @Override
+            public void afterRemove(final A a, final B b) {
+                touch(a);
+                touch(b);
+            }
+        });
+    }
+
+    private static void touch(final Object object) {
+        if (object instanceof AcademicCalendarEntry entry) {
+            touch(entry);
+        }
+    }
+
+    static void touch(final AcademicCalendarEntry entry) {
+        final AcademicCalendarRootEntry root = findRootEntry(entry);
+        if (root == null) {
+            return;
+        }
+
+        final Integer version = root.getTimelineVersion();
+        root.setTimelineVersion(version == null ? 1 : version.intValue() + 1);
+        CHANGING.set(Boolean.TRUE);
+    }
+
+    // entries that are not attached to a calendar yet have no root entry
+    private static AcademicCalendarRootEntry findRootEntry(final AcademicCalendarEntry entry) {
+        AcademicCalendarEntry current = entry;
+        while (current.getParentEntry() != null) {
+            current = current.getParentEntry();
+        }
+        return current instanceof AcademicCalendarRootEntry root ? root : null;
+    }
+
+    /**
+     * @return the timeline of the calendar, or null if the current transaction changed a calendar and must walk the tree
+     */
+    static AcademicCalendarTimeline find(final AcademicCalendarRootEntry root) {
+        if (CHANGING.get() != null) {
+            return null;
+        }
+
+        final Integer persisted = root.getTimelineVersion();
+        final int version = persisted == null ? 0 : persisted.intValue();
+        AcademicCalendarTimeline result = TIMELINES.get(root);
+        if (result == null || result.version != version) {
+            result = new AcademicCalendarTimeline(root, version);
+            TIMELINES.merge(root, result, PersistentVersion.newest(timeline -> timeline.version));
+        }
+        return result;
+    }
+
+    public static void invalidate() {
+        TIMELINES.clear();
+    }
+
+    private static class Period {
+
+        private final AcademicCalendarEntry[] entries;
+
+        private final long[] begins;
+
+        private final long[] ends;
+
+        // the latest end of the entries up to each position, to stop looking back for entries containing an instant
+        private final long[] maxEnds;
+
+        private Period(final List<AcademicCalendarEntry> entries) {
+            this.entries = entries.toArray(new AcademicCalendarEntry[entries.size()]);
+            Arrays.sort(this.entries, AcademicCalendarEntry.COMPARATOR_BY_BEGIN_DATE);
+
+            this.begins = new long[this.entries.length];
+            this.ends = new long[this.entries.length];
+            this.maxEnds = new long[this.entries.length];
+            for (int i = 0; i < this.entries.length; i++) {
+                begins[i] = this.entries[i].getBegin().getMillis();
+                ends[i] = this.entries[i].getEnd().getMillis();
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        /**
+         * @return the number of entries that begin at or before the instant
+         */
+        private int countBeginningAtOrBefore(final long instant) {
+            int low = 0;
+            int high = begins.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (begins[middle] <= instant) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return the number of entries that begin before the instant
+         */
+        private int countBeginningBefore(final long instant) {
+            return instant == Long.MIN_VALUE ? 0 : countBeginningAtOrBefore(instant - 1);
+        }
+    }
+
+    private final int version;
+
+    private final List<AcademicCalendarEntry> allEntries = new ArrayList<>();
+
+    private final Map<AcademicCalendarEntry, Integer> cardinalities = new HashMap<>();
+
+    private final Map<AcademicPeriod, Period> periods = new ConcurrentHashMap<>();
+
+    private AcademicCalendarTimeline(final AcademicCalendarRootEntry root, final int version) {
+        this.version = version;
+        collect(root);
+    }
+
+    private void collect(final AcademicCalendarEntry parent) {
+        final Map<AcademicPeriod, List<AcademicCalendarEntry>> childrenByPeriod = new HashMap<>();
+        for (final AcademicCalendarEntry child : parent.getChildEntriesSet()) {
+            allEntries.add(child);
+            childrenByPeriod.computeIfAbsent(child.getAcademicPeriod(), p -> new ArrayList<>()).add(child);
+            collect(child);
+        }
+
+        for (final List<AcademicCalendarEntry> children : childrenByPeriod.values()) {
+            children.sort(AcademicCalendarEntry.COMPARATOR_BY_BEGIN_DATE);
+            for (int i = 0; i < children.size(); i++) {
+                cardinalities.put(children.get(i), i + 1);
+            }
+        }
+    }
+
+    private Period getPeriod(final AcademicPeriod academicPeriod) {
+        return periods.computeIfAbsent(academicPeriod, p -> new Period(
+                allEntries.stream().filter(e -> Objects.equals(p, e.getAcademicPeriod())).toList()));
+    }
+
+    /**
+     * @see AcademicCalendarRootEntry#getEntryByInstant(long, AcademicPeriod)
+     */
+    AcademicCalendarEntry getEntryByInstant(final long instant, final AcademicPeriod academicPeriod) {
+        final Period period = getPeriod(academicPeriod);
+
+        // the entry containing the instant with the latest begin, the first in begin date order if several begin together
+        AcademicCalendarEntry result = null;
+        long resultBegin = 0;
+        for (int i = period.countBeginningAtOrBefore(instant) - 1; i >= 0 && period.maxEnds[i] >= instant; i--) {
+            if (period.ends[i] >= instant) {
+                if (result != null && period.begins[i] != resultBegin) {
+                    break;
+                }
+                result = period.entries[i];
+                resultBegin = period.begins[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @see AcademicCalendarRootEntry#getEntryIndexByInstant(long, AcademicPeriod)
+     */
+    Integer getEntryIndexByInstant(final long instant, final AcademicPeriod academicPeriod) {
+        final int count = getPeriod(academicPeriod).countBeginningAtOrBefore(instant);
+        return count == 0 ? null : count;
+    }
+
+    /**
+     * @see AcademicCalendarRootEntry#getEntryByIndex(int, AcademicPeriod)
+     */
+    AcademicCalendarEntry getEntryByIndex(final int index, final AcademicPeriod academicPeriod) {
+        final Period period = getPeriod(academicPeriod);
+        return index > 0 && index <= period.entries.length ? period.entries[index - 1] : null;
+    }
+
+    /**
+     * @see AcademicCalendarEntry#getNextAcademicCalendarEntry()
+     */
+    AcademicCalendarEntry getNextEntry(final AcademicCalendarEntry entry) {
+        final Period period = getPeriod(entry.getAcademicPeriod());
+        final int next = period.countBeginningAtOrBefore(entry.getBegin().getMillis());
+        return next < period.entries.length ? period.entries[next] : null;
+    }
+
+    /**
+     * @see AcademicCalendarEntry#getPreviousAcademicCalendarEntry()
+     */
+    AcademicCalendarEntry getPreviousEntry(final AcademicCalendarEntry entry) {
+        final Period period = getPeriod(entry.getAcademicPeriod());
+        int previous = period.countBeginningBefore(entry.getBegin().getMillis()) - 1;
+        while (previous > 0 && period.begins[previous - 1] == period.begins[previous]) {
+            previous--;
+        }
+        return previous >= 0 ? period.entries[previous] : null;
+    }
+
+    /**
+     * @return the cardinality of the entry, or null if it does not belong to this calendar
+     * @see AcademicCalendarEntry#getCardinality()
+     */
+    Integer getCardinality(final AcademicCalendarEntry entry) {
+        return cardinalities.get(entry);
+    }
+
+}
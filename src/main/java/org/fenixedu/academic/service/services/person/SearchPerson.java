@@ -21,21 +21,20 @@ package org.fenixedu.academic.service.services.person;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.TreeSet;
+import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.Predicate;
 import org.apache.commons.lang.StringUtils;
 import org.fenixedu.academic.domain.Degree;
 import org.fenixedu.academic.domain.Person;
 import org.fenixedu.academic.domain.StudentCurricularPlan;
 import org.fenixedu.academic.domain.degree.DegreeType;
+import org.fenixedu.academic.domain.person.PersonSearchIndex;
 import org.fenixedu.academic.domain.person.RoleType;
 import org.fenixedu.academic.domain.person.identificationDocument.IdentificationDocumentType;
 import org.fenixedu.academic.domain.student.Registration;
-import org.fenixedu.academic.domain.student.Student;
 import org.fenixedu.academic.util.CollectionPager;
 import org.fenixedu.commons.StringNormalizer;
 
@@ -216,63 +215,73 @@ public class SearchPerson implements Serializable {
         }
     }
 
+    private static final int PAGE_SIZE = 25;
+
+    /**
+     * Pages through the persons found by a search, sorted by name. Each page only picks the first persons up to its end with
+     * {@link PersonSearchIndex#top}, so broad name searches never sort all their matches unless the whole collection is asked
+     * for.
+     */
+    private static class SearchResultPager extends CollectionPager<Person> {
+
+        private final List<Person> matches;
+
+        private SearchResultPager(final List<Person> matches, final int maxElementsPerPage) {
+            super(matches, maxElementsPerPage);
+            this.matches = matches;
+        }
+
+        @Override
+        public Collection<Person> getCollection() {
+            return matches.stream().sorted(Person.COMPARATOR_BY_NAME_AND_ID).collect(Collectors.toList());
+        }
+
+        @Override
+        public Collection<Person> getPage(final int pageNumber) {
+            if (pageNumber < 1) {
+                throw new IllegalArgumentException("Page number must be a positive integer.");
+            }
+
+            final int startIndex = (pageNumber - 1) * getMaxElementsPerPage();
+            final int endIndex = pageNumber * getMaxElementsPerPage();
+            final List<Person> top = PersonSearchIndex.top(matches.stream(), Person.COMPARATOR_BY_NAME_AND_ID, endIndex);
+            return startIndex < top.size() ? new ArrayList<>(top.subList(startIndex, top.size())) : new ArrayList<>();
+        }
+    }
+
     public CollectionPager<Person> run(SearchParameters searchParameters, Predicate predicate) {
 
         if (searchParameters.emptyParameters()) {
-            return new CollectionPager<Person>(new ArrayList<Person>(), 25);
+            return new CollectionPager<Person>(new ArrayList<Person>(), PAGE_SIZE);
         }
 
-        final Collection<Person> persons;
+        final List<Person> matches = findPersons(searchParameters).filter(person -> predicate.evaluate(person)).distinct()
+                .collect(Collectors.toList());
+        return new SearchResultPager(matches, PAGE_SIZE);
+    }
 
-        if (searchParameters.getUsername() != null && searchParameters.getUsername().length() > 0) {
+    private Stream<Person> findPersons(SearchParameters searchParameters) {
+        final PersonSearchIndex index = PersonSearchIndex.getInstance();
 
-            final Person person = Person.readPersonByUsername(searchParameters.getUsername());
-            persons = new ArrayList<Person>();
-            if (person != null) {
-                persons.add(person);
-            }
+        if (searchParameters.getUsername() != null && searchParameters.getUsername().length() > 0) {
+            return Stream.ofNullable(Person.readPersonByUsername(searchParameters.getUsername()));
 
         } else if (searchParameters.getDocumentIdNumber() != null && searchParameters.getDocumentIdNumber().length() > 0) {
-            persons = Person.findByDocumentIdentification(searchParameters.getDocumentIdNumber()).collect(Collectors.toSet());
+            return index.findByDocumentIdNumber(searchParameters.getDocumentIdNumber());
 
         } else if (searchParameters.getStudentNumber() != null) {
-
-            final Student student = Student.readStudentByNumber(searchParameters.getStudentNumber());
-            persons = new ArrayList<Person>();
-            if (student != null) {
-                persons.add(student.getPerson());
-            }
+            return index.findByStudentNumber(searchParameters.getStudentNumber());
 
         } else if (searchParameters.getEmail() != null && searchParameters.getEmail().length() > 0) {
-
-            final Person person = Person.readPersonByEmailAddress(searchParameters.getEmail());
-            persons = new ArrayList<Person>();
-            if (person != null) {
-                persons.add(person);
-            }
+            return Stream.ofNullable(Person.readPersonByEmailAddress(searchParameters.getEmail()));
 
         } else if (searchParameters.getName() != null) {
-
-            persons = new ArrayList<Person>();
-
-            persons.addAll(Person.findPerson(searchParameters.getName()));
             final RoleType roleBd = searchParameters.getRole();
-            if (roleBd != null) {
-                for (final Iterator<Person> peopleIterator = persons.iterator(); peopleIterator.hasNext();) {
-                    final Person person = peopleIterator.next();
-                    if (!roleBd.isMember(person.getUser())) {
-                        peopleIterator.remove();
-                    }
-                }
-            }
-
-        } else {
-            persons = new ArrayList<Person>(0);
+            return index.findByNameWords(searchParameters.getNameWords())
+                    .filter(person -> roleBd == null || roleBd.isMember(person.getUser()));
         }
 
-        TreeSet<Person> result = new TreeSet<Person>(Person.COMPARATOR_BY_NAME_AND_ID);
-        result.addAll(CollectionUtils.select(persons, predicate));
-        return new CollectionPager<Person>(result, 25);
+        return Stream.empty();
     }
 
     public static class SearchPersonPredicate implements Predicate {
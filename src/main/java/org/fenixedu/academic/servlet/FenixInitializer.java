@@ -19,6 +19,7 @@
 package org.fenixedu.academic.servlet;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.ServletContextEvent;
@@ -26,17 +27,21 @@ import javax.servlet.ServletContextListener;
 import javax.servlet.annotation.WebListener;
 import javax.servlet.http.HttpServletRequest;
 
+import org.fenixedu.academic.FenixEduAcademicConfiguration;
+import org.fenixedu.academic.domain.Degree;
 import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionIntervalRegistry;
 import org.fenixedu.academic.domain.Installation;
+import org.fenixedu.academic.domain.QueueJobExecutor;
+import org.fenixedu.academic.domain.curriculum.grade.GradeScale;
 import org.fenixedu.academic.domain.degreeStructure.ProgramConclusion;
 import org.fenixedu.academic.domain.degreeStructure.ProgramConclusionConfig;
+import org.fenixedu.academic.domain.organizationalStructure.UnitName;
 import org.fenixedu.academic.domain.organizationalStructure.UnitNamePart;
 import org.fenixedu.academic.domain.person.identificationDocument.validators.IdentificationDocumentIdentityCardValidator;
 import org.fenixedu.academic.domain.person.identificationDocument.validators.IdentificationDocumentValidatorRegistry;
 import org.fenixedu.academic.domain.time.calendarStructure.AcademicPeriodOrder;
 import org.fenixedu.bennu.core.domain.Bennu;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.qubit.terra.framework.services.logging.Log;
 
@@ -48,8 +53,6 @@ import pt.ist.fenixframework.Atomic.TxMode;
 @WebListener
 public class FenixInitializer implements ServletContextListener {
 
-    private static final Logger logger = LoggerFactory.getLogger(FenixInitializer.class);
-
     public static final String SEND_EMAIL_SIGNAL = "email.send.SystemSenderEmail";
 
     @Override
@@ -57,17 +60,34 @@ public class FenixInitializer implements ServletContextListener {
     public void contextInitialized(ServletContextEvent event) {
 
         Installation.ensureInstallation();
-        loadUnitNames();
 
         registerChecksumFilterRules();
 
         registerIdentificationDocumentExtraInfoValidators();
 
-        initializeAcademicPeriodOrder();
+        final StartupTaskGraph startup = new StartupTaskGraph();
+        startup.task("academicPeriodOrder", this::initializeAcademicPeriodOrder);
+        startup.task("currentExecutionIntervals", this::initializeCurrentExecutionIntervals, "academicPeriodOrder");
+        startup.task("programConclusionConfigs", this::initializeProgramConclusionConfigs);
+
+        if (FenixEduAcademicConfiguration.getConfiguration().getStartupWarmUp()) {
+            startup.warmUp("unitNames", this::loadUnitNames);
+            startup.warmUp("gradeScales", this::loadGradeScales);
+            startup.warmUp("executionIntervals", this::loadExecutionIntervals, "currentExecutionIntervals");
+            startup.warmUp("degrees", this::loadDegrees);
+        }
 
-        initializeCurrentExecutionIntervals();
+        startup.run(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
 
-        initializeProgramConclusionConfigs();
+        startQueueJobExecutor();
+    }
+
+    private void startQueueJobExecutor() {
+        final Integer workers = FenixEduAcademicConfiguration.getConfiguration().getQueueJobExecutorWorkers();
+        if (workers != null && workers.intValue() > 0) {
+            QueueJobExecutor.setInstance(new QueueJobExecutor(workers.intValue(), QueueJobExecutor.DEFAULT_MAX_ATTEMPTS));
+            QueueJobExecutor.getInstance().start();
+        }
     }
 
     @Atomic(mode = TxMode.WRITE)
@@ -95,14 +115,29 @@ public class FenixInitializer implements ServletContextListener {
 
     @Override
     public void contextDestroyed(ServletContextEvent arg0) {
-
+        QueueJobExecutor.setInstance(null);
     }
 
+    @Atomic(mode = TxMode.READ)
     private void loadUnitNames() {
-        long start = System.currentTimeMillis();
         UnitNamePart.find("...PlaceANonExistingUnitNameHere...");
-        long end = System.currentTimeMillis();
-        logger.debug("Load of all unit names took: " + (end - start) + "ms.");
+        UnitName.find("...PlaceANonExistingUnitNameHere...", 1);
+    }
+
+    @Atomic(mode = TxMode.READ)
+    private void loadGradeScales() {
+        // the first lookup by code builds the shared index of all grade scales, in a single pass over them
+        GradeScale.findAll().map(GradeScale::getCode).filter(Objects::nonNull).findAny().ifPresent(GradeScale::findUniqueByCode);
+    }
+
+    @Atomic(mode = TxMode.READ)
+    private void loadExecutionIntervals() {
+        ExecutionIntervalRegistry.getInstance();
+    }
+
+    @Atomic(mode = TxMode.READ)
+    private void loadDegrees() {
+        Degree.readBySigla("...PlaceANonExistingDegreeSiglaHere...");
     }
 
     private void registerChecksumFilterRules() {
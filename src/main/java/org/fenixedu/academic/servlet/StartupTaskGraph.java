@@ -0,0 +1,146 @@
+package org.fenixedu.academic.servlet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the startup tasks of the application, each one as soon as the tasks it depends on are done, so that independent tasks
+ * run in parallel. Each task must open the transactions it needs, since it runs on a thread of its own.
+ *
+ * Startup waits for the required tasks and fails with the first of them that fails; the tasks depending on a failed task are
+ * not run. Warm-up tasks, which only fill indexes and caches, run in the background and their failures are only logged.
+ *
+ * The time taken by each task of the last run is kept, to be reported by {@link #getMetrics()}.
+ */
+public class StartupTaskGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTaskGraph.class);
+
+    public static record TaskMetrics(String name, boolean warmUp, String thread, long startMillis, long durationMillis,
+            String error) {
+    }
+
+    private static record Task(String name, Runnable action, List<String> dependencies, boolean warmUp) {
+    }
+
+    private static final List<TaskMetrics> METRICS = new CopyOnWriteArrayList<>();
+
+    private static volatile long startupMillis = -1;
+
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+
+    private long start;
+
+    /**
+     * @return the time taken by each task of the last startup, in the order they finished
+     */
+    public static List<TaskMetrics> getMetrics() {
+        return Collections.unmodifiableList(METRICS);
+    }
+
+    /**
+     * @return the time the last startup waited for its required tasks, or -1 if it did not finish
+     */
+    public static long getStartupMillis() {
+        return startupMillis;
+    }
+
+    /**
+     * Adds a task that startup waits for. Dependencies must have been added before, so the graph has no cycles.
+     */
+    public StartupTaskGraph task(final String name, final Runnable action, final String... dependencies) {
+        return add(new Task(name, action, List.of(dependencies), false));
+    }
+
+    /**
+     * Adds a task that startup does not wait for. Dependencies must have been added before, so the graph has no cycles.
+     */
+    public StartupTaskGraph warmUp(final String name, final Runnable action, final String... dependencies) {
+        return add(new Task(name, action, List.of(dependencies), true));
+    }
+
+    private StartupTaskGraph add(final Task task) {
+        if (tasks.containsKey(task.name())) {
+            throw new IllegalArgumentException("Duplicate startup task " + task.name());
+        }
+        for (final String dependency : task.dependencies()) {
+            final Task other = tasks.get(dependency);
+            if (other == null) {
+                throw new IllegalArgumentException("Startup task " + task.name() + " depends on unknown task " + dependency);
+            }
+            if (other.warmUp() && !task.warmUp()) {
+                throw new IllegalArgumentException("Startup task " + task.name() + " depends on warm-up task " + dependency);
+            }
+        }
+        tasks.put(task.name(), task);
+        return this;
+    }
+
+    /**
+     * Runs the tasks on the given number of threads, returning when all the required tasks are done.
+     */
+    public void run(final int parallelism) {
+        METRICS.clear();
+        startupMillis = -1;
+        start = System.currentTimeMillis();
+
+        final AtomicInteger threads = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "startup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (final Task task : tasks.values()) {
+            final CompletableFuture<?>[] dependencies =
+                    task.dependencies().stream().map(futures::get).toArray(CompletableFuture[]::new);
+            futures.put(task.name(), CompletableFuture.allOf(dependencies).thenRunAsync(() -> run(task), executor));
+        }
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).whenComplete((r, t) -> executor.shutdown());
+
+        final List<CompletableFuture<Void>> required = new ArrayList<>();
+        tasks.values().stream().filter(task -> !task.warmUp()).forEach(task -> required.add(futures.get(task.name())));
+        try {
+            CompletableFuture.allOf(required.toArray(CompletableFuture[]::new)).join();
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        startupMillis = System.currentTimeMillis() - start;
+        logger.info("Startup tasks took {}ms", startupMillis);
+    }
+
+    private void run(final Task task) {
+        final long taskStart = System.currentTimeMillis();
+        String error = null;
+        try {
+            task.action().run();
+        } catch (final RuntimeException | Error e) {
+            error = e.toString();
+            if (task.warmUp()) {
+                logger.warn("Warm-up task " + task.name() + " failed", e);
+            } else {
+                throw e;
+            }
+        } finally {
+            final long duration = System.currentTimeMillis() - taskStart;
+            METRICS.add(new TaskMetrics(task.name(), task.warmUp(), Thread.currentThread().getName(), taskStart - start,
+                    duration, error));
+            logger.info("Startup task {} took {}ms", task.name(), duration);
+        }
+    }
+
+}
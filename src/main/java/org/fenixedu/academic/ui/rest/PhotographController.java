@@ -37,6 +37,8 @@ import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.StringUtils;
 import org.fenixedu.academic.domain.Photograph;
+import org.fenixedu.academic.domain.photograph.PhotographRenditionCache;
+import org.fenixedu.academic.domain.photograph.PhotographRenditionCache.Rendition;
 import org.fenixedu.academic.domain.photograph.PictureMode;
 import org.fenixedu.bennu.core.domain.Avatar;
 import org.fenixedu.bennu.core.domain.User;
@@ -46,6 +48,7 @@ public class PhotographController {
 
     private static int MAX_PHOTO_SIZE = 512;
     private static int DEFAULT_PHOTO_SIZE = 100;
+    private static final String MYSTERY_MAN_RENDITION_ID = "mm-av";
 
     @GET
     @Path("/{username:.+}")
@@ -78,14 +81,16 @@ public class PhotographController {
 
             String mimeType = personalPhoto.map(p -> p.getOriginal().getPictureFileFormat().getMimeType()).orElse("image/png");
 
-            byte[] entity = personalPhoto.map(p -> p.getCustomAvatar(size, size, PictureMode.ZOOM)).orElseGet(() -> {
-                try (InputStream mysteryMan = PhotographController.class.getClassLoader()
-                        .getResourceAsStream("META-INF/resources/img/mysteryman.png")) {
-                    return Avatar.process(mysteryMan, mimeType, size);
-                } catch (IOException e) {
-                    return new byte[] {};
-                }
-            });
+            byte[] entity = personalPhoto.map(p -> p.getCustomAvatar(size, size, PictureMode.ZOOM))
+                    .orElseGet(() -> PhotographRenditionCache.get(
+                            new Rendition(MYSTERY_MAN_RENDITION_ID, size, size, size, size, PictureMode.ZOOM), () -> {
+                                try (InputStream mysteryMan = PhotographController.class.getClassLoader()
+                                        .getResourceAsStream("META-INF/resources/img/mysteryman.png")) {
+                                    return Avatar.process(mysteryMan, mimeType, size);
+                                } catch (IOException e) {
+                                    return new byte[] {};
+                                }
+                            }));
 
             responseBuilder.type(mimeType);
             responseBuilder.entity(entity);
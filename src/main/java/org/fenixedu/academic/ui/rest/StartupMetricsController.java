@@ -0,0 +1,47 @@
+package org.fenixedu.academic.ui.rest;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.fenixedu.academic.servlet.StartupTaskGraph;
+import org.fenixedu.academic.servlet.StartupTaskGraph.TaskMetrics;
+import org.fenixedu.bennu.core.groups.Group;
+import org.fenixedu.bennu.core.security.Authenticate;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+@Path("/startup/metrics")
+public class StartupMetricsController {
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response get() {
+        if (!Group.managers().isMember(Authenticate.getUser())) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        final JsonArray tasks = new JsonArray();
+        for (final TaskMetrics metrics : StartupTaskGraph.getMetrics()) {
+            final JsonObject task = new JsonObject();
+            task.addProperty("name", metrics.name());
+            task.addProperty("warmUp", metrics.warmUp());
+            task.addProperty("thread", metrics.thread());
+            task.addProperty("startMillis", metrics.startMillis());
+            task.addProperty("durationMillis", metrics.durationMillis());
+            if (metrics.error() != null) {
+                task.addProperty("error", metrics.error());
+            }
+            tasks.add(task);
+        }
+
+        final JsonObject result = new JsonObject();
+        result.addProperty("startupMillis", StartupTaskGraph.getStartupMillis());
+        result.add("tasks", tasks);
+        return Response.ok(result.toString()).build();
+    }
+
+}
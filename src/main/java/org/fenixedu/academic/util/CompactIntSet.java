@@ -0,0 +1,191 @@
+package org.fenixedu.academic.util;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Sorted set of non negative ints, stored as one {@link BitSet} per block of 65536 consecutive values so that sparse ranges
+ * (such as student numbers prefixed by the year) do not allocate memory for the gaps.
+ *
+ * All methods are thread-safe.
+ */
+public class CompactIntSet {
+
+    private static final int BLOCK_BITS = 16;
+
+    private static final int BLOCK_MASK = (1 << BLOCK_BITS) - 1;
+
+    private final NavigableMap<Integer, BitSet> blocks = new TreeMap<>();
+
+    private int size = 0;
+
+    public synchronized boolean add(final int value) {
+        checkValue(value);
+        final BitSet block = blocks.computeIfAbsent(value >>> BLOCK_BITS, k -> new BitSet());
+        final int low = value & BLOCK_MASK;
+        if (block.get(low)) {
+            return false;
+        }
+        block.set(low);
+        size++;
+        return true;
+    }
+
+    public synchronized boolean remove(final int value) {
+        if (value < 0) {
+            return false;
+        }
+        final BitSet block = blocks.get(value >>> BLOCK_BITS);
+        final int low = value & BLOCK_MASK;
+        if (block == null || !block.get(low)) {
+            return false;
+        }
+        block.clear(low);
+        if (block.isEmpty()) {
+            blocks.remove(value >>> BLOCK_BITS);
+        }
+        size--;
+        return true;
+    }
+
+    public synchronized boolean contains(final int value) {
+        if (value < 0) {
+            return false;
+        }
+        final BitSet block = blocks.get(value >>> BLOCK_BITS);
+        return block != null && block.get(value & BLOCK_MASK);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    public synchronized void clear() {
+        blocks.clear();
+        size = 0;
+    }
+
+    /**
+     * @return the greatest value less than or equal to the given one, or -1 if there is none
+     */
+    public synchronized int floor(final int value) {
+        if (value < 0) {
+            return -1;
+        }
+        final int high = value >>> BLOCK_BITS;
+        final BitSet block = blocks.get(high);
+        if (block != null) {
+            final int low = block.previousSetBit(value & BLOCK_MASK);
+            if (low >= 0) {
+                return (high << BLOCK_BITS) | low;
+            }
+        }
+        final Map.Entry<Integer, BitSet> lower = blocks.lowerEntry(high);
+        return lower == null ? -1 : (lower.getKey() << BLOCK_BITS) | (lower.getValue().length() - 1);
+    }
+
+    /**
+     * @return the greatest value of the set, or -1 if it is empty
+     */
+    public synchronized int last() {
+        final Map.Entry<Integer, BitSet> last = blocks.lastEntry();
+        return last == null ? -1 : (last.getKey() << BLOCK_BITS) | (last.getValue().length() - 1);
+    }
+
+    /**
+     * Calls the consumer for every value between <code>from</code> and <code>to</code> (both inclusive), in ascending
+     * order. The consumer is called while holding the lock of this set, so it must not modify it.
+     */
+    public synchronized void forEachInRange(final int from, final int to, final IntConsumer consumer) {
+        final int begin = Math.max(from, 0);
+        if (to < begin) {
+            return;
+        }
+        for (final Map.Entry<Integer, BitSet> entry : blocks.subMap(begin >>> BLOCK_BITS, true, to >>> BLOCK_BITS, true)
+                .entrySet()) {
+            final int base = entry.getKey() << BLOCK_BITS;
+            final BitSet block = entry.getValue();
+            final int lowFrom = base < begin ? begin & BLOCK_MASK : 0;
+            final int lowTo = (entry.getKey() == to >>> BLOCK_BITS) ? to & BLOCK_MASK : BLOCK_MASK;
+            for (int low = block.nextSetBit(lowFrom); low >= 0 && low <= lowTo; low = block.nextSetBit(low + 1)) {
+                consumer.accept(base | low);
+            }
+        }
+    }
+
+    public void forEach(final IntConsumer consumer) {
+        forEachInRange(0, Integer.MAX_VALUE, consumer);
+    }
+
+    public synchronized CompactIntSet copy() {
+        final CompactIntSet result = new CompactIntSet();
+        blocks.forEach((high, block) -> result.blocks.put(high, (BitSet) block.clone()));
+        result.size = size;
+        return result;
+    }
+
+    /**
+     * @return a new set with the values that belong to both sets
+     */
+    public CompactIntSet and(final CompactIntSet other) {
+        final CompactIntSet result = copy();
+        final CompactIntSet right = other.copy();
+        result.blocks.entrySet().removeIf(entry -> {
+            final BitSet block = right.blocks.get(entry.getKey());
+            if (block != null) {
+                entry.getValue().and(block);
+            }
+            return block == null || entry.getValue().isEmpty();
+        });
+        result.recount();
+        return result;
+    }
+
+    /**
+     * @return a new set with the values that belong to any of the sets
+     */
+    public CompactIntSet or(final CompactIntSet other) {
+        final CompactIntSet result = copy();
+        other.copy().blocks.forEach((high, block) -> result.blocks.merge(high, block, (left, right) -> {
+            left.or(right);
+            return left;
+        }));
+        result.recount();
+        return result;
+    }
+
+    /**
+     * @return a new set with the values of this set that do not belong to the other
+     */
+    public CompactIntSet andNot(final CompactIntSet other) {
+        final CompactIntSet result = copy();
+        final CompactIntSet right = other.copy();
+        result.blocks.entrySet().removeIf(entry -> {
+            final BitSet block = right.blocks.get(entry.getKey());
+            if (block != null) {
+                entry.getValue().andNot(block);
+            }
+            return entry.getValue().isEmpty();
+        });
+        result.recount();
+        return result;
+    }
+
+    private void recount() {
+        size = blocks.values().stream().mapToInt(BitSet::cardinality).sum();
+    }
+
+    private static void checkValue(final int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Only non negative values are supported: " + value);
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package org.fenixedu.academic.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe in-memory map from keys to the ordinals of the values indexed under them, built from a source stream on first
+ * use. Sets of different keys are combined with {@link CompactIntSet#and(CompactIntSet)},
+ * {@link CompactIntSet#or(CompactIntSet)} and {@link CompactIntSet#andNot(CompactIntSet)}.
+ *
+ * As in {@link LazyIndex}, values are only added while they are being written, so the sets may hold ordinals of values
+ * whose keys changed meanwhile. Callers must always re-check the candidates against the current domain state. As in
+ * {@link LazyIndex}, only the last {@value #MAXIMUM_RECENT} values added are kept aside to be merged when the index is built.
+ */
+public class LazyBitmapIndex<K, V> {
+
+    private final Supplier<Stream<V>> source;
+
+    private final Function<V, Stream<K>> keysFunction;
+
+    private final ToIntFunction<V> ordinalFunction;
+
+    private static final int MAXIMUM_RECENT = 10_000;
+
+    private final Deque<V> recent = new ArrayDeque<>();
+
+    private volatile Map<K, CompactIntSet> index;
+
+    private volatile long builtAt;
+
+    /**
+     * @param ordinalFunction the dense ordinal of a value, or a negative number if the value must not be indexed
+     */
+    public LazyBitmapIndex(final Supplier<Stream<V>> source, final Function<V, Stream<K>> keysFunction,
+            final ToIntFunction<V> ordinalFunction) {
+        this.source = source;
+        this.keysFunction = keysFunction;
+        this.ordinalFunction = ordinalFunction;
+    }
+
+    /**
+     * @return the ordinals indexed under the key, which must not be changed by the caller
+     */
+    public CompactIntSet get(final K key) {
+        final CompactIntSet result = key == null ? null : ensureBuilt().get(key);
+        return result == null ? new CompactIntSet() : result;
+    }
+
+    /**
+     * @return a new set with the ordinals indexed under any of the keys
+     */
+    public CompactIntSet any(final Stream<K> keys) {
+        final Map<K, CompactIntSet> built = ensureBuilt();
+        return keys.distinct().map(built::get).filter(s -> s != null).reduce(new CompactIntSet(), CompactIntSet::or);
+    }
+
+    public synchronized void add(final V value) {
+        if (recent.size() == MAXIMUM_RECENT) {
+            recent.removeFirst();
+        }
+        recent.addLast(value);
+        if (index != null) {
+            add(index, value);
+        }
+    }
+
+    /**
+     * @return a new index, not yet built, with the same source and keys and the values recently added to this one, whose
+     *         ordinals are given by the function instead, so that ordinals no longer used are not kept when it is built
+     */
+    public synchronized LazyBitmapIndex<K, V> renew(final ToIntFunction<V> ordinalFunction) {
+        final LazyBitmapIndex<K, V> result = new LazyBitmapIndex<>(source, keysFunction, ordinalFunction);
+        result.recent.addAll(recent);
+        return result;
+    }
+
+    public void invalidate() {
+        synchronized (this) {
+            index = null;
+        }
+    }
+
+    /**
+     * @return the milliseconds since the index was last built, 0 if it is not built
+     */
+    public long getAge() {
+        return index == null ? 0 : System.currentTimeMillis() - builtAt;
+    }
+
+    private Map<K, CompactIntSet> ensureBuilt() {
+        Map<K, CompactIntSet> result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    final Map<K, CompactIntSet> built = new ConcurrentHashMap<>();
+                    source.get().forEach(value -> add(built, value));
+                    recent.forEach(value -> add(built, value));
+                    builtAt = System.currentTimeMillis();
+                    index = result = built;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void add(final Map<K, CompactIntSet> map, final V value) {
+        final int ordinal = ordinalFunction.applyAsInt(value);
+        if (ordinal < 0) {
+            return;
+        }
+        keysFunction.apply(value).forEach(key -> {
+            if (key != null) {
+                map.computeIfAbsent(key, k -> new CompactIntSet()).add(ordinal);
+            }
+        });
+    }
+
+}
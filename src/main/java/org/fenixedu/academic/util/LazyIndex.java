@@ -0,0 +1,150 @@
+package org.fenixedu.academic.util;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe in-memory multimap from keys to domain objects, built from a source stream on first use.
+ *
+ * Values are only added while they are being written, so the index may hold values whose keys changed meanwhile (or whose
+ * transaction aborted). Callers must always re-check the returned candidates against the current domain state. The last
+ * {@value #MAXIMUM_RECENT} values added are also kept aside and merged whenever the index is built, so that writes of
+ * transactions not yet committed when the build reads the source are never lost. Older ones were written by transactions
+ * that ended long before the build starts, so the build finds them in the source anyway.
+ *
+ * An index may be tagged with the {@link PersistentVersion} of its source: {@link #validate(int)} builds it again when the
+ * current transaction sees a newer version, so changes committed by other servers are found.
+ */
+public class LazyIndex<K, V> {
+
+    private final Supplier<Stream<V>> source;
+
+    private final Function<V, Stream<K>> keysFunction;
+
+    private static final int MAXIMUM_RECENT = 10_000;
+
+    private final Deque<V> recent = new ArrayDeque<>();
+
+    private volatile Map<K, Set<V>> index;
+
+    // the version of the source the index was built from, -1 if not tagged
+    private volatile int version = -1;
+
+    private volatile long builtAt;
+
+    public LazyIndex(final Supplier<Stream<V>> source, final Function<V, Stream<K>> keysFunction) {
+        this.source = source;
+        this.keysFunction = keysFunction;
+    }
+
+    public Stream<V> get(final K key) {
+        if (key == null) {
+            return Stream.empty();
+        }
+        return ensureBuilt().getOrDefault(key, Collections.emptySet()).stream();
+    }
+
+    public int count(final K key) {
+        return key == null ? 0 : ensureBuilt().getOrDefault(key, Collections.emptySet()).size();
+    }
+
+    public synchronized void add(final V value) {
+        if (recent.size() == MAXIMUM_RECENT) {
+            recent.removeFirst();
+        }
+        recent.addLast(value);
+        if (index != null) {
+            add(index, value);
+        }
+    }
+
+    public synchronized void invalidate() {
+        index = null;
+        version = -1;
+        cleared();
+    }
+
+    /**
+     * Builds the index again from the source seen by the current transaction, if it was built from an older version of the
+     * source. A transaction seeing an older version than the index keeps using it.
+     */
+    public void validate(final int sourceVersion) {
+        if (index != null && sourceVersion <= version) {
+            return;
+        }
+        synchronized (this) {
+            if (index != null && sourceVersion <= version) {
+                return;
+            }
+            index = null;
+            cleared();
+            ensureBuilt();
+            version = sourceVersion;
+        }
+    }
+
+    /**
+     * Tags an index built from the <code>previous</code> version of the source with the <code>current</code> one, once a
+     * transaction of this server that added all its changes to the index moved the source to it.
+     */
+    public synchronized void advance(final int previous, final int current) {
+        if (index != null && version == previous) {
+            version = current;
+        }
+    }
+
+    /**
+     * @return the milliseconds since the index was last built, 0 if it is not built
+     */
+    public long getAge() {
+        return index == null ? 0 : System.currentTimeMillis() - builtAt;
+    }
+
+    /**
+     * Called once for each key the first time a value is added under it, to let subclasses maintain derived structures.
+     */
+    protected void keyAdded(final K key) {
+    }
+
+    /**
+     * Called while holding the lock of this index, whenever it is invalidated.
+     */
+    protected void cleared() {
+    }
+
+    protected Map<K, Set<V>> ensureBuilt() {
+        Map<K, Set<V>> result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    final Map<K, Set<V>> built = new ConcurrentHashMap<>();
+                    source.get().forEach(value -> add(built, value));
+                    recent.forEach(value -> add(built, value));
+                    builtAt = System.currentTimeMillis();
+                    index = result = built;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void add(final Map<K, Set<V>> map, final V value) {
+        keysFunction.apply(value).forEach(key -> {
+            if (key != null) {
+                map.computeIfAbsent(key, k -> {
+                    keyAdded(k);
+                    return ConcurrentHashMap.newKeySet();
+                }).add(value);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.fenixedu.academic.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link LazyIndex} over integer keys that also keeps its keys sorted, for finding the highest number in use and the values of
+ * a range of numbers.
+ */
+public class LazyNumberIndex<V> extends LazyIndex<Integer, V> {
+
+    private final CompactIntSet numbers = new CompactIntSet();
+
+    public LazyNumberIndex(final Supplier<Stream<V>> source, final Function<V, Integer> numberFunction) {
+        super(source, value -> Stream.of(numberFunction.apply(value)));
+    }
+
+    /**
+     * @return the highest key ever added, which may belong to a value written by a transaction that is still running or that
+     *         was aborted, or -1 if there are no keys
+     */
+    public int last() {
+        ensureBuilt();
+        return numbers.last();
+    }
+
+    /**
+     * @return the highest key ever added that is less than or equal to <code>value</code>, or -1 if there is none
+     */
+    public int floor(final int value) {
+        ensureBuilt();
+        return numbers.floor(value);
+    }
+
+    /**
+     * @return the values added under the keys between <code>from</code> and <code>to</code> (both inclusive), in ascending order
+     *         of their keys
+     */
+    public Stream<V> range(final int from, final int to) {
+        final Map<Integer, Set<V>> built = ensureBuilt();
+        final List<Integer> keys = new ArrayList<>();
+        numbers.forEachInRange(from, to, keys::add);
+        return keys.stream().flatMap(key -> built.getOrDefault(key, Collections.emptySet()).stream());
+    }
+
+    @Override
+    protected void keyAdded(final Integer key) {
+        if (key >= 0) {
+            numbers.add(key);
+        }
+    }
+
+    @Override
+    protected void cleared() {
+        numbers.clear();
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.fenixedu.academic.util;
+
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A version number kept in a persistent slot, incremented by the transactions that change the data cached in memory from it.
+ *
+ * Caches built from the data seen by a transaction are tagged with the version that transaction sees, so every server finds
+ * out about the changes committed by the others by reading the slot. The version is incremented at most once by each
+ * transaction, which reads and writes the slot: concurrent transactions that change the cached data conflict on it, so a
+ * version is only seen after all the changes it counts are committed.
+ */
+public class PersistentVersion {
+
+    /**
+     * Receives the version seen before and after a transaction of this server that incremented it is committed.
+     */
+    @FunctionalInterface
+    public static interface CommitListener {
+        void committed(final int previous, final int current);
+    }
+
+    private final Supplier<Integer> getter;
+
+    private final Consumer<Integer> setter;
+
+    private final CommitListener listener;
+
+    private final TransactionLocal<Boolean> changing = new TransactionLocal<>();
+
+    /**
+     * @param getter reads the slot, returning null when the slot or its owner does not exist yet
+     * @param setter writes the slot
+     */
+    public PersistentVersion(final Supplier<Integer> getter, final Consumer<Integer> setter, final CommitListener listener) {
+        this.getter = getter;
+        this.setter = setter;
+        this.listener = listener;
+    }
+
+    /**
+     * @return the version seen by the current transaction, 0 when it was never incremented
+     */
+    public int get() {
+        final Integer version = getter.get();
+        return version == null ? 0 : version.intValue();
+    }
+
+    /**
+     * @return whether the current transaction incremented the version, so its changes are not committed yet
+     */
+    public boolean isChangedByCurrentTransaction() {
+        return changing.get() != null;
+    }
+
+    /**
+     * Increments the version, unless the current transaction already did.
+     */
+    public void increment() {
+        if (isChangedByCurrentTransaction()) {
+            return;
+        }
+
+        final int previous = get();
+        setter.accept(previous + 1);
+        changing.set(Boolean.TRUE);
+        TransactionCompletion.afterCompletion(committed -> {
+            changing.remove();
+            if (committed) {
+                listener.committed(previous, previous + 1);
+            }
+        });
+    }
+
+    /**
+     * @return the merge function of a map of snapshots shared by all transactions, keeping the one built from the newer
+     *         version, since a transaction that started before a change was committed must not replace a newer snapshot
+     */
+    public static <V> BinaryOperator<V> newest(final ToIntFunction<V> version) {
+        return (current, built) -> version.applyAsInt(built) > version.applyAsInt(current) ? built : current;
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.fenixedu.academic.util;
+
+import java.util.function.Consumer;
+
+import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+
+import pt.ist.fenixframework.FenixFramework;
+import pt.ist.fenixframework.Transaction;
+
+/**
+ * Runs actions when the current transaction ends, to drop or publish state kept in memory for that transaction only.
+ */
+public class TransactionCompletion {
+
+    private TransactionCompletion() {
+    }
+
+    /**
+     * Registers an action to run after the current transaction ends, receiving whether it committed. The action runs in the
+     * thread that ends the transaction, and is not registered when there is no current transaction.
+     *
+     * @return whether the action was registered
+     */
+    public static boolean afterCompletion(final Consumer<Boolean> action) {
+        final Transaction transaction = FenixFramework.getTransaction();
+        if (transaction == null) {
+            return false;
+        }
+
+        try {
+            transaction.registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    action.accept(status == Status.STATUS_COMMITTED);
+                }
+            });
+            return true;
+        } catch (final RollbackException | SystemException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.fenixedu.academic.util;
+
+import java.lang.ref.WeakReference;
+import java.util.function.Supplier;
+
+import pt.ist.fenixframework.FenixFramework;
+import pt.ist.fenixframework.Transaction;
+
+/**
+ * State kept in memory for the current transaction only, like the snapshots built by a transaction that changed the data
+ * they are built from, which no other transaction may see.
+ *
+ * The state is kept by the thread running the transaction, along with a weak reference to it, so it is no longer found once
+ * the thread runs another transaction, and does not keep an ended transaction from being collected.
+ */
+public class TransactionLocal<S> {
+
+    private static record Bound<S>(WeakReference<Transaction> transaction, S state) {
+    }
+
+    private final ThreadLocal<Bound<S>> bound = new ThreadLocal<>();
+
+    /**
+     * @return the state kept for the current transaction, or null if it has none
+     */
+    public S get() {
+        final Bound<S> result = bound.get();
+        final Transaction transaction = FenixFramework.getTransaction();
+        return result != null && transaction != null && result.transaction().get() == transaction ? result.state() : null;
+    }
+
+    /**
+     * Keeps the state for the current transaction, which is not kept when there is no current transaction.
+     */
+    public void set(final S state) {
+        final Transaction transaction = FenixFramework.getTransaction();
+        if (transaction != null) {
+            bound.set(new Bound<>(new WeakReference<>(transaction), state));
+        } else {
+            bound.remove();
+        }
+    }
+
+    /**
+     * @return the state kept for the current transaction, kept from the supplier if it has none
+     */
+    public S computeIfAbsent(final Supplier<S> supplier) {
+        S result = get();
+        if (result == null) {
+            result = supplier.get();
+            set(result);
+        }
+        return result;
+    }
+
+    public void remove() {
+        bound.remove();
+    }
+
+}
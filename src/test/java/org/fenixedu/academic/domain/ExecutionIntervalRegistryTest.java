@@ -0,0 +1,151 @@
+package org.fenixedu.academic.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.fenixedu.academic.domain.time.calendarStructure.AcademicCalendarEntry;
+import org.fenixedu.academic.domain.time.calendarStructure.AcademicCalendarRootEntry;
+import org.fenixedu.academic.domain.time.calendarStructure.AcademicYearCE;
+import org.fenixedu.academic.util.PeriodState;
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.fenixedu.commons.i18n.LocalizedString;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeFieldType;
+import org.joda.time.LocalDate;
+import org.joda.time.Partial;
+import org.joda.time.YearMonthDay;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class ExecutionIntervalRegistryTest {
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            ExecutionIntervalTest.initRootCalendarAndExecutionYears();
+            return null;
+        });
+    }
+
+    private static Set<ExecutionInterval> scan(final Predicate<ExecutionInterval> predicate) {
+        return Bennu.getInstance().getExecutionIntervalsSet().stream().filter(predicate).collect(Collectors.toSet());
+    }
+
+    private static ExecutionYear createYear(final int year) {
+        final AcademicCalendarRootEntry calendar = Bennu.getInstance().getDefaultAcademicCalendar();
+        final AcademicYearCE entry = new AcademicYearCE(calendar,
+                new LocalizedString().with(Locale.getDefault(), year + "/" + (year + 1)), null,
+                new LocalDate(year, 9, 1).toDateTimeAtStartOfDay(), new LocalDate(year + 1, 8, 30).toDateTimeAtStartOfDay(),
+                calendar);
+        return (ExecutionYear) entry.getExecutionInterval();
+    }
+
+    /*
+     * Same answers as going through all the execution intervals, which is what the finders did before the registry
+     */
+    private static void assertSameAsScan() {
+        final AcademicCalendarEntry calendar = AcademicCalendarEntry.findDefaultCalendar();
+
+        assertEquals(scan(ExecutionInterval::isAggregator), ExecutionInterval.findAllAggregators());
+        assertEquals(scan(ei -> ei.isAggregator() && ei.isActive()), ExecutionInterval.findActiveAggregators());
+        assertEquals(scan(ei -> ei.isAggregator() && ei.getAcademicCalendar() == calendar),
+                ExecutionInterval.findAllAggregators(null));
+        assertEquals(scan(ei -> ei.isAggregator() && ei.isActive() && ei.getAcademicCalendar() == calendar),
+                ExecutionInterval.findActiveAggregators(null));
+        assertEquals(scan(ei -> !ei.isAggregator()), ExecutionInterval.findAllChilds());
+        assertEquals(scan(ei -> !ei.isAggregator() && ei.isActive()), ExecutionInterval.findActiveChilds());
+        assertEquals(scan(ei -> !ei.isAggregator() && ei.isActive() && ei.getAcademicCalendar() == calendar),
+                ExecutionInterval.findActiveChilds(null));
+        assertEquals(Bennu.getInstance().getCurrentExecutionIntervalsSet().stream().filter(ei -> !ei.isAggregator())
+                .filter(ExecutionInterval::isCurrent).collect(Collectors.toSet()), ExecutionInterval.findCurrentsChilds());
+
+        final List<ExecutionInterval> childs =
+                scan(ei -> !ei.isAggregator() && ei.getAcademicCalendar() == calendar).stream().sorted().toList();
+        assertEquals(childs.get(0), ExecutionInterval.findFirstChild(null).orElse(null));
+        assertEquals(childs.get(childs.size() - 1), ExecutionInterval.findLastChild(null).orElse(null));
+    }
+
+    private static void assertReadByDateSameAsScan(final DateTime dateTime) {
+        final Collection<ExecutionInterval> containing =
+                scan(ei -> ei instanceof ExecutionYear ey && ey.getBeginDateYearMonthDay() != null && ey.containsDate(dateTime));
+        final ExecutionYear result = ExecutionYear.readByDateTime(dateTime);
+        if (containing.isEmpty()) {
+            assertNull(result);
+        } else {
+            assertTrue(containing.contains(result));
+        }
+    }
+
+    @Test
+    public void testFinders_matchScan() {
+        assertSameAsScan();
+
+        for (int year = 2017; year <= 2026; year++) {
+            assertReadByDateSameAsScan(new DateTime(year, 1, 1, 0, 0, 0));
+            assertReadByDateSameAsScan(new DateTime(year, 8, 31, 12, 0, 0));
+            assertReadByDateSameAsScan(new DateTime(year, 9, 1, 0, 0, 0));
+        }
+
+        final ExecutionYear executionYear = ExecutionYear.readExecutionYearByName("2020/2021");
+        assertSame(executionYear, ExecutionYear.readByPartial(new Partial(DateTimeFieldType.year(), 2020)));
+        assertNull(ExecutionYear.readByPartial(new Partial(DateTimeFieldType.year(), 1800)));
+    }
+
+    @Test
+    public void testFinders_afterIntervalChanges_matchScan() {
+        assertSameAsScan();
+        final DateTime date = new DateTime(1901, 3, 1, 0, 0, 0);
+        assertNull(ExecutionYear.readByDateTime(date));
+
+        // created in the same transaction that already validated the registry
+        final ExecutionYear executionYear = createYear(1900);
+        assertSame(executionYear, ExecutionYear.readByDateTime(date));
+        assertSameAsScan();
+
+        executionYear.setState(PeriodState.OPEN);
+        assertTrue(ExecutionInterval.findActiveAggregators().contains(executionYear));
+        assertSameAsScan();
+
+        executionYear.setState(PeriodState.CLOSED);
+        assertFalse(ExecutionInterval.findActiveAggregators().contains(executionYear));
+        assertSameAsScan();
+
+        executionYear.setEndDateYearMonthDay(new YearMonthDay(1901, 1, 31));
+        assertNull(ExecutionYear.readByDateTime(date));
+        assertReadByDateSameAsScan(date);
+        assertSameAsScan();
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testExecutionYearSearchCache_delegatesToRegistry() {
+        final ExecutionYear.ExecutionYearSearchCache cache = new ExecutionYear.ExecutionYearSearchCache();
+        final Set<DateTime> dates = new HashSet<>(List.of(new DateTime(2020, 10, 1, 0, 0, 0), new DateTime(2023, 6, 1, 0, 0, 0),
+                new DateTime(1700, 1, 1, 0, 0, 0)));
+        for (final DateTime dateTime : dates) {
+            assertEquals(ExecutionYear.readByDateTime(dateTime), cache.findByDateTime(dateTime));
+        }
+
+        final Partial partial = new Partial(DateTimeFieldType.year(), 2021);
+        assertNotNull(cache.findByPartial(partial));
+        assertEquals(ExecutionYear.readByPartial(partial), cache.findByPartial(partial));
+    }
+
+}
@@ -0,0 +1,205 @@
+package org.fenixedu.academic.domain;
+
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.fenixedu.academic.domain.curriculum.grade.GradeScale;
+import org.fenixedu.academic.domain.exceptions.DomainException;
+import org.fenixedu.commons.i18n.LocalizedString;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class GradeTest {
+
+    private static GradeScale numeric;
+
+    private static GradeScale qualitative;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            numeric = GradeScale.create("GT20", new LocalizedString(Locale.getDefault(), "Grade Test 20"), new BigDecimal("0"),
+                    new BigDecimal("9.49"), new BigDecimal("9.50"), new BigDecimal("20"), false, true);
+            qualitative = GradeScale.create("GTQL", new LocalizedString(Locale.getDefault(), "Grade Test Qualitative"), null,
+                    null, null, null, false, true);
+            qualitative.createGradeScaleEntry("AP", new LocalizedString(Locale.getDefault(), "Approved"), true);
+            qualitative.createGradeScaleEntry("F", new LocalizedString(Locale.getDefault(), "Fail"), false);
+            return null;
+        });
+    }
+
+    @Test
+    public void createGrade_sameValue_returnsSameInstance() {
+        final Grade grade = Grade.createGrade("15", numeric);
+
+        assertSame(grade, Grade.createGrade(" 15 ", numeric));
+        assertSame(grade, Grade.importFromString("GT20:15"));
+        assertSame(grade.getNumericValue(), grade.getNumericValue());
+        assertEquals(new BigDecimal("15"), grade.getNumericValue());
+    }
+
+    @Test
+    public void compareTo_matchesScaleOrder() {
+        assertTrue(Grade.createGrade("15", numeric).compareTo(Grade.createGrade("9", numeric)) > 0);
+        assertTrue(Grade.createGrade("10", numeric).compareTo(Grade.createGrade("12", numeric)) < 0);
+        assertTrue(Grade.createGrade("AP", qualitative).compareTo(Grade.createGrade("F", qualitative)) > 0);
+        assertTrue(Grade.createGrade("AP", qualitative).compareTo(Grade.createEmptyGrade()) > 0);
+    }
+
+    @Test(expected = DomainException.class)
+    public void compareTo_differentScales_fails() {
+        Grade.createGrade("15", numeric).compareTo(Grade.createGrade("AP", qualitative));
+    }
+
+    @Test
+    public void isApproved_afterScaleEdit_matchesNewLimits() {
+        final GradeScale scale = GradeScale.create("GTED", new LocalizedString(Locale.getDefault(), "Grade Test Edit"),
+                new BigDecimal("0"), new BigDecimal("9.49"), new BigDecimal("9.50"), new BigDecimal("20"), false, true);
+        final Grade grade = Grade.createGrade("11", scale);
+        assertTrue(grade.isApproved());
+
+        scale.edit(scale.getName(), new BigDecimal("0"), new BigDecimal("11.49"), new BigDecimal("11.50"), new BigDecimal("20"),
+                true, false);
+
+        assertFalse(grade.isApproved());
+        assertTrue(grade.isNotApproved());
+        assertFalse(Grade.createGrade("11", scale).isApproved());
+    }
+
+    @Test
+    public void getCacheVersion_incrementedOncePerTransaction() {
+        final GradeScale scale = GradeScale.create("GTVS", new LocalizedString(Locale.getDefault(), "Grade Test Version"), null,
+                null, null, null, false, true);
+        final int before = scale.getCacheVersion();
+
+        scale.createGradeScaleEntry("AP", new LocalizedString(Locale.getDefault(), "Approved"), true);
+        scale.createGradeScaleEntry("F", new LocalizedString(Locale.getDefault(), "Fail"), false);
+
+        assertEquals(before + 1, scale.getCacheVersion());
+        assertTrue(scale.isCacheChangedByCurrentTransaction());
+    }
+
+    @Test
+    public void isApproved_uncommittedEditIsNotCached() throws Exception {
+        final GradeScale scale = committed(() -> GradeScale.create("GTUC",
+                new LocalizedString(Locale.getDefault(), "Grade Test Uncommitted"), new BigDecimal("0"), new BigDecimal("9.49"),
+                new BigDecimal("9.50"), new BigDecimal("20"), false, true));
+        final int version = committed(() -> scale.getCacheVersion());
+
+        // edited by a transaction that is rolled back, after computing what the edited scale says about the grade
+        try {
+            committed(() -> {
+                scale.edit(scale.getName(), new BigDecimal("0"), new BigDecimal("11.49"), new BigDecimal("11.50"),
+                        new BigDecimal("20"), true, false);
+                assertFalse(Grade.createGrade("11", scale).isApproved());
+                throw new IllegalStateException("aborted by the test");
+            });
+        } catch (final Exception e) {
+            // the transaction is rolled back
+        }
+
+        assertEquals(version, committed(() -> scale.getCacheVersion()).intValue());
+        assertTrue(committed(() -> Grade.createGrade("11", scale).isApproved()));
+        assertTrue(committed(() -> scale.isApproved("11")));
+    }
+
+    @Test
+    public void isApproved_afterCommittedEdit_matchesNewLimits() throws Exception {
+        final GradeScale scale = committed(() -> GradeScale.create("GTCE",
+                new LocalizedString(Locale.getDefault(), "Grade Test Committed"), new BigDecimal("0"), new BigDecimal("9.49"),
+                new BigDecimal("9.50"), new BigDecimal("20"), false, true));
+        assertTrue(committed(() -> Grade.createGrade("11", scale).isApproved()));
+        final int version = committed(() -> scale.getCacheVersion());
+
+        committed(() -> {
+            scale.edit(scale.getName(), new BigDecimal("0"), new BigDecimal("11.49"), new BigDecimal("11.50"),
+                    new BigDecimal("20"), true, false);
+            return null;
+        });
+
+        assertEquals(version + 1, committed(() -> scale.getCacheVersion()).intValue());
+        assertFalse(committed(() -> Grade.createGrade("11", scale).isApproved()));
+        assertFalse(committed(() -> scale.isApproved("11")));
+    }
+
+    private static boolean isRejected(final Supplier<Grade> supplier) throws Exception {
+        try {
+            committed(supplier);
+            return false;
+        } catch (final ExecutionException e) {
+            return e.getCause() instanceof DomainException || e.getCause() instanceof NoSuchElementException;
+        }
+    }
+
+    @Test
+    public void createGrade_afterCommittedEntryDeletion_rejectsValue() throws Exception {
+        final GradeScale scale = committed(() -> {
+            final GradeScale created = GradeScale.create("GTDE", new LocalizedString(Locale.getDefault(), "Grade Test Deletion"),
+                    null, null, null, null, false, true);
+            created.createGradeScaleEntry("AP", new LocalizedString(Locale.getDefault(), "Approved"), true);
+            created.createGradeScaleEntry("F", new LocalizedString(Locale.getDefault(), "Fail"), false);
+            return created;
+        });
+        assertTrue(committed(() -> Grade.createGrade("AP", scale).isApproved()));
+
+        committed(() -> {
+            scale.deleteGradeScaleEntry(scale.findGradeScaleEntry("AP").get());
+            return null;
+        });
+
+        assertTrue(isRejected(() -> Grade.createGrade("AP", scale)));
+        assertTrue(isRejected(() -> Grade.importFromString("GTDE:AP")));
+    }
+
+    @Test
+    public void createGrade_abortedEdit_gradeIsNotCached() throws Exception {
+        final GradeScale scale = committed(() -> GradeScale.create("GTAB",
+                new LocalizedString(Locale.getDefault(), "Grade Test Aborted"), new BigDecimal("0"), new BigDecimal("9.49"),
+                new BigDecimal("9.50"), new BigDecimal("20"), false, true));
+
+        // edited by a transaction that is rolled back, after creating a grade only the edited scale accepts
+        try {
+            committed(() -> {
+                scale.edit(scale.getName(), new BigDecimal("0"), new BigDecimal("9.49"), new BigDecimal("9.50"),
+                        new BigDecimal("25"), true, false);
+                Grade.createGrade("22", scale);
+                throw new IllegalStateException("aborted by the test");
+            });
+        } catch (final Exception e) {
+            // the transaction is rolled back
+        }
+
+        assertTrue(isRejected(() -> Grade.createGrade("22", scale)));
+    }
+
+    @Test
+    public void importFromString_afterCodeChange_usesNewCode() throws Exception {
+        final GradeScale scale = committed(() -> GradeScale.create("GTRN",
+                new LocalizedString(Locale.getDefault(), "Grade Test Rename"), new BigDecimal("0"), new BigDecimal("9.49"),
+                new BigDecimal("9.50"), new BigDecimal("20"), false, true));
+        assertEquals("GTRN:15", committed(() -> Grade.importFromString("GTRN:15").exportAsString()));
+
+        committed(() -> {
+            scale.setCode("GTRM");
+            return null;
+        });
+
+        assertEquals("GTRM:15", committed(() -> Grade.importFromString("GTRM:15").exportAsString()));
+        assertTrue(isRejected(() -> Grade.importFromString("GTRN:15")));
+    }
+
+}
@@ -62,6 +62,19 @@ public class HolidayTest {
         assertFalse(Holiday.isHoliday(new LocalDate(2024, 5, 1)));
     }
 
+    @Test
+    public void isHoliday_afterDateChange_matchesNewDate() {
+        final Holiday holiday = newMonthDayHoliday(6, 10);
+        assertTrue(Holiday.isHoliday(new LocalDate(2024, 6, 10)));
+
+        holiday.setDate(new Partial(new DateTimeFieldType[] { DateTimeFieldType.monthOfYear(), DateTimeFieldType.dayOfMonth() },
+                new int[] { 6, 13 }));
+        assertFalse(Holiday.isHoliday(new LocalDate(2024, 6, 10)));
+        assertTrue(Holiday.isHoliday(new LocalDate(2024, 6, 13)));
+
+        holiday.delete();
+    }
+
     @Test
     public void isHoliday_withMultipleHolidays_identifiesCorrectly() {
         newMonthDayHoliday(4, 1); // add a second holiday
@@ -0,0 +1,97 @@
+package org.fenixedu.academic.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+public class QueueJobExecutorTest {
+
+    @Test
+    public void isLeaseEnded_onlyWhenNotRunningOrNotRenewed() {
+        final long now = System.currentTimeMillis();
+
+        assertTrue(QueueJobExecutor.isLeaseEnded(null, now));
+        assertTrue(QueueJobExecutor.isLeaseEnded(new DateTime(now - 1), now));
+        assertFalse(QueueJobExecutor.isLeaseEnded(new DateTime(now + TimeUnit.MINUTES.toMillis(10)), now));
+    }
+
+    @Test
+    public void isRetryDue_afterTheRetryTime() {
+        final long now = System.currentTimeMillis();
+
+        assertTrue(QueueJobExecutor.isRetryDue(null, now));
+        assertTrue(QueueJobExecutor.isRetryDue(new DateTime(now), now));
+        assertFalse(QueueJobExecutor.isRetryDue(new DateTime(now + 1), now));
+    }
+
+    @Test
+    public void getRetryTime_delayDoublesOnEachFailure() {
+        final DateTime failure = new DateTime(2020, 1, 1, 0, 0);
+        final long first = QueueJobExecutor.getRetryTime(1, failure).getMillis() - failure.getMillis();
+
+        assertEquals(TimeUnit.MINUTES.toMillis(1), first);
+        assertEquals(2 * first, QueueJobExecutor.getRetryTime(2, failure).getMillis() - failure.getMillis());
+        assertEquals(4 * first, QueueJobExecutor.getRetryTime(3, failure).getMillis() - failure.getMillis());
+        assertEquals(QueueJobExecutor.getRetryTime(17, failure), QueueJobExecutor.getRetryTime(30, failure));
+    }
+
+    @Test
+    public void getRenewedLeaseEndTime_renewedInTime_leaseNeverEnds() {
+        final DateTime claim = new DateTime(2020, 1, 1, 0, 0);
+        DateTime lease = QueueJobExecutor.getLeaseEndTime(claim);
+
+        for (int i = 1; i <= 10; i++) {
+            final DateTime renewal = claim.plus(i * QueueJobExecutor.LEASE_RENEWAL_MILLIS);
+            assertFalse(QueueJobExecutor.isLeaseEnded(lease, renewal.getMillis()));
+
+            final DateTime renewed = QueueJobExecutor.getRenewedLeaseEndTime(lease, lease, renewal);
+            assertEquals(QueueJobExecutor.getLeaseEndTime(renewal), renewed);
+            lease = renewed;
+        }
+
+        // a server that stopped no longer renews the lease, so the job is claimed again once it ends
+        assertTrue(QueueJobExecutor.isLeaseEnded(lease, lease.getMillis()));
+    }
+
+    @Test
+    public void getRenewedLeaseEndTime_leaseLost_notRenewed() {
+        final DateTime now = new DateTime(2020, 1, 1, 0, 0);
+        final DateTime held = QueueJobExecutor.getLeaseEndTime(now);
+
+        assertNull(QueueJobExecutor.getRenewedLeaseEndTime(null, held, now));
+        assertNull(QueueJobExecutor.getRenewedLeaseEndTime(held.plus(1), held, now));
+    }
+
+    @Test
+    public void isRunnable_leaseAndRetryTimeCheckedApart() {
+        final long now = System.currentTimeMillis();
+        final DateTime past = new DateTime(now - 1);
+        final DateTime future = new DateTime(now + TimeUnit.MINUTES.toMillis(1));
+
+        assertTrue(QueueJobExecutor.isRunnable(null, null, now));
+        assertTrue(QueueJobExecutor.isRunnable(past, past, now));
+
+        // failed, waiting for its retry time, with no lease
+        assertFalse(QueueJobExecutor.isRunnable(future, null, now));
+        // running again after its retry time, with a lease
+        assertFalse(QueueJobExecutor.isRunnable(past, future, now));
+        assertFalse(QueueJobExecutor.isRunnable(null, future, now));
+    }
+
+    @Test
+    public void getTypes_classAndSuperclassesUpToQueueJob() {
+        final List<Class<?>> types = QueueJobIndex.getTypes(QueueJobWithFile.class).toList();
+
+        assertEquals(QueueJobWithFile.class, types.get(0));
+        assertEquals(QueueJob.class, types.get(types.size() - 1));
+        assertTrue(types.stream().allMatch(QueueJob.class::isAssignableFrom));
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.fenixedu.academic.domain;
+
+import static org.fenixedu.academic.domain.DegreeCurricularPlanTest.DCP_NAME_V1;
+import static org.fenixedu.academic.domain.DegreeTest.DEGREE_A_CODE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.fenixedu.academic.domain.degreeStructure.CourseLoadType;
+import org.fenixedu.academic.domain.schedule.shiftCapacity.ShiftCapacity;
+import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.student.Student;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class SchoolClassPlacementTest {
+
+    private static ExecutionDegree executionDegree;
+    private static ExecutionYear executionYear;
+    private static ExecutionInterval executionInterval;
+    private static DegreeCurricularPlan dcp;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            DegreeCurricularPlanTest.initDegreeCurricularPlan();
+            StudentTest.initRegistrationConfigEntities();
+
+            executionYear = ExecutionYear.findCurrent(null);
+            executionInterval = executionYear.getFirstExecutionPeriod();
+
+            final Degree degree = Degree.find(DEGREE_A_CODE);
+            dcp = degree.getDegreeCurricularPlansSet().stream().filter(d -> DCP_NAME_V1.equals(d.getName())).findAny()
+                    .orElseThrow();
+            executionDegree = dcp.createExecutionDegree(executionYear);
+            return null;
+        });
+    }
+
+    private static ExecutionCourse newExecutionCourse() {
+        return new ExecutionCourse("EC", UUID.randomUUID().toString(), executionInterval);
+    }
+
+    private static Shift newShift(final ExecutionCourse executionCourse, final int capacity) {
+        return new Shift(executionCourse, CourseLoadType.of(CourseLoadType.THEORETICAL), capacity, null);
+    }
+
+    private static Registration newRegistration(final ExecutionCourse executionCourse) {
+        final Student student = StudentTest.createStudent("placement", UUID.randomUUID().toString());
+        final Registration registration = StudentTest.createRegistration(student, dcp, executionYear);
+        new Attends(registration, executionCourse);
+        return registration;
+    }
+
+    private static SchoolClass newSchoolClass(final Shift... shifts) {
+        final SchoolClass schoolClass =
+                new SchoolClass(executionDegree, executionInterval, UUID.randomUUID().toString().substring(0, 8), 1);
+        schoolClass.getAssociatedShiftsSet().addAll(List.of(shifts));
+        return schoolClass;
+    }
+
+    private static void assertPlaced(final Registration registration, final SchoolClass schoolClass,
+            final ExecutionCourse executionCourse) {
+        // the same outcome as placing the registration alone with SchoolClass.replaceSchoolClass
+        assertTrue(registration.findSchoolClass(executionInterval).filter(sc -> sc == schoolClass).isPresent());
+        assertTrue(registration.findEnrolledShiftFor(executionCourse, CourseLoadType.of(CourseLoadType.THEORETICAL))
+                .filter(schoolClass.getAssociatedShiftsSet()::contains).isPresent());
+    }
+
+    @Test
+    public void testPlan_balancesRegistrationsAcrossShifts() {
+        final ExecutionCourse executionCourse = newExecutionCourse();
+        final Shift shiftA = newShift(executionCourse, 10);
+        final Shift shiftB = newShift(executionCourse, 10);
+        final SchoolClass schoolClass = newSchoolClass(shiftA, shiftB);
+
+        final SchoolClassPlacement placement = new SchoolClassPlacement(executionInterval);
+        for (int i = 0; i < 4; i++) {
+            placement.add(newRegistration(executionCourse), schoolClass);
+        }
+
+        final Map<Registration, List<ShiftCapacity>> plan = placement.plan();
+        assertEquals(4, plan.size());
+        plan.values().forEach(capacities -> assertEquals(1, capacities.size()));
+        assertEquals(2, plan.values().stream().flatMap(List::stream).filter(sc -> sc.getShift() == shiftA).count());
+        assertEquals(2, plan.values().stream().flatMap(List::stream).filter(sc -> sc.getShift() == shiftB).count());
+
+        final SchoolClassPlacement.Result result = placement.execute();
+        assertEquals(4, result.getPlaced().size());
+        assertTrue(result.getFailures().isEmpty());
+        result.getPlaced().forEach(registration -> assertPlaced(registration, schoolClass, executionCourse));
+        assertEquals(2, shiftA.getShiftEnrolmentsSet().size());
+        assertEquals(2, shiftB.getShiftEnrolmentsSet().size());
+    }
+
+    @Test
+    public void testPlan_countsVacanciesReleasedByCurrentSchoolClass() {
+        final ExecutionCourse executionCourse = newExecutionCourse();
+        final Shift shift = newShift(executionCourse, 1);
+        final SchoolClass schoolClass = newSchoolClass(shift);
+
+        final Registration registration = newRegistration(executionCourse);
+        SchoolClass.replaceSchoolClass(registration, schoolClass, executionInterval);
+        assertPlaced(registration, schoolClass, executionCourse);
+
+        // the only vacancy is taken by the registration itself, which leaves it when placed again
+        final SchoolClassPlacement placement = new SchoolClassPlacement(executionInterval).add(registration, schoolClass);
+        assertEquals(1, placement.plan().get(registration).size());
+
+        final SchoolClassPlacement.Result result = placement.execute();
+        assertTrue(result.getFailures().isEmpty());
+        assertPlaced(registration, schoolClass, executionCourse);
+        assertEquals(1, shift.getShiftEnrolmentsSet().size());
+    }
+
+    @Test
+    public void testExecute_withoutVacancies_reportsFailure() {
+        final ExecutionCourse executionCourse = newExecutionCourse();
+        final Shift shift = newShift(executionCourse, 1);
+        final SchoolClass schoolClass = newSchoolClass(shift);
+
+        final Registration first = newRegistration(executionCourse);
+        final Registration second = newRegistration(executionCourse);
+        final SchoolClassPlacement placement =
+                new SchoolClassPlacement(executionInterval).add(first, schoolClass).add(second, schoolClass);
+
+        // only one of them gets the vacancy, the other fails as it would when placed alone
+        final Map<Registration, List<ShiftCapacity>> plan = placement.plan();
+        assertEquals(1, plan.values().stream().mapToInt(List::size).sum());
+
+        final SchoolClassPlacement.Result result = placement.execute(1);
+        assertEquals(1, result.getPlaced().size());
+        assertEquals(1, result.getFailures().size());
+        assertPlaced(result.getPlaced().get(0), schoolClass, executionCourse);
+    }
+
+}
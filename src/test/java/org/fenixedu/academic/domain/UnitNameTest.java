@@ -0,0 +1,106 @@
+package org.fenixedu.academic.domain;
+
+import static org.fenixedu.academic.domain.organizationalStructure.AccountabilityTypeEnum.ORGANIZATIONAL_STRUCTURE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.fenixedu.academic.domain.organizationalStructure.AccountabilityType;
+import org.fenixedu.academic.domain.organizationalStructure.PartyType;
+import org.fenixedu.academic.domain.organizationalStructure.PartyTypeEnum;
+import org.fenixedu.academic.domain.organizationalStructure.Unit;
+import org.fenixedu.academic.domain.organizationalStructure.UnitName;
+import org.fenixedu.academic.domain.organizationalStructure.UnitNamePart;
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.fenixedu.commons.i18n.LocalizedString;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class UnitNameTest {
+
+    private static final List<String> QUERIES = List.of("qub", "School", "cour", "ourse", "qub sch", "univ", "courses group",
+            "group courses", "s", "Observatory", "xyz");
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            OrganizationalStructureTest.initTypes();
+            OrganizationalStructureTest.initUnits();
+            createUnit("Lisbon Astronomy Observatory");
+            createUnit("Coursera School of Engineering");
+            return null;
+        });
+    }
+
+    private static Unit createUnit(final String name) {
+        final Unit parent = Bennu.getInstance().getInstitutionUnit();
+        return Unit.createNewUnit(PartyType.of(PartyTypeEnum.SCHOOL), new LocalizedString(Locale.getDefault(), name), null,
+                parent, AccountabilityType.readByType(ORGANIZATIONAL_STRUCTURE));
+    }
+
+    private static boolean hasWord(final UnitName unitName, final String word) {
+        return Arrays.asList(unitName.getName().split(" ")).contains(word);
+    }
+
+    /*
+     * What UnitName.find did before the index: a first part that is a whole word of some name restricts the search to the
+     * names having it, and all the parts must be found anywhere in the name
+     */
+    private static List<UnitName> scan(final String name, final int size) {
+        final String[] parts = UnitNamePart.getNameParts(name);
+        final boolean firstIsWord = Bennu.getInstance().getUnitNameSet().stream().anyMatch(un -> hasWord(un, parts[0]));
+        return Bennu.getInstance().getUnitNameSet().stream().filter(un -> !firstIsWord || hasWord(un, parts[0]))
+                .filter(un -> Arrays.stream(parts).allMatch(un.getName()::contains)).sorted().limit(size).toList();
+    }
+
+    private static void assertSameAsScan() {
+        for (final String query : QUERIES) {
+            for (final int size : new int[] { 1, 3, 100 }) {
+                assertEquals(query + " / " + size, scan(query, size), new ArrayList<>(UnitName.find(query, size)));
+            }
+        }
+    }
+
+    @Test
+    public void testFind_matchesScan() {
+        assertSameAsScan();
+        assertFalse(UnitName.find("observatory", 10).isEmpty());
+        assertTrue(UnitName.find("xyz", 10).isEmpty());
+    }
+
+    @Test
+    public void testFind_afterNewUnit_matchesScan() {
+        assertSameAsScan();
+
+        // created after the index was loaded, by the same transaction
+        final Unit unit = createUnit("Porto Observatory Annex");
+        assertTrue(UnitName.find("annex", 10).contains(unit.getUnitName()));
+        assertSameAsScan();
+    }
+
+    @Test
+    public void testFind_afterRename_matchesScan() {
+        assertSameAsScan();
+
+        final UnitName unitName = UnitName.find("lisbon", 10).iterator().next();
+        unitName.getUnit().setName("Lisbon Planetarium");
+        assertTrue(UnitName.find("planetarium", 10).contains(unitName));
+        assertFalse(UnitName.find("astronomy", 10).contains(unitName));
+        assertSameAsScan();
+
+        unitName.getUnit().setName("Lisbon Astronomy Observatory");
+        assertTrue(UnitName.find("astronomy", 10).contains(unitName));
+        assertSameAsScan();
+    }
+
+}
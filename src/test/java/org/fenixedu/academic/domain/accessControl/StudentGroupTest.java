@@ -21,6 +21,7 @@ import org.fenixedu.academic.domain.student.RegistrationDataByExecutionYear;
 import org.fenixedu.academic.domain.student.Student;
 import org.fenixedu.academic.domain.time.calendarStructure.AcademicPeriod;
 import org.fenixedu.academic.domain.util.UserUtil;
+import org.fenixedu.academic.util.CompactIntSet;
 import org.fenixedu.bennu.core.domain.User;
 import org.fenixedu.bennu.core.domain.UserProfile;
 import org.junit.BeforeClass;
@@ -37,7 +38,9 @@ import java.util.stream.Collectors;
 
 import static org.fenixedu.academic.domain.CompetenceCourseTest.COURSES_UNIT_PATH;
 import static org.fenixedu.academic.domain.CompetenceCourseTest.createCompetenceCourse;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(FenixFrameworkRunner.class)
@@ -55,6 +58,8 @@ public class StudentGroupTest {
 
     private static StudentGroup studentGroup;
 
+    private static DegreeCurricularPlan degreeCurricularPlan;
+
     private static User studentAUser;
 
     private static User studentBUser;
@@ -120,6 +125,7 @@ public class StudentGroupTest {
         dataD.setActive(true);
 
         studentGroup = StudentGroup.get(executionYear);
+        degreeCurricularPlan = dcp;
     }
 
     private static User createUser(String username, String name) {
@@ -177,4 +183,63 @@ public class StudentGroupTest {
         }
     }
 
+    @Test
+    public void isMember_followsRegistrationData() {
+        assertTrue(studentGroup.isMember(studentAUser));
+        assertFalse(studentGroup.isMember(studentBUser));
+        assertFalse(studentGroup.isMember(studentCUser));
+        assertTrue(studentGroup.isMember(studentDUser));
+        assertFalse(studentGroup.isMember(nonStudentUser));
+    }
+
+    @Test
+    public void isMember_studentRegisteredAfterMembersWereListed() {
+        studentGroup.getMembers().count();
+
+        final User user = createUser("studentgroup.test.studentE", "Student E");
+        final ExecutionYear executionYear = ExecutionYear.findCurrent(degreeCurricularPlan.getDegree().getCalendar());
+        final Registration registration =
+                StudentTest.createRegistration(new Student(user.getPerson()), degreeCurricularPlan, executionYear);
+        RegistrationDataByExecutionYear.getOrCreateRegistrationDataByYear(registration, executionYear).setActive(true);
+
+        assertTrue(studentGroup.isMember(user));
+        assertTrue(studentGroup.getMembers().collect(Collectors.toSet()).contains(user));
+        assertTrue(new ActiveStudentsGroup().isMember(user));
+    }
+
+    @Test
+    public void activeStudents_isMemberAndGetMembersAgree() {
+        final ActiveStudentsGroup group = new ActiveStudentsGroup();
+        final Set<User> members = group.getMembers().collect(Collectors.toSet());
+
+        for (final User user : Set.of(studentAUser, studentBUser, studentCUser, studentDUser)) {
+            assertTrue(user.getUsername(), group.isMember(user));
+            assertTrue(user.getUsername(), members.contains(user));
+        }
+        assertFalse(group.isMember(nonStudentUser));
+        assertFalse(members.contains(nonStudentUser));
+    }
+
+    @Test
+    public void getMembers_bitmapsBuiltAgain_ordinalsReadByTheirBitmaps() {
+        final MembershipBitmaps bitmaps = MembershipBitmaps.current();
+        final CompactIntSet active = bitmaps.getActiveStudents();
+        final Set<User> members = studentGroup.getMembers().collect(Collectors.toSet());
+
+        final User user = createUser("studentgroup.test.studentF", "Student F");
+        final ExecutionYear executionYear = ExecutionYear.findCurrent(degreeCurricularPlan.getDegree().getCalendar());
+        final Registration registration =
+                StudentTest.createRegistration(new Student(user.getPerson()), degreeCurricularPlan, executionYear);
+        RegistrationDataByExecutionYear.getOrCreateRegistrationDataByYear(registration, executionYear).setActive(true);
+        MembershipBitmaps.invalidate();
+
+        final MembershipBitmaps rebuilt = MembershipBitmaps.current();
+        assertNotSame(bitmaps, rebuilt);
+        assertTrue(rebuilt.users(rebuilt.getActiveStudents()).collect(Collectors.toSet()).contains(user));
+        assertTrue(bitmaps.users(active).collect(Collectors.toSet()).containsAll(Set.of(studentAUser, studentDUser)));
+
+        members.add(user);
+        assertEquals(members, studentGroup.getMembers().collect(Collectors.toSet()));
+    }
+
 }
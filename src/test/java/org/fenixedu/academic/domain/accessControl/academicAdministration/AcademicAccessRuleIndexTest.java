@@ -0,0 +1,89 @@
+package org.fenixedu.academic.domain.accessControl.academicAdministration;
+
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+import java.util.Set;
+
+import org.fenixedu.academic.domain.accessControl.rules.AccessRuleSystem;
+import org.fenixedu.academic.domain.administrativeOffice.AdministrativeOffice;
+import org.fenixedu.bennu.core.domain.User;
+import org.fenixedu.bennu.core.domain.UserProfile;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+@RunWith(FenixFrameworkRunner.class)
+public class AcademicAccessRuleIndexTest {
+
+    private static final AcademicOperationType OPERATION = AcademicOperationType.MANAGE_EQUIVALENCES;
+
+    private static User createUser(final String username) {
+        final UserProfile userProfile =
+                new UserProfile(username, "", username, username + "@fenixedu.com", Locale.getDefault());
+        return new User(username, userProfile);
+    }
+
+    private static boolean isMember(final User user, final AdministrativeOffice office) throws Exception {
+        return committed(() -> AcademicAccessRule.isMember(user, OPERATION, null, office == null ? null : Set.of(office)));
+    }
+
+    private static int getVersion() throws Exception {
+        return committed(() -> {
+            final Integer version = AccessRuleSystem.getInstance().getRulesVersion();
+            return version == null ? 0 : version.intValue();
+        });
+    }
+
+    @Test
+    public void isMember_afterGrant() throws Exception {
+        final User user = committed(() -> createUser("access.rules.grant"));
+        assertFalse(isMember(user, null));
+        final int before = getVersion();
+
+        committed(() -> OPERATION.grant(user));
+
+        assertTrue(isMember(user, null));
+        assertEquals(before + 1, getVersion());
+    }
+
+    @Test
+    public void isMember_afterRevoke() throws Exception {
+        final User user = committed(() -> createUser("access.rules.revoke"));
+        committed(() -> OPERATION.grant(user));
+        assertTrue(isMember(user, null));
+
+        committed(() -> OPERATION.revoke(user));
+
+        assertFalse(isMember(user, null));
+    }
+
+    @Test
+    public void isMember_afterTargetsChange() throws Exception {
+        final User user = committed(() -> createUser("access.rules.targets"));
+        final AdministrativeOffice first = committed(AdministrativeOffice::new);
+        final AdministrativeOffice second = committed(AdministrativeOffice::new);
+        final AcademicAccessRule rule = committed(() -> OPERATION.grant(user.groupOf(), Set.of(), Set.of(first)).get());
+        assertTrue(isMember(user, first));
+        assertFalse(isMember(user, second));
+
+        committed(() -> rule.changeProgramsAndOffices(Set.of(), Set.of(second)));
+
+        assertFalse(isMember(user, first));
+        assertTrue(isMember(user, second));
+    }
+
+    @Test
+    public void isMember_grantedByCurrentTransaction() {
+        final User user = createUser("access.rules.current");
+        assertFalse(AcademicAccessRule.isMember(user, OPERATION, null, null));
+
+        OPERATION.grant(user);
+
+        assertTrue(AcademicAccessRule.isMember(user, OPERATION, null, null));
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.fenixedu.academic.domain.degreeStructure;
+
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fenixedu.academic.domain.CompetenceCourse;
+import org.fenixedu.academic.domain.CompetenceCourseTest;
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.organizationalStructure.Unit;
+import org.fenixedu.academic.domain.time.calendarStructure.AcademicPeriod;
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class CompetenceCourseInformationTimelineTest {
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            CompetenceCourseTest.initCompetenceCourse();
+            return null;
+        });
+    }
+
+    private static List<ExecutionInterval> getPeriods() {
+        return Bennu.getInstance().getExecutionIntervalsSet().stream().filter(interval -> !interval.isAggregator()).sorted()
+                .toList();
+    }
+
+    // informations in every other period, starting with the second one
+    private static CompetenceCourse createCompetenceCourse(final String code) {
+        final List<ExecutionInterval> periods = getPeriods();
+        final Unit coursesUnit = Unit.findInternalUnitByAcronymPath(CompetenceCourseTest.COURSES_UNIT_PATH).orElseThrow();
+        final CompetenceCourse result = CompetenceCourseTest.createCompetenceCourse("Timeline " + code, code, new BigDecimal(6),
+                AcademicPeriod.SEMESTER, periods.get(1), coursesUnit);
+
+        final CompetenceCourseInformation first = result.getCompetenceCourseInformationsSet().iterator().next();
+        for (int i = 3; i < periods.size(); i += 2) {
+            new CompetenceCourseInformation(first, periods.get(i));
+        }
+        return result;
+    }
+
+    /*
+     * The answer of sorting the informations, which is what the competence course did before the timeline
+     */
+    private static CompetenceCourseInformation sortMostRecentUntil(final CompetenceCourse competenceCourse,
+            final ExecutionInterval interval) {
+        if (interval == null) {
+            return competenceCourse.getCompetenceCourseInformationsSet().stream()
+                    .max(CompetenceCourseInformation.COMPARATORY_BY_EXECUTION_INTERVAL).orElse(null);
+        }
+
+        final ExecutionInterval childInterval =
+                interval instanceof ExecutionYear ? ((ExecutionYear) interval).getLastExecutionPeriod() : interval;
+
+        CompetenceCourseInformation result = null;
+        final List<CompetenceCourseInformation> orderedInformations = competenceCourse.getCompetenceCourseInformationsSet()
+                .stream().sorted(CompetenceCourseInformation.COMPARATORY_BY_EXECUTION_INTERVAL).toList();
+        for (final CompetenceCourseInformation information : orderedInformations) {
+            if (information.getExecutionInterval().isAfter(childInterval)) {
+                if (result != null) {
+                    return result;
+                }
+            } else {
+                result = information;
+            }
+        }
+        return result == null && !orderedInformations.isEmpty() ? orderedInformations.get(0) : result;
+    }
+
+    private static void assertSameAsSort(final CompetenceCourse competenceCourse) {
+        final List<ExecutionInterval> intervals = new ArrayList<>(Bennu.getInstance().getExecutionIntervalsSet());
+        intervals.add(null);
+        for (final ExecutionInterval interval : intervals) {
+            assertSame(String.valueOf(interval), sortMostRecentUntil(competenceCourse, interval),
+                    competenceCourse.findInformationMostRecentUntil(interval));
+        }
+    }
+
+    @Test
+    public void testTimeline_sameAsSort() {
+        final CompetenceCourse competenceCourse = createCompetenceCourse("TL1");
+        assertEquals(getPeriods().size() / 2, competenceCourse.getCompetenceCourseInformationsSet().size());
+        assertSameAsSort(competenceCourse);
+    }
+
+    @Test
+    public void testTimeline_informationsInSameInterval() {
+        final CompetenceCourse competenceCourse = createCompetenceCourse("TL2");
+        final ExecutionInterval period = getPeriods().get(3);
+        new CompetenceCourseInformation(competenceCourse.findInformationMostRecentUntil(period), period);
+
+        assertSameAsSort(competenceCourse);
+    }
+
+    @Test
+    public void testTimeline_informationMovedInSameTransaction() {
+        final CompetenceCourse competenceCourse = createCompetenceCourse("TL3");
+        final List<ExecutionInterval> periods = getPeriods();
+        final CompetenceCourseInformation moved = competenceCourse.findInformationMostRecentUntil(periods.get(3));
+        assertSameAsSort(competenceCourse);
+
+        moved.setExecutionInterval(periods.get(periods.size() - 1));
+
+        assertNotSame(moved, competenceCourse.findInformationMostRecentUntil(periods.get(3)));
+        assertSameAsSort(competenceCourse);
+    }
+
+    @Test
+    public void testTimeline_informationDeletedByOtherTransaction() throws Exception {
+        final CompetenceCourse competenceCourse = committed(() -> createCompetenceCourse("TL4"));
+        final ExecutionInterval period = committed(() -> getPeriods().get(3));
+        final CompetenceCourseInformation deleted = committed(() -> competenceCourse.findInformationMostRecentUntil(period));
+
+        committed(() -> {
+            deleted.delete();
+            return null;
+        });
+
+        committed(() -> {
+            assertSameAsSort(competenceCourse);
+            return null;
+        });
+    }
+
+}
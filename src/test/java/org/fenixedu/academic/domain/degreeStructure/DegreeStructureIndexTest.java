@@ -0,0 +1,206 @@
+package org.fenixedu.academic.domain.degreeStructure;
+
+import static org.fenixedu.academic.domain.time.calendarStructure.AcademicPeriod.SEMESTER;
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.fenixedu.academic.domain.CurricularCourse;
+import org.fenixedu.academic.domain.DegreeCurricularPlan;
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.student.curriculum.calculator.util.ConclusionGradeCalculatorTestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class DegreeStructureIndexTest {
+
+    private static final List<Class<? extends DegreeModule>> CLASSES =
+            Arrays.asList(null, DegreeModule.class, CurricularCourse.class, CourseGroup.class);
+
+    private static ExecutionYear executionYear;
+
+    private static DegreeCurricularPlan degreeCurricularPlan;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            ConclusionGradeCalculatorTestUtil.initData();
+            executionYear = ExecutionYear.readExecutionYearByName("2019/2020");
+            degreeCurricularPlan = ConclusionGradeCalculatorTestUtil.createDegreeCurricularPlan(executionYear);
+            return null;
+        });
+    }
+
+    private static CourseGroup getMandatoryGroup(final DegreeCurricularPlan degreeCurricularPlan) {
+        return getCourseGroups(degreeCurricularPlan).stream()
+                .filter(group -> ConclusionGradeCalculatorTestUtil.MANDATORY_GROUP.equals(group.getName())).findAny()
+                .orElseThrow();
+    }
+
+    private static CurricularCourse createCurricularCourse(final DegreeCurricularPlan degreeCurricularPlan, final String code) {
+        return ConclusionGradeCalculatorTestUtil.createCurricularCourse(code, "Course " + code, new BigDecimal(6),
+                degreeCurricularPlan.getCurricularPeriodFor(1, 1, SEMESTER), executionYear.getFirstExecutionPeriod(),
+                getMandatoryGroup(degreeCurricularPlan));
+    }
+
+    /*
+     * The answers of walking the context tree, which is what the course groups do without an index
+     */
+
+    private static Set<CourseGroup> getCourseGroups(final DegreeCurricularPlan degreeCurricularPlan) {
+        final Set<CourseGroup> result = new HashSet<>();
+        final List<CourseGroup> toVisit = new ArrayList<>(List.of(degreeCurricularPlan.getRoot()));
+        while (!toVisit.isEmpty()) {
+            final CourseGroup courseGroup = toVisit.remove(toVisit.size() - 1);
+            if (result.add(courseGroup)) {
+                courseGroup.getChildContextsSet().stream().map(Context::getChildDegreeModule)
+                        .filter(DegreeModule::isCourseGroup).map(CourseGroup.class::cast).forEach(toVisit::add);
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasClass(final Class<? extends DegreeModule> clazz, final DegreeModule degreeModule) {
+        return clazz == null || clazz.isAssignableFrom(degreeModule.getClass());
+    }
+
+    private static Set<Context> walkValidChildContexts(final CourseGroup courseGroup, final Class<? extends DegreeModule> clazz,
+            final ExecutionInterval executionInterval) {
+        return courseGroup.getChildContextsSet().stream().filter(context -> hasClass(clazz, context.getChildDegreeModule())
+                && (executionInterval == null || context.isValid(executionInterval))).collect(Collectors.toSet());
+    }
+
+    private static Set<Context> walkValidChildContextsForExecutionAggregation(final CourseGroup courseGroup,
+            final Class<? extends DegreeModule> clazz, final ExecutionYear executionYear) {
+        return courseGroup.getChildContextsSet().stream().filter(context -> hasClass(clazz, context.getChildDegreeModule())
+                && (executionYear == null || context.isValidForExecutionAggregation(executionYear))).collect(Collectors.toSet());
+    }
+
+    private static Set<DegreeModule> walkAllChildDegreeModules(final CourseGroup courseGroup,
+            final Class<? extends DegreeModule> clazz, final ExecutionYear executionYear) {
+        final Set<DegreeModule> result = new HashSet<>();
+        for (final Context context : walkValidChildContextsForExecutionAggregation(courseGroup, null, executionYear)) {
+            final DegreeModule degreeModule = context.getChildDegreeModule();
+            if (clazz.isAssignableFrom(degreeModule.getClass())) {
+                result.add(degreeModule);
+            }
+            if (!degreeModule.isLeaf()) {
+                result.addAll(walkAllChildDegreeModules((CourseGroup) degreeModule, clazz, executionYear));
+            }
+        }
+        return result;
+    }
+
+    private static Set<CurricularCourse> walkAllCurricularCourses(final CourseGroup courseGroup,
+            final ExecutionInterval executionInterval) {
+        final Set<CurricularCourse> result = new HashSet<>();
+        for (final Context context : courseGroup.getChildContextsSet()) {
+            if (executionInterval == null || context.isOpen(executionInterval)) {
+                final DegreeModule degreeModule = context.getChildDegreeModule();
+                if (degreeModule.isLeaf()) {
+                    result.addAll(degreeModule.getAllCurricularCourses(executionInterval));
+                } else {
+                    result.addAll(walkAllCurricularCourses((CourseGroup) degreeModule, executionInterval));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void assertSameAsWalk(final DegreeCurricularPlan degreeCurricularPlan) {
+        final List<ExecutionInterval> intervals = new ArrayList<>(executionYear.getExecutionPeriodsSet());
+        intervals.add(null);
+        final List<ExecutionYear> years = Arrays.asList(executionYear, executionYear.getNextExecutionYear(), null);
+
+        for (final CourseGroup courseGroup : getCourseGroups(degreeCurricularPlan)) {
+            for (final Class<? extends DegreeModule> clazz : CLASSES) {
+                for (final ExecutionInterval interval : intervals) {
+                    assertEquals(walkValidChildContexts(courseGroup, clazz, interval),
+                            new HashSet<>(courseGroup.getValidChildContexts(clazz, interval)));
+                }
+                for (final ExecutionYear year : years) {
+                    assertEquals(walkValidChildContextsForExecutionAggregation(courseGroup, clazz, year),
+                            new HashSet<>(courseGroup.getValidChildContextsForExecutionAggregation(clazz, year)));
+                }
+            }
+            for (final ExecutionYear year : years) {
+                assertEquals(walkAllChildDegreeModules(courseGroup, DegreeModule.class, year),
+                        courseGroup.collectAllChildDegreeModules(DegreeModule.class, year));
+                assertEquals(walkAllChildDegreeModules(courseGroup, CurricularCourse.class, year),
+                        courseGroup.collectAllChildDegreeModules(CurricularCourse.class, year));
+            }
+            for (final ExecutionInterval interval : intervals) {
+                assertEquals(walkAllCurricularCourses(courseGroup, interval), courseGroup.getAllCurricularCourses(interval));
+            }
+        }
+    }
+
+    @Test
+    public void testIndex_sameAsWalk() {
+        assertNotNull(DegreeStructureIndex.find(degreeCurricularPlan.getRoot()));
+        assertSameAsWalk(degreeCurricularPlan);
+    }
+
+    @Test
+    public void testFind_sharedUntilStructureChanges() throws Exception {
+        final CourseGroup mandatory = getMandatoryGroup(degreeCurricularPlan);
+        final DegreeStructureIndex index = committed(() -> DegreeStructureIndex.find(mandatory));
+
+        assertNotNull(index);
+        assertSame(index, committed(() -> DegreeStructureIndex.find(degreeCurricularPlan.getRoot())));
+    }
+
+    @Test
+    public void testIndex_structureChangedInSameTransaction() throws Exception {
+        final DegreeCurricularPlan changed =
+                committed(() -> ConclusionGradeCalculatorTestUtil.createDegreeCurricularPlan(executionYear));
+        assertNotNull(DegreeStructureIndex.find(changed.getRoot()));
+
+        final CurricularCourse created = createCurricularCourse(changed, "C30");
+
+        // the transaction that changed the structure walks the tree, so it sees its own change
+        assertNull(DegreeStructureIndex.find(changed.getRoot()));
+        assertTrue(changed.getRoot().getAllCurricularCourses(executionYear.getFirstExecutionPeriod()).contains(created));
+        assertSameAsWalk(changed);
+    }
+
+    @Test
+    public void testIndex_structureChangeCommitted_builtAgain() throws Exception {
+        final DegreeCurricularPlan changed =
+                committed(() -> ConclusionGradeCalculatorTestUtil.createDegreeCurricularPlan(executionYear));
+        final DegreeStructureIndex before = committed(() -> DegreeStructureIndex.find(changed.getRoot()));
+        assertFalse(committed(() -> changed.getRoot().getAllCurricularCourses()).stream()
+                .anyMatch(course -> "C31".equals(course.getCode())));
+
+        final CurricularCourse created = committed(() -> createCurricularCourse(changed, "C31"));
+
+        final DegreeStructureIndex after = committed(() -> DegreeStructureIndex.find(changed.getRoot()));
+        assertNotNull(after);
+        assertNotSame(before, after);
+        assertTrue(committed(() -> changed.getRoot().getAllCurricularCourses()).contains(created));
+        committed(() -> {
+            assertSameAsWalk(changed);
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,158 @@
+package org.fenixedu.academic.domain.dml;
+
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.Person;
+import org.fenixedu.bennu.core.domain.User;
+import org.fenixedu.bennu.core.domain.UserProfile;
+import org.fenixedu.commons.i18n.LocalizedString;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.DomainObject;
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class DynamicFieldTest {
+
+    private static final String PERSON_CLASS = Person.class.getName();
+
+    private static Person person, otherPerson;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            person = createPerson("dynamicfield1");
+            otherPerson = createPerson("dynamicfield2");
+            return null;
+        });
+    }
+
+    private static Person createPerson(final String username) {
+        final UserProfile userProfile =
+                new UserProfile(username, "", username, username + "@fenixedu.com", Locale.getDefault());
+        new User(username, userProfile);
+        return new Person(userProfile);
+    }
+
+    private static DynamicFieldDescriptor createDescriptor(final String code, final Class<?> fieldValueClass) {
+        return DynamicFieldDescriptor.create(PERSON_CLASS, code, new LocalizedString(Locale.getDefault(), code),
+                fieldValueClass.getName(), false);
+    }
+
+    private static void assertSortedByOrder(final List<DynamicFieldDescriptor> descriptors) {
+        for (int i = 0; i < descriptors.size(); i++) {
+            assertEquals(i, descriptors.get(i).getOrder());
+        }
+    }
+
+    @Test
+    public void getFieldValue_neverWritten_nullWithoutCreatingField() {
+        createDescriptor("DF_UNSET", String.class);
+
+        assertNull(DynamicField.getFieldValue(person, "DF_UNSET"));
+        assertFalse(DynamicField.find(person, "DF_UNSET").isPresent());
+    }
+
+    @Test
+    public void getFieldValue_written_valueOfFieldClass() {
+        createDescriptor("DF_STRING", String.class);
+        createDescriptor("DF_INTEGER", Integer.class);
+
+        DynamicField.setFieldValue(person, "DF_STRING", "value");
+        DynamicField.setFieldValue(person, "DF_INTEGER", 42);
+
+        assertEquals("value", DynamicField.getFieldValue(person, "DF_STRING"));
+        assertEquals(Integer.valueOf(42), DynamicField.getFieldValue(person, "DF_INTEGER"));
+        assertTrue(DynamicField.find(person, "DF_STRING").isPresent());
+        assertNull(DynamicField.getFieldValue(otherPerson, "DF_STRING"));
+    }
+
+    @Test
+    public void getFieldValue_nullDomainObject_null() {
+        assertNull(DynamicField.getFieldValue(null, "DF_ANY"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getFieldValue_unknownCode_throwsException() {
+        DynamicField.getFieldValue(person, "DF_UNKNOWN");
+    }
+
+    @Test
+    public void getFieldValues_valueOfEachDomainObjectInOrder() {
+        createDescriptor("DF_VALUES", String.class);
+        DynamicField.setFieldValue(otherPerson, "DF_VALUES", "other");
+
+        final Map<DomainObject, String> values = DynamicField.getFieldValues(List.of(otherPerson, person), "DF_VALUES");
+
+        assertEquals(List.of(otherPerson, person), List.copyOf(values.keySet()));
+        assertEquals("other", values.get(otherPerson));
+        assertNull(values.get(person));
+    }
+
+    @Test
+    public void find_unknownCode_empty() {
+        assertFalse(DynamicField.find(person, "DF_UNKNOWN").isPresent());
+        assertFalse(DynamicField.findOrCreate(person, "DF_UNKNOWN").isPresent());
+    }
+
+    @Test
+    public void findOrCreate_knownCode_createdOnce() {
+        createDescriptor("DF_CREATE", String.class);
+
+        final DynamicField field = DynamicField.findOrCreate(person, "DF_CREATE").orElseThrow();
+
+        assertSame(field, DynamicField.findOrCreate(person, "DF_CREATE").orElseThrow());
+        assertSame(field, DynamicField.find(person, "DF_CREATE").orElseThrow());
+    }
+
+    @Test
+    public void getDescriptors_sortedByOrder_movedInSameTransaction() {
+        final DynamicFieldDescriptor first = createDescriptor("DF_FIRST", String.class);
+        final DynamicFieldDescriptor second = createDescriptor("DF_SECOND", String.class);
+        final List<DynamicFieldDescriptor> before = DynamicFieldRegistry.getInstance().getDescriptors(PERSON_CLASS);
+        assertSortedByOrder(before);
+        assertEquals(before.indexOf(first) + 1, before.indexOf(second));
+
+        second.moveUp();
+
+        final List<DynamicFieldDescriptor> after = DynamicFieldRegistry.getInstance().getDescriptors(person);
+        assertSortedByOrder(after);
+        assertEquals(after.indexOf(second) + 1, after.indexOf(first));
+        assertSame(second, DynamicFieldRegistry.getInstance().findDescriptor(person, "DF_SECOND"));
+    }
+
+    @Test
+    public void getInstance_sharedUntilDescriptorIsCommitted() throws Exception {
+        final DynamicFieldRegistry registry = committed(() -> DynamicFieldRegistry.getInstance());
+        assertSame(registry, committed(() -> DynamicFieldRegistry.getInstance()));
+
+        final DynamicFieldDescriptor created = committed(() -> createDescriptor("DF_COMMITTED", String.class));
+
+        final DynamicFieldRegistry changed = committed(() -> DynamicFieldRegistry.getInstance());
+        assertNotSame(registry, changed);
+        assertFalse(registry.getDescriptors(PERSON_CLASS).contains(created));
+        assertTrue(changed.getDescriptors(PERSON_CLASS).contains(created));
+        assertSame(created, committed(() -> changed.findDescriptor(person, "DF_COMMITTED")));
+    }
+
+    @Test
+    public void getDescriptors_classWithoutDescriptors_empty() {
+        assertTrue(DynamicFieldRegistry.getInstance().getDescriptors(ExecutionYear.class.getName()).isEmpty());
+        assertTrue(DynamicFieldRegistry.getInstance().getDescriptors((DomainObject) null).isEmpty());
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.fenixedu.academic.domain.enrolment;
+
+import static org.fenixedu.academic.domain.curricularRules.util.ConclusionRulesTestUtil.createDegreeCurricularPlan;
+import static org.fenixedu.academic.domain.curricularRules.util.ConclusionRulesTestUtil.createRegistration;
+import static org.fenixedu.academic.domain.curricularRules.util.ConclusionRulesTestUtil.enrol;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+
+import org.fenixedu.academic.domain.DegreeCurricularPlan;
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.curricularRules.CreditsLimit;
+import org.fenixedu.academic.domain.curricularRules.executors.RuleResult;
+import org.fenixedu.academic.domain.curricularRules.util.ConclusionRulesTestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class EnrolmentContextTest {
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            ConclusionRulesTestUtil.init();
+            return null;
+        });
+    }
+
+    @Test
+    public void evaluateRule_memoizedResultMatchesExecution() {
+        final ExecutionYear executionYear = ExecutionYear.readExecutionYearByName("2020/2021");
+        final DegreeCurricularPlan degreeCurricularPlan = createDegreeCurricularPlan(executionYear);
+        final CreditsLimit rule = new CreditsLimit(degreeCurricularPlan.getRoot(), null, executionYear, null, 0d, 6d);
+
+        final StudentCurricularPlan curricularPlan =
+                createRegistration(degreeCurricularPlan, executionYear).getLastStudentCurricularPlan();
+        enrol(curricularPlan, executionYear, "C1", "C2");
+
+        final ExecutionInterval interval = executionYear.getFirstExecutionPeriod();
+        final EnrolmentContext context = EnrolmentContext.createForVerifyWithRules(curricularPlan, interval);
+        final IDegreeModuleToEvaluate root = new EnroledCurriculumModuleWrapper(curricularPlan.getRoot(), interval);
+        final RuleResult executed = rule.evaluate(root, context);
+
+        context.startRuleEvaluation();
+        try {
+            final RuleResult first = context.evaluateRule(rule, root);
+            final RuleResult second = context.evaluateRule(rule, root);
+            assertEquals(executed.getResult(), first.getResult());
+            assertEquals(executed.getResult(), second.getResult());
+            assertNotSame(first, second);
+        } finally {
+            context.finishRuleEvaluation();
+        }
+    }
+
+    @Test
+    public void evaluateRule_mergingAResultDoesNotChangeTheMemoizedResult() {
+        final ExecutionYear executionYear = ExecutionYear.readExecutionYearByName("2020/2021");
+        final DegreeCurricularPlan degreeCurricularPlan = createDegreeCurricularPlan(executionYear);
+        final CreditsLimit rule = new CreditsLimit(degreeCurricularPlan.getRoot(), null, executionYear, null, 0d, 100d);
+
+        final StudentCurricularPlan curricularPlan =
+                createRegistration(degreeCurricularPlan, executionYear).getLastStudentCurricularPlan();
+
+        final ExecutionInterval interval = executionYear.getFirstExecutionPeriod();
+        final EnrolmentContext context = EnrolmentContext.createForVerifyWithRules(curricularPlan, interval);
+        final IDegreeModuleToEvaluate root = new EnroledCurriculumModuleWrapper(curricularPlan.getRoot(), interval);
+
+        context.startRuleEvaluation();
+        try {
+            final RuleResult first = context.evaluateRule(rule, root);
+            first.and(RuleResult.createImpossible(degreeCurricularPlan.getCurricularCourseByCode("C1"), "impossible"));
+
+            assertFalse(context.evaluateRule(rule, root).hasAnyImpossibleEnrolment());
+        } finally {
+            context.finishRuleEvaluation();
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.fenixedu.academic.domain.organizationalStructure;
+
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.fenixedu.academic.domain.Installation;
+import org.fenixedu.commons.i18n.LocalizedString;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class UnitNameIndexTest {
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            Installation.ensureInstallation();
+            if (PartyType.of(PartyTypeEnum.SCHOOL) == null) {
+                new PartyType(PartyTypeEnum.SCHOOL);
+            }
+            return null;
+        });
+    }
+
+    private static Unit createUnit(final String name) {
+        return Unit.createNewUnit(PartyType.of(PartyTypeEnum.SCHOOL), new LocalizedString(Locale.getDefault(), name), null, null,
+                null);
+    }
+
+    // with an index of another server, which does not see the names set by this one
+    private static List<UnitName> find(final UnitNameIndex index, final String word) throws Exception {
+        return committed(() -> index.find(List.of(word), List.of()).toList());
+    }
+
+    @Test
+    public void testFind_unitCreatedOnOtherServer() throws Exception {
+        final UnitNameIndex other = new UnitNameIndex(0);
+        assertTrue(find(other, "annapolis").isEmpty());
+
+        final Unit unit = committed(() -> createUnit("Annapolis Naval Institute"));
+
+        assertEquals(List.of(unit.getUnitName()), find(other, "annapolis"));
+        assertTrue(committed(() -> other.isWord("naval")));
+    }
+
+    @Test
+    public void testFind_unitRenamedOnOtherServer() throws Exception {
+        final UnitNameIndex other = new UnitNameIndex(0);
+        final Unit unit = committed(() -> createUnit("Bremen Harbour Office"));
+        assertEquals(List.of(unit.getUnitName()), find(other, "harbour"));
+
+        committed(() -> {
+            unit.setName("Bremen Customs Office");
+            return null;
+        });
+
+        assertEquals(List.of(unit.getUnitName()), find(other, "customs"));
+        assertTrue(find(other, "harbour").isEmpty());
+        assertFalse(committed(() -> other.isWord("harbour")));
+        assertTrue(committed(() -> other.find(List.of(), List.of("harbo")).toList()).isEmpty());
+    }
+
+    @Test
+    public void testFind_abortedUnitNotFound() throws Exception {
+        try {
+            committed(() -> {
+                createUnit("Cadiz Aborted Unit");
+                throw new IllegalStateException("aborted by the test");
+            });
+        } catch (final Exception e) {
+            // the transaction is rolled back
+        }
+
+        assertTrue(find(UnitNameIndex.getInstance(), "cadiz").isEmpty());
+        assertTrue(find(new UnitNameIndex(0), "cadiz").isEmpty());
+    }
+
+    @Test
+    public void testFind_otherServerWithinMaximumAge() throws Exception {
+        final UnitNameIndex other = new UnitNameIndex();
+        assertTrue(find(other, "dunedin").isEmpty());
+
+        final Unit unit = committed(() -> createUnit("Dunedin Botanic Garden"));
+
+        // the index of this server finds it right away, the other one only once built again
+        assertEquals(List.of(unit.getUnitName()), find(UnitNameIndex.getInstance(), "dunedin"));
+        assertTrue(find(other, "dunedin").isEmpty());
+    }
+
+}
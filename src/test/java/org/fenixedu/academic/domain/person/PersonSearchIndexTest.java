@@ -0,0 +1,164 @@
+package org.fenixedu.academic.domain.person;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.fenixedu.academic.domain.Installation;
+import org.fenixedu.academic.domain.Person;
+import org.fenixedu.academic.domain.contacts.EmailAddress;
+import org.fenixedu.academic.domain.contacts.PartyContactType;
+import org.fenixedu.academic.domain.organizationalStructure.Party;
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.fenixedu.bennu.core.domain.User;
+import org.fenixedu.bennu.core.domain.UserProfile;
+import org.fenixedu.commons.StringNormalizer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class PersonSearchIndexTest {
+
+    private static Person personA;
+
+    // each index stands for the index of a different server, the other one being built again on each lookup, as it is once
+    // its maximum age passed
+    private InMemoryPersonSearchIndex local, other;
+
+    private Supplier<PersonSearchIndex> previous;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            Installation.ensureInstallation();
+            personA = createPerson("Alberta Searchable Quintana", "person.search.a");
+            return null;
+        });
+    }
+
+    @Before
+    public void setUp() {
+        local = new InMemoryPersonSearchIndex();
+        other = new InMemoryPersonSearchIndex(0);
+        final PersonSearchIndex current = PersonSearchIndex.getInstance();
+        previous = () -> current;
+        PersonSearchIndex.setPersonSearchIndex(() -> local);
+    }
+
+    @After
+    public void tearDown() {
+        PersonSearchIndex.setPersonSearchIndex(previous);
+    }
+
+    private static Person createPerson(final String name, final String username) {
+        final UserProfile userProfile = new UserProfile(name, "", name, username + "@fenixedu.com", Locale.getDefault());
+        new User(username, userProfile);
+        return new Person(userProfile);
+    }
+
+    private static String[] words(final String name) {
+        return StringNormalizer.normalize(name).trim().split(" ");
+    }
+
+    private static List<Person> findByName(final PersonSearchIndex index, final String name) {
+        return FenixFramework.getTransactionManager()
+                .withTransaction(() -> index.findByNameWords(words(name)).sorted(Party.COMPARATOR_BY_NAME_AND_ID).toList());
+    }
+
+    // what name searches did without the index
+    private static List<Person> scan(final String name) {
+        return FenixFramework.getTransactionManager()
+                .withTransaction(() -> Bennu.getInstance().getPartysSet().stream().filter(Party::isPerson).map(Person.class::cast)
+                        .filter(p -> p.verifyNameEquality(words(name))).sorted(Party.COMPARATOR_BY_NAME_AND_ID).toList());
+    }
+
+    @Test
+    public void testFindByNameWords_matchesScan() {
+        for (final String name : List.of("alberta", "Searchable alberta", "quintana searchable", "searchable nobody")) {
+            assertEquals(name, scan(name), findByName(local, name));
+        }
+        assertEquals(List.of(personA), findByName(local, "alberta quintana"));
+    }
+
+    @Test
+    public void testFindByNameWords_personCreatedOnOtherServer() {
+        assertTrue(findByName(other, "Bartholomew").isEmpty());
+
+        final Person created = FenixFramework.getTransactionManager()
+                .withTransaction(() -> createPerson("Bartholomew Remote", "person.search.b"));
+
+        assertEquals(List.of(created), findByName(other, "bartholomew"));
+        assertEquals(List.of(created), findByName(local, "bartholomew remote"));
+    }
+
+    @Test
+    public void testFindByNameWords_renamedOnOtherServer() {
+        final Person person = FenixFramework.getTransactionManager()
+                .withTransaction(() -> createPerson("Cornelius Before", "person.search.c"));
+        assertEquals(List.of(person), findByName(other, "cornelius before"));
+
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            person.changeName("Cornelius", "After", null);
+            return null;
+        });
+
+        assertEquals(List.of(person), findByName(other, "cornelius after"));
+        assertTrue(findByName(other, "cornelius before").isEmpty());
+        assertEquals(scan("cornelius"), findByName(other, "cornelius"));
+    }
+
+    @Test
+    public void testFindEmailAddresses_createdOnOtherServer() {
+        assertFalse(FenixFramework.getTransactionManager()
+                .withTransaction(() -> other.findByEmailAddress("alberta.remote@example.com").findAny().isPresent()));
+
+        FenixFramework.getTransactionManager().withTransaction(() -> EmailAddress.createEmailAddress(personA,
+                "alberta.remote@example.com", PartyContactType.PERSONAL, false));
+
+        assertEquals(List.of(personA), FenixFramework.getTransactionManager()
+                .withTransaction(() -> other.findByEmailAddress("alberta.remote@example.com").toList()));
+    }
+
+    private static Object abort() {
+        throw new IllegalStateException("aborted by the test");
+    }
+
+    @Test
+    public void testFindByNameWords_abortedPersonNotFound() {
+        try {
+            FenixFramework.getTransactionManager().withTransaction(() -> {
+                createPerson("Desmond Aborted", "person.search.d");
+                return abort();
+            });
+        } catch (final RuntimeException e) {
+            // the transaction is rolled back
+        }
+
+        assertTrue(findByName(other, "desmond aborted").isEmpty());
+    }
+
+    @Test
+    public void testFindByNameWords_otherServerWithinMaximumAge() {
+        final InMemoryPersonSearchIndex recent = new InMemoryPersonSearchIndex();
+        assertTrue(findByName(recent, "Eustace").isEmpty());
+
+        final Person created = FenixFramework.getTransactionManager()
+                .withTransaction(() -> createPerson("Eustace Remote", "person.search.e"));
+
+        // the writing server finds it right away, the others once their index is built again
+        assertEquals(List.of(created), findByName(local, "eustace remote"));
+        assertTrue(findByName(recent, "eustace").isEmpty());
+        assertEquals(List.of(created), findByName(other, "eustace"));
+    }
+
+}
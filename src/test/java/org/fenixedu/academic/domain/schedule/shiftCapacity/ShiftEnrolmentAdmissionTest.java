@@ -0,0 +1,144 @@
+package org.fenixedu.academic.domain.schedule.shiftCapacity;
+
+import static org.fenixedu.academic.domain.DegreeTest.DEGREE_A_CODE;
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.fenixedu.academic.domain.Degree;
+import org.fenixedu.academic.domain.DegreeCurricularPlan;
+import org.fenixedu.academic.domain.ExecutionCourse;
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.Shift;
+import org.fenixedu.academic.domain.StudentTest;
+import org.fenixedu.academic.domain.degreeStructure.CourseLoadType;
+import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.time.calendarStructure.AcademicPeriod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class ShiftEnrolmentAdmissionTest {
+
+    private static final int STUDENTS = 8;
+
+    private static ExecutionCourse executionCourse;
+
+    private static DegreeCurricularPlan degreeCurricularPlan;
+
+    private static ExecutionYear executionYear;
+
+    private ShiftEnrolmentAdmission admission;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            StudentTest.initStudentAndRegistration();
+            final Degree degree = Degree.find(DEGREE_A_CODE);
+            executionYear = ExecutionYear.findCurrent(degree.getCalendar());
+            degreeCurricularPlan = new DegreeCurricularPlan(degree, UUID.randomUUID().toString(), AcademicPeriod.THREE_YEAR);
+            degreeCurricularPlan.createExecutionDegree(executionYear);
+            final ExecutionInterval executionInterval = executionYear.getFirstExecutionPeriod();
+            executionCourse = new ExecutionCourse("Admission Course", UUID.randomUUID().toString(), executionInterval);
+            return null;
+        });
+    }
+
+    @Before
+    public void setUp() {
+        admission = new ShiftEnrolmentAdmission(4, 2);
+        ShiftEnrolmentAdmission.setInstance(admission);
+    }
+
+    @After
+    public void tearDown() {
+        ShiftEnrolmentAdmission.setInstance(null);
+    }
+
+    private static List<Registration> createRegistrations() throws Exception {
+        return committed(() -> {
+            final List<Registration> result = new ArrayList<>();
+            for (int i = 0; i < STUDENTS; i++) {
+                result.add(StudentTest.createRegistration(
+                        StudentTest.createStudent("Admission Student", UUID.randomUUID().toString()), degreeCurricularPlan,
+                        executionYear));
+            }
+            return result;
+        });
+    }
+
+    // submits every enrolment from its own thread and transaction, at once
+    private static int submitConcurrently(final List<Registration> registrations,
+            final Function<Registration, CompletableFuture<Boolean>> submitter) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(registrations.size());
+        try {
+            final List<Future<CompletableFuture<Boolean>>> submitted = new ArrayList<>();
+            for (final Registration registration : registrations) {
+                submitted.add(executor.submit(
+                        () -> FenixFramework.getTransactionManager().withTransaction(() -> submitter.apply(registration))));
+            }
+
+            int enrolled = 0;
+            for (final Future<CompletableFuture<Boolean>> future : submitted) {
+                if (future.get().get()) {
+                    enrolled++;
+                }
+            }
+            return enrolled;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int countEnrolments(final Shift shift) throws Exception {
+        return committed(() -> shift.getShiftEnrolmentsSet().size());
+    }
+
+    @Test
+    public void testSubmitEnrolment_onlyAsManyAsTheCapacity() throws Exception {
+        final Shift shift =
+                committed(() -> new Shift(executionCourse, CourseLoadType.of(CourseLoadType.THEORETICAL), 3, null));
+        final List<Registration> registrations = createRegistrations();
+
+        assertEquals(3, submitConcurrently(registrations, shift::submitEnrolment));
+        assertEquals(3, countEnrolments(shift));
+        assertEquals(3, admission.getMetrics().getAccepted());
+        assertEquals(STUDENTS - 3, admission.getMetrics().getRejected());
+    }
+
+    @Test
+    public void testSubmitEnrolment_sharedExtraCapacityTakenOnce() throws Exception {
+        final ShiftCapacity[] capacities = committed(() -> {
+            final Shift shift = new Shift(executionCourse, CourseLoadType.of(CourseLoadType.THEORETICAL), 2, null);
+            final ShiftCapacity first = shift.getShiftCapacitiesSet().iterator().next();
+            final ShiftCapacity second = new ShiftCapacity(shift, ShiftCapacityType.findOrCreateDefault(), 2);
+            final ShiftCapacity extra = new ShiftCapacity(shift, ShiftCapacityType.findOrCreateDefault(), 1);
+            first.addExtraCapacities(extra);
+            second.addExtraCapacities(extra);
+            return new ShiftCapacity[] { first, second };
+        });
+        final List<Registration> registrations = createRegistrations();
+
+        final int enrolled = submitConcurrently(registrations, registration -> Shift.submitEnrolment(registration,
+                capacities[registrations.indexOf(registration) % 2]));
+
+        assertEquals(5, enrolled);
+        assertEquals(5, countEnrolments(capacities[0].getShift()));
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.fenixedu.academic.domain.serviceRequests;
+
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.fenixedu.bennu.core.domain.Bennu;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class AcademicServiceRequestNumberSequenceTest {
+
+    private static final int COMMITTED_YEAR = 2091;
+
+    private static final int NEW_YEAR = 2092;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            AcademicServiceRequestYear.readByYear(COMMITTED_YEAR, true);
+            return null;
+        });
+    }
+
+    private static long countYears(final int year) {
+        return Bennu.getInstance().getAcademicServiceRequestYearsSet().stream().filter(ry -> ry.getYear().intValue() == year)
+                .count();
+    }
+
+    @Test
+    public void testNext_forCommittedYear_reservesBlocks() throws Exception {
+        final AcademicServiceRequestNumberSequence sequence = new AcademicServiceRequestNumberSequence(3);
+        final AcademicServiceRequestYear requestYear = AcademicServiceRequestYear.readByYear(COMMITTED_YEAR, false);
+
+        for (int expected = 1; expected <= 4; expected++) {
+            assertEquals(expected, sequence.next(requestYear));
+        }
+
+        // two blocks were reserved and committed, without creating the year again
+        assertEquals(Integer.valueOf(6), committed(
+                () -> AcademicServiceRequestYear.readByYear(COMMITTED_YEAR, false).getLatestServiceRequestNumber()));
+        assertEquals(Long.valueOf(1), committed(() -> countYears(COMMITTED_YEAR)));
+        assertEquals(0, requestYear.getLatestServiceRequestNumber().intValue());
+    }
+
+    @Test
+    public void testNext_forYearCreatedByCaller_startsAtOneWithoutDuplicatingYear() throws Exception {
+        final AcademicServiceRequestNumberSequence sequence = new AcademicServiceRequestNumberSequence(3);
+        final AcademicServiceRequestYear requestYear = AcademicServiceRequestYear.readByYear(NEW_YEAR, true);
+
+        // the year is not committed yet, so its numbers are generated by this transaction
+        assertEquals(1, sequence.next(requestYear));
+        assertEquals(2, sequence.next(requestYear));
+        assertEquals(2, requestYear.getLatestServiceRequestNumber().intValue());
+        assertEquals(1, countYears(NEW_YEAR));
+        assertSame(requestYear, AcademicServiceRequestYear.readByYear(NEW_YEAR, true));
+        assertNull(committed(() -> AcademicServiceRequestYear.readByYear(NEW_YEAR, false)));
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.fenixedu.academic.domain.student;
+
+import static org.fenixedu.academic.domain.student.curriculum.calculator.util.ConclusionGradeCalculatorTestUtil.approve;
+import static org.fenixedu.academic.domain.student.curriculum.calculator.util.ConclusionGradeCalculatorTestUtil.createStudentCurricularPlan;
+import static org.fenixedu.academic.domain.student.curriculum.calculator.util.ConclusionGradeCalculatorTestUtil.enrol;
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.fenixedu.academic.domain.Enrolment;
+import org.fenixedu.academic.domain.ExecutionCourse;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.student.curriculum.calculator.util.ConclusionGradeCalculatorTestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class RegistrationYearFactsTest {
+
+    private static ExecutionYear executionYear;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            ConclusionGradeCalculatorTestUtil.initData();
+            executionYear = ExecutionYear.readExecutionYearByName("2019/2020");
+            return null;
+        });
+    }
+
+    private static StudentCurricularPlan createEnroledStudentCurricularPlan() throws Exception {
+        return committed(() -> {
+            final StudentCurricularPlan scp = createStudentCurricularPlan(executionYear);
+            enrol(scp, executionYear, "C1", "C2", "C3");
+            return scp;
+        });
+    }
+
+    private static RegistrationYearFacts find(final Registration registration) throws Exception {
+        return committed(() -> RegistrationYearFacts.find(registration, executionYear));
+    }
+
+    private static int getVersion(final Registration registration) throws Exception {
+        return committed(() -> {
+            final Integer version = registration.getFactsVersion();
+            return version == null ? 0 : version.intValue();
+        });
+    }
+
+    @Test
+    public void touch_versionIncrementedOncePerTransaction() throws Exception {
+        final StudentCurricularPlan scp = createEnroledStudentCurricularPlan();
+        final int before = getVersion(scp.getRegistration());
+
+        committed(() -> {
+            approve(scp, "C1", "12");
+            approve(scp, "C2", "15");
+            return null;
+        });
+
+        assertEquals(before + 1, getVersion(scp.getRegistration()));
+    }
+
+    @Test
+    public void find_sharedUntilChangeIsCommitted() throws Exception {
+        final StudentCurricularPlan scp = createEnroledStudentCurricularPlan();
+        final Registration registration = scp.getRegistration();
+        final RegistrationYearFacts facts = find(registration);
+        assertSame(facts, find(registration));
+
+        committed(() -> {
+            approve(scp, "C1", "12");
+            return null;
+        });
+
+        final RegistrationYearFacts changed = find(registration);
+        assertNotSame(facts, changed);
+        assertSame(changed, find(registration));
+        assertEquals(committed(() -> registration.getCurricularYear(executionYear)),
+                committed(() -> changed.getCurricularYear()));
+    }
+
+    @Test
+    public void find_seesChangesOfCurrentTransaction() throws Exception {
+        final StudentCurricularPlan scp = createEnroledStudentCurricularPlan();
+        final Registration registration = scp.getRegistration();
+        final RegistrationYearFacts shared = find(registration);
+
+        approve(scp, "C1", "12");
+        approve(scp, "C2", "15");
+
+        final RegistrationYearFacts facts = RegistrationYearFacts.find(registration, executionYear);
+        assertNotSame(shared, facts);
+        assertEquals(registration.getCurricularYear(executionYear), facts.getCurricularYear());
+        assertSame(shared, find(registration));
+    }
+
+    @Test
+    public void hasEnrolments_enrolmentCommitted_computedAgain() throws Exception {
+        final StudentCurricularPlan scp = committed(() -> createStudentCurricularPlan(executionYear));
+        final Registration registration = scp.getRegistration();
+        assertFalse(committed(() -> RegistrationYearFacts.find(registration, executionYear).hasEnrolments()));
+
+        committed(() -> {
+            enrol(scp, executionYear, "C1");
+            return null;
+        });
+
+        assertTrue(committed(() -> RegistrationYearFacts.find(registration, executionYear).hasEnrolments()));
+    }
+
+    @Test
+    public void getAttendingExecutionCourses_attendsCommitted_computedAgain() throws Exception {
+        final StudentCurricularPlan scp = createEnroledStudentCurricularPlan();
+        final Registration registration = scp.getRegistration();
+        final RegistrationYearFacts facts = find(registration);
+        final Set<ExecutionCourse> before = committed(() -> facts.getAttendingExecutionCourses());
+
+        final ExecutionCourse executionCourse = committed(() -> {
+            final Enrolment enrolment = scp.getEnrolmentsSet().iterator().next();
+            final ExecutionCourse result = new ExecutionCourse("Facts Course", "FACTS", enrolment.getExecutionInterval());
+            enrolment.findOrCreateAttends(result);
+            return result;
+        });
+
+        final RegistrationYearFacts changed = find(registration);
+        assertNotSame(facts, changed);
+        assertFalse(before.contains(executionCourse));
+        assertTrue(committed(() -> changed.getAttendingExecutionCourses().contains(executionCourse)));
+        assertEquals(committed(() -> registration.getAttendingExecutionCoursesFor()),
+                committed(() -> changed.getAttendingExecutionCourses()));
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.fenixedu.academic.domain.student;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.fenixedu.academic.domain.DegreeCurricularPlan;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.Installation;
+import org.fenixedu.academic.domain.Person;
+import org.fenixedu.academic.domain.StudentTest;
+import org.fenixedu.bennu.core.domain.User;
+import org.fenixedu.bennu.core.domain.UserProfile;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class StudentNumberIndexTest {
+
+    private static Registration registration;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            Installation.ensureInstallation();
+            StudentTest.initStudentAndRegistration();
+            registration = Student.readStudentByNumber(1).getRegistrationStream().findAny().orElseThrow();
+            return null;
+        });
+    }
+
+    private static Person createPerson(final String name, final String username) {
+        final UserProfile userProfile = new UserProfile(name, "", name, username + "@fenixedu.com", Locale.getDefault());
+        new User(username, userProfile);
+        return new Person(userProfile);
+    }
+
+    private static int getLastStudentNumber() {
+        final Integer result = Installation.getInstance().getLastStudentNumber();
+        return result == null ? 0 : result.intValue();
+    }
+
+    @Test
+    public void testLastStudentNumber_writtenOnlyForNewNumbers() {
+        final Student generated = new Student(createPerson("test_lastNumber.A", "test_lastNumber.a"));
+        assertEquals(generated.getNumber().intValue(), getLastStudentNumber());
+
+        final Student higher = new Student(createPerson("test_lastNumber.B", "test_lastNumber.b"),
+                generated.getNumber() + 100);
+        assertEquals(higher.getNumber().intValue(), getLastStudentNumber());
+
+        final Student lower = new Student(createPerson("test_lastNumber.C", "test_lastNumber.c"),
+                generated.getNumber() + 50);
+        assertEquals(higher.getNumber().intValue(), getLastStudentNumber());
+        assertEquals(lower, Student.readStudentByNumber(lower.getNumber()));
+
+        assertEquals(Integer.valueOf(higher.getNumber() + 1), Student.generateStudentNumber());
+    }
+
+    @Test
+    public void testFindRegistrations_allRegistrationsOfTheStudent() {
+        final Student student = registration.getStudent();
+        final Set<Registration> registrations = student.getRegistrationsSet();
+
+        assertEquals(registrations, Set.copyOf(StudentNumberIndex.findRegistrations(student.getNumber()).toList()));
+        assertEquals(registrations, Set.copyOf(Registration.readByNumber(student.getNumber())));
+    }
+
+    @Test
+    public void testFindRegistrations_afterChangingStudent() {
+        final DegreeCurricularPlan degreeCurricularPlan = registration.getLastDegreeCurricularPlan();
+        final Student first = new Student(createPerson("test_changeStudent.A", "test_changeStudent.a"));
+        final Student second = new Student(createPerson("test_changeStudent.B", "test_changeStudent.b"));
+        final Registration moved =
+                StudentTest.createRegistration(first, degreeCurricularPlan, ExecutionYear.findCurrent(null));
+
+        moved.setStudent(second);
+        moved.setNumber(second.getNumber());
+
+        assertEquals(List.of(moved), StudentNumberIndex.findRegistrations(second.getNumber()).toList());
+        assertTrue(StudentNumberIndex.findRegistrations(first.getNumber()).findAny().isEmpty());
+    }
+
+    @Test
+    public void testReadAllStudentsBetweenNumbers() {
+        final Student student = new Student(createPerson("test_between.A", "test_between.a"));
+        final Registration created = StudentTest.createRegistration(student, registration.getLastDegreeCurricularPlan(),
+                ExecutionYear.findCurrent(null));
+
+        final List<Registration> found = Registration.readAllStudentsBetweenNumbers(student.getNumber(), student.getNumber());
+        assertEquals(List.of(created), found);
+    }
+
+    @Test
+    public void testReadAllStudentsBetweenNumbers_onlyNumbersInRange() {
+        final DegreeCurricularPlan degreeCurricularPlan = registration.getLastDegreeCurricularPlan();
+        final Student first = new Student(createPerson("test_range.A", "test_range.a"));
+        final Student second = new Student(createPerson("test_range.B", "test_range.b"), first.getNumber() + 10);
+        final Student outside = new Student(createPerson("test_range.C", "test_range.c"), first.getNumber() + 20);
+        final Registration firstRegistration =
+                StudentTest.createRegistration(first, degreeCurricularPlan, ExecutionYear.findCurrent(null));
+        final Registration secondRegistration =
+                StudentTest.createRegistration(second, degreeCurricularPlan, ExecutionYear.findCurrent(null));
+        final Registration renumbered =
+                StudentTest.createRegistration(outside, degreeCurricularPlan, ExecutionYear.findCurrent(null));
+        renumbered.setNumber(first.getNumber() + 5);
+
+        assertEquals(Set.of(firstRegistration, renumbered, secondRegistration),
+                Set.copyOf(Registration.readAllStudentsBetweenNumbers(first.getNumber(), second.getNumber())));
+        assertTrue(Registration.readAllStudentsBetweenNumbers(second.getNumber() + 1, outside.getNumber() - 1).isEmpty());
+    }
+
+}
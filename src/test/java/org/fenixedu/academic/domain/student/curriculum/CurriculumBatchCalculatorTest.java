@@ -0,0 +1,121 @@
+package org.fenixedu.academic.domain.student.curriculum;
+
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.student.curriculum.CurriculumBatchCalculator.CurriculumResult;
+import org.fenixedu.academic.domain.student.curriculum.CurriculumBatchCalculator.Metrics;
+import org.fenixedu.academic.domain.student.curriculum.calculator.util.ConclusionGradeCalculatorTestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class CurriculumBatchCalculatorTest {
+
+    private static ExecutionYear executionYear;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            ConclusionGradeCalculatorTestUtil.initData();
+            executionYear = ExecutionYear.readExecutionYearByName("2019/2020");
+            return null;
+        });
+    }
+
+    // the chunks are calculated by other threads, in transactions of their own, so the registrations must be committed
+    private static List<Registration> createRegistrations() throws Exception {
+        return committed(() -> {
+            final List<Registration> result = new ArrayList<>();
+            final String[][] grades = { { "12", "15", "17" }, { "10", "18" }, {} };
+            for (final String[] approved : grades) {
+                final StudentCurricularPlan scp = ConclusionGradeCalculatorTestUtil.createStudentCurricularPlan(executionYear);
+                ConclusionGradeCalculatorTestUtil.enrol(scp, executionYear, "C1", "C2", "C3");
+                for (int i = 0; i < approved.length; i++) {
+                    ConclusionGradeCalculatorTestUtil.approve(scp, "C" + (i + 1), approved[i]);
+                }
+                result.add(scp.getRegistration());
+            }
+            return result;
+        });
+    }
+
+    @Test
+    public void calculate_sameAsCurriculumOfEachRegistration() throws Exception {
+        final List<Registration> registrations = createRegistrations();
+        final Map<String, CurriculumResult> results = new HashMap<>();
+        final AtomicInteger chunks = new AtomicInteger();
+
+        final Metrics metrics = new CurriculumBatchCalculator(2, 1).calculate(registrations.stream(), executionYear,
+                result -> results.put(result.getRegistrationId(), result), progress -> chunks.incrementAndGet());
+
+        assertTrue(metrics.isFinished());
+        assertEquals(registrations.size(), metrics.getTotal());
+        assertEquals(registrations.size(), metrics.getProcessed());
+        assertEquals(0, metrics.getFailed());
+        assertEquals(registrations.size(), chunks.get());
+        assertEquals(registrations.size(), results.size());
+
+        for (final Registration registration : registrations) {
+            final CurriculumResult result = results.get(registration.getExternalId());
+            assertFalse(result.getError(), result.hasError());
+            committed(() -> {
+                final ICurriculum curriculum = registration.getCurriculum(executionYear);
+                assertEquals(registration.getNumber(), result.getNumber());
+                assertEquals(curriculum.getRawGrade(), result.getRawGrade());
+                assertEquals(curriculum.getFinalGrade(), result.getFinalGrade());
+                assertEquals(curriculum.getSumEctsCredits(), result.getSumEctsCredits());
+                assertEquals(curriculum.getCurricularYear(), result.getCurricularYear());
+                return null;
+            });
+        }
+    }
+
+    @Test
+    public void calculate_chunksLargerThanBatch() throws Exception {
+        final List<Registration> registrations = createRegistrations();
+        final List<CurriculumResult> results = new ArrayList<>();
+
+        final Metrics metrics =
+                new CurriculumBatchCalculator(1, CurriculumBatchCalculator.DEFAULT_CHUNK_SIZE).calculate(registrations.stream(),
+                        executionYear, results::add, null);
+
+        assertEquals(registrations.size(), metrics.getProcessed());
+        assertEquals(registrations.stream().map(Registration::getExternalId).toList(),
+                results.stream().map(CurriculumResult::getRegistrationId).toList());
+    }
+
+    @Test
+    public void calculate_noRegistrations() {
+        final List<CurriculumResult> results = new ArrayList<>();
+
+        final Metrics metrics = new CurriculumBatchCalculator().calculate(List.<Registration> of().stream(), executionYear,
+                results::add, null);
+
+        assertTrue(metrics.isFinished());
+        assertEquals(0, metrics.getTotal());
+        assertEquals(0, metrics.getProcessed());
+        assertTrue(results.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_chunkSizeMustBePositive() {
+        new CurriculumBatchCalculator(1, 0);
+    }
+
+}
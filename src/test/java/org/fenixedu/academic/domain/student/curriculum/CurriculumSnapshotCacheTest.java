@@ -0,0 +1,71 @@
+package org.fenixedu.academic.domain.student.curriculum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.Grade;
+import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.student.curriculum.calculator.util.ConclusionGradeCalculatorTestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class CurriculumSnapshotCacheTest {
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            ConclusionGradeCalculatorTestUtil.initData();
+            return null;
+        });
+    }
+
+    private static Registration createApprovedRegistration() {
+        final ExecutionYear executionYear = ExecutionYear.readExecutionYearByName("2019/2020");
+        final StudentCurricularPlan scp = ConclusionGradeCalculatorTestUtil.createStudentCurricularPlan(executionYear);
+        ConclusionGradeCalculatorTestUtil.enrol(scp, executionYear, "C1", "C2", "C3");
+        ConclusionGradeCalculatorTestUtil.approve(scp, "C1", "12");
+        ConclusionGradeCalculatorTestUtil.approve(scp, "C2", "15");
+        ConclusionGradeCalculatorTestUtil.approve(scp, "C3", "17");
+        return scp.getRegistration();
+    }
+
+    @Test
+    public void getCurriculum_copiesShareComputedValues() {
+        final Registration registration = createApprovedRegistration();
+
+        final Curriculum first = (Curriculum) registration.getCurriculum();
+        final Grade rawGrade = first.getRawGrade();
+        final Integer curricularYear = first.getCurricularYear();
+
+        final Curriculum second = (Curriculum) registration.getCurriculum();
+        assertNotSame(first, second);
+        assertSame(first.getGradeCalculator(), second.getGradeCalculator());
+        assertEquals(rawGrade, second.getRawGrade());
+        assertEquals(curricularYear, second.getCurricularYear());
+    }
+
+    @Test
+    public void getCurriculum_changedCopyDoesNotChangeSnapshot() {
+        final Registration registration = createApprovedRegistration();
+
+        final Curriculum first = (Curriculum) registration.getCurriculum();
+        final Grade rawGrade = first.getRawGrade();
+
+        final Curriculum changed = (Curriculum) registration.getCurriculum();
+        changed.removeFromAllCurriculumEntries(changed.getCurriculumEntries().iterator().next());
+        assertNotSame(first.getGradeCalculator(), changed.getGradeCalculator());
+
+        final Curriculum third = (Curriculum) registration.getCurriculum();
+        assertEquals(first.getCurriculumEntries(), third.getCurriculumEntries());
+        assertEquals(rawGrade, third.getRawGrade());
+    }
+
+}
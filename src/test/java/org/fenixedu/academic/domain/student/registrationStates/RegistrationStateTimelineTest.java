@@ -0,0 +1,108 @@
+package org.fenixedu.academic.domain.student.registrationStates;
+
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.Installation;
+import org.fenixedu.academic.domain.StudentTest;
+import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.student.Student;
+import org.joda.time.DateTime;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class RegistrationStateTimelineTest {
+
+    private static Registration registration;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            Installation.ensureInstallation();
+            StudentTest.initStudentAndRegistration();
+            registration = Student.readStudentByNumber(1).getRegistrationStream().findAny().orElseThrow();
+            return null;
+        });
+    }
+
+    private static Registration createRegistration() throws Exception {
+        return committed(() -> StudentTest.createRegistration(
+                StudentTest.createStudent("Timeline Student", UUID.randomUUID().toString()),
+                registration.getLastDegreeCurricularPlan(), ExecutionYear.findCurrent(null)));
+    }
+
+    private static boolean isListedActive(final Registration registration) throws Exception {
+        return committed(() -> RegistrationStateTimeline.findActiveRegistrations().anyMatch(r -> r == registration));
+    }
+
+    private static int getVersion(final Registration registration) throws Exception {
+        return committed(() -> {
+            final Integer version = registration.getStatesVersion();
+            return version == null ? 0 : version.intValue();
+        });
+    }
+
+    @Test
+    public void findActiveRegistrations_registrationCreatedAfterListing() throws Exception {
+        assertTrue(isListedActive(registration));
+
+        // as when created on another server, whose changes are only seen through the persisted versions of the registrations
+        final int before = getVersion(registration);
+        final Registration created = createRegistration();
+
+        assertEquals(before, getVersion(registration));
+        assertTrue(isListedActive(created));
+        assertTrue(isListedActive(registration));
+    }
+
+    @Test
+    public void findActiveRegistrations_registrationInterruptedAfterListing() throws Exception {
+        final Registration interrupted = createRegistration();
+        assertTrue(isListedActive(interrupted));
+
+        committed(() -> RegistrationState.createRegistrationState(interrupted, null, new DateTime(),
+                RegistrationStateType.findByCode(StudentTest.REGISTRATION_STATE_INTERRUPTED).get(),
+                interrupted.getActiveState().getExecutionInterval()));
+
+        assertFalse(isListedActive(interrupted));
+        assertTrue(isListedActive(registration));
+    }
+
+    @Test
+    public void touch_versionIncrementedOncePerTransaction() throws Exception {
+        final Registration changed = createRegistration();
+        final int before = getVersion(changed);
+
+        committed(() -> {
+            RegistrationState.createRegistrationState(changed, null, new DateTime(),
+                    RegistrationStateType.findByCode(StudentTest.REGISTRATION_STATE_INTERRUPTED).get(),
+                    changed.getActiveState().getExecutionInterval());
+            return RegistrationState.createRegistrationState(changed, null, new DateTime().plusMinutes(1),
+                    RegistrationStateType.findByCode(StudentTest.REGISTRATION_STATE_INTERRUPTED).get(),
+                    changed.getActiveState().getExecutionInterval());
+        });
+
+        assertEquals(before + 1, getVersion(changed));
+        assertFalse(isListedActive(changed));
+    }
+
+    @Test
+    public void findActiveRegistrations_seesChangesOfCurrentTransaction() {
+        final Registration created = StudentTest.createRegistration(
+                StudentTest.createStudent("Timeline Student", UUID.randomUUID().toString()),
+                registration.getLastDegreeCurricularPlan(), ExecutionYear.findCurrent(null));
+
+        assertTrue(RegistrationStateTimeline.findActiveRegistrations().anyMatch(r -> r == created));
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.fenixedu.academic.domain.studentCurriculum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.fenixedu.academic.domain.CurricularCourse;
+import org.fenixedu.academic.domain.DegreeCurricularPlan;
+import org.fenixedu.academic.domain.ExecutionInterval;
+import org.fenixedu.academic.domain.ExecutionYear;
+import org.fenixedu.academic.domain.StudentCurricularPlan;
+import org.fenixedu.academic.domain.StudentTest;
+import org.fenixedu.academic.domain.curricularRules.util.ConclusionRulesTestUtil;
+import org.fenixedu.academic.domain.student.Registration;
+import org.fenixedu.academic.domain.student.Student;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class CurriculumLineIndexTest {
+
+    private static final String STUDENT_USERNAME = "curriculum.line.index.test.student";
+    private static StudentCurricularPlan studentCurricularPlan;
+    private static ExecutionYear executionYear;
+    private static List<CurricularCourse> curricularCourses;
+    private static List<ExecutionInterval> executionIntervals;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            initData();
+            return null;
+        });
+    }
+
+    private static void initData() {
+        /**
+         *   Root -> Cycle -> Mandatory (C1: 1Y1S, C2: 1Y2S, C3: 2Y1S)
+         *                -> Optional  (C4: 2Y1S, C5: 2Y1S)
+         *
+         *   C1: enrolled + approved, C2 and C3: enrolled, C4: equivalence dismissal, C5: not enrolled
+         */
+        ConclusionRulesTestUtil.initData();
+        executionYear = ExecutionYear.findCurrent(null);
+        executionIntervals = List.of(executionYear.getFirstExecutionPeriod(), executionYear.getLastExecutionPeriod());
+
+        final DegreeCurricularPlan dcp = ConclusionRulesTestUtil.createDegreeCurricularPlan(executionYear);
+        curricularCourses = List.of("C1", "C2", "C3", "C4", "C5").stream().map(dcp::getCurricularCourseByCode)
+                .collect(Collectors.toList());
+
+        final Student student = StudentTest.createStudent("Curriculum Line Index Test Student", STUDENT_USERNAME);
+        final Registration registration = StudentTest.createRegistration(student, dcp, executionYear);
+        studentCurricularPlan = registration.getLastStudentCurricularPlan();
+
+        ConclusionRulesTestUtil.enrol(studentCurricularPlan, executionYear, "C1", "C2", "C3");
+        ConclusionRulesTestUtil.approve(studentCurricularPlan, "C1");
+        ConclusionRulesTestUtil.createEquivalence(studentCurricularPlan, executionYear, "C4");
+    }
+
+    /*
+     * The root curriculum group answers through the index, its children still walk the tree as before
+     */
+    private static void assertSameAsTreeTraversal() {
+        final RootCurriculumGroup root = studentCurricularPlan.getRoot();
+        for (final CurricularCourse curricularCourse : curricularCourses) {
+            for (final ExecutionInterval executionInterval : executionIntervals) {
+                assertEquals(root.getCurriculumModulesSet().stream().anyMatch(cm -> cm.isApproved(curricularCourse,
+                        executionInterval)), root.isApproved(curricularCourse, executionInterval));
+                assertEquals(root.getCurriculumModulesSet().stream().anyMatch(cm -> cm.isEnroledInExecutionPeriod(
+                        curricularCourse, executionInterval)), root.isEnroledInExecutionPeriod(curricularCourse,
+                                executionInterval));
+                assertEquals(root.getCurriculumModulesSet().stream()
+                        .map(cm -> cm.findEnrolmentFor(curricularCourse, executionInterval)).filter(Objects::nonNull)
+                        .findFirst().orElse(null), root.findEnrolmentFor(curricularCourse, executionInterval));
+            }
+
+            assertEquals(root.getCurriculumModulesSet().stream().map(cm -> cm.getApprovedCurriculumLine(curricularCourse))
+                    .filter(Objects::nonNull).findFirst().orElse(null), root.getApprovedCurriculumLine(curricularCourse));
+            assertEquals(studentCurricularPlan.getEnrolmentsSet().stream()
+                    .filter(e -> e.getCurricularCourse() == curricularCourse).collect(Collectors.toSet()),
+                    new HashSet<>(studentCurricularPlan.getEnrolments(curricularCourse)));
+        }
+    }
+
+    @Test
+    public void testQueries_matchTreeTraversal() {
+        assertSameAsTreeTraversal();
+
+        assertTrue(studentCurricularPlan.getRoot().isApproved(curricularCourses.get(0), null));
+        assertTrue(studentCurricularPlan.getRoot().isApproved(curricularCourses.get(3), null));
+        assertFalse(studentCurricularPlan.getRoot().isApproved(curricularCourses.get(4), null));
+    }
+
+    @Test
+    public void testQueries_afterNewEnrolment_matchTreeTraversal() {
+        assertSameAsTreeTraversal();
+
+        // the index was built before the enrolment, which creates a line in the same transaction
+        ConclusionRulesTestUtil.enrol(studentCurricularPlan, executionYear, "C5");
+        assertEquals(1, studentCurricularPlan.getEnrolments(curricularCourses.get(4)).size());
+        assertSameAsTreeTraversal();
+    }
+
+    @Test
+    public void testQueries_afterEvaluationChanges_matchTreeTraversal() {
+        assertSameAsTreeTraversal();
+
+        // approvals are read from the lines, so they do not need to rebuild the index
+        ConclusionRulesTestUtil.approve(studentCurricularPlan, "C2");
+        assertTrue(studentCurricularPlan.getRoot().isApproved(curricularCourses.get(1), null));
+        assertSameAsTreeTraversal();
+
+        ConclusionRulesTestUtil.annul(studentCurricularPlan, executionYear, "C3");
+        assertSameAsTreeTraversal();
+    }
+
+}
@@ -0,0 +1,240 @@
+package org.fenixedu.academic.domain.time.calendarStructure;
+
+import static org.fenixedu.academic.domain.util.TransactionUtil.committed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.fenixedu.academic.domain.ExecutionIntervalTest;
+import org.fenixedu.commons.i18n.LocalizedString;
+import org.joda.time.DateTime;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class AcademicCalendarTimelineTest {
+
+    private static final List<AcademicPeriod> PERIODS = List.of(AcademicPeriod.YEAR, AcademicPeriod.SEMESTER);
+
+    private static record Fixture(AcademicCalendarRootEntry root, AcademicYearCE first, AcademicYearCE overlapping,
+            AcademicYearCE adjacent) {
+    }
+
+    private static Fixture fixture;
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            ExecutionIntervalTest.initRootCalendarAndExecutionYears();
+            fixture = createFixture("Timeline");
+            return null;
+        });
+    }
+
+    private static LocalizedString title(final String title) {
+        return new LocalizedString().with(Locale.getDefault(), title);
+    }
+
+    private static AcademicYearCE createYear(final AcademicCalendarRootEntry root, final String title, final DateTime begin,
+            final DateTime end) {
+        return new AcademicYearCE(root, title(title), null, begin, end, root);
+    }
+
+    private static AcademicIntervalCE createSemester(final AcademicYearCE year, final String title, final DateTime begin,
+            final DateTime end) {
+        return new AcademicIntervalCE(AcademicPeriod.SEMESTER, year, title(title), null, begin, end, year.getRootEntry());
+    }
+
+    /*
+     * A year with two semesters, a year overlapping its end, and a year beginning at the instant the overlapping year ends,
+     * along with its first semester
+     */
+    private static Fixture createFixture(final String name) {
+        final AcademicCalendarRootEntry root = new AcademicCalendarRootEntry(title(name + " Calendar"), null);
+
+        final AcademicYearCE first =
+                createYear(root, name + " 2101/2102", new DateTime(2101, 9, 1, 0, 0, 0), new DateTime(2102, 8, 31, 0, 0, 0));
+        createSemester(first, name + " 1st Semester", new DateTime(2101, 9, 1, 0, 0, 0), new DateTime(2102, 1, 31, 23, 59, 59));
+        createSemester(first, name + " 2nd Semester", new DateTime(2102, 2, 1, 0, 0, 0), new DateTime(2102, 8, 31, 0, 0, 0));
+
+        final AcademicYearCE overlapping = createYear(root, name + " 2102/2103", new DateTime(2102, 6, 1, 0, 0, 0),
+                new DateTime(2103, 5, 31, 0, 0, 0));
+
+        final AcademicYearCE adjacent = createYear(root, name + " 2103/2104", new DateTime(2103, 5, 31, 0, 0, 0),
+                new DateTime(2104, 5, 31, 0, 0, 0));
+        createSemester(adjacent, name + " 1st Semester", new DateTime(2103, 5, 31, 0, 0, 0),
+                new DateTime(2103, 12, 31, 0, 0, 0));
+
+        return new Fixture(root, first, overlapping, adjacent);
+    }
+
+    /*
+     * The answers of walking the calendar tree, which is what the calendar did before the timeline
+     */
+
+    private static AcademicCalendarEntry walkEntryByInstant(final AcademicCalendarRootEntry root, final long instant,
+            final AcademicPeriod academicPeriod) {
+        AcademicCalendarEntry result = null;
+        for (final AcademicCalendarEntry entry : root.getAllChildEntries(academicPeriod)) {
+            if (entry.containsInstant(instant)) {
+                result = result == null || entry.getBegin().isAfter(result.getBegin()) ? entry : result;
+            }
+        }
+        return result;
+    }
+
+    private static Integer walkEntryIndexByInstant(final AcademicCalendarRootEntry root, final long instant,
+            final AcademicPeriod academicPeriod) {
+        Integer counter = null;
+        for (final AcademicCalendarEntry entry : root.getAllChildEntries(academicPeriod)) {
+            if (entry.containsInstant(instant) || entry.getEnd().isBefore(instant)) {
+                counter = counter == null ? 1 : counter.intValue() + 1;
+            }
+        }
+        return counter;
+    }
+
+    private static AcademicCalendarEntry walkEntryByIndex(final AcademicCalendarRootEntry root, final int index,
+            final AcademicPeriod academicPeriod) {
+        final List<AcademicCalendarEntry> entries = root.getAllChildEntries(academicPeriod);
+        Collections.sort(entries, AcademicCalendarEntry.COMPARATOR_BY_BEGIN_DATE);
+        return index > 0 && index <= entries.size() ? entries.get(index - 1) : null;
+    }
+
+    private static AcademicCalendarEntry walkNextEntry(final AcademicCalendarEntry entry) {
+        AcademicCalendarEntry closest = null;
+        for (final AcademicCalendarEntry other : entry.getRootEntry().getAllChildEntries(entry.getAcademicPeriod())) {
+            if (other.getBegin().isAfter(entry.getBegin())
+                    && (closest == null || other.getBegin().isBefore(closest.getBegin()))) {
+                closest = other;
+            }
+        }
+        return closest;
+    }
+
+    private static AcademicCalendarEntry walkPreviousEntry(final AcademicCalendarEntry entry) {
+        AcademicCalendarEntry closest = null;
+        for (final AcademicCalendarEntry other : entry.getRootEntry().getAllChildEntries(entry.getAcademicPeriod())) {
+            if (other.getBegin().isBefore(entry.getBegin())
+                    && (closest == null || other.getBegin().isAfter(closest.getBegin()))) {
+                closest = other;
+            }
+        }
+        return closest;
+    }
+
+    private static int walkCardinality(final AcademicCalendarEntry entry) {
+        return entry.getParentEntry().getChildEntriesSet().stream()
+                .filter(e -> e.getAcademicPeriod().equals(entry.getAcademicPeriod()))
+                .sorted(AcademicCalendarEntry.COMPARATOR_BY_BEGIN_DATE).toList().indexOf(entry) + 1;
+    }
+
+    // the begin and end of every entry, the instants around them, and instants before and after all of them
+    private static List<Long> instantsOf(final AcademicCalendarRootEntry root) {
+        final List<Long> result = new ArrayList<>();
+        result.add(new DateTime(2000, 1, 1, 0, 0, 0).getMillis());
+        result.add(new DateTime(2200, 1, 1, 0, 0, 0).getMillis());
+        for (final AcademicPeriod academicPeriod : PERIODS) {
+            for (final AcademicCalendarEntry entry : root.getAllChildEntries(academicPeriod)) {
+                final long begin = entry.getBegin().getMillis();
+                final long end = entry.getEnd().getMillis();
+                result.addAll(List.of(begin - 1, begin, begin + 1, (begin + end) / 2, end - 1, end, end + 1));
+            }
+        }
+        return result;
+    }
+
+    private static void assertSameAsWalk(final AcademicCalendarRootEntry root) {
+        for (final AcademicPeriod academicPeriod : PERIODS) {
+            for (final long instant : instantsOf(root)) {
+                assertSame(walkEntryByInstant(root, instant, academicPeriod), root.getEntryByInstant(instant, academicPeriod));
+                assertEquals(walkEntryIndexByInstant(root, instant, academicPeriod),
+                        root.getEntryIndexByInstant(instant, academicPeriod));
+            }
+
+            final List<AcademicCalendarEntry> entries = root.getAllChildEntries(academicPeriod);
+            for (int index = 0; index <= entries.size() + 1; index++) {
+                assertSame(walkEntryByIndex(root, index, academicPeriod), root.getEntryByIndex(index, academicPeriod));
+            }
+            for (final AcademicCalendarEntry entry : entries) {
+                assertSame(walkNextEntry(entry), entry.getNextAcademicCalendarEntry());
+                assertSame(walkPreviousEntry(entry), entry.getPreviousAcademicCalendarEntry());
+                assertEquals(walkCardinality(entry), entry.getCardinality());
+            }
+        }
+    }
+
+    @Test
+    public void testTimeline_sameAsWalk() {
+        assertNotNull(AcademicCalendarTimeline.find(fixture.root()));
+        assertSameAsWalk(fixture.root());
+    }
+
+    @Test
+    public void testGetEntryByInstant_overlappingPeriods_latestBeginFound() {
+        final long instant = new DateTime(2102, 7, 1, 0, 0, 0).getMillis();
+
+        assertSame(fixture.overlapping(), fixture.root().getEntryByInstant(instant, AcademicPeriod.YEAR));
+        assertEquals(Integer.valueOf(2), fixture.root().getEntryIndexByInstant(instant, AcademicPeriod.YEAR));
+        assertSame(fixture.overlapping(), fixture.first().getNextAcademicCalendarEntry());
+    }
+
+    @Test
+    public void testGetEntryByInstant_sharedBoundary_entryBeginningThereFound() {
+        final long boundary = fixture.adjacent().getBegin().getMillis();
+
+        assertSame(fixture.adjacent(), fixture.root().getEntryByInstant(boundary, AcademicPeriod.YEAR));
+        assertSame(fixture.overlapping(), fixture.root().getEntryByInstant(boundary - 1, AcademicPeriod.YEAR));
+        assertEquals(Integer.valueOf(3), fixture.root().getEntryIndexByInstant(boundary, AcademicPeriod.YEAR));
+        assertEquals(Integer.valueOf(2), fixture.root().getEntryIndexByInstant(boundary - 1, AcademicPeriod.YEAR));
+    }
+
+    @Test
+    public void testTimeline_calendarEditedInSameTransaction() throws Exception {
+        final Fixture edited = committed(() -> createFixture("Edited"));
+        assertNotNull(AcademicCalendarTimeline.find(edited.root()));
+
+        edited.overlapping().edit(title("Edited 2104/2105"), null, new DateTime(2104, 6, 1, 0, 0, 0),
+                new DateTime(2105, 5, 31, 0, 0, 0), edited.root());
+
+        // the transaction that changed the calendar walks the tree, so it sees its own change
+        assertNull(AcademicCalendarTimeline.find(edited.root()));
+        assertSame(edited.first(),
+                edited.root().getEntryByInstant(new DateTime(2102, 7, 1, 0, 0, 0).getMillis(), AcademicPeriod.YEAR));
+        assertSame(edited.overlapping(),
+                edited.root().getEntryByInstant(new DateTime(2104, 7, 1, 0, 0, 0).getMillis(), AcademicPeriod.YEAR));
+        assertSame(edited.overlapping(), edited.adjacent().getNextAcademicCalendarEntry());
+        assertSameAsWalk(edited.root());
+    }
+
+    @Test
+    public void testTimeline_calendarEditCommitted_builtAgain() throws Exception {
+        final Fixture edited = committed(() -> createFixture("Committed"));
+        final AcademicCalendarTimeline before = committed(() -> AcademicCalendarTimeline.find(edited.root()));
+
+        committed(() -> edited.overlapping().edit(title("Committed 2104/2105"), null, new DateTime(2104, 6, 1, 0, 0, 0),
+                new DateTime(2105, 5, 31, 0, 0, 0), edited.root()));
+
+        final AcademicCalendarTimeline after = committed(() -> AcademicCalendarTimeline.find(edited.root()));
+        assertNotNull(after);
+        assertNotSame(before, after);
+        assertSame(edited.overlapping(), committed(() -> edited.root()
+                .getEntryByInstant(new DateTime(2104, 7, 1, 0, 0, 0).getMillis(), AcademicPeriod.YEAR)));
+        committed(() -> {
+            assertSameAsWalk(edited.root());
+            return null;
+        });
+    }
+
+}
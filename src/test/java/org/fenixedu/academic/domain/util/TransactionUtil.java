@@ -0,0 +1,23 @@
+package org.fenixedu.academic.domain.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import pt.ist.fenixframework.FenixFramework;
+
+public abstract class TransactionUtil {
+
+    /**
+     * Runs the supplier in a transaction of its own, in another thread, so that its changes are committed before the test
+     * goes on, and it sees what a transaction started after the test transaction sees.
+     */
+    public static <T> T committed(final Supplier<T> supplier) throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> FenixFramework.getTransactionManager().withTransaction(() -> supplier.get())).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
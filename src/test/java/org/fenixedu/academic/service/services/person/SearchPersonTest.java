@@ -0,0 +1,65 @@
+package org.fenixedu.academic.service.services.person;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.fenixedu.academic.domain.Person;
+import org.fenixedu.academic.util.CollectionPager;
+import org.fenixedu.bennu.core.domain.User;
+import org.fenixedu.bennu.core.domain.UserProfile;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.FenixFrameworkRunner;
+
+import pt.ist.fenixframework.FenixFramework;
+
+@RunWith(FenixFrameworkRunner.class)
+public class SearchPersonTest {
+
+    private static final int PERSONS = 30;
+
+    private static final List<Person> persons = new ArrayList<>();
+
+    @BeforeClass
+    public static void init() {
+        FenixFramework.getTransactionManager().withTransaction(() -> {
+            // created out of order, so that the pages must be sorted
+            for (int i = PERSONS; i > 0; i--) {
+                final String name = String.format("Fitzgerald Pager %02d", i);
+                final UserProfile userProfile =
+                        new UserProfile(name, "", name, "search.pager." + i + "@fenixedu.com", Locale.getDefault());
+                new User("search.pager." + i, userProfile);
+                persons.add(new Person(userProfile));
+            }
+            persons.sort(Person.COMPARATOR_BY_NAME_AND_ID);
+            return null;
+        });
+    }
+
+    private static CollectionPager<Person> search(final String name) {
+        final SearchPerson.SearchParameters parameters = new SearchPerson.SearchParameters();
+        parameters.setName(name);
+        return new SearchPerson().run(parameters, person -> true);
+    }
+
+    @Test
+    public void run_pagesFollowNameOrder() {
+        final CollectionPager<Person> pager = search("fitzgerald pager");
+
+        assertEquals(2, pager.getNumberOfPages());
+        assertEquals(persons.subList(0, 25), new ArrayList<>(pager.getPage(1)));
+        assertEquals(persons.subList(25, PERSONS), new ArrayList<>(pager.getPage(2)));
+        assertEquals(List.of(), new ArrayList<>(pager.getPage(3)));
+        assertEquals(persons, new ArrayList<>(pager.getCollection()));
+    }
+
+    @Test
+    public void run_emptyParameters() {
+        assertEquals(List.of(), new ArrayList<>(search(null).getCollection()));
+    }
+
+}
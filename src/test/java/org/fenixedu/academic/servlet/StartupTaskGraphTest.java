@@ -0,0 +1,141 @@
+package org.fenixedu.academic.servlet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.fenixedu.academic.servlet.StartupTaskGraph.TaskMetrics;
+import org.junit.Test;
+
+public class StartupTaskGraphTest {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private static Runnable sleep(final long millis) {
+        return () -> {
+            try {
+                Thread.sleep(millis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    // warm-up tasks may still be running when startup returns
+    private static TaskMetrics awaitMetrics(final String name) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            for (final TaskMetrics metrics : StartupTaskGraph.getMetrics()) {
+                if (metrics.name().equals(name)) {
+                    return metrics;
+                }
+            }
+            Thread.sleep(10);
+        }
+        return null;
+    }
+
+    @Test
+    public void run_dependenciesDoneBeforeDependents() {
+        final List<String> done = new CopyOnWriteArrayList<>();
+
+        new StartupTaskGraph().task("a", () -> {
+            sleep(50).run();
+            done.add("a");
+        }).task("b", () -> done.add("b")).task("c", () -> done.add("c"), "a", "b").task("d", () -> done.add("d"), "c")
+                .run(4);
+
+        assertEquals(4, done.size());
+        assertTrue(done.indexOf("a") < done.indexOf("c"));
+        assertTrue(done.indexOf("b") < done.indexOf("c"));
+        assertEquals("d", done.get(3));
+        assertTrue(StartupTaskGraph.getStartupMillis() >= 0);
+        assertEquals(4, StartupTaskGraph.getMetrics().size());
+    }
+
+    @Test
+    public void run_independentTasksRunInParallel() {
+        final CountDownLatch started = new CountDownLatch(2);
+        final AtomicBoolean overlapped = new AtomicBoolean(true);
+        final Runnable awaitOther = () -> {
+            started.countDown();
+            try {
+                if (!started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    overlapped.set(false);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        new StartupTaskGraph().task("a", awaitOther).task("b", awaitOther).run(2);
+
+        assertTrue(overlapped.get());
+        assertEquals(2, StartupTaskGraph.getMetrics().stream().map(TaskMetrics::thread).distinct().count());
+    }
+
+    @Test
+    public void run_requiredTaskFails_startupFailsAndDependentsNotRun() {
+        final IllegalStateException failure = new IllegalStateException("failed");
+        final AtomicBoolean dependentRun = new AtomicBoolean();
+        final AtomicBoolean independentRun = new AtomicBoolean();
+        final StartupTaskGraph graph = new StartupTaskGraph().task("failing", () -> {
+            throw failure;
+        }).task("dependent", () -> dependentRun.set(true), "failing").task("independent", () -> independentRun.set(true));
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> graph.run(2)));
+
+        assertFalse(dependentRun.get());
+        assertTrue(independentRun.get());
+        assertEquals(-1, StartupTaskGraph.getStartupMillis());
+        assertTrue(StartupTaskGraph.getMetrics().stream()
+                .anyMatch(metrics -> metrics.name().equals("failing") && metrics.error() != null));
+    }
+
+    @Test
+    public void run_warmUpFails_onlyRecorded() throws InterruptedException {
+        new StartupTaskGraph().task("required", sleep(0)).warmUp("failing", () -> {
+            throw new IllegalStateException("failed");
+        }, "required").warmUp("last", sleep(0), "required").run(2);
+
+        assertTrue(StartupTaskGraph.getStartupMillis() >= 0);
+        final TaskMetrics failing = awaitMetrics("failing");
+        assertNotNull(failing);
+        assertTrue(failing.warmUp());
+        assertNotNull(failing.error());
+        final TaskMetrics last = awaitMetrics("last");
+        assertNotNull(last);
+        assertNull(last.error());
+    }
+
+    @Test
+    public void task_unknownDependency_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new StartupTaskGraph().task("a", sleep(0), "b"));
+    }
+
+    @Test
+    public void task_duplicateName_rejected() {
+        final StartupTaskGraph graph = new StartupTaskGraph().task("a", sleep(0));
+
+        assertThrows(IllegalArgumentException.class, () -> graph.warmUp("a", sleep(0)));
+    }
+
+    @Test
+    public void task_dependsOnWarmUp_rejected() {
+        final StartupTaskGraph graph = new StartupTaskGraph().warmUp("a", sleep(0));
+
+        assertThrows(IllegalArgumentException.class, () -> graph.task("b", sleep(0), "a"));
+        graph.warmUp("c", sleep(0), "a");
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.fenixedu.academic.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CompactIntSetTest {
+
+    @Test
+    public void addAndContains() {
+        final CompactIntSet set = new CompactIntSet();
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(2023000001));
+
+        assertTrue(set.contains(5));
+        assertTrue(set.contains(2023000001));
+        assertFalse(set.contains(6));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    public void last_returnsHighestValueOrMinusOne() {
+        final CompactIntSet set = new CompactIntSet();
+        assertEquals(-1, set.last());
+
+        set.add(10);
+        set.add(70000);
+        set.add(3);
+        assertEquals(70000, set.last());
+
+        set.remove(70000);
+        assertEquals(10, set.last());
+    }
+
+    @Test
+    public void floor_crossesBlocks() {
+        final CompactIntSet set = new CompactIntSet();
+        set.add(100);
+        set.add(200000);
+
+        assertEquals(100, set.floor(199999));
+        assertEquals(200000, set.floor(200000));
+        assertEquals(-1, set.floor(99));
+    }
+
+    @Test
+    public void forEachInRange_isInclusiveAndOrdered() {
+        final CompactIntSet set = new CompactIntSet();
+        set.add(65535);
+        set.add(65536);
+        set.add(1);
+        set.add(131072);
+        set.add(500000);
+
+        final List<Integer> values = new ArrayList<>();
+        set.forEachInRange(1, 131072, values::add);
+
+        assertEquals(List.of(1, 65535, 65536, 131072), values);
+    }
+
+    @Test
+    public void setOperations_doNotChangeOperands() {
+        final CompactIntSet left = new CompactIntSet();
+        left.add(1);
+        left.add(2);
+        left.add(70000);
+
+        final CompactIntSet right = new CompactIntSet();
+        right.add(2);
+        right.add(70000);
+        right.add(200000);
+
+        assertEquals(List.of(2, 70000), toList(left.and(right)));
+        assertEquals(List.of(1, 2, 70000, 200000), toList(left.or(right)));
+        assertEquals(List.of(1), toList(left.andNot(right)));
+        assertEquals(2, left.and(right).size());
+
+        assertEquals(List.of(1, 2, 70000), toList(left));
+        assertEquals(List.of(2, 70000, 200000), toList(right));
+    }
+
+    private static List<Integer> toList(final CompactIntSet set) {
+        final List<Integer> result = new ArrayList<>();
+        set.forEach(result::add);
+        return result;
+    }
+
+}